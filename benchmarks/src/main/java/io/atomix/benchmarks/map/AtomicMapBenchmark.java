@@ -0,0 +1,272 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.atomix.benchmarks.map;
+
+import com.google.common.collect.Maps;
+import io.atomix.cluster.BootstrapService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.MembershipConfig;
+import io.atomix.cluster.Node;
+import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
+import io.atomix.cluster.impl.DefaultClusterMembershipService;
+import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
+import io.atomix.cluster.messaging.BroadcastService;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.core.map.AsyncAtomicMap;
+import io.atomix.core.map.AtomicMapType;
+import io.atomix.core.map.impl.AtomicMapProxy;
+import io.atomix.core.map.impl.AtomicMapService;
+import io.atomix.primitive.PrimitiveInfo;
+import io.atomix.primitive.PrimitiveRegistry;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.partition.PartitionId;
+import io.atomix.primitive.partition.Partitioner;
+import io.atomix.primitive.proxy.ProxyClient;
+import io.atomix.primitive.proxy.impl.DefaultProxyClient;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.protocols.raft.MultiRaftProtocol;
+import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.test.protocol.LocalRaftProtocolFactory;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadModel;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
+import io.atomix.utils.time.Versioned;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end atomic map benchmark.
+ * <p>
+ * Runs a three node Raft cluster in process over the local Raft protocol and drives an {@link AtomicMapProxy}
+ * against it, so the measurement covers the client session, command replication, the log and the map state
+ * machine without any network transport.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public class AtomicMapBenchmark {
+  private static final int NUM_SERVERS = 3;
+  private static final PartitionId PARTITION_ID = PartitionId.from("benchmark", 1);
+
+  @Param({"MEMORY", "MAPPED"})
+  private StorageLevel storageLevel;
+
+  @Param({"1000"})
+  private int numKeys;
+
+  @Param({"128"})
+  private int valueSize;
+
+  private Path directory;
+  private final List<RaftServer> servers = new ArrayList<>();
+  private RaftClient client;
+  private AsyncAtomicMap<String, byte[]> map;
+  private String[] keys;
+  private byte[] value;
+
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("atomix-map-benchmark");
+    LocalRaftProtocolFactory protocolFactory = new LocalRaftProtocolFactory(Serializer.using(RaftNamespaces.RAFT_PROTOCOL));
+
+    List<Member> members = new ArrayList<>();
+    for (int i = 1; i <= NUM_SERVERS; i++) {
+      members.add(Member.builder(MemberId.from(String.valueOf(i)))
+          .withAddress(Address.from("localhost", 5000 + i))
+          .build());
+    }
+    List<MemberId> memberIds = members.stream().map(Member::id).collect(Collectors.toList());
+
+    List<CompletableFuture<RaftServer>> futures = new ArrayList<>();
+    for (Member member : members) {
+      RaftServer server = createServer(member, members, protocolFactory);
+      servers.add(server);
+      futures.add(server.bootstrap(memberIds));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+
+    client = RaftClient.builder()
+        .withMemberId(MemberId.from("client"))
+        .withPartitionId(PARTITION_ID)
+        .withProtocol(protocolFactory.newClientProtocol(MemberId.from("client")))
+        .withThreadModel(ThreadModel.SHARED_THREAD_POOL)
+        .build();
+    client.connect(memberIds).join();
+
+    ProxyClient<AtomicMapService> proxy = new DefaultProxyClient<>(
+        "atomic-map-benchmark",
+        AtomicMapType.instance(),
+        MultiRaftProtocol.builder().build(),
+        AtomicMapService.class,
+        Collections.singletonList(client.sessionBuilder("atomic-map-benchmark", AtomicMapType.instance(), new ServiceConfig()).build()),
+        Partitioner.MURMUR3);
+    proxy.connect().join();
+    map = new AtomicMapProxy(proxy, new LocalPrimitiveRegistry()).connect().join();
+
+    keys = new String[numKeys];
+    value = new byte[valueSize];
+    new Random().nextBytes(value);
+    for (int i = 0; i < numKeys; i++) {
+      keys[i] = "key-" + i;
+      map.put(keys[i], value).join();
+    }
+  }
+
+  @TearDown
+  public void teardown() throws IOException {
+    map.close().join();
+    client.close().join();
+    servers.forEach(server -> server.shutdown().join());
+    Files.walk(directory)
+        .sorted(Comparator.reverseOrder())
+        .map(Path::toFile)
+        .forEach(File::delete);
+  }
+
+  @Benchmark
+  public Versioned<byte[]> put() {
+    return map.put(randomKey(), value).join();
+  }
+
+  @Benchmark
+  public Versioned<byte[]> get() {
+    return map.get(randomKey()).join();
+  }
+
+  @Benchmark
+  public boolean replace() {
+    String key = randomKey();
+    Versioned<byte[]> current = map.get(key).join();
+    return map.replace(key, current.version(), value).join();
+  }
+
+  private String randomKey() {
+    return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+  }
+
+  private RaftServer createServer(Member member, List<Member> members, LocalRaftProtocolFactory protocolFactory) {
+    BootstrapService bootstrapService = new BootstrapService() {
+      @Override
+      public MessagingService getMessagingService() {
+        return null;
+      }
+
+      @Override
+      public BroadcastService getBroadcastService() {
+        return new NoOpBroadcastService();
+      }
+    };
+
+    return RaftServer.builder(member.id())
+        .withProtocol(protocolFactory.newServerProtocol(member.id()))
+        .withThreadModel(ThreadModel.SHARED_THREAD_POOL)
+        .withMembershipService(new DefaultClusterMembershipService(
+            member,
+            new DefaultNodeDiscoveryService(bootstrapService, member, new BootstrapDiscoveryProvider(new ArrayList<Node>(members))),
+            bootstrapService,
+            new MembershipConfig()))
+        .withStorage(RaftStorage.builder()
+            .withStorageLevel(storageLevel)
+            .withDirectory(new File(directory.toFile(), member.id().id()))
+            .withSerializer(Serializer.using(RaftNamespaces.RAFT_STORAGE))
+            .build())
+        .build();
+  }
+
+  /**
+   * Primitive registry that tracks primitives in memory.
+   */
+  private static class LocalPrimitiveRegistry implements PrimitiveRegistry {
+    private final Map<String, PrimitiveInfo> primitives = Maps.newConcurrentMap();
+
+    @Override
+    public CompletableFuture<PrimitiveInfo> createPrimitive(String name, PrimitiveType type) {
+      PrimitiveInfo info = new PrimitiveInfo(name, type);
+      primitives.put(name, info);
+      return CompletableFuture.completedFuture(info);
+    }
+
+    @Override
+    public Collection<PrimitiveInfo> getPrimitives() {
+      return primitives.values();
+    }
+
+    @Override
+    public Collection<PrimitiveInfo> getPrimitives(PrimitiveType primitiveType) {
+      return primitives.values().stream()
+          .filter(info -> info.type().name().equals(primitiveType.name()))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    public PrimitiveInfo getPrimitive(String name) {
+      return primitives.get(name);
+    }
+  }
+
+  /**
+   * Broadcast service that drops all messages.
+   */
+  private static class NoOpBroadcastService implements BroadcastService {
+    @Override
+    public void broadcast(String subject, byte[] message) {
+    }
+
+    @Override
+    public void addListener(String subject, Consumer<byte[]> listener) {
+    }
+
+    @Override
+    public void removeListener(String subject, Consumer<byte[]> listener) {
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.atomix.benchmarks.messaging;
+
+import io.atomix.cluster.messaging.impl.InternalMessage;
+import io.atomix.cluster.messaging.impl.InternalReply;
+import io.atomix.cluster.messaging.impl.InternalRequest;
+import io.atomix.cluster.messaging.impl.MessageDecoder;
+import io.atomix.cluster.messaging.impl.MessageEncoder;
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty message codec benchmark.
+ * <p>
+ * Drives the {@link MessageEncoder} and {@link MessageDecoder} through embedded channels so the codec is measured
+ * without any socket I/O. The channels are reused across invocations, so the sender address is only written once
+ * as it is on a real connection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MessageCodecBenchmark {
+  private static final int PREAMBLE = 0x1234;
+  private static final String SUBJECT = "raft-partition-1-append";
+
+  @Param({"128", "4096"})
+  private int payloadSize;
+
+  private EmbeddedChannel encoder;
+  private EmbeddedChannel decoder;
+  private byte[] payload;
+  private long messageId;
+
+  @Setup
+  public void setup() {
+    encoder = new EmbeddedChannel(new MessageEncoder(Address.from("localhost", 5000), PREAMBLE));
+    decoder = new EmbeddedChannel(new MessageDecoder());
+    payload = new byte[payloadSize];
+    new Random().nextBytes(payload);
+
+    // Push the sender address through the pipeline ahead of the measured messages.
+    roundTripRequest();
+  }
+
+  @TearDown
+  public void teardown() {
+    encoder.finishAndReleaseAll();
+    decoder.finishAndReleaseAll();
+  }
+
+  @Benchmark
+  public int encodeRequest() {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, null, SUBJECT, payload));
+    ByteBuf buffer = encoder.readOutbound();
+    int size = buffer.readableBytes();
+    buffer.release();
+    return size;
+  }
+
+  @Benchmark
+  public long roundTripRequest() {
+    encoder.writeOutbound(new InternalRequest(PREAMBLE, ++messageId, null, SUBJECT, payload));
+    decoder.writeInbound((ByteBuf) encoder.readOutbound());
+    return read();
+  }
+
+  @Benchmark
+  public long roundTripReply() {
+    encoder.writeOutbound(new InternalReply(PREAMBLE, ++messageId, payload, InternalReply.Status.OK));
+    decoder.writeInbound((ByteBuf) encoder.readOutbound());
+    return read();
+  }
+
+  @Benchmark
+  public long roundTripBufferReply() {
+    ByteBuf buffer = encoder.alloc().buffer(payload.length).writeBytes(payload);
+    encoder.writeOutbound(new InternalReply(PREAMBLE, ++messageId, buffer, InternalReply.Status.OK));
+    decoder.writeInbound((ByteBuf) encoder.readOutbound());
+    return read();
+  }
+
+  /**
+   * Reads and releases a decoded message, returning its ID.
+   */
+  private long read() {
+    InternalMessage message = decoder.readInbound();
+    message.release();
+    return message.id();
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.atomix.benchmarks.messaging;
+
+import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.impl.NettyMessagingService;
+import io.atomix.utils.net.Address;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Netty messaging service benchmark.
+ * <p>
+ * Starts two messaging services bound to loopback ports and measures request/reply round trips between them, both
+ * one request at a time and with a fixed number of requests in flight.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MessagingServiceBenchmark {
+  private static final String SUBJECT = "benchmark";
+
+  @Param({"128", "4096"})
+  private int payloadSize;
+
+  @Param({"32"})
+  private int pipelineDepth;
+
+  private ManagedMessagingService client;
+  private ManagedMessagingService server;
+  private Address serverAddress;
+  private byte[] payload;
+
+  @Setup
+  public void setup() throws IOException {
+    payload = new byte[payloadSize];
+    new Random().nextBytes(payload);
+
+    serverAddress = Address.from("localhost", findAvailablePort());
+    server = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(serverAddress)
+        .build()
+        .start()
+        .join();
+    server.registerHandler(SUBJECT, (address, bytes) -> CompletableFuture.completedFuture(bytes));
+
+    client = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from("localhost", findAvailablePort()))
+        .build()
+        .start()
+        .join();
+  }
+
+  @TearDown
+  public void teardown() {
+    client.stop().join();
+    server.stop().join();
+  }
+
+  @Benchmark
+  public byte[] sendAndReceive() {
+    return client.sendAndReceive(serverAddress, SUBJECT, payload).join();
+  }
+
+  @Benchmark
+  public void sendAndReceivePipelined() {
+    CompletableFuture[] futures = new CompletableFuture[pipelineDepth];
+    for (int i = 0; i < pipelineDepth; i++) {
+      futures[i] = client.sendAndReceive(serverAddress, SUBJECT, payload);
+    }
+    CompletableFuture.allOf(futures).join();
+  }
+
+  private static int findAvailablePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      socket.setReuseAddress(true);
+      return socket.getLocalPort();
+    }
+  }
+}
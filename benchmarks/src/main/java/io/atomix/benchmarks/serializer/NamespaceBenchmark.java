@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.atomix.benchmarks.serializer;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
+import io.atomix.utils.serializer.Namespace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Namespace serialization benchmark.
+ * <p>
+ * Measures Kryo-backed serialization of the Raft log entries and append requests that dominate the replication
+ * path, using the same namespaces as the Raft storage and protocol layers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class NamespaceBenchmark {
+  private static final OperationId PUT = OperationId.command("put");
+
+  @Param({"128"})
+  private int valueSize;
+
+  @Param({"16"})
+  private int entriesPerRequest;
+
+  private Namespace storageNamespace;
+  private Namespace protocolNamespace;
+  private CommandEntry entry;
+  private AppendRequest request;
+  private byte[] entryBytes;
+  private byte[] requestBytes;
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setup() {
+    storageNamespace = RaftNamespaces.RAFT_STORAGE;
+    protocolNamespace = RaftNamespaces.RAFT_PROTOCOL;
+
+    byte[] value = new byte[valueSize];
+    new Random().nextBytes(value);
+    entry = new CommandEntry(1, System.currentTimeMillis(), 1, 1, new PrimitiveOperation(PUT, value));
+
+    List<RaftLogEntry> entries = new ArrayList<>(entriesPerRequest);
+    for (int i = 0; i < entriesPerRequest; i++) {
+      entries.add(new CommandEntry(1, System.currentTimeMillis(), 1, i + 1, new PrimitiveOperation(PUT, value)));
+    }
+    request = AppendRequest.builder()
+        .withTerm(1)
+        .withLeader(MemberId.from("1"))
+        .withPrevLogIndex(0)
+        .withPrevLogTerm(0)
+        .withEntries(entries)
+        .withCommitIndex(0)
+        .build();
+
+    entryBytes = storageNamespace.serialize(entry);
+    requestBytes = protocolNamespace.serialize(request);
+    buffer = ByteBuffer.allocate(requestBytes.length * 2);
+  }
+
+  @Benchmark
+  public byte[] serializeEntry() {
+    return storageNamespace.serialize(entry);
+  }
+
+  @Benchmark
+  public ByteBuffer serializeEntryToBuffer() {
+    buffer.clear();
+    storageNamespace.serialize(entry, buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public CommandEntry deserializeEntry() {
+    return storageNamespace.deserialize(entryBytes);
+  }
+
+  @Benchmark
+  public byte[] serializeAppendRequest() {
+    return protocolNamespace.serialize(request);
+  }
+
+  @Benchmark
+  public AppendRequest deserializeAppendRequest() {
+    return protocolNamespace.deserialize(requestBytes);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.atomix.benchmarks.storage;
+
+import io.atomix.storage.StorageLevel;
+import io.atomix.storage.journal.Indexed;
+import io.atomix.storage.journal.JournalReader;
+import io.atomix.storage.journal.JournalWriter;
+import io.atomix.storage.journal.SegmentedJournal;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Namespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segmented journal append and read benchmark.
+ * <p>
+ * The journal is recreated for every measurement iteration so that append throughput is not skewed by the
+ * number of segments left behind by earlier iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+  private static final Serializer SERIALIZER = Serializer.using(Namespace.builder()
+      .register(Namespaces.BASIC)
+      .build());
+
+  private static final int READ_ENTRIES = 100_000;
+
+  @Param({"MEMORY", "MAPPED", "DISK"})
+  private StorageLevel storageLevel;
+
+  @Param({"128"})
+  private int entrySize;
+
+  private Path directory;
+  private SegmentedJournal<byte[]> journal;
+  private JournalWriter<byte[]> writer;
+  private JournalReader<byte[]> reader;
+  private byte[] entry;
+
+  @Setup(Level.Trial)
+  public void setupTrial() throws IOException {
+    directory = Files.createTempDirectory("atomix-journal-benchmark");
+    entry = new byte[entrySize];
+    new Random().nextBytes(entry);
+  }
+
+  @Setup(Level.Iteration)
+  public void setupIteration() {
+    journal = SegmentedJournal.<byte[]>builder()
+        .withName("benchmark")
+        .withDirectory(new File(directory.toFile(), storageLevel.name().toLowerCase()))
+        .withStorageLevel(storageLevel)
+        .withSerializer(SERIALIZER)
+        .build();
+    writer = journal.writer();
+    for (int i = 0; i < READ_ENTRIES; i++) {
+      writer.append(entry);
+    }
+    writer.flush();
+    reader = journal.openReader(1);
+  }
+
+  @TearDown(Level.Iteration)
+  public void teardownIteration() throws IOException {
+    reader.close();
+    journal.close();
+    deleteDirectory(new File(directory.toFile(), storageLevel.name().toLowerCase()).toPath());
+  }
+
+  @TearDown(Level.Trial)
+  public void teardownTrial() throws IOException {
+    deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public Indexed<byte[]> append() {
+    return writer.append(entry);
+  }
+
+  @Benchmark
+  public Indexed<byte[]> read() {
+    if (!reader.hasNext()) {
+      reader.reset(1);
+    }
+    return reader.next();
+  }
+
+  private static void deleteDirectory(Path path) throws IOException {
+    if (Files.exists(path)) {
+      Files.walk(path)
+          .sorted(Comparator.reverseOrder())
+          .map(Path::toFile)
+          .forEach(File::delete);
+    }
+  }
+}
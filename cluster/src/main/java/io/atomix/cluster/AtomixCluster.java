@@ -184,7 +184,7 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
     this.broadcastService = buildBroadcastService(config);
     this.discoveryProvider = buildLocationProvider(config);
     this.membershipService = buildClusterMembershipService(config, this, discoveryProvider);
-    this.communicationService = buildClusterMessagingService(membershipService, messagingService);
+    this.communicationService = buildClusterMessagingService(config, membershipService, messagingService);
     this.eventService = buildClusterEventService(membershipService, messagingService);
   }
 
@@ -314,6 +314,15 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
     return NettyMessagingService.builder()
         .withName(config.getClusterId())
         .withAddress(config.getNodeConfig().getAddress())
+        .withFlushDelay(config.getMessagingConfig().getFlushDelay())
+        .withFlushBytes(config.getMessagingConfig().getFlushBytes())
+        .withCompression(config.getMessagingConfig().getCompression())
+        .withCompressionThreshold(config.getMessagingConfig().getCompressionThreshold())
+        .withChannelPoolSize(config.getMessagingConfig().getChannelPoolSize())
+        .withChannelPoolStrategy(config.getMessagingConfig().getChannelPoolStrategy())
+        .withMaxPendingRequests(config.getMessagingConfig().getMaxPendingRequests())
+        .withMaxPendingBytes(config.getMessagingConfig().getMaxPendingBytes())
+        .withBackpressureTimeout(config.getMessagingConfig().getBackpressureTimeout())
         .build();
   }
 
@@ -367,15 +376,17 @@ public class AtomixCluster implements BootstrapService, Managed<Void> {
         localMember,
         new DefaultNodeDiscoveryService(bootstrapService, localMember, discoveryProvider),
         bootstrapService,
-        config.getMembershipConfig());
+        config.getMembershipConfig(),
+        config.getMessagingConfig().getBroadcastFanout());
   }
 
   /**
    * Builds a cluster messaging service.
    */
   protected static ManagedClusterCommunicationService buildClusterMessagingService(
-      ClusterMembershipService membershipService, MessagingService messagingService) {
-    return new DefaultClusterCommunicationService(membershipService, messagingService);
+      ClusterConfig config, ClusterMembershipService membershipService, MessagingService messagingService) {
+    return new DefaultClusterCommunicationService(
+        membershipService, messagingService, config.getMessagingConfig().getBroadcastFanout());
   }
 
   /**
@@ -16,6 +16,8 @@
 package io.atomix.cluster;
 
 import io.atomix.cluster.discovery.NodeDiscoveryProvider;
+import io.atomix.cluster.messaging.ChannelPoolStrategy;
+import io.atomix.cluster.messaging.CompressionType;
 import io.atomix.utils.Builder;
 import io.atomix.utils.net.Address;
 
@@ -239,6 +241,116 @@ public class AtomixClusterBuilder implements Builder<AtomixCluster> {
     return this;
   }
 
+  /**
+   * Sets the maximum time for which outbound messages are buffered before being flushed.
+   *
+   * @param flushDelay the maximum flush delay
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withFlushDelay(Duration flushDelay) {
+    config.getMessagingConfig().setFlushDelay(flushDelay);
+    return this;
+  }
+
+  /**
+   * Sets the number of buffered outbound bytes at which messages are flushed immediately.
+   *
+   * @param flushBytes the flush byte threshold
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withFlushBytes(int flushBytes) {
+    config.getMessagingConfig().setFlushBytes(flushBytes);
+    return this;
+  }
+
+  /**
+   * Sets the codec with which to compress large message payloads.
+   *
+   * @param compression the message compression codec
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withCompression(CompressionType compression) {
+    config.getMessagingConfig().setCompression(compression);
+    return this;
+  }
+
+  /**
+   * Sets the payload size below which messages are sent uncompressed.
+   *
+   * @param compressionThreshold the compression size threshold in bytes
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withCompressionThreshold(int compressionThreshold) {
+    config.getMessagingConfig().setCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
+  /**
+   * Sets the number of channels in the pool of connections to each member.
+   *
+   * @param channelPoolSize the channel pool size
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withChannelPoolSize(int channelPoolSize) {
+    config.getMessagingConfig().setChannelPoolSize(channelPoolSize);
+    return this;
+  }
+
+  /**
+   * Sets the strategy with which requests are assigned to pooled channels.
+   *
+   * @param channelPoolStrategy the channel pool strategy
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withChannelPoolStrategy(ChannelPoolStrategy channelPoolStrategy) {
+    config.getMessagingConfig().setChannelPoolStrategy(channelPoolStrategy);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of requests awaiting a reply from each remote member.
+   *
+   * @param maxPendingRequests the maximum number of pending requests per member
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withMaxPendingRequests(int maxPendingRequests) {
+    config.getMessagingConfig().setMaxPendingRequests(maxPendingRequests);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of outbound bytes in flight to each remote member.
+   *
+   * @param maxPendingBytes the maximum number of pending bytes per member
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withMaxPendingBytes(int maxPendingBytes) {
+    config.getMessagingConfig().setMaxPendingBytes(maxPendingBytes);
+    return this;
+  }
+
+  /**
+   * Sets the maximum time for which a message waits for capacity when a remote member is overloaded.
+   *
+   * @param backpressureTimeout the backpressure timeout
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withBackpressureTimeout(Duration backpressureTimeout) {
+    config.getMessagingConfig().setBackpressureTimeout(backpressureTimeout);
+    return this;
+  }
+
+  /**
+   * Sets the number of members to which each member relays broadcast messages.
+   *
+   * @param broadcastFanout the broadcast fanout, or {@code 0} to send broadcasts directly to each member
+   * @return the Atomix builder
+   */
+  public AtomixClusterBuilder withBroadcastFanout(int broadcastFanout) {
+    config.getMessagingConfig().setBroadcastFanout(broadcastFanout);
+    return this;
+  }
+
   /**
    * Sets the membership provider.
    *
@@ -16,6 +16,7 @@
 package io.atomix.cluster;
 
 import io.atomix.cluster.discovery.NodeDiscoveryConfig;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.utils.config.Config;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -31,6 +32,7 @@ public class ClusterConfig implements Config {
   private NodeDiscoveryConfig discoveryConfig;
   private MulticastConfig multicastConfig = new MulticastConfig();
   private MembershipConfig membershipConfig = new MembershipConfig();
+  private MessagingConfig messagingConfig = new MessagingConfig();
 
   /**
    * Returns the cluster identifier.
@@ -131,4 +133,24 @@ public class ClusterConfig implements Config {
     this.membershipConfig = checkNotNull(membershipConfig);
     return this;
   }
+
+  /**
+   * Returns the messaging configuration.
+   *
+   * @return the messaging configuration
+   */
+  public MessagingConfig getMessagingConfig() {
+    return messagingConfig;
+  }
+
+  /**
+   * Sets the messaging configuration.
+   *
+   * @param messagingConfig the messaging configuration
+   * @return the cluster configuration
+   */
+  public ClusterConfig setMessagingConfig(MessagingConfig messagingConfig) {
+    this.messagingConfig = checkNotNull(messagingConfig);
+    return this;
+  }
 }
@@ -63,6 +63,18 @@ public interface NodeDiscoveryProvider
    */
   Set<Node> getNodes();
 
+  /**
+   * Returns whether the provider detects node failures.
+   * <p>
+   * Providers that detect failures must post a {@link NodeDiscoveryEvent.Type#LEAVE} event for nodes that stop
+   * responding.
+   *
+   * @return whether the provider detects node failures
+   */
+  default boolean detectsFailures() {
+    return false;
+  }
+
   /**
    * Joins the cluster.
    *
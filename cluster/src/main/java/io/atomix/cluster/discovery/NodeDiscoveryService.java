@@ -32,4 +32,16 @@ public interface NodeDiscoveryService extends ListenerService<NodeDiscoveryEvent
    */
   Set<Node> getNodes();
 
+  /**
+   * Returns whether the discovery service detects node failures.
+   * <p>
+   * If the discovery service detects failures, nodes that stop responding leave the cluster through discovery
+   * events and the membership service does not need to heartbeat each member to track its reachability.
+   *
+   * @return whether the discovery service detects node failures
+   */
+  default boolean detectsFailures() {
+    return false;
+  }
+
 }
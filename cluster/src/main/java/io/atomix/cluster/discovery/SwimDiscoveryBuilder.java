@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.discovery;
+
+import io.atomix.cluster.Node;
+import io.atomix.utils.net.Address;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SWIM discovery builder.
+ */
+public class SwimDiscoveryBuilder extends NodeDiscoveryBuilder {
+  private final SwimDiscoveryConfig config = new SwimDiscoveryConfig();
+
+  /**
+   * Sets the bootstrap nodes.
+   *
+   * @param nodes the bootstrap nodes
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withNodes(Address... nodes) {
+    return withNodes(Stream.of(nodes)
+        .map(address -> Node.builder()
+            .withAddress(address)
+            .build())
+        .collect(Collectors.toSet()));
+  }
+
+  /**
+   * Sets the bootstrap nodes.
+   *
+   * @param nodes the bootstrap nodes
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withNodes(Node... nodes) {
+    return withNodes(Arrays.asList(nodes));
+  }
+
+  /**
+   * Sets the bootstrap nodes.
+   *
+   * @param nodes the bootstrap nodes
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withNodes(Collection<Node> nodes) {
+    config.setNodes(nodes);
+    return this;
+  }
+
+  /**
+   * Sets the protocol period at which a random member is probed.
+   *
+   * @param probeInterval the probe interval
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withProbeInterval(Duration probeInterval) {
+    config.setProbeInterval(probeInterval);
+    return this;
+  }
+
+  /**
+   * Sets the time to wait for a direct probe to be acknowledged before probing indirectly.
+   *
+   * @param probeTimeout the probe timeout
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withProbeTimeout(Duration probeTimeout) {
+    config.setProbeTimeout(probeTimeout);
+    return this;
+  }
+
+  /**
+   * Sets the number of members asked to probe a member that failed to acknowledge a direct probe.
+   *
+   * @param indirectProbes the number of indirect probes
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withIndirectProbes(int indirectProbes) {
+    config.setIndirectProbes(indirectProbes);
+    return this;
+  }
+
+  /**
+   * Sets the multiplier used to compute the time for which a member is suspected before it's declared dead.
+   *
+   * @param suspicionMultiplier the suspicion multiplier
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withSuspicionMultiplier(int suspicionMultiplier) {
+    config.setSuspicionMultiplier(suspicionMultiplier);
+    return this;
+  }
+
+  /**
+   * Sets the multiplier used to compute the number of times each membership update is gossipped.
+   *
+   * @param gossipMultiplier the gossip multiplier
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withGossipMultiplier(int gossipMultiplier) {
+    config.setGossipMultiplier(gossipMultiplier);
+    return this;
+  }
+
+  /**
+   * Sets the maximum number of membership updates piggybacked on each message.
+   *
+   * @param maxGossipUpdates the maximum number of updates per message
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withMaxGossipUpdates(int maxGossipUpdates) {
+    config.setMaxGossipUpdates(maxGossipUpdates);
+    return this;
+  }
+
+  /**
+   * Sets the interval at which membership is synchronized with bootstrap nodes that are not known members.
+   *
+   * @param syncInterval the sync interval
+   * @return the SWIM discovery builder
+   */
+  public SwimDiscoveryBuilder withSyncInterval(Duration syncInterval) {
+    config.setSyncInterval(syncInterval);
+    return this;
+  }
+
+  @Override
+  public NodeDiscoveryProvider build() {
+    return new SwimDiscoveryProvider(config);
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.discovery;
+
+import io.atomix.cluster.Node;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * SWIM discovery configuration.
+ */
+public class SwimDiscoveryConfig extends NodeDiscoveryConfig {
+  private static final int DEFAULT_PROBE_INTERVAL = 1000;
+  private static final int DEFAULT_PROBE_TIMEOUT = 500;
+  private static final int DEFAULT_INDIRECT_PROBES = 3;
+  private static final int DEFAULT_SUSPICION_MULTIPLIER = 4;
+  private static final int DEFAULT_GOSSIP_MULTIPLIER = 4;
+  private static final int DEFAULT_MAX_GOSSIP_UPDATES = 16;
+  private static final int DEFAULT_SYNC_INTERVAL = 10000;
+
+  private Collection<Node> nodes = Collections.emptySet();
+  private Duration probeInterval = Duration.ofMillis(DEFAULT_PROBE_INTERVAL);
+  private Duration probeTimeout = Duration.ofMillis(DEFAULT_PROBE_TIMEOUT);
+  private int indirectProbes = DEFAULT_INDIRECT_PROBES;
+  private int suspicionMultiplier = DEFAULT_SUSPICION_MULTIPLIER;
+  private int gossipMultiplier = DEFAULT_GOSSIP_MULTIPLIER;
+  private int maxGossipUpdates = DEFAULT_MAX_GOSSIP_UPDATES;
+  private Duration syncInterval = Duration.ofMillis(DEFAULT_SYNC_INTERVAL);
+
+  @Override
+  public NodeDiscoveryProvider.Type getType() {
+    return SwimDiscoveryProvider.TYPE;
+  }
+
+  /**
+   * Returns the configured bootstrap nodes.
+   *
+   * @return the configured bootstrap nodes
+   */
+  public Collection<Node> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Sets the bootstrap nodes.
+   * <p>
+   * Bootstrap nodes are used to join the cluster. A node synchronizes its membership list with the bootstrap nodes
+   * when joining and whenever a bootstrap node is not a known member of the cluster.
+   *
+   * @param nodes the bootstrap nodes
+   * @return the SWIM discovery configuration
+   */
+  public SwimDiscoveryConfig setNodes(Collection<Node> nodes) {
+    this.nodes = checkNotNull(nodes);
+    return this;
+  }
+
+  /**
+   * Returns the protocol period at which a random member is probed.
+   *
+   * @return the probe interval
+   */
+  public Duration getProbeInterval() {
+    return probeInterval;
+  }
+
+  /**
+   * Sets the protocol period at which a random member is probed.
+   *
+   * @param probeInterval the probe interval
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public SwimDiscoveryConfig setProbeInterval(Duration probeInterval) {
+    checkNotNull(probeInterval, "probeInterval cannot be null");
+    checkArgument(!probeInterval.isNegative() && !probeInterval.isZero(), "probeInterval must be positive");
+    this.probeInterval = probeInterval;
+    return this;
+  }
+
+  /**
+   * Returns the time to wait for a direct probe to be acknowledged before probing indirectly.
+   *
+   * @return the probe timeout
+   */
+  public Duration getProbeTimeout() {
+    return probeTimeout;
+  }
+
+  /**
+   * Sets the time to wait for a direct probe to be acknowledged before probing indirectly.
+   * <p>
+   * The timeout should be less than the {@link #setProbeInterval(Duration) probe interval}.
+   *
+   * @param probeTimeout the probe timeout
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the timeout is not positive
+   */
+  public SwimDiscoveryConfig setProbeTimeout(Duration probeTimeout) {
+    checkNotNull(probeTimeout, "probeTimeout cannot be null");
+    checkArgument(!probeTimeout.isNegative() && !probeTimeout.isZero(), "probeTimeout must be positive");
+    this.probeTimeout = probeTimeout;
+    return this;
+  }
+
+  /**
+   * Returns the number of members asked to probe a member that failed to acknowledge a direct probe.
+   *
+   * @return the number of indirect probes
+   */
+  public int getIndirectProbes() {
+    return indirectProbes;
+  }
+
+  /**
+   * Sets the number of members asked to probe a member that failed to acknowledge a direct probe.
+   *
+   * @param indirectProbes the number of indirect probes
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the number of probes is negative
+   */
+  public SwimDiscoveryConfig setIndirectProbes(int indirectProbes) {
+    checkArgument(indirectProbes >= 0, "indirectProbes cannot be negative");
+    this.indirectProbes = indirectProbes;
+    return this;
+  }
+
+  /**
+   * Returns the multiplier used to compute the time for which a member is suspected before it's declared dead.
+   *
+   * @return the suspicion multiplier
+   */
+  public int getSuspicionMultiplier() {
+    return suspicionMultiplier;
+  }
+
+  /**
+   * Sets the multiplier used to compute the time for which a member is suspected before it's declared dead.
+   * <p>
+   * Suspected members are declared dead after {@code suspicionMultiplier * log10(N)} probe intervals, where
+   * {@code N} is the number of members in the cluster. This gives the suspected member time to learn of the
+   * suspicion and refute it.
+   *
+   * @param suspicionMultiplier the suspicion multiplier
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the multiplier is not positive
+   */
+  public SwimDiscoveryConfig setSuspicionMultiplier(int suspicionMultiplier) {
+    checkArgument(suspicionMultiplier > 0, "suspicionMultiplier must be positive");
+    this.suspicionMultiplier = suspicionMultiplier;
+    return this;
+  }
+
+  /**
+   * Returns the multiplier used to compute the number of times each membership update is gossipped.
+   *
+   * @return the gossip multiplier
+   */
+  public int getGossipMultiplier() {
+    return gossipMultiplier;
+  }
+
+  /**
+   * Sets the multiplier used to compute the number of times each membership update is gossipped.
+   * <p>
+   * Each update is piggybacked on {@code gossipMultiplier * log10(N)} outbound messages, where {@code N} is the
+   * number of members in the cluster.
+   *
+   * @param gossipMultiplier the gossip multiplier
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the multiplier is not positive
+   */
+  public SwimDiscoveryConfig setGossipMultiplier(int gossipMultiplier) {
+    checkArgument(gossipMultiplier > 0, "gossipMultiplier must be positive");
+    this.gossipMultiplier = gossipMultiplier;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of membership updates piggybacked on each message.
+   *
+   * @return the maximum number of updates per message
+   */
+  public int getMaxGossipUpdates() {
+    return maxGossipUpdates;
+  }
+
+  /**
+   * Sets the maximum number of membership updates piggybacked on each message.
+   *
+   * @param maxGossipUpdates the maximum number of updates per message
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the maximum is not positive
+   */
+  public SwimDiscoveryConfig setMaxGossipUpdates(int maxGossipUpdates) {
+    checkArgument(maxGossipUpdates > 0, "maxGossipUpdates must be positive");
+    this.maxGossipUpdates = maxGossipUpdates;
+    return this;
+  }
+
+  /**
+   * Returns the interval at which membership is synchronized with bootstrap nodes that are not known members.
+   *
+   * @return the sync interval
+   */
+  public Duration getSyncInterval() {
+    return syncInterval;
+  }
+
+  /**
+   * Sets the interval at which membership is synchronized with bootstrap nodes that are not known members.
+   *
+   * @param syncInterval the sync interval
+   * @return the SWIM discovery configuration
+   * @throws IllegalArgumentException if the interval is not positive
+   */
+  public SwimDiscoveryConfig setSyncInterval(Duration syncInterval) {
+    checkNotNull(syncInterval, "syncInterval cannot be null");
+    checkArgument(!syncInterval.isNegative() && !syncInterval.isZero(), "syncInterval must be positive");
+    this.syncInterval = syncInterval;
+    return this;
+  }
+}
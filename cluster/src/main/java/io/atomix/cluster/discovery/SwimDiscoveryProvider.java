@@ -0,0 +1,726 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.discovery;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import io.atomix.cluster.BootstrapService;
+import io.atomix.cluster.Node;
+import io.atomix.cluster.NodeId;
+import io.atomix.cluster.impl.AddressSerializer;
+import io.atomix.utils.concurrent.Futures;
+import io.atomix.utils.event.AbstractListenerManager;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Namespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Cluster membership provider implementing the SWIM protocol.
+ * <p>
+ * Unlike the {@link BootstrapDiscoveryProvider}, which heartbeats every known node each interval, the SWIM provider
+ * probes a single member each {@link SwimDiscoveryConfig#setProbeInterval(java.time.Duration) protocol period}, so
+ * the load on each node is independent of the size of the cluster:
+ * <ul>
+ *   <li>Members are probed in a randomized round-robin order, bounding the time to first detection of a failure.</li>
+ *   <li>If a probed member does not acknowledge the probe within the probe timeout, a number of other members are
+ *   asked to probe it indirectly. This avoids false positives due to congestion between a pair of members.</li>
+ *   <li>A member that fails both direct and indirect probes is suspected rather than immediately removed. Suspected
+ *   members that learn of the suspicion refute it by incrementing their incarnation number, and members that remain
+ *   suspected beyond the suspicion timeout are declared dead. Probes of a suspected member always carry the
+ *   suspicion so the member can refute it once it's reachable again.</li>
+ *   <li>Membership updates are disseminated infection-style by piggybacking them on probes and acknowledgements, so
+ *   the provider sends no additional messages to propagate them.</li>
+ * </ul>
+ * Nodes join the cluster by synchronizing their membership list with the configured bootstrap nodes.
+ * <p>
+ * The provider {@link #detectsFailures() detects failures}, so the {@link io.atomix.cluster.ClusterMembershipService}
+ * does not heartbeat each member when it's used. Members are removed once SWIM declares them dead, and member
+ * metadata is only exchanged when members join or their metadata changes.
+ */
+public class SwimDiscoveryProvider
+    extends AbstractListenerManager<NodeDiscoveryEvent, NodeDiscoveryEventListener>
+    implements NodeDiscoveryProvider {
+
+  public static final Type TYPE = new Type();
+
+  /**
+   * Creates a new SWIM provider builder.
+   *
+   * @return a new SWIM provider builder
+   */
+  public static SwimDiscoveryBuilder builder() {
+    return new SwimDiscoveryBuilder();
+  }
+
+  /**
+   * SWIM discovery provider type.
+   */
+  public static class Type implements NodeDiscoveryProvider.Type<SwimDiscoveryConfig> {
+    private static final String NAME = "swim";
+
+    @Override
+    public String name() {
+      return NAME;
+    }
+
+    @Override
+    public SwimDiscoveryConfig newConfig() {
+      return new SwimDiscoveryConfig();
+    }
+
+    @Override
+    public NodeDiscoveryProvider newProvider(SwimDiscoveryConfig config) {
+      return new SwimDiscoveryProvider(config);
+    }
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SwimDiscoveryProvider.class);
+  private static final Serializer SERIALIZER = Serializer.using(Namespace.builder()
+      .register(Namespaces.BASIC)
+      .nextId(Namespaces.BEGIN_USER_CUSTOM_ID)
+      .register(Node.class)
+      .register(NodeId.class)
+      .register(new AddressSerializer(), Address.class)
+      .register(State.class)
+      .register(ImmutableMember.class)
+      .register(Probe.class)
+      .register(ProbeRequest.class)
+      .build());
+
+  private static final String SYNC_MESSAGE = "atomix-cluster-swim-sync";
+  private static final String PROBE_MESSAGE = "atomix-cluster-swim-probe";
+  private static final String PROBE_REQUEST_MESSAGE = "atomix-cluster-swim-probe-request";
+
+  private final Collection<Node> bootstrapNodes;
+  private final SwimDiscoveryConfig config;
+  private final Random random = new Random();
+
+  private volatile BootstrapService bootstrap;
+  private SwimMember localMember;
+
+  private final Map<Address, SwimMember> members = Maps.newConcurrentMap();
+  private final Map<Address, Gossip> updates = Maps.newLinkedHashMap();
+  private List<SwimMember> probeOrder = new ArrayList<>();
+  private int probeIndex;
+
+  private volatile ScheduledExecutorService swimScheduler;
+  private ScheduledFuture<?> probeFuture;
+  private ScheduledFuture<?> syncFuture;
+
+  public SwimDiscoveryProvider(Node... bootstrapNodes) {
+    this(Arrays.asList(bootstrapNodes));
+  }
+
+  public SwimDiscoveryProvider(Collection<Node> bootstrapNodes) {
+    this(new SwimDiscoveryConfig().setNodes(bootstrapNodes));
+  }
+
+  SwimDiscoveryProvider(SwimDiscoveryConfig config) {
+    this.config = checkNotNull(config);
+    this.bootstrapNodes = ImmutableSet.copyOf(config.getNodes());
+  }
+
+  @Override
+  public SwimDiscoveryConfig config() {
+    return config;
+  }
+
+  @Override
+  public Set<Node> getNodes() {
+    return members.values().stream()
+        .filter(member -> member.state != State.DEAD)
+        .map(member -> member.node)
+        .collect(Collectors.toSet());
+  }
+
+  @Override
+  public boolean detectsFailures() {
+    return true;
+  }
+
+  /**
+   * Synchronizes the membership list with all bootstrap nodes that are not known members of the cluster.
+   */
+  private CompletableFuture<Void> syncAll() {
+    return Futures.allOf(bootstrapNodes.stream()
+        .map(Node::address)
+        .filter(address -> !address.equals(localMember.node.address()))
+        .filter(address -> {
+          SwimMember member = members.get(address);
+          return member == null || member.state == State.DEAD;
+        })
+        .map(this::sync)
+        .collect(Collectors.toList()))
+        .thenApply(v -> null);
+  }
+
+  /**
+   * Synchronizes the membership list with the given node.
+   */
+  private CompletableFuture<Void> sync(Address address) {
+    LOGGER.trace("{} - Synchronizing membership with {}", localMember.node.address(), address);
+    return bootstrap.getMessagingService()
+        .sendAndReceive(address, SYNC_MESSAGE, SERIALIZER.encode(localMember.copy()), config.getProbeInterval())
+        .thenAcceptAsync(response -> {
+          Collection<ImmutableMember> members = SERIALIZER.decode(response);
+          members.forEach(this::updateMember);
+        }, swimScheduler)
+        .exceptionally(error -> {
+          LOGGER.debug("{} - Failed to synchronize membership with {}", localMember.node.address(), address, error);
+          return null;
+        });
+  }
+
+  /**
+   * Handles a sync request from a joining node.
+   */
+  private byte[] handleSync(ImmutableMember member) {
+    updateMember(member);
+    return SERIALIZER.encode(members.values().stream()
+        .map(SwimMember::copy)
+        .collect(Collectors.toCollection(ArrayList::new)));
+  }
+
+  /**
+   * Probes the next member in the probe order.
+   */
+  private void probe() {
+    checkSuspects();
+
+    SwimMember member = nextProbeTarget();
+    if (member == null) {
+      return;
+    }
+
+    ImmutableMember target = member.copy();
+    LOGGER.trace("{} - Probing {}", localMember.node.address(), target);
+    Probe probe = new Probe(localMember.copy(), collectUpdates(target));
+    bootstrap.getMessagingService()
+        .sendAndReceive(target.node().address(), PROBE_MESSAGE, SERIALIZER.encode(probe), config.getProbeTimeout())
+        .whenCompleteAsync((response, error) -> {
+          if (error == null) {
+            Collection<ImmutableMember> updates = SERIALIZER.decode(response);
+            updates.forEach(this::updateMember);
+          } else {
+            LOGGER.debug("{} - Failed to probe {}", localMember.node.address(), target, error);
+            probeIndirect(target);
+          }
+        }, swimScheduler);
+  }
+
+  /**
+   * Asks a random set of members to probe a member that failed to acknowledge a direct probe.
+   */
+  private void probeIndirect(ImmutableMember target) {
+    List<SwimMember> peers = members.values().stream()
+        .filter(member -> member.state == State.ALIVE)
+        .filter(member -> !member.node.address().equals(localMember.node.address()))
+        .filter(member -> !member.node.address().equals(target.node().address()))
+        .collect(Collectors.toList());
+    Collections.shuffle(peers, random);
+    peers = peers.subList(0, Math.min(peers.size(), config.getIndirectProbes()));
+    if (peers.isEmpty()) {
+      suspect(target);
+      return;
+    }
+
+    LOGGER.trace("{} - Probing {} indirectly via {}", localMember.node.address(), target, peers);
+    ProbeRequest request = new ProbeRequest(localMember.copy(), target, collectUpdates());
+    byte[] payload = SERIALIZER.encode(request);
+    CompletableFuture<Void> acked = new CompletableFuture<>();
+    List<CompletableFuture<Void>> futures = peers.stream()
+        .map(peer -> bootstrap.getMessagingService()
+            .sendAndReceive(peer.node.address(), PROBE_REQUEST_MESSAGE, payload, config.getProbeInterval())
+            .thenAcceptAsync(response -> {
+              Collection<ImmutableMember> updates = SERIALIZER.decode(response);
+              updates.forEach(this::updateMember);
+              acked.complete(null);
+            }, swimScheduler))
+        .collect(Collectors.toList());
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).whenCompleteAsync((result, error) -> {
+      if (!acked.isDone()) {
+        suspect(target);
+      }
+    }, swimScheduler);
+  }
+
+  /**
+   * Handles a probe from another member, returning updates to piggyback on the acknowledgement.
+   */
+  private byte[] handleProbe(Probe probe) {
+    updateMember(probe.sender());
+    probe.updates().forEach(this::updateMember);
+    return SERIALIZER.encode(collectUpdates());
+  }
+
+  /**
+   * Handles a request to probe a member on behalf of another member.
+   */
+  private CompletableFuture<byte[]> handleProbeRequest(ProbeRequest request) {
+    updateMember(request.sender());
+    request.updates().forEach(this::updateMember);
+
+    ImmutableMember target = request.target();
+    Probe probe = new Probe(localMember.copy(), collectUpdates(target));
+    return bootstrap.getMessagingService()
+        .sendAndReceive(target.node().address(), PROBE_MESSAGE, SERIALIZER.encode(probe), config.getProbeTimeout())
+        .thenApplyAsync(response -> {
+          Collection<ImmutableMember> updates = SERIALIZER.decode(response);
+          updates.forEach(this::updateMember);
+          return SERIALIZER.encode(collectUpdates());
+        }, swimScheduler);
+  }
+
+  /**
+   * Returns the next member to probe.
+   * <p>
+   * Members are probed in round-robin order, and the order is shuffled after each round.
+   */
+  private SwimMember nextProbeTarget() {
+    while (true) {
+      if (probeIndex >= probeOrder.size()) {
+        probeOrder = members.values().stream()
+            .filter(member -> member.state != State.DEAD)
+            .filter(member -> !member.node.address().equals(localMember.node.address()))
+            .collect(Collectors.toList());
+        Collections.shuffle(probeOrder, random);
+        probeIndex = 0;
+        if (probeOrder.isEmpty()) {
+          return null;
+        }
+      }
+
+      SwimMember member = probeOrder.get(probeIndex++);
+      if (member.state != State.DEAD && members.get(member.node.address()) == member) {
+        return member;
+      }
+    }
+  }
+
+  /**
+   * Suspects the given member.
+   */
+  private void suspect(ImmutableMember member) {
+    updateMember(new ImmutableMember(member.node(), State.SUSPECT, member.incarnation()));
+  }
+
+  /**
+   * Declares suspected members dead once the suspicion timeout has expired, and evicts dead members once they're
+   * no longer being gossipped.
+   */
+  private void checkSuspects() {
+    long currentTime = System.currentTimeMillis();
+    long suspicionTimeout = suspicionTimeout();
+    Iterator<SwimMember> iterator = members.values().iterator();
+    while (iterator.hasNext()) {
+      SwimMember member = iterator.next();
+      if (member.state == State.SUSPECT && currentTime - member.timestamp > suspicionTimeout) {
+        LOGGER.debug("{} - Suspicion of {} timed out", localMember.node.address(), member.node);
+        updateMember(new ImmutableMember(member.node, State.DEAD, member.incarnation));
+      } else if (member.state == State.DEAD
+          && currentTime - member.timestamp > suspicionTimeout * 2
+          && !updates.containsKey(member.node.address())) {
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns the time for which a member is suspected before it's declared dead.
+   */
+  private long suspicionTimeout() {
+    return config.getSuspicionMultiplier() * scale() * config.getProbeInterval().toMillis();
+  }
+
+  /**
+   * Returns the number of times each update should be gossipped.
+   */
+  private int gossipLimit() {
+    return config.getGossipMultiplier() * scale();
+  }
+
+  /**
+   * Returns the logarithmic factor by which timeouts and gossip are scaled with the size of the cluster.
+   */
+  private int scale() {
+    return Math.max(1, (int) Math.ceil(Math.log10(members.size() + 1)));
+  }
+
+  /**
+   * Applies a membership update.
+   * <p>
+   * Updates are ordered by incarnation number. An alive update overrides updates with a lower incarnation, a
+   * suspect update overrides alive updates with the same or a lower incarnation, and a dead update overrides all
+   * updates with the same or a lower incarnation. If the update regards the local member and it's not alive, the
+   * update is refuted by gossipping a new incarnation.
+   */
+  private void updateMember(ImmutableMember update) {
+    Address address = update.node().address();
+    if (address.equals(localMember.node.address())) {
+      if (update.node().id().equals(localMember.node.id())
+          && update.state() != State.ALIVE
+          && update.incarnation() >= localMember.incarnation) {
+        LOGGER.debug("{} - Refuting {}", address, update);
+        localMember.update(State.ALIVE, update.incarnation() + 1);
+        gossip(localMember.copy());
+      }
+      return;
+    }
+
+    SwimMember member = members.get(address);
+    if (member == null || !member.node.id().equals(update.node().id())) {
+      // Only alive updates can introduce new members. If a new node joins at the address of an existing member,
+      // the existing member is replaced.
+      if (update.state() == State.ALIVE) {
+        SwimMember newMember = new SwimMember(update.node(), update.state(), update.incarnation());
+        members.put(address, newMember);
+        if (member != null && member.state != State.DEAD) {
+          post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.LEAVE, member.node));
+        }
+        LOGGER.debug("{} - Member added: {}", localMember.node.address(), update);
+        post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.JOIN, newMember.node));
+        gossip(update);
+      }
+      return;
+    }
+
+    switch (update.state()) {
+      case ALIVE:
+        if (update.incarnation() > member.incarnation) {
+          State previousState = member.state;
+          member.update(State.ALIVE, update.incarnation());
+          if (previousState == State.DEAD) {
+            LOGGER.debug("{} - Member added: {}", localMember.node.address(), update);
+            post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.JOIN, member.node));
+          }
+          gossip(update);
+        }
+        break;
+      case SUSPECT:
+        if ((member.state == State.ALIVE && update.incarnation() >= member.incarnation)
+            || (member.state == State.SUSPECT && update.incarnation() > member.incarnation)) {
+          LOGGER.debug("{} - Member suspected: {}", localMember.node.address(), update);
+          member.update(State.SUSPECT, update.incarnation());
+          gossip(update);
+        }
+        break;
+      case DEAD:
+        if (member.state != State.DEAD && update.incarnation() >= member.incarnation) {
+          LOGGER.debug("{} - Member removed: {}", localMember.node.address(), update);
+          member.update(State.DEAD, update.incarnation());
+          post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.LEAVE, member.node));
+          gossip(update);
+        }
+        break;
+      default:
+        throw new AssertionError();
+    }
+  }
+
+  /**
+   * Queues the given update to be piggybacked on outbound messages, replacing any prior update for the member.
+   */
+  private void gossip(ImmutableMember update) {
+    updates.remove(update.node().address());
+    updates.put(update.node().address(), new Gossip(update));
+  }
+
+  /**
+   * Collects updates to piggyback on an outbound message, preferring updates that have been gossipped the fewest
+   * times.
+   */
+  private ArrayList<ImmutableMember> collectUpdates() {
+    ArrayList<ImmutableMember> collected = new ArrayList<>();
+    if (updates.isEmpty()) {
+      return collected;
+    }
+
+    int limit = gossipLimit();
+    List<Gossip> gossip = new ArrayList<>(updates.values());
+    gossip.sort(Comparator.comparingInt(g -> g.transmissions));
+    for (Gossip g : gossip.subList(0, Math.min(gossip.size(), config.getMaxGossipUpdates()))) {
+      collected.add(g.update);
+      if (++g.transmissions >= limit) {
+        updates.remove(g.update.node().address());
+      }
+    }
+    return collected;
+  }
+
+  /**
+   * Collects updates to piggyback on a probe of the given member.
+   * <p>
+   * If the target is suspected, the suspicion is always included so the target can refute it, even once the update
+   * is no longer being gossipped. Otherwise a member that was unreachable while its suspicion was disseminated would
+   * never learn of it and would be declared dead despite having recovered.
+   */
+  private ArrayList<ImmutableMember> collectUpdates(ImmutableMember target) {
+    ArrayList<ImmutableMember> collected = collectUpdates();
+    if (target.state() == State.SUSPECT) {
+      collected.add(target);
+    }
+    return collected;
+  }
+
+  /**
+   * Registers a message handler to be executed on the protocol thread.
+   */
+  private <T> void registerHandler(String type, Function<T, byte[]> handler) {
+    bootstrap.getMessagingService().registerHandler(
+        type,
+        (BiFunction<Address, byte[], byte[]>) (address, payload) -> handler.apply(SERIALIZER.decode(payload)),
+        swimScheduler);
+  }
+
+  @Override
+  public CompletableFuture<Void> join(BootstrapService bootstrap, Node localNode) {
+    if (members.containsKey(localNode.address())) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    this.bootstrap = bootstrap;
+    this.swimScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("atomix-cluster-swim", LOGGER));
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    swimScheduler.execute(() -> {
+      // If the provider is rejoining, start from a higher incarnation than the one at which it was declared dead
+      // so the other members don't ignore it.
+      localMember = new SwimMember(localNode, State.ALIVE, localMember != null ? localMember.incarnation + 1 : 0);
+      members.put(localNode.address(), localMember);
+      post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.JOIN, localNode));
+
+      this.<ImmutableMember>registerHandler(SYNC_MESSAGE, this::handleSync);
+      this.<Probe>registerHandler(PROBE_MESSAGE, this::handleProbe);
+      bootstrap.getMessagingService().registerHandler(PROBE_REQUEST_MESSAGE, (address, payload) -> {
+        ProbeRequest request = SERIALIZER.decode(payload);
+        return CompletableFuture.supplyAsync(() -> handleProbeRequest(request), swimScheduler)
+            .thenCompose(response -> response);
+      });
+
+      syncAll().whenComplete((result, error) -> future.complete(null));
+
+      long probeInterval = config.getProbeInterval().toMillis();
+      probeFuture = swimScheduler.scheduleAtFixedRate(this::probe, probeInterval, probeInterval, TimeUnit.MILLISECONDS);
+      long syncInterval = config.getSyncInterval().toMillis();
+      syncFuture = swimScheduler.scheduleAtFixedRate(this::syncAll, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    });
+    return future.thenRun(() -> {
+      LOGGER.info("Joined");
+    });
+  }
+
+  @Override
+  public CompletableFuture<Void> leave(Node localNode) {
+    if (!members.containsKey(localNode.address())) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    swimScheduler.execute(() -> {
+      members.remove(localNode.address());
+      post(new NodeDiscoveryEvent(NodeDiscoveryEvent.Type.LEAVE, localNode));
+
+      bootstrap.getMessagingService().unregisterHandler(SYNC_MESSAGE);
+      bootstrap.getMessagingService().unregisterHandler(PROBE_MESSAGE);
+      bootstrap.getMessagingService().unregisterHandler(PROBE_REQUEST_MESSAGE);
+      probeFuture.cancel(false);
+      syncFuture.cancel(false);
+
+      // Declare the local member dead to a random set of peers so its departure is disseminated immediately
+      // rather than after the suspicion timeout.
+      List<SwimMember> peers = members.values().stream()
+          .filter(member -> member.state == State.ALIVE)
+          .collect(Collectors.toList());
+      Collections.shuffle(peers, random);
+      localMember.update(State.DEAD, localMember.incarnation + 1);
+      gossip(localMember.copy());
+      for (SwimMember peer : peers.subList(0, Math.min(peers.size(), config.getIndirectProbes()))) {
+        Probe probe = new Probe(localMember.copy(), collectUpdates());
+        bootstrap.getMessagingService().sendAsync(peer.node.address(), PROBE_MESSAGE, SERIALIZER.encode(probe));
+      }
+
+      members.clear();
+      updates.clear();
+      probeOrder = new ArrayList<>();
+      probeIndex = 0;
+      swimScheduler.shutdown();
+      LOGGER.info("Left");
+      future.complete(null);
+    });
+    return future;
+  }
+
+  /**
+   * SWIM member state.
+   */
+  enum State {
+    ALIVE,
+    SUSPECT,
+    DEAD,
+  }
+
+  /**
+   * Locally tracked member.
+   */
+  private static final class SwimMember {
+    private final Node node;
+    private volatile State state;
+    private long incarnation;
+    private long timestamp;
+
+    SwimMember(Node node, State state, long incarnation) {
+      this.node = node;
+      update(state, incarnation);
+    }
+
+    /**
+     * Updates the member's state and incarnation.
+     */
+    void update(State state, long incarnation) {
+      this.state = state;
+      this.incarnation = incarnation;
+      this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns an immutable copy of the member to send to other members.
+     */
+    ImmutableMember copy() {
+      return new ImmutableMember(node, state, incarnation);
+    }
+  }
+
+  /**
+   * Membership update exchanged between members.
+   */
+  static final class ImmutableMember {
+    private final Node node;
+    private final State state;
+    private final long incarnation;
+
+    ImmutableMember(Node node, State state, long incarnation) {
+      this.node = node;
+      this.state = state;
+      this.incarnation = incarnation;
+    }
+
+    Node node() {
+      return node;
+    }
+
+    State state() {
+      return state;
+    }
+
+    long incarnation() {
+      return incarnation;
+    }
+
+    @Override
+    public String toString() {
+      return toStringHelper(this)
+          .add("node", node)
+          .add("state", state)
+          .add("incarnation", incarnation)
+          .toString();
+    }
+  }
+
+  /**
+   * Probe message.
+   */
+  static final class Probe {
+    private final ImmutableMember sender;
+    private final ArrayList<ImmutableMember> updates;
+
+    Probe(ImmutableMember sender, ArrayList<ImmutableMember> updates) {
+      this.sender = sender;
+      this.updates = updates;
+    }
+
+    ImmutableMember sender() {
+      return sender;
+    }
+
+    List<ImmutableMember> updates() {
+      return updates;
+    }
+  }
+
+  /**
+   * Request to probe a member indirectly.
+   */
+  static final class ProbeRequest {
+    private final ImmutableMember sender;
+    private final ImmutableMember target;
+    private final ArrayList<ImmutableMember> updates;
+
+    ProbeRequest(ImmutableMember sender, ImmutableMember target, ArrayList<ImmutableMember> updates) {
+      this.sender = sender;
+      this.target = target;
+      this.updates = updates;
+    }
+
+    ImmutableMember sender() {
+      return sender;
+    }
+
+    ImmutableMember target() {
+      return target;
+    }
+
+    List<ImmutableMember> updates() {
+      return updates;
+    }
+  }
+
+  /**
+   * Membership update queued for dissemination.
+   */
+  private static final class Gossip {
+    private final ImmutableMember update;
+    private int transmissions;
+
+    Gossip(ImmutableMember update) {
+      this.update = update;
+    }
+  }
+}
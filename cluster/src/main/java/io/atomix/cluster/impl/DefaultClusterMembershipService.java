@@ -29,6 +29,7 @@ import io.atomix.cluster.MembershipConfig;
 import io.atomix.cluster.Node;
 import io.atomix.cluster.discovery.NodeDiscoveryEvent;
 import io.atomix.cluster.discovery.NodeDiscoveryEventListener;
+import io.atomix.cluster.messaging.impl.BroadcastRelay;
 import io.atomix.utils.event.AbstractListenerManager;
 import io.atomix.utils.net.Address;
 import io.atomix.utils.serializer.Namespace;
@@ -36,6 +37,7 @@ import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
 import org.slf4j.Logger;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -45,13 +47,25 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Default cluster implementation.
+ * <p>
+ * If the discovery service {@link io.atomix.cluster.discovery.NodeDiscoveryService#detectsFailures() detects
+ * failures}, members are removed when discovery reports them as having left and the service sends no heartbeats.
+ * Members exchange metadata when they discover each other and broadcast their metadata when it changes. If a
+ * broadcast fanout is configured, metadata changes are relayed through a {@link BroadcastRelay tree} rather than sent
+ * by the changed member to every other member.
+ * <p>
+ * Otherwise, each member broadcasts its metadata directly to every other member each broadcast interval, and the
+ * broadcasts serve as heartbeats for a failure detector tracking the reachability of each member. These broadcasts
+ * are not relayed, since a member's reachability would then depend on the members relaying its heartbeats.
  */
 public class DefaultClusterMembershipService
     extends AbstractListenerManager<ClusterMembershipEvent, ClusterMembershipEventListener>
@@ -60,6 +74,8 @@ public class DefaultClusterMembershipService
   private static final Logger LOGGER = getLogger(DefaultClusterMembershipService.class);
 
   private static final String METADATA_BROADCAST = "atomix-cluster-metadata";
+  private static final String METADATA_SYNC = "atomix-cluster-metadata-sync";
+  private static final String METADATA_RELAY = "atomix-cluster-metadata-relay";
 
   private static final Serializer SERIALIZER = Serializer.using(
       Namespace.builder()
@@ -74,6 +90,8 @@ public class DefaultClusterMembershipService
   private final MembershipConfig config;
   private final ManagedNodeDiscoveryService discoveryService;
   private final BootstrapService bootstrapService;
+  private final int broadcastFanout;
+  private final BroadcastRelay metadataRelay;
 
   private final AtomicBoolean started = new AtomicBoolean();
   private final StatefulMember localMember;
@@ -91,9 +109,22 @@ public class DefaultClusterMembershipService
       ManagedNodeDiscoveryService discoveryService,
       BootstrapService bootstrapService,
       MembershipConfig config) {
+    this(localMember, discoveryService, bootstrapService, config, 0);
+  }
+
+  public DefaultClusterMembershipService(
+      Member localMember,
+      ManagedNodeDiscoveryService discoveryService,
+      BootstrapService bootstrapService,
+      MembershipConfig config,
+      int broadcastFanout) {
+    checkArgument(broadcastFanout >= 0, "broadcastFanout cannot be negative");
     this.discoveryService = checkNotNull(discoveryService, "discoveryService cannot be null");
     this.bootstrapService = checkNotNull(bootstrapService, "bootstrapService cannot be null");
     this.config = checkNotNull(config);
+    this.broadcastFanout = broadcastFanout;
+    this.metadataRelay = new BroadcastRelay(
+        bootstrapService.getMessagingService(), METADATA_RELAY, (origin, subject, payload) -> handleMetadata(origin, payload));
     this.localMember = new StatefulMember(
         localMember.id(),
         localMember.address(),
@@ -145,6 +176,9 @@ public class DefaultClusterMembershipService
     member.setReachable(true);
     if (members.putIfAbsent(member.id(), member) == null) {
       post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.MEMBER_ADDED, member));
+      if (discoveryService.detectsFailures() && !member.id().equals(localMember.id())) {
+        syncMetadata(member);
+      }
     }
   }
 
@@ -166,14 +200,70 @@ public class DefaultClusterMembershipService
     if (!localMember.properties().equals(localProperties)) {
       synchronized (this) {
         if (!localMember.properties().equals(localProperties)) {
-          localProperties = localMember.properties();
+          // Keep a copy, since the local member's properties are modified in place.
+          Properties properties = new Properties();
+          properties.putAll(localMember.properties());
+          localProperties = properties;
           post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.METADATA_CHANGED, localMember));
-          broadcastMetadata();
+          if (discoveryService.detectsFailures()) {
+            relayMetadata();
+          } else {
+            broadcastMetadata();
+          }
         }
       }
     }
   }
 
+  /**
+   * Broadcasts a local member metadata change to all peers, relaying it through a tree if a fanout is configured.
+   */
+  private void relayMetadata() {
+    List<StatefulMember> peers = members.values().stream()
+        .filter(member -> !member.id().equals(localMember.id()))
+        .collect(Collectors.toList());
+    if (broadcastFanout == 0 || peers.size() <= broadcastFanout) {
+      peers.forEach(this::broadcastMetadata);
+    } else {
+      metadataRelay.broadcast(
+          METADATA_BROADCAST,
+          SERIALIZER.encode(localMember),
+          broadcastFanout,
+          peers.stream().map(Member::address).collect(Collectors.toList()));
+    }
+  }
+
+  /**
+   * Exchanges metadata with a newly discovered member.
+   * <p>
+   * Both members sync when they discover each other, so each learns the other's metadata even if the sync request
+   * arrives before the receiver has discovered the sender.
+   *
+   * @param member the member with which to exchange metadata
+   */
+  private void syncMetadata(StatefulMember member) {
+    bootstrapService.getMessagingService().sendAndReceive(member.address(), METADATA_SYNC, SERIALIZER.encode(localMember))
+        .whenCompleteAsync((response, error) -> {
+          if (error == null) {
+            handleMetadata(member.address(), response);
+          } else {
+            LOGGER.debug("{} - Failed to sync metadata with {}", localMember.id(), member.id(), error);
+          }
+        }, heartbeatScheduler);
+  }
+
+  /**
+   * Handles a metadata sync request from a newly discovered member.
+   *
+   * @param address the address from which the request was sent
+   * @param message the sync request
+   * @return the local member metadata
+   */
+  private byte[] handleSync(Address address, byte[] message) {
+    handleMetadata(address, message);
+    return SERIALIZER.encode(localMember);
+  }
+
   /**
    * Broadcasts a local member metadata change to all peers.
    */
@@ -214,7 +304,9 @@ public class DefaultClusterMembershipService
         members.put(remoteMember.id(), remoteMember);
         post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.METADATA_CHANGED, remoteMember));
       }
-      failureDetectors.computeIfAbsent(localMember.id(), id -> new PhiAccrualFailureDetector()).report();
+      if (!discoveryService.detectsFailures()) {
+        failureDetectors.computeIfAbsent(localMember.id(), id -> new PhiAccrualFailureDetector()).report();
+      }
     }
   }
 
@@ -248,14 +340,25 @@ public class DefaultClusterMembershipService
   public CompletableFuture<ClusterMembershipService> start() {
     if (started.compareAndSet(false, true)) {
       discoveryService.addListener(discoveryEventListener);
+      if (discoveryService.detectsFailures()) {
+        // Members sync metadata as soon as they discover this member, which can be before discovery has started.
+        bootstrapService.getMessagingService().registerHandler(METADATA_SYNC, this::handleSync, heartbeatScheduler);
+        metadataRelay.start(heartbeatScheduler);
+      }
       return discoveryService.start().thenRun(() -> {
         LOGGER.info("{} - Member activated: {}", localMember.id(), localMember);
         localMember.setActive(true);
         localMember.setReachable(true);
         members.put(localMember.id(), localMember);
         bootstrapService.getMessagingService().registerHandler(METADATA_BROADCAST, this::handleMetadata, heartbeatScheduler);
-        heartbeatFuture = heartbeatScheduler.scheduleAtFixedRate(
-            this::broadcastMetadata, 0, config.getBroadcastInterval().toMillis(), TimeUnit.MILLISECONDS);
+        if (discoveryService.detectsFailures()) {
+          // Discovery removes failed members, so only check the local metadata for changes to send to the members.
+          heartbeatFuture = heartbeatScheduler.scheduleAtFixedRate(
+              this::checkMetadata, 0, config.getBroadcastInterval().toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+          heartbeatFuture = heartbeatScheduler.scheduleAtFixedRate(
+              this::broadcastMetadata, 0, config.getBroadcastInterval().toMillis(), TimeUnit.MILLISECONDS);
+        }
       }).thenApply(v -> {
         LOGGER.info("Started");
         return this;
@@ -282,6 +385,8 @@ public class DefaultClusterMembershipService
             localMember.setReachable(false);
             members.clear();
             bootstrapService.getMessagingService().unregisterHandler(METADATA_BROADCAST);
+            bootstrapService.getMessagingService().unregisterHandler(METADATA_SYNC);
+            metadataRelay.stop();
             LOGGER.info("Stopped");
           });
     }
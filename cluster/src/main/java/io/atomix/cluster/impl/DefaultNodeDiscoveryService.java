@@ -52,6 +52,11 @@ public class DefaultNodeDiscoveryService
     return provider.getNodes();
   }
 
+  @Override
+  public boolean detectsFailures() {
+    return provider.detectsFailures();
+  }
+
   @Override
   public CompletableFuture<NodeDiscoveryService> start() {
     if (started.compareAndSet(false, true)) {
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+/**
+ * Strategies for assigning messages to the pooled channels to a remote address.
+ * <p>
+ * Subjects that only send messages that don't await a reply always use the channel assigned to the subject by hash,
+ * so the order in which their messages are sent is preserved regardless of the strategy.
+ */
+public enum ChannelPoolStrategy {
+
+  /**
+   * Sends all messages for a subject on the channel assigned to the subject by hash.
+   */
+  HASH,
+
+  /**
+   * Sends requests for a subject on the least loaded channel whenever the subject has no outstanding messages.
+   * All messages for the subject, including those that don't await a reply, remain on the subject's channel while
+   * any of its messages are outstanding, so requests for a subject are never reordered with respect to each other or
+   * to earlier messages. A message that doesn't await a reply is outstanding only until it has been written, so it
+   * may be handled after a request sent once the subject has moved to another channel. Subjects that mix one-way
+   * messages and requests and require them to be handled in order should use {@link #HASH}.
+   */
+  LEAST_LOADED
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Utilization statistics for a pooled messaging channel.
+ */
+public final class ChannelStats {
+  private final boolean active;
+  private final int pendingRequests;
+  private final long pendingBytes;
+
+  public ChannelStats(boolean active, int pendingRequests, long pendingBytes) {
+    this.active = active;
+    this.pendingRequests = pendingRequests;
+    this.pendingBytes = pendingBytes;
+  }
+
+  /**
+   * Returns whether the channel is connected.
+   *
+   * @return whether the channel is connected
+   */
+  public boolean isActive() {
+    return active;
+  }
+
+  /**
+   * Returns the number of requests sent on the channel that are awaiting a reply.
+   *
+   * @return the number of pending requests
+   */
+  public int pendingRequests() {
+    return pendingRequests;
+  }
+
+  /**
+   * Returns the number of bytes written to the channel that have not yet been written to the socket.
+   *
+   * @return the number of pending outbound bytes
+   */
+  public long pendingBytes() {
+    return pendingBytes;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("active", active)
+        .add("pendingRequests", pendingRequests)
+        .add("pendingBytes", pendingBytes)
+        .toString();
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+/**
+ * Message payload compression codecs.
+ */
+public enum CompressionType {
+
+  /**
+   * Payloads are sent uncompressed.
+   */
+  NONE(0),
+
+  /**
+   * Payloads are compressed with LZ4.
+   */
+  LZ4(1);
+
+  private final int id;
+
+  CompressionType(int id) {
+    this.id = id;
+  }
+
+  /**
+   * Returns the unique compression type ID.
+   *
+   * @return the unique compression type ID
+   */
+  public int id() {
+    return id;
+  }
+
+  /**
+   * Returns the compression type associated with the given ID.
+   *
+   * @param id the compression type ID
+   * @return the compression type for the given ID
+   */
+  public static CompressionType forId(int id) {
+    switch (id) {
+      case 0:
+        return NONE;
+      case 1:
+        return LZ4;
+      default:
+        throw new IllegalArgumentException("Unknown compression type ID " + id);
+    }
+  }
+}
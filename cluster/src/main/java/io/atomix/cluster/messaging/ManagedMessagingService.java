@@ -16,9 +16,126 @@
 package io.atomix.cluster.messaging;
 
 import io.atomix.utils.Managed;
+import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 
 /**
  * Managed messaging service.
+ * <p>
+ * In addition to the {@code byte[]} based {@link MessagingService} API, the managed messaging service supports sending
+ * and receiving reference counted {@link ByteBuf} payloads. Buffer payloads passed to the service are owned by the
+ * service and are released once they've been written, and buffers returned by the service are owned by the caller and
+ * must be released by it. The default implementations copy buffers to and from byte arrays, while transport based
+ * implementations may write and read buffers without intermediate copies.
  */
 public interface ManagedMessagingService extends MessagingService, Managed<MessagingService> {
+
+  /**
+   * Sends a buffer asynchronously to the specified communication address.
+   * <p>
+   * The messaging service takes ownership of the payload buffer and releases it once the message has been sent.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @return future that is completed when the message is sent
+   */
+  default CompletableFuture<Void> sendAsync(Address address, String type, ByteBuf payload) {
+    final byte[] bytes;
+    try {
+      bytes = ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+    return sendAsync(address, type, bytes);
+  }
+
+  /**
+   * Sends a buffer asynchronously and expects a response buffer.
+   * <p>
+   * The messaging service takes ownership of the payload buffer. The response buffer is owned by the caller and must be
+   * released once it has been read.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @return a response future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload) {
+    return sendAndReceive(address, type, payload, null);
+  }
+
+  /**
+   * Sends a buffer asynchronously and expects a response buffer.
+   * <p>
+   * The messaging service takes ownership of the payload buffer. The response buffer is owned by the caller and must be
+   * released once it has been read.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @param timeout response timeout
+   * @return a response future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload, Duration timeout) {
+    final byte[] bytes;
+    try {
+      bytes = ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+    return sendAndReceive(address, type, bytes, timeout).thenApply(Unpooled::wrappedBuffer);
+  }
+
+  /**
+   * Sends a buffer asynchronously and expects a response buffer.
+   * <p>
+   * The messaging service takes ownership of the payload buffer. The response buffer is owned by the caller and must be
+   * released once it has been read.
+   *
+   * @param address  address to send the message to.
+   * @param type     type of message.
+   * @param payload  message payload buffer.
+   * @param timeout  response timeout
+   * @param executor executor over which any follow up actions after completion will be executed.
+   * @return a response future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceive(
+      Address address, String type, ByteBuf payload, Duration timeout, Executor executor) {
+    final byte[] bytes;
+    try {
+      bytes = ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+    return sendAndReceive(address, type, bytes, timeout, executor).thenApply(Unpooled::wrappedBuffer);
+  }
+
+  /**
+   * Registers a new buffer handler for message type.
+   * <p>
+   * The request buffer is only valid until the handler returns and is released by the messaging service. Handlers that
+   * read the request asynchronously must {@link ByteBuf#retain() retain} it. The messaging service takes ownership of
+   * the response buffer and releases it once the reply has been sent.
+   *
+   * @param type    message type.
+   * @param handler message handler
+   */
+  default void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    registerHandler(type, (BiFunction<Address, byte[], CompletableFuture<byte[]>>) (address, payload) ->
+        handler.apply(address, Unpooled.wrappedBuffer(payload)).thenApply(response -> {
+          try {
+            return ByteBufUtil.getBytes(response);
+          } finally {
+            response.release();
+          }
+        }));
+  }
 }
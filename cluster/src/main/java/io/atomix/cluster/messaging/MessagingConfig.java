@@ -0,0 +1,292 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+import io.atomix.utils.config.Config;
+
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Messaging configuration.
+ */
+public class MessagingConfig implements Config {
+  private static final int DEFAULT_FLUSH_BYTES = 1024 * 64;
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 1024 * 4;
+  private static final int DEFAULT_CHANNEL_POOL_SIZE = 8;
+  private static final int DEFAULT_MAX_PENDING_REQUESTS = 1024 * 8;
+  private static final int DEFAULT_MAX_PENDING_BYTES = 1024 * 1024 * 64;
+  private static final Duration DEFAULT_BACKPRESSURE_TIMEOUT = Duration.ofSeconds(5);
+
+  private Duration flushDelay = Duration.ZERO;
+  private int flushBytes = DEFAULT_FLUSH_BYTES;
+  private CompressionType compression = CompressionType.NONE;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+  private int channelPoolSize = DEFAULT_CHANNEL_POOL_SIZE;
+  private ChannelPoolStrategy channelPoolStrategy = ChannelPoolStrategy.LEAST_LOADED;
+  private int maxPendingRequests = DEFAULT_MAX_PENDING_REQUESTS;
+  private int maxPendingBytes = DEFAULT_MAX_PENDING_BYTES;
+  private Duration backpressureTimeout = DEFAULT_BACKPRESSURE_TIMEOUT;
+  private int broadcastFanout = 0;
+
+  /**
+   * Returns the maximum time for which outbound messages are buffered before being flushed.
+   * <p>
+   * A delay of zero flushes buffered messages once the channel's event loop has processed all pending writes.
+   *
+   * @return the maximum flush delay
+   */
+  public Duration getFlushDelay() {
+    return flushDelay;
+  }
+
+  /**
+   * Sets the maximum time for which outbound messages are buffered before being flushed.
+   * <p>
+   * A delay of zero flushes buffered messages once the channel's event loop has processed all pending writes.
+   *
+   * @param flushDelay the maximum flush delay
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the delay is negative
+   */
+  public MessagingConfig setFlushDelay(Duration flushDelay) {
+    checkNotNull(flushDelay, "flushDelay cannot be null");
+    checkArgument(!flushDelay.isNegative(), "flushDelay cannot be negative");
+    this.flushDelay = flushDelay;
+    return this;
+  }
+
+  /**
+   * Returns the number of buffered outbound bytes at which messages are flushed immediately.
+   *
+   * @return the flush byte threshold
+   */
+  public int getFlushBytes() {
+    return flushBytes;
+  }
+
+  /**
+   * Sets the number of buffered outbound bytes at which messages are flushed immediately.
+   *
+   * @param flushBytes the flush byte threshold
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the threshold is not positive
+   */
+  public MessagingConfig setFlushBytes(int flushBytes) {
+    checkArgument(flushBytes > 0, "flushBytes must be positive");
+    this.flushBytes = flushBytes;
+    return this;
+  }
+
+  /**
+   * Returns the codec with which to compress outbound message payloads.
+   * <p>
+   * Compression is negotiated per connection, and payloads are only compressed on connections to peers that have
+   * enabled the same codec.
+   *
+   * @return the message compression codec
+   */
+  public CompressionType getCompression() {
+    return compression;
+  }
+
+  /**
+   * Sets the codec with which to compress outbound message payloads.
+   * <p>
+   * Compression is negotiated per connection, and payloads are only compressed on connections to peers that have
+   * enabled the same codec.
+   *
+   * @param compression the message compression codec
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompression(CompressionType compression) {
+    this.compression = checkNotNull(compression, "compression cannot be null");
+    return this;
+  }
+
+  /**
+   * Returns the payload size below which messages are sent uncompressed.
+   *
+   * @return the compression size threshold in bytes
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the payload size below which messages are sent uncompressed.
+   *
+   * @param compressionThreshold the compression size threshold in bytes
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the threshold is negative
+   */
+  public MessagingConfig setCompressionThreshold(int compressionThreshold) {
+    checkArgument(compressionThreshold >= 0, "compressionThreshold cannot be negative");
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the number of channels in the pool of connections to each remote address.
+   *
+   * @return the channel pool size
+   */
+  public int getChannelPoolSize() {
+    return channelPoolSize;
+  }
+
+  /**
+   * Sets the number of channels in the pool of connections to each remote address.
+   *
+   * @param channelPoolSize the channel pool size
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the pool size is not positive
+   */
+  public MessagingConfig setChannelPoolSize(int channelPoolSize) {
+    checkArgument(channelPoolSize > 0, "channelPoolSize must be positive");
+    this.channelPoolSize = channelPoolSize;
+    return this;
+  }
+
+  /**
+   * Returns the strategy with which requests are assigned to pooled channels.
+   *
+   * @return the channel pool strategy
+   */
+  public ChannelPoolStrategy getChannelPoolStrategy() {
+    return channelPoolStrategy;
+  }
+
+  /**
+   * Sets the strategy with which requests are assigned to pooled channels.
+   *
+   * @param channelPoolStrategy the channel pool strategy
+   * @return the messaging configuration
+   */
+  public MessagingConfig setChannelPoolStrategy(ChannelPoolStrategy channelPoolStrategy) {
+    this.channelPoolStrategy = checkNotNull(channelPoolStrategy, "channelPoolStrategy cannot be null");
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of requests awaiting a reply from each remote address.
+   *
+   * @return the maximum number of pending requests per remote address
+   */
+  public int getMaxPendingRequests() {
+    return maxPendingRequests;
+  }
+
+  /**
+   * Sets the maximum number of requests awaiting a reply from each remote address.
+   * <p>
+   * Once the limit is reached, further requests to the address are delayed or rejected according to the
+   * {@link #setBackpressureTimeout(Duration) backpressure timeout}.
+   *
+   * @param maxPendingRequests the maximum number of pending requests per remote address
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public MessagingConfig setMaxPendingRequests(int maxPendingRequests) {
+    checkArgument(maxPendingRequests > 0, "maxPendingRequests must be positive");
+    this.maxPendingRequests = maxPendingRequests;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of outbound bytes in flight to each remote address.
+   *
+   * @return the maximum number of pending bytes per remote address
+   */
+  public int getMaxPendingBytes() {
+    return maxPendingBytes;
+  }
+
+  /**
+   * Sets the maximum number of outbound bytes in flight to each remote address.
+   * <p>
+   * The payloads of messages are counted until they have been written, and the payloads of requests are counted
+   * until a reply has been received. Once the limit is reached, further messages to the address are delayed or
+   * rejected according to the {@link #setBackpressureTimeout(Duration) backpressure timeout}. A single message
+   * larger than the limit is accepted when no other bytes are pending.
+   *
+   * @param maxPendingBytes the maximum number of pending bytes per remote address
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the limit is not positive
+   */
+  public MessagingConfig setMaxPendingBytes(int maxPendingBytes) {
+    checkArgument(maxPendingBytes > 0, "maxPendingBytes must be positive");
+    this.maxPendingBytes = maxPendingBytes;
+    return this;
+  }
+
+  /**
+   * Returns the maximum time for which a message waits for capacity when a remote address is overloaded.
+   *
+   * @return the backpressure timeout
+   */
+  public Duration getBackpressureTimeout() {
+    return backpressureTimeout;
+  }
+
+  /**
+   * Sets the maximum time for which a message waits for capacity when a remote address is overloaded.
+   * <p>
+   * Messages that cannot be sent within the timeout fail with {@link MessagingException.Overloaded}. A timeout of
+   * zero fails messages immediately once the pending request or byte limits are reached. By default, messages wait
+   * up to five seconds for capacity.
+   *
+   * @param backpressureTimeout the backpressure timeout
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the timeout is negative
+   */
+  public MessagingConfig setBackpressureTimeout(Duration backpressureTimeout) {
+    checkNotNull(backpressureTimeout, "backpressureTimeout cannot be null");
+    checkArgument(!backpressureTimeout.isNegative(), "backpressureTimeout cannot be negative");
+    this.backpressureTimeout = backpressureTimeout;
+    return this;
+  }
+
+  /**
+   * Returns the number of members to which each member relays broadcast messages.
+   *
+   * @return the broadcast fanout, or {@code 0} if broadcasts are sent directly to each member
+   */
+  public int getBroadcastFanout() {
+    return broadcastFanout;
+  }
+
+  /**
+   * Sets the number of members to which each member relays broadcast messages.
+   * <p>
+   * By default, broadcast and multicast messages are sent by the sender directly to each recipient, so the cost of
+   * a broadcast falls entirely on the sender. When a fanout is set, messages to more members than the fanout are
+   * instead relayed through a tree in which each member forwards the message to at most {@code fanout} others.
+   * This spreads the cost of broadcasts in large clusters at the expense of additional hops. Member metadata changes
+   * are relayed the same way when the discovery provider detects failures.
+   *
+   * @param broadcastFanout the broadcast fanout, or {@code 0} to send broadcasts directly to each member
+   * @return the messaging configuration
+   * @throws IllegalArgumentException if the fanout is negative
+   */
+  public MessagingConfig setBroadcastFanout(int broadcastFanout) {
+    checkArgument(broadcastFanout >= 0, "broadcastFanout cannot be negative");
+    this.broadcastFanout = broadcastFanout;
+    return this;
+  }
+}
@@ -64,4 +64,13 @@ public class MessagingException extends IOException {
       super("Failed to process message due to invalid message structure");
     }
   }
+
+  /**
+   * Exception indicating that a message was rejected because too many messages are pending to the destination.
+   */
+  public static class Overloaded extends MessagingException {
+    public Overloaded() {
+      super("Too many messages pending to the destination");
+    }
+  }
 }
@@ -18,6 +18,8 @@ package io.atomix.cluster.messaging;
 import io.atomix.utils.net.Address;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
@@ -123,6 +125,16 @@ public interface MessagingService {
    */
   void unregisterHandler(String type);
 
+  /**
+   * Returns utilization statistics for each channel in the pool of connections to the given address.
+   *
+   * @param address the address for which to return channel statistics
+   * @return the statistics for each channel in the pool, or an empty list if no channels have been opened
+   */
+  default List<ChannelStats> getChannelStats(Address address) {
+    return Collections.emptyList();
+  }
+
   /**
    * Messaging service builder.
    */
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+import io.atomix.cluster.impl.AddressSerializer;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Namespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Relays broadcast messages through a tree of members.
+ * <p>
+ * The sender splits the recipients into {@code fanout} groups and sends the message to the first member of each
+ * group, which delivers it locally and relays it to the rest of its group in the same way. The cost of a broadcast is
+ * thus spread across the cluster, with each member sending at most {@code fanout} copies of the message, and a
+ * broadcast reaches {@code N} members in about {@code log_fanout(N)} hops. Duplicate messages are dropped by ID.
+ * <p>
+ * Relayed messages are delivered on a best-effort basis, and delivery to a member depends on the members above it in
+ * the tree. Each relay is acknowledged once the receiving member has delivered the message locally and begun relaying
+ * it, and if a member fails to acknowledge a relay the next member of its group takes its place. A member that fails
+ * after acknowledging a relay but before relaying the message to the rest of its group may prevent those members from
+ * receiving the message.
+ */
+public class BroadcastRelay {
+
+  /**
+   * Handler for messages delivered by the relay.
+   */
+  @FunctionalInterface
+  public interface Handler {
+
+    /**
+     * Handles a relayed message.
+     *
+     * @param origin the address of the member that broadcast the message
+     * @param subject the message subject
+     * @param payload the message payload
+     */
+    void handle(Address origin, String subject, byte[] payload);
+  }
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(BroadcastRelay.class);
+  private static final Serializer SERIALIZER = Serializer.using(Namespace.builder()
+      .register(Namespaces.BASIC)
+      .nextId(Namespaces.BEGIN_USER_CUSTOM_ID)
+      .register(new AddressSerializer(), Address.class)
+      .register(RelayMessage.class)
+      .build());
+  private static final int RELAY_CACHE_SIZE = 1024 * 16;
+  private static final long RELAY_CACHE_EXPIRATION_MILLIS = 1000 * 60;
+  private static final Duration RELAY_TIMEOUT = Duration.ofSeconds(5);
+  private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+  private final MessagingService messagingService;
+  private final String type;
+  private final Handler handler;
+  // The epoch ensures a restarted member does not reuse identifiers still cached by other members.
+  private final String epoch = UUID.randomUUID().toString();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Cache<String, Boolean> relayedMessages = CacheBuilder.newBuilder()
+      .maximumSize(RELAY_CACHE_SIZE)
+      .expireAfterWrite(RELAY_CACHE_EXPIRATION_MILLIS, TimeUnit.MILLISECONDS)
+      .build();
+
+  public BroadcastRelay(MessagingService messagingService, String type, Handler handler) {
+    this.messagingService = checkNotNull(messagingService, "messagingService cannot be null");
+    this.type = checkNotNull(type, "type cannot be null");
+    this.handler = checkNotNull(handler, "handler cannot be null");
+  }
+
+  /**
+   * Broadcasts a message to the given recipients through the relay tree.
+   * <p>
+   * The fanout is set by the sender so that members relay consistently regardless of their own configuration.
+   *
+   * @param subject the message subject
+   * @param payload the message payload
+   * @param fanout the maximum number of members to which each member relays the message
+   * @param recipients the addresses of the members to which to broadcast the message
+   */
+  public void broadcast(String subject, byte[] payload, int fanout, Collection<Address> recipients) {
+    checkArgument(fanout > 0, "fanout must be positive");
+    List<Address> addresses = new ArrayList<>(recipients);
+    addresses.sort(Comparator.comparing(Address::toString));
+    String id = epoch + "-" + sequence.incrementAndGet();
+    relay(new RelayMessage(id, messagingService.address(), subject, payload, fanout, addresses));
+  }
+
+  /**
+   * Relays a message to its recipients.
+   * <p>
+   * The recipients are split into up to {@code fanout} contiguous groups, and the message is sent to the first
+   * member of each group along with the remainder of the group, which that member becomes responsible for.
+   *
+   * @param message the message to relay
+   */
+  private void relay(RelayMessage message) {
+    List<Address> recipients = message.recipients();
+    if (recipients.isEmpty()) {
+      return;
+    }
+    int groups = Math.min(message.fanout(), recipients.size());
+    int groupSize = recipients.size() / groups;
+    int remainder = recipients.size() % groups;
+    int start = 0;
+    for (int i = 0; i < groups; i++) {
+      int end = start + groupSize + (i < remainder ? 1 : 0);
+      relay(message, new ArrayList<>(recipients.subList(start, end)));
+      start = end;
+    }
+  }
+
+  /**
+   * Relays a message to the first member of the given group.
+   * <p>
+   * If the first member of the group does not acknowledge the message, the next member takes its place so that the
+   * failure of a single member does not prevent delivery to the rest of its group.
+   *
+   * @param message the message to relay
+   * @param group the group to which to relay the message
+   */
+  private void relay(RelayMessage message, List<Address> group) {
+    Address address = group.get(0);
+    ArrayList<Address> recipients = new ArrayList<>(group.subList(1, group.size()));
+    RelayMessage relayMessage = new RelayMessage(
+        message.id(), message.origin(), message.subject(), message.payload(), message.fanout(), recipients);
+    messagingService.sendAndReceive(address, type, SERIALIZER.encode(relayMessage), RELAY_TIMEOUT)
+        .whenComplete((result, error) -> {
+          if (error != null && !recipients.isEmpty()) {
+            LOGGER.debug("Failed to relay message {} to {}", message.id(), address, error);
+            relay(message, recipients);
+          }
+        });
+  }
+
+  /**
+   * Handles a relayed message, delivering it locally and relaying it to the remainder of its group.
+   *
+   * @param sender the address from which the message was relayed
+   * @param bytes the encoded relay message
+   * @return an empty acknowledgement
+   */
+  private byte[] handleRelay(Address sender, byte[] bytes) {
+    RelayMessage message = SERIALIZER.decode(bytes);
+    if (relayedMessages.asMap().putIfAbsent(message.id(), Boolean.TRUE) != null) {
+      return EMPTY_PAYLOAD;
+    }
+
+    relay(message);
+    handler.handle(message.origin(), message.subject(), message.payload());
+    return EMPTY_PAYLOAD;
+  }
+
+  /**
+   * Starts handling messages relayed to the local member.
+   *
+   * @param executor the executor on which to handle relayed messages
+   */
+  public void start(Executor executor) {
+    messagingService.registerHandler(type, this::handleRelay, executor);
+  }
+
+  /**
+   * Stops handling messages relayed to the local member.
+   */
+  public void stop() {
+    messagingService.unregisterHandler(type);
+  }
+
+  /**
+   * Message relayed through the broadcast tree.
+   */
+  private static class RelayMessage {
+    private final String id;
+    private final Address origin;
+    private final String subject;
+    private final byte[] payload;
+    private final int fanout;
+    private final ArrayList<Address> recipients;
+
+    RelayMessage(String id, Address origin, String subject, byte[] payload, int fanout, List<Address> recipients) {
+      this.id = id;
+      this.origin = origin;
+      this.subject = subject;
+      this.payload = payload;
+      this.fanout = fanout;
+      this.recipients = Lists.newArrayList(recipients);
+    }
+
+    /**
+     * Returns the unique message identifier.
+     *
+     * @return the unique message identifier
+     */
+    String id() {
+      return id;
+    }
+
+    /**
+     * Returns the address of the member that sent the message.
+     *
+     * @return the address of the member that sent the message
+     */
+    Address origin() {
+      return origin;
+    }
+
+    /**
+     * Returns the message subject.
+     *
+     * @return the message subject
+     */
+    String subject() {
+      return subject;
+    }
+
+    /**
+     * Returns the message payload.
+     *
+     * @return the message payload
+     */
+    byte[] payload() {
+      return payload;
+    }
+
+    /**
+     * Returns the maximum number of members to which each member relays the message.
+     *
+     * @return the relay fanout
+     */
+    int fanout() {
+      return fanout;
+    }
+
+    /**
+     * Returns the members to which the recipient of the message is responsible for relaying it.
+     *
+     * @return the members to which to relay the message
+     */
+    List<Address> recipients() {
+      return recipients;
+    }
+  }
+}
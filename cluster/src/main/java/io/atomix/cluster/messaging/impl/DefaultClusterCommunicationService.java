@@ -16,6 +16,8 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.atomix.cluster.ClusterMembershipService;
 import io.atomix.cluster.Member;
 import io.atomix.cluster.MemberId;
@@ -29,6 +31,9 @@ import org.slf4j.LoggerFactory;
 
 import java.net.ConnectException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -39,10 +44,16 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Cluster communication service implementation.
+ * <p>
+ * By default, broadcast and multicast messages are sent directly from the sender to each recipient. When a
+ * {@link io.atomix.cluster.messaging.MessagingConfig#setBroadcastFanout(int) broadcast fanout} is configured,
+ * messages to more recipients than the fanout are relayed through a tree instead, so that each member sends at most
+ * {@code fanout} copies of the message. See {@link BroadcastRelay} for the delivery guarantees of relayed messages.
  */
 public class DefaultClusterCommunicationService implements ManagedClusterCommunicationService {
 
@@ -53,13 +64,26 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
     CONNECT_EXCEPTION.setStackTrace(new StackTraceElement[0]);
   }
 
+  private static final String RELAY_SUBJECT = "atomix-cluster-relay";
+
   protected final ClusterMembershipService membershipService;
   protected final MessagingService messagingService;
+  private final int broadcastFanout;
+  private final Map<String, BiConsumer<Address, byte[]>> localHandlers = Maps.newConcurrentMap();
+  private final BroadcastRelay relay;
   private final AtomicBoolean started = new AtomicBoolean();
 
   public DefaultClusterCommunicationService(ClusterMembershipService membershipService, MessagingService messagingService) {
+    this(membershipService, messagingService, 0);
+  }
+
+  public DefaultClusterCommunicationService(
+      ClusterMembershipService membershipService, MessagingService messagingService, int broadcastFanout) {
+    checkArgument(broadcastFanout >= 0, "broadcastFanout cannot be negative");
     this.membershipService = checkNotNull(membershipService, "clusterService cannot be null");
     this.messagingService = checkNotNull(messagingService, "messagingService cannot be null");
+    this.broadcastFanout = broadcastFanout;
+    this.relay = new BroadcastRelay(messagingService, RELAY_SUBJECT, this::handleRelay);
   }
 
   @Override
@@ -105,7 +129,43 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
       Function<M, byte[]> encoder,
       Set<MemberId> nodes) {
     byte[] payload = encoder.apply(message);
-    nodes.forEach(memberId -> doUnicast(subject, payload, memberId));
+    if (broadcastFanout == 0 || nodes.size() <= broadcastFanout) {
+      nodes.forEach(memberId -> doUnicast(subject, payload, memberId));
+      return;
+    }
+
+    MemberId localMemberId = membershipService.getLocalMember().id();
+    List<Address> addresses = new ArrayList<>(nodes.size());
+    for (MemberId memberId : nodes) {
+      if (memberId.equals(localMemberId)) {
+        doUnicast(subject, payload, memberId);
+      } else {
+        Member member = membershipService.getMember(memberId);
+        if (member != null) {
+          addresses.add(member.address());
+        }
+      }
+    }
+    relay.broadcast(subject, payload, broadcastFanout, addresses);
+  }
+
+  /**
+   * Delivers a relayed message to the local subscriber.
+   * <p>
+   * Messages are handed to the local subscription with the original sender's address, so subscribers see the same
+   * sender as with direct delivery.
+   *
+   * @param origin the address of the member that broadcast the message
+   * @param subject the message subject
+   * @param payload the message payload
+   */
+  private void handleRelay(Address origin, String subject, byte[] payload) {
+    BiConsumer<Address, byte[]> handler = localHandlers.get(subject);
+    if (handler != null) {
+      handler.accept(origin, payload);
+    } else {
+      messagingService.sendAsync(messagingService.address(), subject, payload);
+    }
   }
 
   @Override
@@ -141,6 +201,7 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
 
   @Override
   public void unsubscribe(String subject) {
+    localHandlers.remove(subject);
     messagingService.unregisterHandler(subject);
   }
 
@@ -150,18 +211,19 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
                                                   Function<M, R> handler,
                                                   Function<R, byte[]> encoder,
                                                   Executor executor) {
-    messagingService.registerHandler(subject,
-        new InternalMessageResponder<M, R>(decoder, encoder, m -> {
-          CompletableFuture<R> responseFuture = new CompletableFuture<>();
-          executor.execute(() -> {
-            try {
-              responseFuture.complete(handler.apply(m));
-            } catch (Exception e) {
-              responseFuture.completeExceptionally(e);
-            }
-          });
-          return responseFuture;
-        }));
+    InternalMessageResponder<M, R> responder = new InternalMessageResponder<M, R>(decoder, encoder, m -> {
+      CompletableFuture<R> responseFuture = new CompletableFuture<>();
+      executor.execute(() -> {
+        try {
+          responseFuture.complete(handler.apply(m));
+        } catch (Exception e) {
+          responseFuture.completeExceptionally(e);
+        }
+      });
+      return responseFuture;
+    });
+    localHandlers.put(subject, responder::apply);
+    messagingService.registerHandler(subject, responder);
     return CompletableFuture.completedFuture(null);
   }
 
@@ -170,7 +232,9 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
                                                   Function<byte[], M> decoder,
                                                   Function<M, CompletableFuture<R>> handler,
                                                   Function<R, byte[]> encoder) {
-    messagingService.registerHandler(subject, new InternalMessageResponder<>(decoder, encoder, handler));
+    InternalMessageResponder<M, R> responder = new InternalMessageResponder<>(decoder, encoder, handler);
+    localHandlers.put(subject, responder::apply);
+    messagingService.registerHandler(subject, responder);
     return CompletableFuture.completedFuture(null);
   }
 
@@ -179,23 +243,24 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
                                                Function<byte[], M> decoder,
                                                Consumer<M> handler,
                                                Executor executor) {
-    messagingService.registerHandler(subject,
-        new InternalMessageConsumer<>(decoder, handler),
-        executor);
+    InternalMessageConsumer<M> consumer = new InternalMessageConsumer<>(decoder, handler);
+    localHandlers.put(subject, (address, bytes) -> executor.execute(() -> consumer.accept(address, bytes)));
+    messagingService.registerHandler(subject, consumer, executor);
     return CompletableFuture.completedFuture(null);
   }
 
   @Override
   public <M> CompletableFuture<Void> subscribe(String subject, Function<byte[], M> decoder, BiConsumer<Address, M> handler, Executor executor) {
-    messagingService.registerHandler(subject,
-        new InternalMessageBiConsumer<>(decoder, handler),
-        executor);
+    InternalMessageBiConsumer<M> consumer = new InternalMessageBiConsumer<>(decoder, handler);
+    localHandlers.put(subject, (address, bytes) -> executor.execute(() -> consumer.accept(address, bytes)));
+    messagingService.registerHandler(subject, consumer, executor);
     return CompletableFuture.completedFuture(null);
   }
 
   @Override
   public CompletableFuture<ClusterCommunicationService> start() {
     if (started.compareAndSet(false, true)) {
+      relay.start(MoreExecutors.directExecutor());
       log.info("Started");
     }
     return CompletableFuture.completedFuture(this);
@@ -209,6 +274,7 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
   @Override
   public CompletableFuture<Void> stop() {
     if (started.compareAndSet(true, false)) {
+      relay.stop();
       log.info("Stopped");
     }
     return CompletableFuture.completedFuture(null);
@@ -262,4 +328,4 @@ public class DefaultClusterCommunicationService implements ManagedClusterCommuni
       consumer.accept(decoder.apply(bytes));
     }
   }
-}
\ No newline at end of file
+}
@@ -32,7 +32,6 @@ import io.atomix.utils.serializer.Namespace;
 import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.LogicalTimestamp;
-import io.atomix.utils.time.WallClockTimestamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,6 +40,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +55,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -70,13 +71,15 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
       .register(Namespaces.BASIC)
       .register(MemberId.class)
       .register(LogicalTimestamp.class)
-      .register(WallClockTimestamp.class)
       .register(InternalSubscriptionInfo.class)
+      .register(InternalSubscriptionDelta.class)
       .register(InternalMessage.class)
       .register(InternalMessage.Type.class)
       .build());
 
   private static final String GOSSIP_MESSAGE_SUBJECT = "ClusterEventingService-update";
+  private static final String SYNC_MESSAGE_SUBJECT = "ClusterEventingService-sync";
+  private static final String DELTA_MESSAGE_SUBJECT = "ClusterEventingService-delta";
 
   private static final long GOSSIP_INTERVAL_MILLIS = 1000;
   private static final long TOMBSTONE_EXPIRATION_MILLIS = 1000 * 60;
@@ -84,9 +87,10 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
   private final ClusterMembershipService membershipService;
   private final MessagingService messagingService;
   private final MemberId localMemberId;
-  private final AtomicLong logicalTime = new AtomicLong();
+  private final AtomicLong logicalTime = new AtomicLong(System.currentTimeMillis());
   private ScheduledExecutorService gossipExecutor;
-  private final Map<MemberId, Long> updateTimes = Maps.newConcurrentMap();
+  private final Map<MemberId, Long> versions = Maps.newConcurrentMap();
+  private final Map<MemberId, Map<MemberId, Long>> peerVersions = Maps.newConcurrentMap();
   private final Map<String, InternalTopic> topics = Maps.newConcurrentMap();
   private final AtomicBoolean started = new AtomicBoolean();
 
@@ -200,27 +204,100 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
   }
 
   /**
-   * Handles a collection of subscription updates received via the gossip protocol.
+   * Handles a collection of subscription updates pushed by the member that owns them.
+   * <p>
+   * Each member versions its own subscription changes with consecutive logical timestamps, so an update that
+   * immediately follows the version vector entry for its owner advances the vector. Updates received out of order
+   * are applied but leave the vector unchanged, and the gap is filled by the next anti-entropy round.
    *
    * @param subscriptions a collection of subscriptions provided by the sender
    */
   private void update(Collection<InternalSubscriptionInfo> subscriptions) {
     for (InternalSubscriptionInfo subscription : subscriptions) {
-      InternalTopic topic = topics.computeIfAbsent(subscription.topic, InternalTopic::new);
-      InternalSubscriptionInfo matchingSubscription = topic.remoteSubscriptions().stream()
-          .filter(s -> s.memberId().equals(subscription.memberId()) && s.logicalTimestamp().equals(subscription.logicalTimestamp()))
-          .findFirst()
-          .orElse(null);
-      if (matchingSubscription == null) {
-        topic.addRemoteSubscription(subscription);
-      } else if (subscription.isTombstone()) {
-        topic.removeRemoteSubscription(subscription);
+      if (!subscription.memberId().equals(localMemberId)) {
+        merge(subscription);
+        versions.compute(subscription.memberId(), (memberId, version) -> {
+          long currentVersion = version != null ? version : 0;
+          return subscription.version().value() == currentVersion + 1 ? currentVersion + 1 : currentVersion;
+        });
       }
     }
   }
 
   /**
-   * Sends a gossip message to an active peer.
+   * Handles a subscription delta received via the anti-entropy protocol.
+   * <p>
+   * A delta contains all of the sender's subscriptions that are newer than the receiver's version vector as known
+   * to the sender, so once it's applied the receiver is at least as up to date as the sender's version vector.
+   *
+   * @param delta the subscription delta
+   */
+  private void update(InternalSubscriptionDelta delta) {
+    peerVersions.put(delta.memberId(), delta.versions());
+    for (InternalSubscriptionInfo subscription : delta.subscriptions()) {
+      merge(subscription);
+    }
+    delta.versions().forEach((memberId, version) -> {
+      if (!memberId.equals(localMemberId)) {
+        versions.merge(memberId, version, Math::max);
+      }
+    });
+  }
+
+  /**
+   * Merges a remote subscription into the topic to which it belongs.
+   *
+   * @param subscription the subscription to merge
+   */
+  private void merge(InternalSubscriptionInfo subscription) {
+    // Subscriptions owned by the local member are authoritative and are never updated by peers.
+    if (!subscription.memberId().equals(localMemberId)) {
+      topics.computeIfAbsent(subscription.topic(), InternalTopic::new).mergeRemoteSubscription(subscription);
+    }
+  }
+
+  /**
+   * Returns a copy of the local version vector.
+   *
+   * @return a copy of the local version vector
+   */
+  private HashMap<MemberId, Long> getVersions() {
+    return new HashMap<>(versions);
+  }
+
+  /**
+   * Returns the subscriptions that are newer than the given version vector.
+   *
+   * @param peerVersions the version vector of the peer to which to send the subscriptions
+   * @return the subscriptions that are newer than the given version vector
+   */
+  private ArrayList<InternalSubscriptionInfo> getSubscriptions(Map<MemberId, Long> peerVersions) {
+    if (versions.entrySet().stream().noneMatch(e -> e.getValue() > peerVersions.getOrDefault(e.getKey(), 0L))) {
+      return new ArrayList<>();
+    }
+    return topics.values()
+        .stream()
+        .flatMap(t -> t.remoteSubscriptions().stream())
+        .filter(s -> s.version().value() > peerVersions.getOrDefault(s.memberId(), 0L))
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  /**
+   * Handles an anti-entropy request from a peer.
+   *
+   * @param digest the peer's version vector
+   * @return the subscriptions the peer is missing along with the local version vector
+   */
+  private InternalSubscriptionDelta sync(InternalSubscriptionDelta digest) {
+    peerVersions.put(digest.memberId(), digest.versions());
+    return new InternalSubscriptionDelta(localMemberId, getVersions(), getSubscriptions(digest.versions()));
+  }
+
+  /**
+   * Runs an anti-entropy round with a random active peer.
+   * <p>
+   * Peers exchange version vectors and transfer only the subscriptions the other is missing, so when peers are in
+   * sync a round costs a single digest in each direction regardless of the number of topics.
    */
   private void gossip() {
     List<Member> members = membershipService.getMembers()
@@ -232,18 +309,34 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     if (!members.isEmpty()) {
       Collections.shuffle(members);
       Member member = members.get(0);
-      updateNode(member);
+      InternalSubscriptionDelta digest = new InternalSubscriptionDelta(localMemberId, getVersions(), new ArrayList<>());
+      messagingService.sendAndReceive(member.address(), SYNC_MESSAGE_SUBJECT, SERIALIZER.encode(digest))
+          .whenCompleteAsync((response, error) -> {
+            if (error == null) {
+              InternalSubscriptionDelta delta = SERIALIZER.decode(response);
+              update(delta);
+              HashMap<MemberId, Long> versions = getVersions();
+              ArrayList<InternalSubscriptionInfo> subscriptions = getSubscriptions(delta.versions());
+              if (!subscriptions.isEmpty()) {
+                messagingService.sendAsync(member.address(), DELTA_MESSAGE_SUBJECT, SERIALIZER.encode(
+                    new InternalSubscriptionDelta(localMemberId, versions, subscriptions)));
+              }
+            }
+          }, gossipExecutor);
     }
   }
 
   /**
-   * Updates all active peers with a given subscription.
+   * Pushes a local subscription change to all peers.
+   *
+   * @param subscription the subscription that changed
    */
-  private CompletableFuture<Void> updateNodes() {
+  private CompletableFuture<Void> updateNodes(InternalSubscriptionInfo subscription) {
+    byte[] payload = SERIALIZER.encode(Lists.newArrayList(subscription));
     List<CompletableFuture<Void>> futures = membershipService.getMembers()
         .stream()
         .filter(node -> !localMemberId.equals(node.id()))
-        .map(this::updateNode)
+        .map(member -> updateNode(member, payload))
         .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
   }
@@ -252,38 +345,30 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
    * Sends an update to the given node.
    *
    * @param member the node to which to send the update
+   * @param payload the encoded subscriptions to send
    */
-  private CompletableFuture<Void> updateNode(Member member) {
-    long updateTime = System.currentTimeMillis();
-    long lastUpdateTime = updateTimes.getOrDefault(member.id(), 0L);
-
-    Collection<InternalSubscriptionInfo> subscriptions = topics.values()
-        .stream()
-        .flatMap(t -> t.remoteSubscriptions().stream().filter(subscriber -> subscriber.timestamp().unixTimestamp() >= lastUpdateTime))
-        .collect(Collectors.toList());
-
+  private CompletableFuture<Void> updateNode(Member member, byte[] payload) {
     CompletableFuture<Void> future = new CompletableFuture<>();
-    messagingService.sendAndReceive(member.address(), GOSSIP_MESSAGE_SUBJECT, SERIALIZER.encode(subscriptions))
-        .whenComplete((result, error) -> {
-          if (error == null) {
-            updateTimes.put(member.id(), updateTime);
-          }
-          future.complete(null);
-        });
+    messagingService.sendAndReceive(member.address(), GOSSIP_MESSAGE_SUBJECT, payload)
+        .whenComplete((result, error) -> future.complete(null));
     return future;
   }
 
   /**
-   * Purges tombstones from the subscription list.
+   * Purges tombstones that all peers are known to have received.
    */
   private void purgeTombstones() {
-    long minTombstoneTime = membershipService.getMembers()
+    List<Map<MemberId, Long>> memberVersions = membershipService.getMembers()
         .stream()
-        .map(node -> updateTimes.getOrDefault(node.id(), 0L))
-        .reduce(Math::min)
-        .orElse(0L);
+        .filter(node -> !localMemberId.equals(node.id()))
+        .map(node -> peerVersions.getOrDefault(node.id(), Collections.emptyMap()))
+        .collect(Collectors.toList());
+    peerVersions.keySet().retainAll(membershipService.getMembers().stream()
+        .map(Member::id)
+        .collect(Collectors.toSet()));
     for (InternalTopic topic : topics.values()) {
-      topic.purgeTombstones(minTombstoneTime);
+      topic.purgeTombstones(subscription -> memberVersions.stream()
+          .allMatch(v -> v.getOrDefault(subscription.memberId(), 0L) >= subscription.version().value()));
     }
   }
 
@@ -303,9 +388,15 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
           TOMBSTONE_EXPIRATION_MILLIS,
           TimeUnit.MILLISECONDS);
       messagingService.registerHandler(GOSSIP_MESSAGE_SUBJECT, (address, payload) -> {
-        update(SERIALIZER.decode(payload));
+        update((Collection<InternalSubscriptionInfo>) SERIALIZER.decode(payload));
         return new byte[0];
       }, gossipExecutor);
+      messagingService.registerHandler(SYNC_MESSAGE_SUBJECT, (address, payload) -> {
+        return SERIALIZER.encode(sync(SERIALIZER.decode(payload)));
+      }, gossipExecutor);
+      messagingService.registerHandler(DELTA_MESSAGE_SUBJECT, (address, payload) -> {
+        update((InternalSubscriptionDelta) SERIALIZER.decode(payload));
+      }, gossipExecutor);
       LOGGER.info("Started");
     }
     return CompletableFuture.completedFuture(this);
@@ -319,6 +410,9 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
   @Override
   public CompletableFuture<Void> stop() {
     if (started.compareAndSet(true, false)) {
+      messagingService.unregisterHandler(GOSSIP_MESSAGE_SUBJECT);
+      messagingService.unregisterHandler(SYNC_MESSAGE_SUBJECT);
+      messagingService.unregisterHandler(DELTA_MESSAGE_SUBJECT);
       if (gossipExecutor != null) {
         gossipExecutor.shutdown();
       }
@@ -408,7 +502,7 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
      */
     <M, R> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         CompletableFuture<byte[]> future = new CompletableFuture<>();
         executor.execute(() -> {
           try {
@@ -418,7 +512,7 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
           }
         });
         return future;
-      }));
+      });
     }
 
     /**
@@ -426,9 +520,9 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
      */
     <M, R> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler, Function<R, byte[]> encoder) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         return handler.apply(decoder.apply(payload)).thenApply(encoder);
-      }));
+      });
     }
 
     /**
@@ -436,7 +530,7 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
      */
     <M> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Consumer<M> handler, Executor executor) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         executor.execute(() -> {
           try {
             handler.accept(decoder.apply(payload));
@@ -444,20 +538,27 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
           }
         });
         return CompletableFuture.completedFuture(null);
-      }));
+      });
     }
 
     /**
      * Registers the node as a subscriber for the given topic.
      *
-     * @param subscription the subscription to register
+     * @param callback the subscription callback
      */
-    private synchronized CompletableFuture<Subscription> addLocalSubscription(InternalSubscription subscription) {
-      subscribers.add(subscription);
-      subscriptions.add(subscription.metadata);
+    private synchronized CompletableFuture<Subscription> addLocalSubscription(
+        Function<byte[], CompletableFuture<byte[]>> callback) {
+      InternalSubscription subscription;
+      synchronized (versions) {
+        LogicalTimestamp timestamp = new LogicalTimestamp(logicalTime.incrementAndGet());
+        subscription = new InternalSubscription(this, timestamp, callback);
+        subscribers.add(subscription);
+        subscriptions.add(subscription.metadata);
+        versions.put(localMemberId, timestamp.value());
+      }
       iterator = new TopicIterator(subscriptions);
       messagingService.registerHandler(subscription.topic(), subscribers);
-      return updateNodes().thenApply(v -> subscription);
+      return updateNodes(subscription.metadata).thenApply(v -> subscription);
     }
 
     /**
@@ -466,33 +567,38 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
      * @param subscription the subscription to unregister
      */
     private synchronized CompletableFuture<Void> removeLocalSubscription(InternalSubscription subscription) {
-      subscribers.remove(subscription);
-      subscriptions.remove(subscription.metadata);
-      subscriptions.add(subscription.metadata.asTombstone());
+      InternalSubscriptionInfo tombstone;
+      synchronized (versions) {
+        tombstone = subscription.metadata.asTombstone(new LogicalTimestamp(logicalTime.incrementAndGet()));
+        subscribers.remove(subscription);
+        subscriptions.remove(subscription.metadata);
+        subscriptions.add(tombstone);
+        versions.put(localMemberId, tombstone.version().value());
+      }
       iterator = new TopicIterator(subscriptions);
       if (subscriptions.stream().filter(s -> s.isTombstone()).count() == 0) {
         messagingService.unregisterHandler(subscription.topic());
       }
-      return updateNodes();
-    }
-
-    /**
-     * Adds a subscription to the topic.
-     *
-     * @param subscription the subscription to add
-     */
-    synchronized void addRemoteSubscription(InternalSubscriptionInfo subscription) {
-      subscriptions.add(subscription);
-      iterator = new TopicIterator(subscriptions);
+      return updateNodes(tombstone);
     }
 
     /**
-     * Updates a subscription to the topic.
+     * Merges a remote subscription into the topic, replacing any older version of the subscription.
      *
-     * @param subscription the subscription to update
+     * @param subscription the subscription to merge
      */
-    synchronized void removeRemoteSubscription(InternalSubscriptionInfo subscription) {
-      subscriptions.remove(subscription);
+    synchronized void mergeRemoteSubscription(InternalSubscriptionInfo subscription) {
+      InternalSubscriptionInfo matchingSubscription = subscriptions.stream()
+          .filter(s -> s.memberId().equals(subscription.memberId())
+              && s.logicalTimestamp().equals(subscription.logicalTimestamp()))
+          .findFirst()
+          .orElse(null);
+      if (matchingSubscription != null) {
+        if (matchingSubscription.version().value() >= subscription.version().value()) {
+          return;
+        }
+        subscriptions.remove(matchingSubscription);
+      }
       subscriptions.add(subscription);
       iterator = new TopicIterator(subscriptions);
     }
@@ -500,13 +606,11 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     /**
      * Purges tombstones from the topic.
      *
-     * @param minTombstoneTime the time before which tombstones can be removed
+     * @param purgeable predicate indicating whether a tombstone can be removed
      */
-    synchronized void purgeTombstones(long minTombstoneTime) {
+    synchronized void purgeTombstones(Predicate<InternalSubscriptionInfo> purgeable) {
       int startSize = subscriptions.size();
-      subscriptions.removeIf(subscription -> {
-        return subscription.isTombstone() && subscription.timestamp().unixTimestamp() < minTombstoneTime;
-      });
+      subscriptions.removeIf(subscription -> subscription.isTombstone() && purgeable.test(subscription));
       if (subscriptions.size() != startSize) {
         iterator = new TopicIterator(subscriptions);
       }
@@ -613,9 +717,10 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     private final InternalSubscriptionInfo metadata;
     private final Function<byte[], CompletableFuture<byte[]>> callback;
 
-    public InternalSubscription(InternalTopic topic, Function<byte[], CompletableFuture<byte[]>> callback) {
+    public InternalSubscription(
+        InternalTopic topic, LogicalTimestamp timestamp, Function<byte[], CompletableFuture<byte[]>> callback) {
       this.topic = topic;
-      this.metadata = new InternalSubscriptionInfo(localMemberId, topic.topic, new LogicalTimestamp(logicalTime.incrementAndGet()));
+      this.metadata = new InternalSubscriptionInfo(localMemberId, topic.topic, timestamp);
       this.callback = callback;
     }
 
@@ -637,17 +742,19 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     private final MemberId memberId;
     private final String topic;
     private final LogicalTimestamp logicalTimestamp;
+    private final LogicalTimestamp version;
     private final boolean tombstone;
-    private final WallClockTimestamp timestamp = new WallClockTimestamp();
 
     InternalSubscriptionInfo(MemberId memberId, String topic, LogicalTimestamp logicalTimestamp) {
-      this(memberId, topic, logicalTimestamp, false);
+      this(memberId, topic, logicalTimestamp, logicalTimestamp, false);
     }
 
-    InternalSubscriptionInfo(MemberId memberId, String topic, LogicalTimestamp logicalTimestamp, boolean tombstone) {
+    InternalSubscriptionInfo(
+        MemberId memberId, String topic, LogicalTimestamp logicalTimestamp, LogicalTimestamp version, boolean tombstone) {
       this.memberId = memberId;
       this.topic = topic;
       this.logicalTimestamp = logicalTimestamp;
+      this.version = version;
       this.tombstone = tombstone;
     }
 
@@ -679,12 +786,12 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     }
 
     /**
-     * Returns the wall clock time at which the subscription was created.
+     * Returns the logical time at which the subscription was last changed.
      *
-     * @return the wall clock time at which the subscription was created
+     * @return the logical time at which the subscription was last changed
      */
-    WallClockTimestamp timestamp() {
-      return timestamp;
+    LogicalTimestamp version() {
+      return version;
     }
 
     /**
@@ -699,10 +806,54 @@ public class DefaultClusterEventService implements ManagedClusterEventService {
     /**
      * Returns a new subscription as a tombstone.
      *
+     * @param version the logical time at which the subscription was removed
      * @return the subscription as a tombstone
      */
-    InternalSubscriptionInfo asTombstone() {
-      return new InternalSubscriptionInfo(memberId, topic, logicalTimestamp, true);
+    InternalSubscriptionInfo asTombstone(LogicalTimestamp version) {
+      return new InternalSubscriptionInfo(memberId, topic, logicalTimestamp, version, true);
+    }
+  }
+
+  /**
+   * Anti-entropy message carrying a member's version vector and the subscriptions the recipient is missing.
+   */
+  private static class InternalSubscriptionDelta {
+    private final MemberId memberId;
+    private final HashMap<MemberId, Long> versions;
+    private final ArrayList<InternalSubscriptionInfo> subscriptions;
+
+    InternalSubscriptionDelta(
+        MemberId memberId, HashMap<MemberId, Long> versions, ArrayList<InternalSubscriptionInfo> subscriptions) {
+      this.memberId = memberId;
+      this.versions = versions;
+      this.subscriptions = subscriptions;
+    }
+
+    /**
+     * Returns the member that sent the delta.
+     *
+     * @return the member that sent the delta
+     */
+    MemberId memberId() {
+      return memberId;
+    }
+
+    /**
+     * Returns the sender's version vector.
+     *
+     * @return the sender's version vector, mapping each member to the latest of its changes known to the sender
+     */
+    Map<MemberId, Long> versions() {
+      return versions;
+    }
+
+    /**
+     * Returns the subscriptions the recipient is missing.
+     *
+     * @return the subscriptions the recipient is missing
+     */
+    List<InternalSubscriptionInfo> subscriptions() {
+      return subscriptions;
     }
   }
 }
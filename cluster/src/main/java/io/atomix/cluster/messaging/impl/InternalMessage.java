@@ -15,10 +15,19 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.AbstractReferenceCounted;
+
 /**
  * Base class for internal messages.
+ * <p>
+ * Messages are reference counted and hold a reference to their payload buffer. Messages written to a channel are
+ * released by the {@link MessageEncoder} once encoded, and messages read from a channel are released by the inbound
+ * dispatcher once they've been dispatched. Payload buffers that must outlive the message have to be retained.
  */
-public abstract class InternalMessage {
+public abstract class InternalMessage extends AbstractReferenceCounted {
 
   /**
    * Internal message type.
@@ -62,11 +71,19 @@ public abstract class InternalMessage {
 
   private final int preamble;
   private final long id;
-  private final byte[] payload;
+  private final ByteBuf payload;
+  private byte[] payloadBytes;
 
   protected InternalMessage(int preamble,
                             long id,
                             byte[] payload) {
+    this(preamble, id, Unpooled.wrappedBuffer(payload));
+    this.payloadBytes = payload;
+  }
+
+  protected InternalMessage(int preamble,
+                            long id,
+                            ByteBuf payload) {
     this.preamble = preamble;
     this.id = id;
     this.payload = payload;
@@ -90,7 +107,37 @@ public abstract class InternalMessage {
     return id;
   }
 
+  /**
+   * Returns the message payload as a byte array, copying it out of the payload buffer if necessary.
+   *
+   * @return the message payload
+   */
   public byte[] payload() {
+    if (payloadBytes == null) {
+      payloadBytes = ByteBufUtil.getBytes(payload, payload.readerIndex(), payload.readableBytes(), false);
+    }
+    return payloadBytes;
+  }
+
+  /**
+   * Returns the message payload buffer.
+   * <p>
+   * The buffer is owned by the message and is released when the message is released.
+   *
+   * @return the message payload buffer
+   */
+  public ByteBuf buffer() {
     return payload;
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void deallocate() {
+    payload.release();
+  }
+
+  @Override
+  public InternalMessage touch(Object hint) {
+    payload.touch(hint);
+    return this;
+  }
+}
@@ -16,7 +16,7 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Internal reply message.
@@ -103,6 +103,14 @@ public final class InternalReply extends InternalMessage {
         this.status = status;
     }
 
+    public InternalReply(int preamble,
+            long id,
+            ByteBuf payload,
+            Status status) {
+        super(preamble, id, payload);
+        this.status = status;
+    }
+
     @Override
     public Type type() {
         return Type.REPLY;
@@ -117,7 +125,7 @@ public final class InternalReply extends InternalMessage {
         return MoreObjects.toStringHelper(this)
                 .add("id", id())
                 .add("status", status())
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("length", buffer().readableBytes())
                 .toString();
     }
 }
\ No newline at end of file
@@ -17,7 +17,7 @@ package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
 import io.atomix.utils.net.Address;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Internal request message.
@@ -25,6 +25,7 @@ import io.atomix.utils.misc.ArraySizeHashPrinter;
 public final class InternalRequest extends InternalMessage {
     private final Address sender;
     private final String subject;
+    private final int subjectId;
 
     public InternalRequest(
         int preamble,
@@ -32,9 +33,42 @@ public final class InternalRequest extends InternalMessage {
         Address sender,
         String subject,
         byte[] payload) {
+        this(preamble, id, sender, subject, -1, payload);
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        int subjectId,
+        byte[] payload) {
         super(preamble, id, payload);
         this.sender = sender;
         this.subject = subject;
+        this.subjectId = subjectId;
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        ByteBuf payload) {
+        this(preamble, id, sender, subject, -1, payload);
+    }
+
+    public InternalRequest(
+        int preamble,
+        long id,
+        Address sender,
+        String subject,
+        int subjectId,
+        ByteBuf payload) {
+        super(preamble, id, payload);
+        this.sender = sender;
+        this.subject = subject;
+        this.subjectId = subjectId;
     }
 
     @Override
@@ -46,6 +80,15 @@ public final class InternalRequest extends InternalMessage {
         return subject;
     }
 
+    /**
+     * Returns the identifier assigned to the subject by the connection on which the request was received.
+     *
+     * @return the connection-local subject identifier, or {@code -1} if the subject has no identifier
+     */
+    public int subjectId() {
+        return subjectId;
+    }
+
     public Address sender() {
         return sender;
     }
@@ -56,7 +99,7 @@ public final class InternalRequest extends InternalMessage {
                 .add("id", id())
                 .add("subject", subject)
                 .add("sender", sender)
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("length", buffer().readableBytes())
                 .toString();
     }
 }
\ No newline at end of file
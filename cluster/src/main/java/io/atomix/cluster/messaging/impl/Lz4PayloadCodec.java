@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * LZ4 message payload codec.
+ * <p>
+ * Compressed payloads are written as the uncompressed length followed by a single LZ4 block.
+ */
+final class Lz4PayloadCodec {
+  private static final int INT_SIZE = 4;
+
+  /**
+   * Maximum uncompressed payload length accepted by the decoder.
+   */
+  static final int MAX_PAYLOAD_LENGTH = 1024 * 1024 * 256;
+
+  private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+  private static final LZ4Compressor COMPRESSOR = FACTORY.fastCompressor();
+  private static final LZ4SafeDecompressor DECOMPRESSOR = FACTORY.safeDecompressor();
+
+  private Lz4PayloadCodec() {
+  }
+
+  /**
+   * Compresses the readable bytes of the given payload into a new buffer.
+   *
+   * @param alloc   the allocator with which to allocate the compressed buffer
+   * @param payload the payload to compress
+   * @return the compressed payload
+   */
+  static ByteBuf compress(ByteBufAllocator alloc, ByteBuf payload) {
+    final int length = payload.readableBytes();
+    final int maxLength = COMPRESSOR.maxCompressedLength(length);
+    final ByteBuf out = alloc.buffer(INT_SIZE + maxLength);
+    try {
+      out.writeInt(length);
+      final ByteBuffer src = payload.nioBuffer(payload.readerIndex(), length);
+      final ByteBuffer dest = out.nioBuffer(out.writerIndex(), maxLength);
+      final int compressedLength = COMPRESSOR.compress(src, src.position(), length, dest, dest.position(), maxLength);
+      out.writerIndex(out.writerIndex() + compressedLength);
+      return out;
+    } catch (RuntimeException e) {
+      out.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Decompresses the readable bytes of the given buffer into a new buffer.
+   *
+   * @param alloc      the allocator with which to allocate the decompressed buffer
+   * @param compressed the compressed payload
+   * @return the decompressed payload
+   */
+  static ByteBuf decompress(ByteBufAllocator alloc, ByteBuf compressed) {
+    final int length = compressed.readInt();
+    checkState(length >= 0 && length <= MAX_PAYLOAD_LENGTH, "Invalid payload length %s", length);
+    final ByteBuf out = alloc.buffer(length);
+    try {
+      final ByteBuffer src = compressed.nioBuffer(compressed.readerIndex(), compressed.readableBytes());
+      final ByteBuffer dest = out.nioBuffer(0, length);
+      final int decompressedLength = DECOMPRESSOR.decompress(
+          src, src.position(), src.remaining(), dest, dest.position(), length);
+      checkState(decompressedLength == length, "Decompressed %s bytes, expected %s", decompressedLength, length);
+      out.writerIndex(length);
+      return out;
+    } catch (RuntimeException e) {
+      out.release();
+      throw e;
+    }
+  }
+}
@@ -17,6 +17,7 @@ package io.atomix.cluster.messaging.impl;
 
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import org.slf4j.Logger;
@@ -24,20 +25,29 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Decoder for inbound messages.
+ * <p>
+ * The decoder maintains the receiving side of the {@link MessageEncoder} subject dictionary. Each distinct subject read
+ * in full is assigned the next connection-local ID, and subsequent requests referencing that ID reuse the same
+ * {@code String} instance. Subjects may be read in full more than once, e.g. from peers that have not negotiated
+ * subject IDs, in which case they keep their original ID.
+ * <p>
+ * Message payloads are not copied out of the inbound buffer. Each decoded message holds a retained slice of the
+ * cumulated inbound buffer which is released when the message is released.
  */
 public class MessageDecoder extends ByteToMessageDecoder {
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
-  private static final byte[] EMPTY_PAYLOAD = new byte[0];
-
   private static final int BYTE_SIZE = 1;
   private static final int SHORT_SIZE = 2;
   private static final int INT_SIZE = 4;
@@ -50,11 +60,14 @@ public class MessageDecoder extends ByteToMessageDecoder {
   private Address address;
 
   private InternalMessage.Type type;
+  private boolean compressed;
   private int preamble;
   private long messageId;
   private int contentLength;
-  private byte[] content;
+  private ByteBuf content;
   private int subjectLength;
+  private final List<String> subjects = new ArrayList<>();
+  private final Map<String, Integer> subjectIds = new HashMap<>();
 
   @Override
   @SuppressWarnings("squid:S128") // suppress switch fall through warning
@@ -90,7 +103,9 @@ public class MessageDecoder extends ByteToMessageDecoder {
         if (buffer.readableBytes() < BYTE_SIZE) {
           return;
         }
-        type = InternalMessage.Type.forId(buffer.readByte());
+        int typeId = buffer.readUnsignedByte();
+        compressed = (typeId & MessageEncoder.COMPRESSED_FLAG) != 0;
+        type = InternalMessage.Type.forId(typeId & ~MessageEncoder.COMPRESSED_FLAG);
         currentState = DecoderState.READ_PREAMBLE;
       case READ_PREAMBLE:
         if (buffer.readableBytes() < INT_SIZE) {
@@ -116,10 +131,13 @@ public class MessageDecoder extends ByteToMessageDecoder {
         }
         if (contentLength > 0) {
           // TODO: Perform a sanity check on the size before allocating
-          content = new byte[contentLength];
-          buffer.readBytes(content);
+          if (compressed) {
+            content = Lz4PayloadCodec.decompress(context.alloc(), buffer.readSlice(contentLength));
+          } else {
+            content = buffer.readRetainedSlice(contentLength);
+          }
         } else {
-          content = EMPTY_PAYLOAD;
+          content = Unpooled.EMPTY_BUFFER;
         }
 
         switch (type) {
@@ -147,16 +165,40 @@ public class MessageDecoder extends ByteToMessageDecoder {
             subjectLength = buffer.readShort();
             currentState = DecoderState.READ_SUBJECT;
           case READ_SUBJECT:
-            if (buffer.readableBytes() < subjectLength) {
-              return;
+            final String subject;
+            final int subjectId;
+            if (subjectLength < 0) {
+              // A negative length references a subject previously read from the channel.
+              subjectId = -subjectLength - 1;
+              checkState(subjectId < subjects.size(), "Unknown subject ID %s", subjectId);
+              subject = subjects.get(subjectId);
+            } else {
+              if (buffer.readableBytes() < subjectLength) {
+                return;
+              }
+              final String subjectString = readString(buffer, subjectLength, UTF_8);
+              final Integer knownId = subjectIds.get(subjectString);
+              if (knownId != null) {
+                subjectId = knownId;
+                subject = subjects.get(knownId);
+              } else if (subjects.size() < MessageEncoder.MAX_SUBJECT_IDS) {
+                subjectId = subjects.size();
+                subject = subjectString;
+                subjects.add(subject);
+                subjectIds.put(subject, subjectId);
+              } else {
+                subjectId = -1;
+                subject = subjectString;
+              }
             }
-            final String subject = readString(buffer, subjectLength, UTF_8);
             InternalRequest message = new InternalRequest(
                 preamble,
                 messageId,
                 address,
                 subject,
+                subjectId,
                 content);
+            content = null;
             out.add(message);
             currentState = DecoderState.READ_TYPE;
             break;
@@ -175,6 +217,7 @@ public class MessageDecoder extends ByteToMessageDecoder {
                 messageId,
                 content,
                 status);
+            content = null;
             out.add(message);
             currentState = DecoderState.READ_TYPE;
             break;
@@ -203,6 +246,15 @@ public class MessageDecoder extends ByteToMessageDecoder {
     }
   }
 
+  @Override
+  protected void handlerRemoved0(ChannelHandlerContext context) throws Exception {
+    // Release the content of a partially decoded message.
+    if (content != null) {
+      content.release();
+      content = null;
+    }
+  }
+
   @Override
   public void exceptionCaught(ChannelHandlerContext context, Throwable cause) {
     try {
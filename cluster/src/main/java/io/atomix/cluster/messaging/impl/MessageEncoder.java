@@ -15,49 +15,143 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.cluster.messaging.CompressionType;
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.AttributeKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Encode InternalMessage out into a byte buffer.
+ * <p>
+ * Message headers and trailers are written to buffers allocated from the channel's allocator. Payloads larger than
+ * {@link #COPY_THRESHOLD} are not copied but are instead added to a composite buffer as a retained slice of the
+ * message's payload buffer, which is released once the composite buffer has been written to the socket.
+ * <p>
+ * Request subjects are sent in full the first time they're written to the channel and are implicitly assigned the
+ * next connection-local subject ID. Once the peer has negotiated {@link #SUBJECT_ID_VERSION} or later, subsequent
+ * requests for the same subject write only the negated ID in place of the subject length, and the
+ * {@link MessageDecoder} on the other end of the channel resolves the ID from its own copy of the dictionary. Peers
+ * that have not negotiated a version are assumed to only understand full subjects.
+ * <p>
+ * Payloads of at least the configured threshold are compressed only once the peer has advertised the same codec in
+ * the protocol handshake and it has been recorded in the channel's {@link #PEER_COMPRESSION} attribute. Compressed
+ * messages are flagged in the message type byte. Until then, and on channels to peers that don't support compression,
+ * messages are framed exactly as in the original protocol.
  */
-public class MessageEncoder extends MessageToByteEncoder<Object> {
-// Effectively MessageToByteEncoder<InternalMessage>,
+public class MessageEncoder extends MessageToMessageEncoder<Object> {
+// Effectively MessageToMessageEncoder<InternalMessage>,
 // had to specify <Object> to avoid Class Loader not being able to find some classes.
 
+  /**
+   * Version of the message framing implemented by this encoder and the {@link MessageDecoder}.
+   * <p>
+   * Version {@code 0} is the original framing, and is assumed for peers that do not negotiate a version.
+   */
+  static final int PROTOCOL_VERSION = 1;
+
+  /**
+   * Protocol version from which requests may reference subjects by ID.
+   */
+  static final int SUBJECT_ID_VERSION = 1;
+
+  /**
+   * Channel attribute holding the protocol version negotiated with the peer.
+   */
+  static final AttributeKey<Integer> PEER_VERSION = AttributeKey.valueOf("atomix-peer-version");
+
+  /**
+   * Maximum number of subjects that will be assigned IDs on a single connection.
+   */
+  static final int MAX_SUBJECT_IDS = Short.MAX_VALUE;
+
+  /**
+   * Payload size below which payloads are copied into the frame rather than added as a slice of a composite buffer.
+   */
+  static final int COPY_THRESHOLD = 1024;
+
+  /**
+   * Message type flag indicating the payload is compressed.
+   */
+  static final int COMPRESSED_FLAG = 0x80;
+
+  /**
+   * Channel attribute holding the compression codec advertised by the peer during the protocol handshake.
+   */
+  static final AttributeKey<CompressionType> PEER_COMPRESSION = AttributeKey.valueOf("atomix-peer-compression");
+
+  private static final int HEADER_SIZE = 1 + 4 + 8 + 4;
+  private static final int MAX_ADDRESS_SIZE = 1 + 16 + 4 + 1;
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   private final Address address;
   private final int preamble;
+  private final CompressionType compression;
+  private final int compressionThreshold;
   private boolean addressWritten;
+  private final Map<String, Integer> subjectIds = new HashMap<>();
 
   public MessageEncoder(Address address, int preamble) {
+    this(address, preamble, CompressionType.NONE, Integer.MAX_VALUE);
+  }
+
+  public MessageEncoder(Address address, int preamble, CompressionType compression, int compressionThreshold) {
     super();
     this.address = address;
     this.preamble = preamble;
+    this.compression = compression;
+    this.compressionThreshold = compressionThreshold;
   }
 
   @Override
   protected void encode(
       ChannelHandlerContext context,
       Object rawMessage,
-      ByteBuf out) throws Exception {
+      List<Object> out) throws Exception {
     if (rawMessage instanceof InternalRequest) {
-      encodeRequest((InternalRequest) rawMessage, out);
+      out.add(encodeRequest(context, (InternalRequest) rawMessage));
     } else if (rawMessage instanceof InternalReply) {
-      encodeReply((InternalReply) rawMessage, out);
+      out.add(encodeReply(context, (InternalReply) rawMessage));
     }
   }
 
-  private void encodeMessage(InternalMessage message, ByteBuf out) {
+  private ByteBuf encodeMessage(ChannelHandlerContext context, InternalMessage message, int trailerSize) {
+    ByteBuf payload = message.buffer();
+    int type = message.type().id();
+
+    // Compress the payload if it's large enough and the peer has advertised the same codec. If compression doesn't
+    // shrink the payload, it's sent uncompressed.
+    ByteBuf compressed = null;
+    if (compression != CompressionType.NONE
+        && payload.readableBytes() >= compressionThreshold
+        && context.channel().attr(PEER_COMPRESSION).get() == compression) {
+      compressed = Lz4PayloadCodec.compress(context.alloc(), payload);
+      if (compressed.readableBytes() < payload.readableBytes()) {
+        payload = compressed;
+        type |= COMPRESSED_FLAG;
+      } else {
+        compressed.release();
+        compressed = null;
+      }
+    }
+
+    final int length = payload.readableBytes();
+    final boolean copy = length < COPY_THRESHOLD;
+    final ByteBuf out = context.alloc().buffer(
+        MAX_ADDRESS_SIZE + HEADER_SIZE + (copy ? length + trailerSize : 0));
+
     // If the address hasn't been written to the channel, write it.
     if (!addressWritten) {
       final InetAddress senderIp = address.address();
@@ -71,41 +165,92 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       addressWritten = true;
     }
 
-    out.writeByte(message.type().id());
+    out.writeByte(type);
     out.writeInt(this.preamble);
 
     // write message id
     out.writeLong(message.id());
 
-    final byte[] payload = message.payload();
-
     // write payload length
-    out.writeInt(payload.length);
+    out.writeInt(length);
+
+    // Small payloads are copied into the header buffer. Larger payloads are added to a composite buffer
+    // as a slice of the message payload to avoid the copy.
+    if (copy) {
+      out.writeBytes(payload, payload.readerIndex(), length);
+      if (compressed != null) {
+        compressed.release();
+      }
+      return out;
+    }
 
-    // write payload.
-    out.writeBytes(payload);
+    final CompositeByteBuf composite = context.alloc().compositeBuffer(3);
+    composite.addComponent(true, out);
+    composite.addComponent(true, compressed != null ? compressed : payload.retainedSlice());
+    return composite;
   }
 
-  private void encodeRequest(InternalRequest request, ByteBuf out) {
-    encodeMessage(request, out);
+  private ByteBuf encodeRequest(ChannelHandlerContext context, InternalRequest request) {
+    // If the subject has already been written to the channel and the peer supports subject IDs, write the negated
+    // subject ID.
+    final Integer subjectId = subjectIds.get(request.subject());
+    if (subjectId != null && peerVersion(context) >= SUBJECT_ID_VERSION) {
+      final ByteBuf out = encodeMessage(context, request, 2);
+      final ByteBuf trailer = trailer(context, out, 2);
+      trailer.writeShort(-(subjectId + 1));
+      return appendTrailer(out, trailer);
+    }
 
-    final ByteBuf buf = out.alloc().buffer(ByteBufUtil.utf8MaxBytes(request.subject()));
-    try {
-      final int length = ByteBufUtil.writeUtf8(buf, request.subject());
-      // write length of message type
-      out.writeShort(length);
-      // write message type bytes
-      out.writeBytes(buf);
-    } finally {
-      buf.release();
+    final int maxLength = ByteBufUtil.utf8MaxBytes(request.subject());
+    final ByteBuf out = encodeMessage(context, request, 2 + maxLength);
+    final ByteBuf trailer = trailer(context, out, 2 + maxLength);
+
+    // write length of message type, then the message type bytes
+    final int lengthIndex = trailer.writerIndex();
+    trailer.writeShort(0);
+    final int length = ByteBufUtil.writeUtf8(trailer, request.subject());
+    trailer.setShort(lengthIndex, length);
+
+    // The decoder assigns IDs in the order in which subjects are first read, so assign the next ID here. IDs are
+    // assigned even before a version has been negotiated to keep the dictionaries in sync.
+    if (subjectId == null && subjectIds.size() < MAX_SUBJECT_IDS) {
+      subjectIds.put(request.subject(), subjectIds.size());
     }
+    return appendTrailer(out, trailer);
   }
 
-  private void encodeReply(InternalReply reply, ByteBuf out) {
-    encodeMessage(reply, out);
+  private ByteBuf encodeReply(ChannelHandlerContext context, InternalReply reply) {
+    final ByteBuf out = encodeMessage(context, reply, 1);
+    final ByteBuf trailer = trailer(context, out, 1);
 
     // write message status value
-    out.writeByte(reply.status().id());
+    trailer.writeByte(reply.status().id());
+    return appendTrailer(out, trailer);
+  }
+
+  /**
+   * Returns the protocol version negotiated with the peer on the given channel.
+   */
+  private static int peerVersion(ChannelHandlerContext context) {
+    Integer version = context.channel().attr(PEER_VERSION).get();
+    return version != null ? version : 0;
+  }
+
+  /**
+   * Returns the buffer to which to write the message trailer.
+   */
+  private ByteBuf trailer(ChannelHandlerContext context, ByteBuf out, int size) {
+    return out instanceof CompositeByteBuf ? context.alloc().buffer(size) : out;
+  }
+
+  /**
+   * Appends the given trailer to the message buffer if it was written to a separate buffer.
+   */
+  private ByteBuf appendTrailer(ByteBuf out, ByteBuf trailer) {
+    if (trailer != out) {
+      ((CompositeByteBuf) out).addComponent(true, trailer);
+    }
+    return out;
   }
 
   @Override
@@ -121,7 +266,7 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
     }
   }
 
-  // Effectively same result as one generated by MessageToByteEncoder<InternalMessage>
+  // Effectively same result as one generated by MessageToMessageEncoder<InternalMessage>
   @Override
   public final boolean acceptOutboundMessage(Object msg) throws Exception {
     return msg instanceof InternalMessage;
@@ -21,19 +21,27 @@ import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.atomix.cluster.messaging.ChannelPoolStrategy;
+import io.atomix.cluster.messaging.ChannelStats;
+import io.atomix.cluster.messaging.CompressionType;
 import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.utils.net.Address;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOutboundBuffer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
@@ -46,6 +54,8 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
 import io.netty.util.concurrent.Future;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.SynchronizedDescriptiveStatistics;
@@ -66,14 +76,17 @@ import java.security.MessageDigest;
 import java.security.cert.Certificate;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -83,10 +96,11 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
-import java.util.function.Function;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
@@ -112,6 +126,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   public static class Builder extends MessagingService.Builder {
     private String name = DEFAULT_NAME;
     private Address address;
+    private MessagingConfig config = new MessagingConfig();
 
     /**
      * Sets the cluster name.
@@ -137,12 +152,122 @@ public class NettyMessagingService implements ManagedMessagingService {
       return this;
     }
 
+    /**
+     * Sets the maximum time for which outbound messages are buffered before being flushed.
+     *
+     * @param flushDelay the maximum flush delay
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the delay is null
+     * @throws IllegalArgumentException if the delay is negative
+     */
+    public Builder withFlushDelay(Duration flushDelay) {
+      config.setFlushDelay(flushDelay);
+      return this;
+    }
+
+    /**
+     * Sets the number of buffered outbound bytes at which messages are flushed immediately.
+     *
+     * @param flushBytes the flush byte threshold
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public Builder withFlushBytes(int flushBytes) {
+      config.setFlushBytes(flushBytes);
+      return this;
+    }
+
+    /**
+     * Sets the codec with which to compress large message payloads.
+     *
+     * @param compression the message compression codec
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the codec is null
+     */
+    public Builder withCompression(CompressionType compression) {
+      config.setCompression(compression);
+      return this;
+    }
+
+    /**
+     * Sets the payload size below which messages are sent uncompressed.
+     *
+     * @param compressionThreshold the compression size threshold in bytes
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public Builder withCompressionThreshold(int compressionThreshold) {
+      config.setCompressionThreshold(compressionThreshold);
+      return this;
+    }
+
+    /**
+     * Sets the number of channels in the pool of connections to each remote address.
+     *
+     * @param channelPoolSize the channel pool size
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the pool size is not positive
+     */
+    public Builder withChannelPoolSize(int channelPoolSize) {
+      config.setChannelPoolSize(channelPoolSize);
+      return this;
+    }
+
+    /**
+     * Sets the strategy with which requests are assigned to pooled channels.
+     *
+     * @param channelPoolStrategy the channel pool strategy
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the strategy is null
+     */
+    public Builder withChannelPoolStrategy(ChannelPoolStrategy channelPoolStrategy) {
+      config.setChannelPoolStrategy(channelPoolStrategy);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests awaiting a reply from each remote address.
+     *
+     * @param maxPendingRequests the maximum number of pending requests per remote address
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public Builder withMaxPendingRequests(int maxPendingRequests) {
+      config.setMaxPendingRequests(maxPendingRequests);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of outbound bytes in flight to each remote address.
+     *
+     * @param maxPendingBytes the maximum number of pending bytes per remote address
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public Builder withMaxPendingBytes(int maxPendingBytes) {
+      config.setMaxPendingBytes(maxPendingBytes);
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which a message waits for capacity when a remote address is overloaded.
+     *
+     * @param backpressureTimeout the backpressure timeout
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the timeout is null
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public Builder withBackpressureTimeout(Duration backpressureTimeout) {
+      config.setBackpressureTimeout(backpressureTimeout);
+      return this;
+    }
+
     @Override
     public ManagedMessagingService build() {
       if (address == null) {
         address = Address.local();
       }
-      return new NettyMessagingService(name.hashCode(), address);
+      return new NettyMessagingService(name.hashCode(), address, config);
     }
   }
 
@@ -156,9 +281,9 @@ public class NettyMessagingService implements ManagedMessagingService {
   private static final int MIN_SAMPLES = 25;
   private static final double PHI_FACTOR = 1.0 / Math.log(10.0);
   private static final int PHI_FAILURE_THRESHOLD = 12;
-  private static final int CHANNEL_POOL_SIZE = 8;
+  private static final AttributeKey<ChannelPool> CHANNEL_POOL = AttributeKey.valueOf("channelPool");
+  private static final String HANDSHAKE_SUBJECT = "atomix-messaging-handshake";
 
-  private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
   private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -173,15 +298,17 @@ public class NettyMessagingService implements ManagedMessagingService {
 
   private final Address localAddress;
   private final int preamble;
+  private final MessagingConfig config;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final Map<String, BiConsumer<InternalRequest, ServerConnection>> handlers = new ConcurrentHashMap<>();
+  private final AtomicLong handlersVersion = new AtomicLong();
   private final Map<Channel, RemoteClientConnection> clientConnections = Maps.newConcurrentMap();
   private final Map<Channel, RemoteServerConnection> serverConnections = Maps.newConcurrentMap();
   private final AtomicLong messageIdGenerator = new AtomicLong(0);
 
   private ScheduledFuture<?> timeoutFuture;
 
-  private final Map<Address, List<CompletableFuture<Channel>>> channels = Maps.newConcurrentMap();
+  private final Map<Address, ChannelPool> channels = Maps.newConcurrentMap();
 
   private EventLoopGroup serverGroup;
   private EventLoopGroup clientGroup;
@@ -198,8 +325,13 @@ public class NettyMessagingService implements ManagedMessagingService {
   protected KeyManagerFactory keyManager;
 
   protected NettyMessagingService(int preamble, Address address) {
+    this(preamble, address, new MessagingConfig());
+  }
+
+  protected NettyMessagingService(int preamble, Address address, MessagingConfig config) {
     this.preamble = preamble;
     this.localAddress = address;
+    this.config = checkNotNull(config);
   }
 
   @Override
@@ -337,6 +469,11 @@ public class NettyMessagingService implements ManagedMessagingService {
     for (RemoteClientConnection connection : clientConnections.values()) {
       connection.timeoutCallbacks();
     }
+
+    // Fail messages that have been awaiting capacity for longer than the backpressure timeout.
+    for (ChannelPool pool : channels.values()) {
+      pool.timeoutPendingMessages();
+    }
   }
 
   @Override
@@ -346,7 +483,19 @@ public class NettyMessagingService implements ManagedMessagingService {
         localAddress,
         type,
         payload);
-    return executeOnPooledConnection(address, type, c -> c.sendAsync(message), MoreExecutors.directExecutor());
+    return executeOnPooledConnection(
+        address, message, false, ClientConnection::sendAsync, MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public CompletableFuture<Void> sendAsync(Address address, String type, ByteBuf payload) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        payload);
+    return executeOnPooledConnection(
+        address, message, false, ClientConnection::sendAsync, MoreExecutors.directExecutor());
   }
 
   @Override
@@ -372,37 +521,61 @@ public class NettyMessagingService implements ManagedMessagingService {
         localAddress,
         type,
         payload);
-    return executeOnPooledConnection(address, type, c -> c.sendAndReceive(message, timeout), executor);
+    return executeOnPooledConnection(address, message, true, (c, m) -> c.sendAndReceive(m, timeout), executor)
+        .thenApply(buffer -> {
+          try {
+            return ByteBufUtil.getBytes(buffer, buffer.readerIndex(), buffer.readableBytes(), false);
+          } finally {
+            buffer.release();
+          }
+        });
+  }
+
+  @Override
+  public CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload) {
+    return sendAndReceive(address, type, payload, null, MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public CompletableFuture<ByteBuf> sendAndReceive(Address address, String type, ByteBuf payload, Duration timeout) {
+    return sendAndReceive(address, type, payload, timeout, MoreExecutors.directExecutor());
+  }
+
+  @Override
+  public CompletableFuture<ByteBuf> sendAndReceive(
+      Address address, String type, ByteBuf payload, Duration timeout, Executor executor) {
+    long messageId = messageIdGenerator.incrementAndGet();
+    InternalRequest message = new InternalRequest(preamble,
+        messageId,
+        localAddress,
+        type,
+        payload);
+    return executeOnPooledConnection(address, message, true, (c, m) -> c.sendAndReceive(m, timeout), executor);
   }
 
-  private List<CompletableFuture<Channel>> getChannelPool(Address address) {
-    List<CompletableFuture<Channel>> channelPool = channels.get(address);
+  private ChannelPool getChannelPool(Address address) {
+    ChannelPool channelPool = channels.get(address);
     if (channelPool != null) {
       return channelPool;
     }
-    return channels.computeIfAbsent(address, e -> {
-      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(CHANNEL_POOL_SIZE);
-      for (int i = 0; i < CHANNEL_POOL_SIZE; i++) {
-        defaultList.add(null);
-      }
-      return Lists.newCopyOnWriteArrayList(defaultList);
-    });
+    return channels.computeIfAbsent(address, e -> new ChannelPool(address, config.getChannelPoolSize()));
   }
 
-  private int getChannelOffset(String messageType) {
-    return Math.abs(messageType.hashCode() % CHANNEL_POOL_SIZE);
+  @Override
+  public List<ChannelStats> getChannelStats(Address address) {
+    ChannelPool channelPool = channels.get(address);
+    return channelPool != null ? channelPool.stats() : Collections.emptyList();
   }
 
-  private CompletableFuture<Channel> getChannel(Address address, String messageType) {
-    List<CompletableFuture<Channel>> channelPool = getChannelPool(address);
-    int offset = getChannelOffset(messageType);
+  private CompletableFuture<Channel> getChannel(ChannelPool pool, int offset) {
+    final List<CompletableFuture<Channel>> channelPool = pool.channels;
 
     CompletableFuture<Channel> channelFuture = channelPool.get(offset);
     if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
       synchronized (channelPool) {
         channelFuture = channelPool.get(offset);
         if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
-          channelFuture = openChannel(address);
+          channelFuture = openChannel(pool);
           channelPool.set(offset, channelFuture);
         }
       }
@@ -419,7 +592,7 @@ public class NettyMessagingService implements ManagedMessagingService {
             if (currentFuture == finalFuture) {
               channelPool.set(offset, null);
             } else if (currentFuture == null) {
-              currentFuture = openChannel(address);
+              currentFuture = openChannel(pool);
               channelPool.set(offset, currentFuture);
             }
           }
@@ -430,7 +603,7 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
 
           if (currentFuture == finalFuture) {
-            getChannel(address, messageType).whenComplete((recursiveResult, recursiveError) -> {
+            getChannel(pool, offset).whenComplete((recursiveResult, recursiveError) -> {
               if (recursiveError == null) {
                 future.complete(recursiveResult);
               } else {
@@ -456,26 +629,40 @@ public class NettyMessagingService implements ManagedMessagingService {
     return future;
   }
 
+  /**
+   * Sends the given message on a pooled connection.
+   * <p>
+   * Ownership of the message is passed to the connection. If no connection can be opened the message is released.
+   * Reference counted results are released if the returned future has already been completed, e.g. by cancellation.
+   * <p>
+   * Messages are sent on the channel assigned to their subject by the pool's {@link ChannelPoolStrategy}.
+   * <p>
+   * Messages are only sent once the pool has capacity for them. If the pool remains overloaded for longer than the
+   * configured backpressure timeout, the message is released and the future is failed with
+   * {@link MessagingException.Overloaded}.
+   */
   private <T> CompletableFuture<T> executeOnPooledConnection(
       Address address,
-      String type,
-      Function<ClientConnection, CompletableFuture<T>> callback,
+      InternalRequest message,
+      boolean request,
+      BiFunction<ClientConnection, InternalRequest, CompletableFuture<T>> callback,
       Executor executor) {
     CompletableFuture<T> future = new CompletableFuture<T>();
-    executeOnPooledConnection(address, type, callback, executor, future);
+    executeOnPooledConnection(address, message, request, callback, executor, future);
     return future;
   }
 
   private <T> void executeOnPooledConnection(
       Address address,
-      String type,
-      Function<ClientConnection, CompletableFuture<T>> callback,
+      InternalRequest message,
+      boolean request,
+      BiFunction<ClientConnection, InternalRequest, CompletableFuture<T>> callback,
       Executor executor,
       CompletableFuture<T> future) {
     if (address.equals(localAddress)) {
-      callback.apply(localClientConnection).whenComplete((result, error) -> {
+      callback.apply(localClientConnection, message).whenComplete((result, error) -> {
         if (error == null) {
-          executor.execute(() -> future.complete(result));
+          executor.execute(() -> complete(future, result));
         } else {
           executor.execute(() -> future.completeExceptionally(error));
         }
@@ -483,12 +670,38 @@ public class NettyMessagingService implements ManagedMessagingService {
       return;
     }
 
-    getChannel(address, type).whenComplete((channel, channelError) -> {
+    final ChannelPool pool = getChannelPool(address);
+    final int size = message.buffer().readableBytes();
+    pool.reserve(request, size, reserveError -> {
+      if (reserveError == null) {
+        executeOnPooledChannel(pool, message, request, size, callback, executor, future);
+      } else {
+        message.release();
+        executor.execute(() -> future.completeExceptionally(reserveError));
+      }
+    });
+  }
+
+  /**
+   * Sends the given message on a pooled channel once capacity for the message has been reserved in the pool.
+   */
+  private <T> void executeOnPooledChannel(
+      ChannelPool pool,
+      InternalRequest message,
+      boolean request,
+      int size,
+      BiFunction<ClientConnection, InternalRequest, CompletableFuture<T>> callback,
+      Executor executor,
+      CompletableFuture<T> future) {
+    final String subject = message.subject();
+    final int offset = pool.acquire(subject, request);
+    getChannel(pool, offset).whenComplete((channel, channelError) -> {
       if (channelError == null) {
         final ClientConnection connection = getOrCreateRemoteClientConnection(channel);
-        callback.apply(connection).whenComplete((result, sendError) -> {
+        callback.apply(connection, message).whenComplete((result, sendError) -> {
+          pool.release(subject, offset, request, size);
           if (sendError == null) {
-            executor.execute(() -> future.complete(result));
+            executor.execute(() -> complete(future, result));
           } else {
             final Throwable cause = Throwables.getRootCause(sendError);
             if (!(cause instanceof TimeoutException) && !(cause instanceof MessagingException)) {
@@ -501,11 +714,22 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
         });
       } else {
+        pool.release(subject, offset, request, size);
+        message.release();
         executor.execute(() -> future.completeExceptionally(channelError));
       }
     });
   }
 
+  /**
+   * Completes the given future, releasing the result if the future has already been completed.
+   */
+  private static <T> void complete(CompletableFuture<T> future, T result) {
+    if (!future.complete(result)) {
+      ReferenceCountUtil.release(result);
+    }
+  }
+
   private RemoteClientConnection getOrCreateRemoteClientConnection(Channel channel) {
     RemoteClientConnection connection = clientConnections.get(channel);
     if (connection == null) {
@@ -516,23 +740,31 @@ public class NettyMessagingService implements ManagedMessagingService {
 
   @Override
   public void registerHandler(String type, BiConsumer<Address, byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() ->
-        handler.accept(message.sender(), message.payload())));
+    handlers.put(type, (message, connection) -> {
+      // The message is released once dispatched, so the payload must be read before handing off to the executor.
+      byte[] payload = message.payload();
+      executor.execute(() -> handler.accept(message.sender(), payload));
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
   public void registerHandler(String type, BiFunction<Address, byte[], byte[]> handler, Executor executor) {
-    handlers.put(type, (message, connection) -> executor.execute(() -> {
-      byte[] responsePayload = null;
-      InternalReply.Status status = InternalReply.Status.OK;
-      try {
-        responsePayload = handler.apply(message.sender(), message.payload());
-      } catch (Exception e) {
-        log.warn("An error occurred in a message handler: {}", e);
-        status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
-      }
-      connection.reply(message, status, Optional.ofNullable(responsePayload));
-    }));
+    handlers.put(type, (message, connection) -> {
+      byte[] payload = message.payload();
+      executor.execute(() -> {
+        byte[] responsePayload = null;
+        InternalReply.Status status = InternalReply.Status.OK;
+        try {
+          responsePayload = handler.apply(message.sender(), payload);
+        } catch (Exception e) {
+          log.warn("An error occurred in a message handler: {}", e);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+        }
+        connection.reply(message, status, Optional.ofNullable(responsePayload).map(Unpooled::wrappedBuffer));
+      });
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
@@ -546,14 +778,35 @@ public class NettyMessagingService implements ManagedMessagingService {
           log.warn("An error occurred in a message handler: {}", error);
           status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
         }
+        connection.reply(message, status, Optional.ofNullable(result).map(Unpooled::wrappedBuffer));
+      });
+    });
+    handlersVersion.incrementAndGet();
+  }
+
+  @Override
+  public void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    handlers.put(type, (message, connection) -> {
+      handler.apply(message.sender(), message.buffer()).whenComplete((result, error) -> {
+        InternalReply.Status status;
+        if (error == null) {
+          status = InternalReply.Status.OK;
+        } else {
+          log.warn("An error occurred in a message handler: {}", error);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+          ReferenceCountUtil.release(result);
+          result = null;
+        }
         connection.reply(message, status, Optional.ofNullable(result));
       });
     });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
   public void unregisterHandler(String type) {
     handlers.remove(type);
+    handlersVersion.incrementAndGet();
   }
 
   private Bootstrap bootstrapClient(Address address) {
@@ -615,13 +868,16 @@ public class NettyMessagingService implements ManagedMessagingService {
     return future;
   }
 
-  private CompletableFuture<Channel> openChannel(Address address) {
+  private CompletableFuture<Channel> openChannel(ChannelPool pool) {
+    Address address = pool.address;
     Bootstrap bootstrap = bootstrapClient(address);
     CompletableFuture<Channel> retFuture = new CompletableFuture<>();
     ChannelFuture f = bootstrap.connect();
 
     f.addListener(future -> {
       if (future.isSuccess()) {
+        f.channel().attr(CHANNEL_POOL).set(pool);
+        handshake(f.channel());
         retFuture.complete(f.channel());
       } else {
         retFuture.completeExceptionally(future.cause());
@@ -631,6 +887,50 @@ public class NettyMessagingService implements ManagedMessagingService {
     return retFuture;
   }
 
+  /**
+   * Negotiates the protocol version and compression codec with the server on the other side of the given channel.
+   * <p>
+   * The handshake is sent as an ordinary request using the original framing, so servers that predate versioning
+   * reply with {@link InternalReply.Status#ERROR_NO_HANDLER} and the channel keeps using the original framing without
+   * compression. Messages may be sent before the handshake completes; they're encoded for the original framing until
+   * a version and codec have been negotiated.
+   *
+   * @param channel the channel on which to negotiate the protocol version
+   */
+  private void handshake(Channel channel) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        HANDSHAKE_SUBJECT,
+        new byte[]{(byte) MessageEncoder.PROTOCOL_VERSION, (byte) config.getCompression().id()});
+    getOrCreateRemoteClientConnection(channel).sendAndReceive(message, null).whenComplete((response, error) -> {
+      if (error == null) {
+        try {
+          int version = Math.min(response.readByte(), MessageEncoder.PROTOCOL_VERSION);
+          CompressionType compression = readCompression(response);
+          channel.attr(MessageEncoder.PEER_VERSION).set(version);
+          channel.attr(MessageEncoder.PEER_COMPRESSION).set(compression);
+          log.debug("{} - Negotiated protocol version {} and compression {} with {}",
+              localAddress, version, compression, channel.remoteAddress());
+        } finally {
+          response.release();
+        }
+      } else {
+        log.debug("{} - Failed to negotiate protocol version with {}", localAddress, channel.remoteAddress(), error);
+      }
+    });
+  }
+
+  /**
+   * Reads the compression codec advertised in a handshake payload.
+   *
+   * @param buffer the handshake payload positioned after the protocol version
+   * @return the advertised compression codec, or {@link CompressionType#NONE} if the peer didn't advertise one
+   */
+  private static CompressionType readCompression(ByteBuf buffer) {
+    return buffer.isReadable() ? CompressionType.forId(buffer.readByte()) : CompressionType.NONE;
+  }
+
   @Override
   public CompletableFuture<Void> stop() {
     if (started.compareAndSet(true, false)) {
@@ -668,6 +968,20 @@ public class NettyMessagingService implements ManagedMessagingService {
     return CompletableFuture.completedFuture(null);
   }
 
+  /**
+   * Returns a new handler for coalescing flushes of outbound messages on a channel.
+   */
+  private ChannelHandler newWriteCoalescingHandler() {
+    return new WriteCoalescingHandler(config.getFlushDelay(), config.getFlushBytes());
+  }
+
+  /**
+   * Returns a new message encoder for a channel.
+   */
+  private ChannelHandler newMessageEncoder() {
+    return new MessageEncoder(localAddress, preamble, config.getCompression(), config.getCompressionThreshold());
+  }
+
   /**
    * Channel initializer for TLS servers.
    */
@@ -688,7 +1002,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       serverSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("flusher", newWriteCoalescingHandler())
+          .addLast("encoder", newMessageEncoder())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
@@ -713,7 +1028,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       clientSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("flusher", newWriteCoalescingHandler())
+          .addLast("encoder", newMessageEncoder())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
@@ -728,7 +1044,8 @@ public class NettyMessagingService implements ManagedMessagingService {
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
       channel.pipeline()
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
+          .addLast("flusher", newWriteCoalescingHandler())
+          .addLast("encoder", newMessageEncoder())
           .addLast("decoder", new MessageDecoder())
           .addLast("handler", dispatcher);
     }
@@ -777,6 +1094,16 @@ public class NettyMessagingService implements ManagedMessagingService {
       context.close();
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext context) throws Exception {
+      // Once a pooled channel's outbound buffer drains, send messages that were awaiting capacity.
+      ChannelPool pool = context.channel().attr(CHANNEL_POOL).get();
+      if (pool != null && context.channel().isWritable()) {
+        pool.scheduleDrain();
+      }
+      context.fireChannelWritabilityChanged();
+    }
+
     @Override
     public void channelInactive(ChannelHandlerContext context) throws Exception {
       RemoteClientConnection clientConnection = clientConnections.remove(context.channel());
@@ -804,23 +1131,368 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
   }
 
+  /**
+   * Pool of channels to a remote address.
+   * <p>
+   * Each subject is assigned a channel by hashing the subject. With the {@link ChannelPoolStrategy#LEAST_LOADED}
+   * strategy, a subject with no outstanding messages is instead assigned the least loaded connected channel when it
+   * sends a request, or its hashed channel when it sends a one-way message. All of the subject's messages are sent on
+   * that channel until its outstanding messages have completed. A request is outstanding until its reply is received,
+   * and a one-way message until it has been written. This spreads independent request/reply traffic across channels
+   * without reordering requests for any subject, and keeps subjects that only send one-way messages on their hashed
+   * channel. Because a written one-way message may not yet have been read by the remote node, a subject that sends
+   * both one-way messages and requests may have a one-way message handled after a request sent once the subject has
+   * moved to another channel. Requests are never assigned to channels that are still connecting, since messages
+   * queued on a connecting channel are not written in order. Instead, when all connected channels are busy another
+   * channel is opened in the background to be used by subsequent requests.
+   * <p>
+   * The pool also bounds the number of requests and payload bytes in flight to the remote address. Messages that
+   * would exceed the limits, or that are sent while all connected channels are unwritable, wait in FIFO order for
+   * capacity to be released by completed messages or by channels becoming writable again. Capacity is reserved
+   * atomically, so concurrent senders cannot exceed the limits. New messages are queued behind waiting messages, and a
+   * waiting message remains at the head of the queue until it has been handed a channel.
+   */
+  private final class ChannelPool {
+    private final Address address;
+    private final List<CompletableFuture<Channel>> channels;
+    private final AtomicInteger[] pendingRequests;
+    private final Map<String, SubjectChannel> subjects = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final Queue<PendingMessage> pendingMessages = new ConcurrentLinkedQueue<>();
+
+    ChannelPool(Address address, int size) {
+      this.address = address;
+      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        defaultList.add(null);
+      }
+      this.channels = Lists.newCopyOnWriteArrayList(defaultList);
+      this.pendingRequests = new AtomicInteger[size];
+      for (int i = 0; i < size; i++) {
+        pendingRequests[i] = new AtomicInteger();
+      }
+    }
+
+    /**
+     * Returns the offset of the channel assigned to the given subject by hash.
+     *
+     * @param subject the message subject
+     * @return the channel offset
+     */
+    int offset(String subject) {
+      return Math.abs(subject.hashCode() % channels.size());
+    }
+
+    /**
+     * Acquires a channel for a message.
+     *
+     * @param subject the message subject
+     * @param request whether the message is a request
+     * @return the offset of the channel on which to send the message
+     */
+    int acquire(String subject, boolean request) {
+      final int offset;
+      if (config.getChannelPoolStrategy() == ChannelPoolStrategy.LEAST_LOADED) {
+        offset = subjects.compute(subject, (s, channel) -> {
+          if (channel == null) {
+            return new SubjectChannel(request ? leastLoaded(s) : offset(s));
+          }
+          channel.messages++;
+          return channel;
+        }).offset;
+      } else {
+        offset = offset(subject);
+      }
+      if (request && pendingRequests[offset].getAndIncrement() > 0
+          && config.getChannelPoolStrategy() == ChannelPoolStrategy.LEAST_LOADED) {
+        openIdleChannel();
+      }
+      return offset;
+    }
+
+    /**
+     * Releases the channel and capacity acquired for a message once the message has completed.
+     *
+     * @param subject the message subject
+     * @param offset  the offset of the channel on which the message was sent
+     * @param request whether the message is a request
+     * @param size    the size of the message payload
+     */
+    void release(String subject, int offset, boolean request, int size) {
+      if (config.getChannelPoolStrategy() == ChannelPoolStrategy.LEAST_LOADED) {
+        subjects.computeIfPresent(subject, (s, channel) -> --channel.messages == 0 ? null : channel);
+      }
+      if (request) {
+        pendingRequests[offset].decrementAndGet();
+        requests.decrementAndGet();
+      }
+      bytes.addAndGet(-size);
+      scheduleDrain();
+    }
+
+    /**
+     * Reserves capacity in the pool for a message.
+     * <p>
+     * The callback is called with {@code null} once capacity has been reserved, and must acquire a channel for the
+     * message before returning so messages are handed channels in the order in which they were queued. If capacity
+     * cannot be reserved within the backpressure timeout, the callback is called with
+     * {@link MessagingException.Overloaded}.
+     *
+     * @param request  whether the message is a request
+     * @param size     the size of the message payload
+     * @param callback the callback to call once capacity has been reserved or the reservation has failed
+     */
+    void reserve(boolean request, int size, Consumer<Throwable> callback) {
+      if (pendingMessages.isEmpty() && tryReserve(request, size)) {
+        callback.accept(null);
+        return;
+      }
+
+      Duration timeout = config.getBackpressureTimeout();
+      if (timeout.isZero()) {
+        callback.accept(new MessagingException.Overloaded());
+        return;
+      }
+
+      pendingMessages.add(new PendingMessage(request, size, System.currentTimeMillis() + timeout.toMillis(), callback));
+      drainPendingMessages();
+    }
+
+    /**
+     * Reserves capacity for a message if the pool is within its limits.
+     */
+    private boolean tryReserve(boolean request, int size) {
+      if (request) {
+        int pendingRequests;
+        do {
+          pendingRequests = requests.get();
+          if (pendingRequests >= config.getMaxPendingRequests()) {
+            return false;
+          }
+        } while (!requests.compareAndSet(pendingRequests, pendingRequests + 1));
+      }
+
+      long pendingBytes;
+      do {
+        pendingBytes = bytes.get();
+        if (pendingBytes > 0 && (pendingBytes + size > config.getMaxPendingBytes() || !isWritable())) {
+          if (request) {
+            requests.decrementAndGet();
+          }
+          return false;
+        }
+      } while (!bytes.compareAndSet(pendingBytes, pendingBytes + size));
+      return true;
+    }
+
+    /**
+     * Schedules messages awaiting capacity to be sent once capacity has been released.
+     * <p>
+     * Capacity is released on channel event loops, where writes bypass the event loop's task queue. Draining on the
+     * timeout executor instead queues the drained messages' writes behind writes already submitted by other threads.
+     */
+    void scheduleDrain() {
+      if (pendingMessages.isEmpty()) {
+        return;
+      }
+      try {
+        timeoutExecutor.execute(this::drainPendingMessages);
+      } catch (RejectedExecutionException e) {
+        drainPendingMessages();
+      }
+    }
+
+    /**
+     * Sends messages awaiting capacity in the order in which they were queued, until the pool is out of capacity.
+     * <p>
+     * A message is removed from the queue only once its callback has acquired a channel, so messages reserving
+     * capacity concurrently are queued behind it rather than overtaking it.
+     */
+    void drainPendingMessages() {
+      if (pendingMessages.isEmpty()) {
+        return;
+      }
+      synchronized (pendingMessages) {
+        PendingMessage message;
+        while ((message = pendingMessages.peek()) != null) {
+          if (message.completed) {
+            pendingMessages.remove(message);
+          } else if (tryReserve(message.request, message.size)) {
+            // The callback may release capacity and re-enter this method, so mark the message completed first.
+            message.completed = true;
+            try {
+              message.callback.accept(null);
+            } finally {
+              pendingMessages.remove(message);
+            }
+          } else {
+            break;
+          }
+        }
+      }
+    }
+
+    /**
+     * Fails messages that have been awaiting capacity for longer than the backpressure timeout.
+     */
+    void timeoutPendingMessages() {
+      if (pendingMessages.isEmpty()) {
+        return;
+      }
+      long currentTime = System.currentTimeMillis();
+      synchronized (pendingMessages) {
+        Iterator<PendingMessage> iterator = pendingMessages.iterator();
+        while (iterator.hasNext()) {
+          PendingMessage message = iterator.next();
+          if (!message.completed && currentTime > message.deadline) {
+            iterator.remove();
+            message.completed = true;
+            message.callback.accept(new MessagingException.Overloaded());
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns whether any connected channel in the pool is writable, or no channels are connected.
+     */
+    private boolean isWritable() {
+      boolean connected = false;
+      for (int i = 0; i < channels.size(); i++) {
+        Channel channel = connectedChannel(i);
+        if (channel != null) {
+          if (channel.isWritable()) {
+            return true;
+          }
+          connected = true;
+        }
+      }
+      return !connected;
+    }
+
+    /**
+     * Returns the offset of the connected channel with the fewest pending requests, breaking ties by pending outbound
+     * bytes. If no channels are connected, the subject's hashed channel is returned.
+     */
+    private int leastLoaded(String subject) {
+      int offset = -1;
+      int minRequests = Integer.MAX_VALUE;
+      long minBytes = Long.MAX_VALUE;
+      for (int i = 0; i < pendingRequests.length; i++) {
+        Channel channel = connectedChannel(i);
+        if (channel == null) {
+          continue;
+        }
+        int requests = pendingRequests[i].get();
+        if (requests > minRequests) {
+          continue;
+        }
+        long bytes = pendingBytes(channel);
+        if (requests < minRequests || bytes < minBytes) {
+          offset = i;
+          minRequests = requests;
+          minBytes = bytes;
+        }
+      }
+      return offset != -1 ? offset : offset(subject);
+    }
+
+    /**
+     * Opens the first channel in the pool that has not yet been opened, if any.
+     */
+    private void openIdleChannel() {
+      for (int i = 0; i < channels.size(); i++) {
+        if (channels.get(i) == null) {
+          getChannel(this, i);
+          return;
+        }
+      }
+    }
+
+    /**
+     * Returns the channel at the given offset if it's connected, otherwise {@code null}.
+     */
+    private Channel connectedChannel(int offset) {
+      CompletableFuture<Channel> channelFuture = channels.get(offset);
+      if (channelFuture == null || !channelFuture.isDone() || channelFuture.isCompletedExceptionally()) {
+        return null;
+      }
+      Channel channel = channelFuture.join();
+      return channel.isActive() ? channel : null;
+    }
+
+    /**
+     * Returns the number of bytes pending write on the given channel.
+     */
+    private long pendingBytes(Channel channel) {
+      ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+      return buffer != null ? buffer.totalPendingWriteBytes() : 0;
+    }
+
+    /**
+     * Returns utilization statistics for each channel in the pool.
+     */
+    List<ChannelStats> stats() {
+      List<ChannelStats> stats = new ArrayList<>(pendingRequests.length);
+      for (int i = 0; i < pendingRequests.length; i++) {
+        Channel channel = connectedChannel(i);
+        long bytes = channel != null ? pendingBytes(channel) : 0;
+        stats.add(new ChannelStats(channel != null, pendingRequests[i].get(), bytes));
+      }
+      return stats;
+    }
+  }
+
+  /**
+   * Message awaiting capacity in a channel pool.
+   */
+  private static final class PendingMessage {
+    private final boolean request;
+    private final int size;
+    private final long deadline;
+    private final Consumer<Throwable> callback;
+    private boolean completed;
+
+    PendingMessage(boolean request, int size, long deadline, Consumer<Throwable> callback) {
+      this.request = request;
+      this.size = size;
+      this.deadline = deadline;
+      this.callback = callback;
+    }
+  }
+
+  /**
+   * Channel assigned to a subject with outstanding messages.
+   */
+  private static final class SubjectChannel {
+    private final int offset;
+    private int messages = 1;
+
+    SubjectChannel(int offset) {
+      this.offset = offset;
+    }
+  }
+
   /**
    * Wraps a {@link CompletableFuture} and tracks its type and creation time.
    */
   private static final class Callback {
     private final String type;
     private final long timeout;
-    private final CompletableFuture<byte[]> future;
+    private final CompletableFuture<ByteBuf> future;
     private final long time = System.currentTimeMillis();
 
-    Callback(String type, Duration timeout, CompletableFuture<byte[]> future) {
+    Callback(String type, Duration timeout, CompletableFuture<ByteBuf> future) {
       this.type = type;
       this.timeout = timeout != null ? timeout.toMillis() : 0;
       this.future = future;
     }
 
-    public void complete(byte[] value) {
-      future.complete(value);
+    public void complete(ByteBuf value) {
+      if (!future.complete(value)) {
+        value.release();
+      }
     }
 
     public void completeExceptionally(Throwable error) {
@@ -835,6 +1507,8 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     /**
      * Sends a message to the other side of the connection.
+     * <p>
+     * The connection takes ownership of the message.
      *
      * @param message the message to send
      * @return a completable future to be completed once the message has been sent
@@ -843,12 +1517,14 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     /**
      * Sends a message to the other side of the connection, awaiting a reply.
+     * <p>
+     * The connection takes ownership of the message, and the reply buffer is owned by the caller.
      *
      * @param message the message to send
      * @param timeout the response timeout
      * @return a completable future to be completed once a reply is received or the request times out
      */
-    CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout);
+    CompletableFuture<ByteBuf> sendAndReceive(InternalRequest message, Duration timeout);
 
     /**
      * Closes the connection.
@@ -867,9 +1543,9 @@ public class NettyMessagingService implements ManagedMessagingService {
      *
      * @param message the message to which to reply
      * @param status  the reply status
-     * @param payload the response payload
+     * @param payload the response payload, ownership of which is passed to the connection
      */
-    void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload);
+    void reply(InternalRequest message, InternalReply.Status status, Optional<ByteBuf> payload);
 
     /**
      * Closes the connection.
@@ -926,7 +1602,7 @@ public class NettyMessagingService implements ManagedMessagingService {
       }
     }
 
-    protected void registerCallback(long id, String subject, Duration timeout, CompletableFuture<byte[]> future) {
+    protected void registerCallback(long id, String subject, Duration timeout, CompletableFuture<ByteBuf> future) {
       futures.put(id, new Callback(subject, timeout, future));
     }
 
@@ -966,24 +1642,34 @@ public class NettyMessagingService implements ManagedMessagingService {
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, localServerConnection);
+        try {
+          handler.accept(message, localServerConnection);
+        } finally {
+          message.release();
+        }
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
       }
       return CompletableFuture.completedFuture(null);
     }
 
     @Override
-    public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
-      CompletableFuture<byte[]> future = new CompletableFuture<>();
+    public CompletableFuture<ByteBuf> sendAndReceive(InternalRequest message, Duration timeout) {
+      CompletableFuture<ByteBuf> future = new CompletableFuture<>();
       future.whenComplete((r, e) -> completeCallback(message.id()));
       registerCallback(message.id(), message.subject(), timeout, future);
       BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
-        handler.accept(message, new LocalServerConnection(future));
+        try {
+          handler.accept(message, new LocalServerConnection(future));
+        } finally {
+          message.release();
+        }
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
         new LocalServerConnection(future)
             .reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
       }
@@ -995,17 +1681,23 @@ public class NettyMessagingService implements ManagedMessagingService {
    * Local server connection.
    */
   private static final class LocalServerConnection implements ServerConnection {
-    private final CompletableFuture<byte[]> future;
+    private final CompletableFuture<ByteBuf> future;
 
-    LocalServerConnection(CompletableFuture<byte[]> future) {
+    LocalServerConnection(CompletableFuture<ByteBuf> future) {
       this.future = future;
     }
 
     @Override
-    public void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
+    public void reply(InternalRequest message, InternalReply.Status status, Optional<ByteBuf> payload) {
+      if (future == null || status != InternalReply.Status.OK) {
+        payload.ifPresent(ReferenceCountUtil::release);
+      }
       if (future != null) {
         if (status == InternalReply.Status.OK) {
-          future.complete(payload.orElse(EMPTY_PAYLOAD));
+          ByteBuf buffer = payload.orElse(Unpooled.EMPTY_BUFFER);
+          if (!future.complete(buffer)) {
+            buffer.release();
+          }
         } else if (status == InternalReply.Status.ERROR_NO_HANDLER) {
           future.completeExceptionally(new MessagingException.NoRemoteHandler());
         } else if (status == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
@@ -1041,8 +1733,8 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
 
     @Override
-    public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
-      CompletableFuture<byte[]> future = new CompletableFuture<>();
+    public CompletableFuture<ByteBuf> sendAndReceive(InternalRequest message, Duration timeout) {
+      CompletableFuture<ByteBuf> future = new CompletableFuture<>();
       registerCallback(message.id(), message.subject(), timeout, future);
       channel.writeAndFlush(message).addListener(channelFuture -> {
         if (!channelFuture.isSuccess()) {
@@ -1069,7 +1761,7 @@ public class NettyMessagingService implements ManagedMessagingService {
       Callback callback = completeCallback(message.id());
       if (callback != null) {
         if (message.status() == InternalReply.Status.OK) {
-          callback.complete(message.payload());
+          callback.complete(message.buffer().retain());
         } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
           callback.completeExceptionally(new MessagingException.NoRemoteHandler());
         } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
@@ -1099,6 +1791,8 @@ public class NettyMessagingService implements ManagedMessagingService {
    */
   private final class RemoteServerConnection implements ServerConnection {
     private final Channel channel;
+    private final List<BiConsumer<InternalRequest, ServerConnection>> handlerCache = new ArrayList<>();
+    private long handlerCacheVersion;
 
     RemoteServerConnection(Channel channel) {
       this.channel = channel;
@@ -1116,7 +1810,12 @@ public class NettyMessagingService implements ManagedMessagingService {
         return;
       }
 
-      BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
+      if (message.subject().equals(HANDSHAKE_SUBJECT)) {
+        handleHandshake(message);
+        return;
+      }
+
+      BiConsumer<InternalRequest, ServerConnection> handler = getHandler(message);
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
         handler.accept(message, this);
@@ -1126,11 +1825,64 @@ public class NettyMessagingService implements ManagedMessagingService {
       }
     }
 
+    /**
+     * Handles a protocol version handshake from the client, replying with the local protocol version and compression
+     * codec.
+     * <p>
+     * The negotiated version and the client's codec are recorded on the channel before replying so replies can use
+     * them immediately.
+     *
+     * @param message the handshake request
+     */
+    private void handleHandshake(InternalRequest message) {
+      ByteBuf buffer = message.buffer().duplicate();
+      int version = Math.min(buffer.readByte(), MessageEncoder.PROTOCOL_VERSION);
+      channel.attr(MessageEncoder.PEER_VERSION).set(version);
+      channel.attr(MessageEncoder.PEER_COMPRESSION).set(readCompression(buffer));
+      reply(message, InternalReply.Status.OK, Optional.of(Unpooled.wrappedBuffer(
+          new byte[]{(byte) MessageEncoder.PROTOCOL_VERSION, (byte) config.getCompression().id()})));
+    }
+
+    /**
+     * Returns the handler for the given request.
+     * <p>
+     * Handlers are cached by the connection-local subject ID assigned by the {@link MessageDecoder}, so the handler
+     * map is only consulted on the first request for each subject or after handlers have been registered or
+     * unregistered. This method is only called on the channel's event loop.
+     *
+     * @param message the request for which to return the handler
+     * @return the handler for the request subject or {@code null} if no handler is registered
+     */
+    private BiConsumer<InternalRequest, ServerConnection> getHandler(InternalRequest message) {
+      int subjectId = message.subjectId();
+      if (subjectId < 0) {
+        return handlers.get(message.subject());
+      }
+
+      long version = handlersVersion.get();
+      if (version != handlerCacheVersion) {
+        handlerCache.clear();
+        handlerCacheVersion = version;
+      }
+
+      BiConsumer<InternalRequest, ServerConnection> handler = subjectId < handlerCache.size() ? handlerCache.get(subjectId) : null;
+      if (handler == null) {
+        handler = handlers.get(message.subject());
+        if (handler != null) {
+          while (handlerCache.size() <= subjectId) {
+            handlerCache.add(null);
+          }
+          handlerCache.set(subjectId, handler);
+        }
+      }
+      return handler;
+    }
+
     @Override
-    public void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
+    public void reply(InternalRequest message, InternalReply.Status status, Optional<ByteBuf> payload) {
       InternalReply response = new InternalReply(preamble,
           message.id(),
-          payload.orElse(EMPTY_PAYLOAD),
+          payload.orElse(Unpooled.EMPTY_BUFFER),
           status);
       channel.writeAndFlush(response, channel.voidPromise());
     }
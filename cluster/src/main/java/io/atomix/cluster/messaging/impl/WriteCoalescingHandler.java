@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbound handler that coalesces flushes of encoded messages.
+ * <p>
+ * The handler sits between the {@link MessageEncoder} and the transport, so every write it sees is a complete request
+ * or reply frame. Rather than flushing each frame to the socket, flushes are deferred until either the buffered
+ * frames reach the configured byte threshold or the flush delay expires. With a delay of zero, the flush is deferred
+ * until the event loop has processed the writes already queued on it, which coalesces all the messages written to
+ * the channel in a single event loop tick into one flush.
+ * <p>
+ * Buffered frames are always flushed before the channel is closed or when the channel becomes unwritable.
+ */
+class WriteCoalescingHandler extends ChannelDuplexHandler {
+  private final long flushDelayNanos;
+  private final int flushBytes;
+  private final Runnable flushTask = this::flushPending;
+  private ChannelHandlerContext context;
+  private int pendingBytes;
+  private boolean pendingFlush;
+  private boolean flushScheduled;
+
+  WriteCoalescingHandler(Duration flushDelay, int flushBytes) {
+    this.flushDelayNanos = flushDelay.toNanos();
+    this.flushBytes = flushBytes;
+  }
+
+  @Override
+  public void handlerAdded(ChannelHandlerContext context) throws Exception {
+    this.context = context;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+    if (message instanceof ByteBuf) {
+      pendingBytes += ((ByteBuf) message).readableBytes();
+    }
+    context.write(message, promise);
+  }
+
+  @Override
+  public void flush(ChannelHandlerContext context) throws Exception {
+    if (pendingBytes >= flushBytes) {
+      flushNow(context);
+      return;
+    }
+
+    pendingFlush = true;
+    if (!flushScheduled) {
+      flushScheduled = true;
+      if (flushDelayNanos == 0) {
+        context.executor().execute(flushTask);
+      } else {
+        context.executor().schedule(flushTask, flushDelayNanos, TimeUnit.NANOSECONDS);
+      }
+    }
+  }
+
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext context) throws Exception {
+    if (!context.channel().isWritable()) {
+      flushIfPending(context);
+    }
+    context.fireChannelWritabilityChanged();
+  }
+
+  @Override
+  public void disconnect(ChannelHandlerContext context, ChannelPromise promise) throws Exception {
+    flushIfPending(context);
+    context.disconnect(promise);
+  }
+
+  @Override
+  public void close(ChannelHandlerContext context, ChannelPromise promise) throws Exception {
+    flushIfPending(context);
+    context.close(promise);
+  }
+
+  @Override
+  public void handlerRemoved(ChannelHandlerContext context) throws Exception {
+    flushIfPending(context);
+  }
+
+  /**
+   * Flushes buffered messages once the scheduled flush task runs.
+   */
+  private void flushPending() {
+    flushScheduled = false;
+    flushIfPending(context);
+  }
+
+  private void flushIfPending(ChannelHandlerContext context) {
+    if (pendingFlush) {
+      flushNow(context);
+    }
+  }
+
+  private void flushNow(ChannelHandlerContext context) {
+    pendingFlush = false;
+    pendingBytes = 0;
+    context.flush();
+  }
+}
@@ -17,9 +17,11 @@ package io.atomix.cluster;
 
 import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
 import io.atomix.cluster.discovery.MulticastDiscoveryProvider;
+import io.atomix.cluster.discovery.SwimDiscoveryProvider;
 import io.atomix.utils.net.Address;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -138,6 +140,61 @@ public class AtomixClusterTest {
     }
   }
 
+  @Test
+  public void testSwim() throws Exception {
+    Collection<Node> bootstrapLocations = Arrays.asList(
+        Node.builder().withId("foo").withAddress(Address.from("localhost:5000")).build(),
+        Node.builder().withId("bar").withAddress(Address.from("localhost:5001")).build(),
+        Node.builder().withId("baz").withAddress(Address.from("localhost:5002")).build());
+
+    List<AtomixCluster> clusters = Stream.of("foo", "bar", "baz")
+        .map(id -> AtomixCluster.builder()
+            .withMemberId(id)
+            .withAddress(bootstrapLocations.stream()
+                .filter(node -> node.id().id().equals(id))
+                .findFirst()
+                .get()
+                .address())
+            .withMembershipProvider(SwimDiscoveryProvider.builder()
+                .withNodes(bootstrapLocations)
+                .withProbeInterval(Duration.ofMillis(100))
+                .withProbeTimeout(Duration.ofMillis(50))
+                .withSyncInterval(Duration.ofMillis(500))
+                .build())
+            .build())
+        .collect(Collectors.toList());
+
+    TestClusterMembershipEventListener listener1 = new TestClusterMembershipEventListener();
+    clusters.get(0).getMembershipService().addListener(listener1);
+
+    List<CompletableFuture<Void>> startFutures = clusters.stream().map(AtomixCluster::start)
+        .collect(Collectors.toList());
+    CompletableFuture.allOf(startFutures.toArray(new CompletableFuture[startFutures.size()])).get(10, TimeUnit.SECONDS);
+
+    assertEquals(ClusterMembershipEvent.Type.MEMBER_ADDED, listener1.nextEvent().type());
+    assertEquals(ClusterMembershipEvent.Type.MEMBER_ADDED, listener1.nextEvent().type());
+    assertEquals(ClusterMembershipEvent.Type.MEMBER_ADDED, listener1.nextEvent().type());
+
+    for (AtomixCluster cluster : clusters) {
+      assertEquals(3, cluster.getMembershipService().getMembers().size());
+    }
+
+    clusters.get(2).stop().get(10, TimeUnit.SECONDS);
+
+    ClusterMembershipEvent event = listener1.nextEvent();
+    assertEquals(ClusterMembershipEvent.Type.MEMBER_REMOVED, event.type());
+    assertEquals("baz", event.subject().id().id());
+    assertEquals(2, clusters.get(0).getMembershipService().getMembers().size());
+
+    List<CompletableFuture<Void>> stopFutures = clusters.subList(0, 2).stream().map(AtomixCluster::stop)
+        .collect(Collectors.toList());
+    try {
+      CompletableFuture.allOf(stopFutures.toArray(new CompletableFuture[stopFutures.size()])).get(10, TimeUnit.SECONDS);
+    } catch (Exception e) {
+      // Do nothing
+    }
+  }
+
   private class TestClusterMembershipEventListener implements ClusterMembershipEventListener {
     private BlockingQueue<ClusterMembershipEvent> queue = new ArrayBlockingQueue<ClusterMembershipEvent>(10);
 
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.discovery;
+
+import io.atomix.cluster.Node;
+import io.atomix.cluster.TestBootstrapService;
+import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.impl.TestBroadcastServiceFactory;
+import io.atomix.cluster.messaging.impl.TestMessagingServiceFactory;
+import io.atomix.utils.net.Address;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SWIM discovery provider test.
+ */
+public class SwimDiscoveryProviderTest {
+  private static final int NODES = 3;
+  private static final Duration PROBE_INTERVAL = Duration.ofMillis(50);
+  private static final int SUSPICION_MULTIPLIER = 20;
+
+  private final List<Node> nodes = IntStream.range(1, NODES + 1)
+      .mapToObj(id -> Node.builder()
+          .withId(String.valueOf(id))
+          .withAddress(Address.from("localhost", id))
+          .build())
+      .collect(Collectors.toList());
+  private final List<ManagedMessagingService> messagingServices = new ArrayList<>();
+  private final List<NodeDiscoveryProvider> providers = new ArrayList<>();
+  private final List<List<NodeDiscoveryEvent>> events = new ArrayList<>();
+
+  @Before
+  public void setupCluster() throws Exception {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+    for (Node node : nodes) {
+      ManagedMessagingService messagingService = (ManagedMessagingService) messagingServiceFactory
+          .newMessagingService(node.address()).start().join();
+      NodeDiscoveryProvider provider = SwimDiscoveryProvider.builder()
+          .withNodes(nodes)
+          .withProbeInterval(PROBE_INTERVAL)
+          .withProbeTimeout(PROBE_INTERVAL.dividedBy(2))
+          .withSuspicionMultiplier(SUSPICION_MULTIPLIER)
+          .build();
+      List<NodeDiscoveryEvent> nodeEvents = new CopyOnWriteArrayList<>();
+      provider.addListener(nodeEvents::add);
+      messagingServices.add(messagingService);
+      providers.add(provider);
+      events.add(nodeEvents);
+    }
+
+    for (int i = 0; i < NODES; i++) {
+      providers.get(i).join(
+          new TestBootstrapService(messagingServices.get(i), broadcastServiceFactory.newBroadcastService().start().join()),
+          nodes.get(i)).join();
+    }
+    for (NodeDiscoveryProvider provider : providers) {
+      waitFor(() -> provider.getNodes().size() == NODES);
+    }
+  }
+
+  @After
+  public void teardownCluster() throws Exception {
+    for (int i = 0; i < NODES; i++) {
+      providers.get(i).leave(nodes.get(i)).join();
+      messagingServices.get(i).stop().join();
+    }
+  }
+
+  /**
+   * Tests that a member that stops responding to probes is suspected and then declared dead.
+   */
+  @Test
+  public void testFailedMemberRemoved() throws Exception {
+    Node failed = nodes.get(2);
+    long failureTime = System.currentTimeMillis();
+    messagingServices.get(2).stop().join();
+
+    for (int i = 0; i < 2; i++) {
+      NodeDiscoveryProvider provider = providers.get(i);
+      waitFor(() -> !provider.getNodes().contains(failed));
+      assertTrue(hasEvent(events.get(i), NodeDiscoveryEvent.Type.LEAVE, failed));
+    }
+
+    // The member must have been suspected for the suspicion timeout before it was declared dead.
+    assertTrue(System.currentTimeMillis() - failureTime >= SUSPICION_MULTIPLIER * PROBE_INTERVAL.toMillis());
+  }
+
+  /**
+   * Tests that a member that is suspected while temporarily unreachable refutes the suspicion.
+   */
+  @Test
+  public void testSuspicionRefuted() throws Exception {
+    Node suspected = nodes.get(2);
+    long suspicionTimeout = SUSPICION_MULTIPLIER * PROBE_INTERVAL.toMillis();
+
+    // Make the member unreachable for long enough to be suspected but not declared dead.
+    messagingServices.get(2).stop().join();
+    Thread.sleep(suspicionTimeout / 4);
+    messagingServices.get(2).start().join();
+
+    // Suspicion is only cleared by the member refuting it, otherwise the member would be declared dead.
+    Thread.sleep(suspicionTimeout * 2);
+    for (int i = 0; i < 2; i++) {
+      assertTrue(providers.get(i).getNodes().contains(suspected));
+      assertFalse(hasEvent(events.get(i), NodeDiscoveryEvent.Type.LEAVE, suspected));
+    }
+    assertEquals(NODES, providers.get(2).getNodes().size());
+  }
+
+  /**
+   * Tests that a member that leaves the cluster can rejoin it.
+   */
+  @Test
+  public void testRejoin() throws Exception {
+    Node rejoined = nodes.get(2);
+    providers.get(2).leave(rejoined).join();
+    for (int i = 0; i < 2; i++) {
+      NodeDiscoveryProvider provider = providers.get(i);
+      waitFor(() -> !provider.getNodes().contains(rejoined));
+    }
+
+    events.get(0).clear();
+    providers.get(2).join(
+        new TestBootstrapService(messagingServices.get(2), new TestBroadcastServiceFactory().newBroadcastService().start().join()),
+        rejoined).join();
+    for (int i = 0; i < NODES; i++) {
+      NodeDiscoveryProvider provider = providers.get(i);
+      waitFor(() -> provider.getNodes().size() == NODES);
+    }
+    assertTrue(hasEvent(events.get(0), NodeDiscoveryEvent.Type.JOIN, rejoined));
+  }
+
+  private static boolean hasEvent(List<NodeDiscoveryEvent> events, NodeDiscoveryEvent.Type type, Node node) {
+    return events.stream().anyMatch(event -> event.type() == type && event.subject().id().equals(node.id()));
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+}
@@ -15,6 +15,7 @@
  */
 package io.atomix.cluster.impl;
 
+import com.google.common.util.concurrent.MoreExecutors;
 import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
 import io.atomix.cluster.BootstrapService;
 import io.atomix.cluster.ClusterMembershipEvent;
@@ -25,16 +26,24 @@ import io.atomix.cluster.MemberId;
 import io.atomix.cluster.MembershipConfig;
 import io.atomix.cluster.Node;
 import io.atomix.cluster.TestBootstrapService;
+import io.atomix.cluster.discovery.NodeDiscoveryProvider;
+import io.atomix.cluster.discovery.SwimDiscoveryProvider;
+import io.atomix.cluster.messaging.ManagedMessagingService;
 import io.atomix.cluster.messaging.impl.TestBroadcastServiceFactory;
 import io.atomix.cluster.messaging.impl.TestMessagingServiceFactory;
 import io.atomix.utils.net.Address;
 import org.junit.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -188,6 +197,125 @@ public class DefaultClusterMembershipServiceTest {
         clusterService3.stop()}).join();
   }
 
+  @Test
+  public void testSwimClusterService() throws Exception {
+    List<ManagedMessagingService> messagingServices = new ArrayList<>();
+    List<ManagedClusterMembershipService> clusterServices = buildSwimCluster(3, 0, messagingServices);
+
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::start)
+        .toArray(CompletableFuture[]::new)).join();
+
+    // Members learn each other's metadata when they discover each other.
+    for (ManagedClusterMembershipService clusterService : clusterServices) {
+      waitFor(() -> clusterService.getMembers().size() == 3);
+      for (int i = 1; i <= 3; i++) {
+        String id = String.valueOf(i);
+        waitFor(() -> id.equals(clusterService.getMember(MemberId.from(id)).properties().get("id")));
+      }
+    }
+
+    // Discovery detects failures, so members do not heartbeat each other.
+    AtomicInteger broadcasts = new AtomicInteger();
+    messagingServices.get(1).registerHandler("atomix-cluster-metadata", (address, payload) -> {
+      broadcasts.incrementAndGet();
+    }, MoreExecutors.directExecutor());
+    Thread.sleep(500);
+    assertEquals(0, broadcasts.get());
+
+    // Metadata changes are still propagated.
+    TestClusterMembershipEventListener eventListener = new TestClusterMembershipEventListener();
+    clusterServices.get(2).addListener(eventListener);
+    clusterServices.get(0).getLocalMember().properties().put("foo", "bar");
+    ClusterMembershipEvent event = eventListener.nextEvent();
+    assertEquals(ClusterMembershipEvent.Type.METADATA_CHANGED, event.type());
+    assertEquals("bar", event.subject().properties().get("foo"));
+    assertEquals(1, broadcasts.get());
+
+    // Members that fail are removed once discovery declares them dead.
+    messagingServices.get(0).stop().join();
+    waitFor(() -> clusterServices.get(2).getMember(MemberId.from("1")) == null);
+    assertEquals(2, clusterServices.get(2).getMembers().size());
+
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+  }
+
+  @Test
+  public void testSwimMetadataRelay() throws Exception {
+    List<ManagedMessagingService> messagingServices = new ArrayList<>();
+    List<ManagedClusterMembershipService> clusterServices = buildSwimCluster(5, 2, messagingServices);
+
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::start)
+        .toArray(CompletableFuture[]::new)).join();
+    for (ManagedClusterMembershipService clusterService : clusterServices) {
+      waitFor(() -> clusterService.getMembers().size() == 5);
+    }
+
+    // Count metadata sent directly to each peer rather than relayed.
+    AtomicInteger broadcasts = new AtomicInteger();
+    for (int i = 1; i < 5; i++) {
+      messagingServices.get(i).registerHandler("atomix-cluster-metadata", (address, payload) -> {
+        broadcasts.incrementAndGet();
+      }, MoreExecutors.directExecutor());
+    }
+
+    clusterServices.get(0).getLocalMember().properties().put("foo", "bar");
+    for (ManagedClusterMembershipService clusterService : clusterServices.subList(1, 5)) {
+      waitFor(() -> "bar".equals(clusterService.getMember(MemberId.from("1")).properties().get("foo")));
+    }
+    assertEquals(0, broadcasts.get());
+
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+  }
+
+  private List<ManagedClusterMembershipService> buildSwimCluster(
+      int nodes, int broadcastFanout, List<ManagedMessagingService> messagingServices) {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+    Collection<Node> bootstrapLocations = buildBootstrapNodes(nodes);
+    MembershipConfig config = new MembershipConfig().setBroadcastInterval(Duration.ofMillis(50));
+
+    List<ManagedClusterMembershipService> clusterServices = new ArrayList<>();
+    for (int i = 1; i <= nodes; i++) {
+      Member localMember = Member.builder(String.valueOf(i))
+          .withAddress("localhost", i)
+          .withProperty("id", String.valueOf(i))
+          .build();
+      ManagedMessagingService messagingService = (ManagedMessagingService) messagingServiceFactory
+          .newMessagingService(localMember.address()).start().join();
+      BootstrapService bootstrapService = new TestBootstrapService(
+          messagingService,
+          broadcastServiceFactory.newBroadcastService().start().join());
+      NodeDiscoveryProvider provider = SwimDiscoveryProvider.builder()
+          .withNodes(bootstrapLocations)
+          .withProbeInterval(Duration.ofMillis(50))
+          .withProbeTimeout(Duration.ofMillis(25))
+          .build();
+      messagingServices.add(messagingService);
+      clusterServices.add(new DefaultClusterMembershipService(
+          localMember,
+          new DefaultNodeDiscoveryService(bootstrapService, localMember, provider),
+          bootstrapService,
+          config,
+          broadcastFanout));
+    }
+    return clusterServices;
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
   private class TestClusterMembershipEventListener implements ClusterMembershipEventListener {
     private BlockingQueue<ClusterMembershipEvent> queue = new ArrayBlockingQueue<ClusterMembershipEvent>(10);
 
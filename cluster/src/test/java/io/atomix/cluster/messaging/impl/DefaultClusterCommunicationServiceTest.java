@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.atomix.cluster.BootstrapService;
+import io.atomix.cluster.ManagedClusterMembershipService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MembershipConfig;
+import io.atomix.cluster.Node;
+import io.atomix.cluster.TestBootstrapService;
+import io.atomix.cluster.discovery.BootstrapDiscoveryProvider;
+import io.atomix.cluster.impl.DefaultClusterMembershipService;
+import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
+import io.atomix.cluster.messaging.ManagedClusterCommunicationService;
+import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Namespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Cluster communication service test.
+ */
+public class DefaultClusterCommunicationServiceTest {
+  private static final Serializer SERIALIZER = Serializer.using(Namespaces.BASIC);
+  private static final int NODES = 7;
+
+  private final List<ManagedMessagingService> messagingServices = new ArrayList<>();
+  private final List<ManagedClusterMembershipService> membershipServices = new ArrayList<>();
+  private final List<ManagedClusterCommunicationService> communicationServices = new ArrayList<>();
+
+  @Before
+  public void setupCluster() throws Exception {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+    Collection<Node> bootstrapLocations = IntStream.range(1, NODES + 1)
+        .mapToObj(id -> Node.builder()
+            .withId(String.valueOf(id))
+            .withAddress(Address.from("localhost", id))
+            .build())
+        .collect(Collectors.toList());
+
+    for (int id = 1; id <= NODES; id++) {
+      Member localMember = Member.builder(String.valueOf(id))
+          .withAddress("localhost", id)
+          .build();
+      ManagedMessagingService messagingService = (ManagedMessagingService) messagingServiceFactory
+          .newMessagingService(localMember.address()).start().join();
+      BootstrapService bootstrapService = new TestBootstrapService(
+          messagingService,
+          broadcastServiceFactory.newBroadcastService().start().join());
+      ManagedClusterMembershipService membershipService = new DefaultClusterMembershipService(
+          localMember,
+          new DefaultNodeDiscoveryService(bootstrapService, localMember, new BootstrapDiscoveryProvider(bootstrapLocations)),
+          bootstrapService,
+          new MembershipConfig());
+      membershipService.start().join();
+      ManagedClusterCommunicationService communicationService =
+          new DefaultClusterCommunicationService(membershipService, messagingService, 2);
+      communicationService.start().join();
+      messagingServices.add(messagingService);
+      membershipServices.add(membershipService);
+      communicationServices.add(communicationService);
+    }
+
+    for (int i = 0; i < 100 && membershipServices.get(0).getMembers().size() < NODES; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(NODES, membershipServices.get(0).getMembers().size());
+  }
+
+  @After
+  public void teardownCluster() throws Exception {
+    communicationServices.forEach(service -> service.stop().join());
+    membershipServices.forEach(service -> service.stop().join());
+    messagingServices.forEach(service -> service.stop().join());
+  }
+
+  @Test
+  public void testRelayBroadcast() throws Exception {
+    Map<Integer, AtomicInteger> received = new ConcurrentHashMap<>();
+    Map<Integer, Address> senders = new ConcurrentHashMap<>();
+    for (int i = 0; i < NODES; i++) {
+      int id = i + 1;
+      communicationServices.get(i).<String>subscribe("test", SERIALIZER::decode, (address, message) -> {
+        assertEquals("Hello world!", message);
+        received.computeIfAbsent(id, n -> new AtomicInteger()).incrementAndGet();
+        senders.put(id, address);
+      }, MoreExecutors.directExecutor()).join();
+    }
+
+    communicationServices.get(0).broadcast("test", "Hello world!", SERIALIZER::encode);
+
+    assertEquals(NODES - 1, received.size());
+    assertFalse(received.containsKey(1));
+    for (int id = 2; id <= NODES; id++) {
+      assertEquals(1, received.get(id).get());
+      assertEquals(messagingServices.get(0).address(), senders.get(id));
+    }
+    received.clear();
+
+    // Members relay to the next member of their group when the first member can't be reached
+    messagingServices.get(1).unregisterHandler("atomix-cluster-relay");
+
+    communicationServices.get(0).broadcast("test", "Hello world!", SERIALIZER::encode);
+
+    assertEquals(NODES - 2, received.size());
+    assertFalse(received.containsKey(2));
+    for (int id = 3; id <= NODES; id++) {
+      assertEquals(1, received.get(id).get());
+    }
+  }
+
+  @Test
+  public void testRelayBroadcastAfterRestart() throws Exception {
+    Map<Integer, AtomicInteger> received = new ConcurrentHashMap<>();
+    for (int i = 0; i < NODES; i++) {
+      int id = i + 1;
+      communicationServices.get(i).<String>subscribe("test", SERIALIZER::decode, (address, message) -> {
+        received.computeIfAbsent(id, n -> new AtomicInteger()).incrementAndGet();
+      }, MoreExecutors.directExecutor()).join();
+    }
+
+    communicationServices.get(0).broadcast("test", "Hello world!", SERIALIZER::encode);
+    assertEquals(NODES - 1, received.size());
+    received.clear();
+
+    // Messages relayed by a restarted member are not mistaken for those relayed before the restart
+    communicationServices.get(0).stop().join();
+    ManagedClusterCommunicationService communicationService =
+        new DefaultClusterCommunicationService(membershipServices.get(0), messagingServices.get(0), 2);
+    communicationService.start().join();
+    communicationServices.set(0, communicationService);
+
+    communicationService.broadcast("test", "Hello world!", SERIALIZER::encode);
+    assertEquals(NODES - 1, received.size());
+    for (int id = 2; id <= NODES; id++) {
+      assertEquals(1, received.get(id).get());
+    }
+  }
+}
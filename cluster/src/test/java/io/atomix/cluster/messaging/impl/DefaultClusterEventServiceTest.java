@@ -29,6 +29,7 @@ import io.atomix.cluster.impl.DefaultNodeDiscoveryService;
 import io.atomix.cluster.messaging.ClusterEventService;
 import io.atomix.cluster.messaging.ManagedClusterEventService;
 import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.cluster.messaging.Subscription;
 import io.atomix.utils.net.Address;
 import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
@@ -186,6 +187,30 @@ public class DefaultClusterEventServiceTest {
     assertEquals("Hello world!", eventService3.send("test2", "Hello world!").join());
     assertEquals(1, events.size());
     assertTrue(events.contains(1));
+    events.clear();
+
+    // Drop subscription updates pushed to node 3 and verify they're recovered by anti-entropy
+    messagingService3.unregisterHandler("ClusterEventingService-update");
+
+    Subscription subscription = eventService1.<String>subscribe("test3", SERIALIZER::decode, message -> {
+      events.add(1);
+    }, MoreExecutors.directExecutor()).join();
+
+    Thread.sleep(3000);
+
+    eventService3.broadcast("test3", "Hello world!", SERIALIZER::encode);
+    Thread.sleep(100);
+    assertEquals(1, events.size());
+    assertTrue(events.contains(1));
+    events.clear();
+
+    subscription.close().join();
+
+    Thread.sleep(3000);
+
+    eventService3.broadcast("test3", "Hello world!", SERIALIZER::encode);
+    Thread.sleep(100);
+    assertEquals(0, events.size());
 
     CompletableFuture.allOf(new CompletableFuture[]{clusterEventingService1.stop(), clusterEventingService2.stop(),
         clusterEventingService3.stop()}).join();
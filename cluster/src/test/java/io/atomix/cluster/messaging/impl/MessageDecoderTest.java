@@ -15,13 +15,19 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.cluster.messaging.CompressionType;
+import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Message decoder test.
@@ -59,4 +65,133 @@ public class MessageDecoderTest {
             byteBuf.release();
         }
     }
+
+    @Test
+    public void testSubjectDictionary() throws Exception {
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(Address.from("localhost", 5000), 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        ByteBuf first = encode(encoder, new InternalRequest(1, 1, null, "foo", "a".getBytes()));
+        decoder.writeInbound(first);
+        InternalRequest request1 = decoder.readInbound();
+        assertEquals("foo", request1.subject());
+        assertEquals(0, request1.subjectId());
+
+        ByteBuf second = encode(encoder, new InternalRequest(1, 2, null, "bar", "b".getBytes()));
+        int secondLength = second.readableBytes();
+        decoder.writeInbound(second);
+        InternalRequest request2 = decoder.readInbound();
+        assertEquals("bar", request2.subject());
+        assertEquals(1, request2.subjectId());
+
+        // Until a version has been negotiated, repeated subjects are written in full and keep their original ID.
+        ByteBuf third = encode(encoder, new InternalRequest(1, 3, null, "foo", "c".getBytes()));
+        assertEquals(secondLength, third.readableBytes());
+        decoder.writeInbound(third);
+        InternalRequest request3 = decoder.readInbound();
+        assertSame(request1.subject(), request3.subject());
+        assertEquals(0, request3.subjectId());
+
+        // Once negotiated, the fourth request references the first subject by ID.
+        encoder.attr(MessageEncoder.PEER_VERSION).set(MessageEncoder.SUBJECT_ID_VERSION);
+        ByteBuf fourth = encode(encoder, new InternalRequest(1, 4, null, "foo", "d".getBytes()));
+        assertTrue(fourth.readableBytes() < secondLength);
+        decoder.writeInbound(fourth);
+        InternalRequest request4 = decoder.readInbound();
+        assertSame(request1.subject(), request4.subject());
+        assertEquals(0, request4.subjectId());
+        assertEquals(4, request4.id());
+        assertArrayEquals("d".getBytes(), request4.payload());
+
+        request1.release();
+        request2.release();
+        request3.release();
+        request4.release();
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testLargePayloadSlice() throws Exception {
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(Address.from("localhost", 5000), 1));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        byte[] bytes = new byte[MessageEncoder.COPY_THRESHOLD * 4];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        ByteBuf payload = Unpooled.copiedBuffer(bytes);
+
+        // The encoded frame references the payload rather than copying it, and the decoded message references the
+        // frame until it's released.
+        ByteBuf frame = encode(encoder, new InternalReply(1, 1, payload, InternalReply.Status.OK));
+        assertEquals(1, payload.refCnt());
+        decoder.writeInbound(frame);
+        assertEquals(1, payload.refCnt());
+
+        InternalReply reply = decoder.readInbound();
+        assertEquals(1, reply.id());
+        assertEquals(InternalReply.Status.OK, reply.status());
+        assertEquals(bytes.length, reply.buffer().readableBytes());
+        assertArrayEquals(bytes, reply.payload());
+
+        ByteBuf buffer = reply.buffer().retain();
+        assertTrue(reply.release());
+        assertEquals(1, buffer.refCnt());
+        buffer.release();
+        assertEquals(0, payload.refCnt());
+
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testCompression() throws Exception {
+        EmbeddedChannel encoder = new EmbeddedChannel(
+            new MessageEncoder(Address.from("localhost", 5000), 1, CompressionType.LZ4, 1024));
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+
+        byte[] bytes = new byte[1024 * 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 16);
+        }
+
+        // Payloads are not compressed until the peer has advertised the same codec, and the frame is identical to one
+        // written by an encoder without compression.
+        EmbeddedChannel uncompressed = new EmbeddedChannel(new MessageEncoder(Address.from("localhost", 5000), 1));
+        ByteBuf expected = encode(uncompressed, new InternalReply(1, 1, bytes, InternalReply.Status.OK));
+        ByteBuf first = encode(encoder, new InternalReply(1, 1, bytes, InternalReply.Status.OK));
+        assertEquals(expected, first);
+        expected.release();
+        uncompressed.finishAndReleaseAll();
+        decoder.writeInbound(first);
+        InternalReply reply1 = decoder.readInbound();
+        assertArrayEquals(bytes, reply1.payload());
+        reply1.release();
+
+        encoder.attr(MessageEncoder.PEER_COMPRESSION).set(CompressionType.LZ4);
+        ByteBuf second = encode(encoder, new InternalReply(1, 2, bytes, InternalReply.Status.OK));
+        assertTrue(second.readableBytes() < bytes.length);
+        decoder.writeInbound(second);
+        InternalReply reply2 = decoder.readInbound();
+        assertEquals(2, reply2.id());
+        assertArrayEquals(bytes, reply2.payload());
+        reply2.release();
+
+        // Payloads below the threshold are not compressed.
+        ByteBuf third = encode(encoder, new InternalReply(1, 3, new byte[512], InternalReply.Status.OK));
+        assertTrue(third.readableBytes() > 512);
+        decoder.writeInbound(third);
+        InternalReply reply3 = decoder.readInbound();
+        assertArrayEquals(new byte[512], reply3.payload());
+        reply3.release();
+
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    private static ByteBuf encode(EmbeddedChannel channel, InternalMessage message) {
+        channel.writeOutbound(message);
+        return channel.readOutbound();
+    }
 }
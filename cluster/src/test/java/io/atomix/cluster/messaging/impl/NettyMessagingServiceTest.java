@@ -17,27 +17,46 @@ package io.atomix.cluster.messaging.impl;
 
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.atomix.cluster.messaging.ChannelStats;
+import io.atomix.cluster.messaging.CompressionType;
 import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.MessagingException;
+import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.slf4j.Logger;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.net.ConnectException;
 import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 
@@ -224,6 +243,444 @@ public class NettyMessagingServiceTest {
     assertEquals("handler-thread", handlerThreadName.get());
   }
 
+  @Test
+  public void testReregisterHandler() {
+    String subject = nextSubject();
+    BiFunction<Address, byte[], byte[]> fooHandler = (ep, data) -> "foo".getBytes();
+    netty2.registerHandler(subject, fooHandler, MoreExecutors.directExecutor());
+    assertTrue(Arrays.equals("foo".getBytes(), netty1.sendAndReceive(ep2, subject, "hello world".getBytes()).join()));
+    assertTrue(Arrays.equals("foo".getBytes(), netty1.sendAndReceive(ep2, subject, "hello world".getBytes()).join()));
+
+    BiFunction<Address, byte[], byte[]> barHandler = (ep, data) -> "bar".getBytes();
+    netty2.registerHandler(subject, barHandler, MoreExecutors.directExecutor());
+    assertTrue(Arrays.equals("bar".getBytes(), netty1.sendAndReceive(ep2, subject, "hello world".getBytes()).join()));
+
+    netty2.unregisterHandler(subject);
+    try {
+      netty1.sendAndReceive(ep2, subject, "hello world".getBytes()).join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.NoRemoteHandler);
+    }
+  }
+
+  @Test
+  public void testSendAndReceiveBuffer() {
+    String subject = nextSubject();
+    byte[] bytes = new byte[MessageEncoder.COPY_THRESHOLD * 8];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+
+    AtomicReference<byte[]> request = new AtomicReference<>();
+    netty2.registerBufferHandler(subject, (ep, buffer) -> {
+      request.set(ByteBufUtil.getBytes(buffer));
+      return CompletableFuture.completedFuture(buffer.retainedSlice());
+    });
+
+    ByteBuf payload = Unpooled.wrappedBuffer(bytes);
+    ByteBuf response = netty1.sendAndReceive(ep2, subject, payload).join();
+    try {
+      assertTrue(Arrays.equals(bytes, request.get()));
+      assertTrue(Arrays.equals(bytes, ByteBufUtil.getBytes(response)));
+    } finally {
+      response.release();
+    }
+    assertEquals(0, payload.refCnt());
+
+    // Buffer handlers interoperate with byte array senders.
+    assertTrue(Arrays.equals("foo".getBytes(), netty1.sendAndReceive(ep2, subject, "foo".getBytes()).join()));
+  }
+
+  @Test
+  public void testSendAndReceiveBufferLocal() {
+    String subject = nextSubject();
+    netty1.registerBufferHandler(subject, (ep, buffer) ->
+        CompletableFuture.completedFuture(Unpooled.copiedBuffer(buffer)));
+
+    ByteBuf payload = Unpooled.wrappedBuffer("hello world".getBytes());
+    ByteBuf response = netty1.sendAndReceive(ep1, subject, payload).join();
+    try {
+      assertTrue(Arrays.equals("hello world".getBytes(), ByteBufUtil.getBytes(response)));
+    } finally {
+      response.release();
+    }
+    assertEquals(0, payload.refCnt());
+  }
+
+  @Test
+  public void testSendAndReceiveCompressed() {
+    ManagedMessagingService netty3 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5005)))
+        .withCompression(CompressionType.LZ4)
+        .withCompressionThreshold(1024)
+        .build()
+        .start()
+        .join();
+    ManagedMessagingService netty4 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5007)))
+        .withCompression(CompressionType.LZ4)
+        .withCompressionThreshold(1024)
+        .build()
+        .start()
+        .join();
+    try {
+      String subject = nextSubject();
+      byte[] bytes = new byte[1024 * 16];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = (byte) (i % 32);
+      }
+      BiFunction<Address, byte[], byte[]> handler = (ep, data) -> data;
+      netty4.registerHandler(subject, handler, MoreExecutors.directExecutor());
+      netty1.registerHandler(subject, handler, MoreExecutors.directExecutor());
+
+      // Compression is enabled once both peers have advertised LZ4 in the handshake.
+      for (int i = 0; i < 3; i++) {
+        assertTrue(Arrays.equals(bytes, netty3.sendAndReceive(netty4.address(), subject, bytes).join()));
+      }
+
+      // Peers without compression enabled receive uncompressed payloads.
+      for (int i = 0; i < 3; i++) {
+        assertTrue(Arrays.equals(bytes, netty3.sendAndReceive(ep1, subject, bytes).join()));
+      }
+    } finally {
+      netty3.stop().join();
+      netty4.stop().join();
+    }
+  }
+
+  @Test
+  public void testSendAndReceiveCompressedToLegacyPeer() throws Exception {
+    ManagedMessagingService netty3 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5005)))
+        .withCompression(CompressionType.LZ4)
+        .withCompressionThreshold(1024)
+        .build()
+        .start()
+        .join();
+    LegacyEchoServer legacy = new LegacyEchoServer();
+    try {
+      byte[] bytes = new byte[1024 * 16];
+      for (int i = 0; i < bytes.length; i++) {
+        bytes[i] = (byte) (i % 32);
+      }
+
+      // The legacy peer rejects the handshake, so messages must keep the original framing and stay uncompressed.
+      for (int i = 0; i < 3; i++) {
+        assertTrue(Arrays.equals(bytes, netty3.sendAndReceive(legacy.address(), "echo", bytes).join()));
+      }
+      assertTrue(legacy.handshakes.get() > 0);
+      assertNull(legacy.error.get());
+    } finally {
+      netty3.stop().join();
+      legacy.close();
+    }
+  }
+
+  /**
+   * Server that speaks the original message framing, without protocol versions or compression, and echoes requests.
+   */
+  private static class LegacyEchoServer implements AutoCloseable {
+    private final ServerSocket serverSocket = new ServerSocket(0);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger handshakes = new AtomicInteger();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    LegacyEchoServer() throws IOException {
+      executor.execute(() -> {
+        while (!serverSocket.isClosed()) {
+          try {
+            Socket socket = serverSocket.accept();
+            executor.execute(() -> serve(socket));
+          } catch (IOException e) {
+            return;
+          }
+        }
+      });
+    }
+
+    Address address() {
+      return Address.from(IP_STRING, serverSocket.getLocalPort());
+    }
+
+    private void serve(Socket socket) {
+      try (Socket s = socket) {
+        DataInputStream in = new DataInputStream(s.getInputStream());
+        DataOutputStream out = new DataOutputStream(s.getOutputStream());
+
+        // Read the sender address header.
+        in.readFully(new byte[in.readByte()]);
+        in.readInt();
+
+        boolean addressWritten = false;
+        while (true) {
+          int type = in.readByte();
+          int preamble = in.readInt();
+          long id = in.readLong();
+          byte[] payload = new byte[in.readInt()];
+          in.readFully(payload);
+          if (type != InternalMessage.Type.REQUEST.id()) {
+            throw new IllegalStateException("Unexpected message type " + type);
+          }
+          byte[] subject = new byte[in.readShort()];
+          in.readFully(subject);
+
+          InternalReply.Status status;
+          if (new String(subject, StandardCharsets.UTF_8).equals("echo")) {
+            status = InternalReply.Status.OK;
+          } else {
+            handshakes.incrementAndGet();
+            status = InternalReply.Status.ERROR_NO_HANDLER;
+            payload = new byte[0];
+          }
+
+          if (!addressWritten) {
+            byte[] ip = s.getLocalAddress().getAddress();
+            out.writeByte(ip.length);
+            out.write(ip);
+            out.writeInt(s.getLocalPort());
+            addressWritten = true;
+          }
+          out.writeByte(InternalMessage.Type.REPLY.id());
+          out.writeInt(preamble);
+          out.writeLong(id);
+          out.writeInt(payload.length);
+          out.write(payload);
+          out.writeByte(status.id());
+          out.flush();
+        }
+      } catch (EOFException | SocketException e) {
+        // The client closed the connection.
+      } catch (Throwable e) {
+        error.set(e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      serverSocket.close();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testLeastLoadedChannelSelection() throws Exception {
+    String subject1 = nextSubject();
+    String subject2 = nextSubject();
+    CompletableFuture<byte[]> reply = new CompletableFuture<>();
+    BiFunction<Address, byte[], CompletableFuture<byte[]>> handler = (ep, data) -> reply;
+    netty2.registerHandler(subject1, handler);
+    netty2.registerHandler(subject2, handler);
+    BiFunction<Address, byte[], byte[]> echo = (ep, data) -> data;
+    netty2.registerHandler("echo", echo, MoreExecutors.directExecutor());
+    MessagingService messagingService = netty1;
+
+    // Open the first channel.
+    netty1.sendAndReceive(ep2, "echo", "hello world".getBytes()).join();
+
+    // Requests for a subject with outstanding requests remain on the same channel, and another channel is opened
+    // once the connected channel is busy.
+    CompletableFuture<byte[]> response1 = netty1.sendAndReceive(ep2, subject1, "a".getBytes());
+    CompletableFuture<byte[]> response2 = netty1.sendAndReceive(ep2, subject1, "b".getBytes());
+    List<ChannelStats> stats = messagingService.getChannelStats(ep2);
+    int busy = -1;
+    for (int i = 0; i < stats.size(); i++) {
+      if (stats.get(i).pendingRequests() == 2) {
+        busy = i;
+      }
+    }
+    assertTrue(busy >= 0);
+    while (stats.stream().filter(ChannelStats::isActive).count() < 2) {
+      Thread.sleep(10);
+      stats = messagingService.getChannelStats(ep2);
+    }
+
+    // Requests for other subjects are sent on the least loaded channel.
+    CompletableFuture<byte[]> response3 = netty1.sendAndReceive(ep2, subject2, "c".getBytes());
+    stats = messagingService.getChannelStats(ep2);
+    assertEquals(2, stats.get(busy).pendingRequests());
+    assertEquals(3, stats.stream().mapToInt(ChannelStats::pendingRequests).sum());
+
+    reply.complete("foo".getBytes());
+    assertTrue(Arrays.equals("foo".getBytes(), response1.join()));
+    assertTrue(Arrays.equals("foo".getBytes(), response2.join()));
+    assertTrue(Arrays.equals("foo".getBytes(), response3.join()));
+    for (ChannelStats channelStats : messagingService.getChannelStats(ep2)) {
+      assertEquals(0, channelStats.pendingRequests());
+    }
+  }
+
+  @Test
+  public void testMixedMessageOrdering() throws Exception {
+    String subject = nextSubject();
+    List<String> received = new CopyOnWriteArrayList<>();
+    CompletableFuture<byte[]> reply = new CompletableFuture<>();
+    BiFunction<Address, byte[], CompletableFuture<byte[]>> handler = (ep, data) -> {
+      received.add(new String(data));
+      return reply;
+    };
+    netty2.registerHandler(subject, handler);
+    BiFunction<Address, byte[], byte[]> echo = (ep, data) -> data;
+    netty2.registerHandler("echo", echo, MoreExecutors.directExecutor());
+
+    // Open the first channel.
+    netty1.sendAndReceive(ep2, "echo", "hello world".getBytes()).join();
+
+    // One-way messages sent while the subject has outstanding requests are sent on the same channel as the requests.
+    List<String> sent = new ArrayList<>();
+    List<CompletableFuture<byte[]>> responses = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      String data = String.valueOf(i);
+      sent.add(data);
+      if (i % 2 == 0) {
+        responses.add(netty1.sendAndReceive(ep2, subject, data.getBytes()));
+      } else {
+        netty1.sendAsync(ep2, subject, data.getBytes());
+      }
+    }
+
+    long deadline = System.currentTimeMillis() + 10000;
+    while (received.size() < sent.size() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(sent, received);
+
+    reply.complete("foo".getBytes());
+    for (CompletableFuture<byte[]> response : responses) {
+      assertTrue(Arrays.equals("foo".getBytes(), response.join()));
+    }
+  }
+
+  @Test
+  public void testBackpressure() throws Exception {
+    ManagedMessagingService netty3 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5005)))
+        .withMaxPendingRequests(1)
+        .withBackpressureTimeout(Duration.ZERO)
+        .build()
+        .start()
+        .join();
+    ManagedMessagingService netty4 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5007)))
+        .withMaxPendingRequests(1)
+        .withBackpressureTimeout(Duration.ofSeconds(10))
+        .build()
+        .start()
+        .join();
+    try {
+      String subject = nextSubject();
+      CompletableFuture<byte[]> reply = new CompletableFuture<>();
+      BiFunction<Address, byte[], CompletableFuture<byte[]>> handler = (ep, data) -> reply;
+      netty2.registerHandler(subject, handler);
+
+      // Without a backpressure timeout, requests beyond the pending request limit fail immediately.
+      CompletableFuture<byte[]> response1 = netty3.sendAndReceive(ep2, subject, "a".getBytes(), Duration.ofSeconds(10));
+      try {
+        netty3.sendAndReceive(ep2, subject, "b".getBytes(), Duration.ofSeconds(10)).join();
+        fail();
+      } catch (CompletionException e) {
+        assertTrue(e.getCause() instanceof MessagingException.Overloaded);
+      }
+
+      // With a backpressure timeout, requests beyond the limit are sent once capacity is released.
+      CompletableFuture<byte[]> response2 = netty4.sendAndReceive(ep2, subject, "c".getBytes(), Duration.ofSeconds(10));
+      CompletableFuture<byte[]> response3 = netty4.sendAndReceive(ep2, subject, "d".getBytes(), Duration.ofSeconds(10));
+      assertEquals(1, netty4.getChannelStats(ep2).stream()
+          .mapToInt(ChannelStats::pendingRequests)
+          .sum());
+
+      reply.complete("foo".getBytes());
+      assertTrue(Arrays.equals("foo".getBytes(), response1.join()));
+      assertTrue(Arrays.equals("foo".getBytes(), response2.join()));
+      assertTrue(Arrays.equals("foo".getBytes(), response3.join()));
+    } finally {
+      netty3.stop().join();
+      netty4.stop().join();
+    }
+  }
+
+  @Test
+  public void testBackpressureConcurrentSenders() throws Exception {
+    ManagedMessagingService netty3 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5005)))
+        .withMaxPendingRequests(4)
+        .withBackpressureTimeout(Duration.ofSeconds(30))
+        .build()
+        .start()
+        .join();
+    ScheduledExecutorService replyExecutor = Executors.newSingleThreadScheduledExecutor();
+    ExecutorService senders = Executors.newFixedThreadPool(8);
+    try {
+      String subject = nextSubject();
+      AtomicInteger inFlight = new AtomicInteger();
+      AtomicInteger maxInFlight = new AtomicInteger();
+      BiFunction<Address, byte[], CompletableFuture<byte[]>> handler = (ep, data) -> {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        CompletableFuture<byte[]> reply = new CompletableFuture<>();
+        replyExecutor.schedule(() -> {
+          inFlight.decrementAndGet();
+          reply.complete(data);
+        }, 1, TimeUnit.MILLISECONDS);
+        return reply;
+      };
+      netty2.registerHandler(subject, handler);
+
+      // Senders racing for capacity must never exceed the pending request limit.
+      List<CompletableFuture<byte[]>> responses = new CopyOnWriteArrayList<>();
+      CountDownLatch latch = new CountDownLatch(8);
+      for (int i = 0; i < 8; i++) {
+        senders.execute(() -> {
+          for (int j = 0; j < 50; j++) {
+            responses.add(netty3.sendAndReceive(ep2, subject, "a".getBytes(), Duration.ofSeconds(30)));
+          }
+          latch.countDown();
+        });
+      }
+      latch.await(30, TimeUnit.SECONDS);
+      CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+      assertEquals(400, responses.size());
+      assertTrue(maxInFlight.get() <= 4);
+    } finally {
+      senders.shutdownNow();
+      replyExecutor.shutdownNow();
+      netty3.stop().join();
+    }
+  }
+
+  @Test
+  public void testBackpressureOrdering() throws Exception {
+    ManagedMessagingService netty3 = (ManagedMessagingService) NettyMessagingService.builder()
+        .withAddress(Address.from(findAvailablePort(5005)))
+        .withMaxPendingRequests(2)
+        .withBackpressureTimeout(Duration.ofSeconds(30))
+        .build()
+        .start()
+        .join();
+    try {
+      String subject = nextSubject();
+      List<Integer> received = new CopyOnWriteArrayList<>();
+      BiFunction<Address, byte[], byte[]> handler = (ep, data) -> {
+        received.add(Integer.parseInt(new String(data)));
+        return data;
+      };
+      netty2.registerHandler(subject, handler, MoreExecutors.directExecutor());
+      netty3.sendAndReceive(ep2, subject, "-1".getBytes()).join();
+      received.clear();
+
+      // Messages released from the queue are handed a channel before later messages can overtake them.
+      List<CompletableFuture<byte[]>> responses = new ArrayList<>();
+      List<Integer> sent = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        sent.add(i);
+        responses.add(netty3.sendAndReceive(ep2, subject, String.valueOf(i).getBytes(), Duration.ofSeconds(30)));
+      }
+      CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+      assertEquals(sent, received);
+    } finally {
+      netty3.stop().join();
+    }
+  }
+
   private static int findAvailablePort(int defaultPort) {
     try {
       ServerSocket socket = new ServerSocket(0);
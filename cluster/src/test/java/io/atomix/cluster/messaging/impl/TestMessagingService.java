@@ -22,6 +22,7 @@ import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.utils.concurrent.ComposableFuture;
 import io.atomix.utils.concurrent.Futures;
 
+import java.net.ConnectException;
 import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -60,6 +61,9 @@ public class TestMessagingService implements ManagedMessagingService {
    * Returns the given handler for the given address.
    */
   private BiFunction<Address, byte[], CompletableFuture<byte[]>> getHandler(Address address, String type) {
+    if (!started.get()) {
+      return (e, p) -> Futures.exceptionalFuture(new ConnectException());
+    }
     TestMessagingService service = getService(address);
     if (service == null) {
       return (e, p) -> Futures.exceptionalFuture(new NoRemoteHandler());
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Write coalescing handler test.
+ */
+public class WriteCoalescingHandlerTest {
+
+  @Test
+  public void testCoalesceFlushes() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new WriteCoalescingHandler(Duration.ZERO, 1024));
+    channel.pipeline().write(Unpooled.wrappedBuffer(new byte[10]));
+    channel.pipeline().write(Unpooled.wrappedBuffer(new byte[20]));
+    channel.pipeline().flush();
+    channel.pipeline().flush();
+    assertNull(channel.readOutbound());
+
+    channel.runPendingTasks();
+    assertEquals(10, release(channel.readOutbound()));
+    assertEquals(20, release(channel.readOutbound()));
+    assertNull(channel.readOutbound());
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushOnByteThreshold() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new WriteCoalescingHandler(Duration.ofMinutes(1), 100));
+    channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[60]));
+    assertNull(channel.readOutbound());
+    channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[60]));
+    assertEquals(60, release(channel.readOutbound()));
+    assertEquals(60, release(channel.readOutbound()));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushAfterDelay() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new WriteCoalescingHandler(Duration.ofMillis(10), 1024));
+    channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[10]));
+    channel.runPendingTasks();
+    assertNull(channel.readOutbound());
+
+    Thread.sleep(20);
+    channel.runPendingTasks();
+    assertEquals(10, release(channel.readOutbound()));
+    channel.finishAndReleaseAll();
+  }
+
+  @Test
+  public void testFlushOnClose() throws Exception {
+    EmbeddedChannel channel = new EmbeddedChannel(new WriteCoalescingHandler(Duration.ofMinutes(1), 1024));
+    channel.pipeline().writeAndFlush(Unpooled.wrappedBuffer(new byte[10]));
+    assertNull(channel.readOutbound());
+    channel.close();
+    assertEquals(10, release(channel.readOutbound()));
+    channel.finishAndReleaseAll();
+  }
+
+  private static int release(ByteBuf buffer) {
+    int size = buffer.readableBytes();
+    buffer.release();
+    return size;
+  }
+}
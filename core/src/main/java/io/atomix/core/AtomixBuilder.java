@@ -18,6 +18,8 @@ package io.atomix.core;
 import io.atomix.cluster.AtomixClusterBuilder;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.discovery.NodeDiscoveryProvider;
+import io.atomix.cluster.messaging.ChannelPoolStrategy;
+import io.atomix.cluster.messaging.CompressionType;
 import io.atomix.core.profile.Profile;
 import io.atomix.primitive.partition.ManagedPartitionGroup;
 import io.atomix.utils.net.Address;
@@ -254,6 +256,66 @@ public class AtomixBuilder extends AtomixClusterBuilder {
     return this;
   }
 
+  @Override
+  public AtomixBuilder withFlushDelay(Duration flushDelay) {
+    super.withFlushDelay(flushDelay);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withFlushBytes(int flushBytes) {
+    super.withFlushBytes(flushBytes);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withCompression(CompressionType compression) {
+    super.withCompression(compression);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withCompressionThreshold(int compressionThreshold) {
+    super.withCompressionThreshold(compressionThreshold);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withChannelPoolSize(int channelPoolSize) {
+    super.withChannelPoolSize(channelPoolSize);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withChannelPoolStrategy(ChannelPoolStrategy channelPoolStrategy) {
+    super.withChannelPoolStrategy(channelPoolStrategy);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMaxPendingRequests(int maxPendingRequests) {
+    super.withMaxPendingRequests(maxPendingRequests);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withMaxPendingBytes(int maxPendingBytes) {
+    super.withMaxPendingBytes(maxPendingBytes);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withBackpressureTimeout(Duration backpressureTimeout) {
+    super.withBackpressureTimeout(backpressureTimeout);
+    return this;
+  }
+
+  @Override
+  public AtomixBuilder withBroadcastFanout(int broadcastFanout) {
+    super.withBroadcastFanout(broadcastFanout);
+    return this;
+  }
+
   /**
    * Builds a new Atomix instance.
    *
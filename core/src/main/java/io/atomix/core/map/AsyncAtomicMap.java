@@ -247,6 +247,19 @@ public interface AsyncAtomicMap<K, V> extends AsyncPrimitive, Transactional<MapU
    */
   CompletableFuture<Versioned<V>> putAndGet(K key, V value, Duration ttl);
 
+  /**
+   * Copies all of the mappings from the specified map to this map.
+   * <p>
+   * Mappings are grouped by partition, and each partition stores its mappings in a single operation. The update
+   * is atomic within a partition but not across partitions: if any key in a partition is locked by a transaction,
+   * none of that partition's mappings are stored and the returned future is completed exceptionally, but other
+   * partitions may have stored their mappings.
+   *
+   * @param entries mappings to be stored in this map
+   * @return future that will be completed once the mappings have been stored
+   */
+  CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries);
+
   /**
    * Removes the mapping for a key from this map if it is present (optional operation).
    *
@@ -256,6 +269,17 @@ public interface AsyncAtomicMap<K, V> extends AsyncPrimitive, Transactional<MapU
    */
   CompletableFuture<Versioned<V>> remove(K key);
 
+  /**
+   * Removes the mappings for all of the specified keys from this map if they are present.
+   * <p>
+   * Keys are grouped by partition, and each partition removes its keys in a single operation. As with
+   * {@link #putAll(Map)}, the update is atomic within a partition but not across partitions.
+   *
+   * @param keys keys whose mappings are to be removed from the map
+   * @return future that will be completed once the mappings have been removed
+   */
+  CompletableFuture<Void> removeAll(Iterable<K> keys);
+
   /**
    * Removes all of the mappings from this map (optional operation).
    * The map will be empty after this call returns.
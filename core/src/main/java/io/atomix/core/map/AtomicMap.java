@@ -214,6 +214,16 @@ public interface AtomicMap<K, V> extends SyncPrimitive {
    */
   Versioned<V> putAndGet(K key, V value, Duration ttl);
 
+  /**
+   * Copies all of the mappings from the specified map to this map.
+   * <p>
+   * Mappings are grouped by partition, and each partition stores its mappings in a single operation. The update
+   * is atomic within a partition but not across partitions.
+   *
+   * @param entries mappings to be stored in this map
+   */
+  void putAll(Map<? extends K, ? extends V> entries);
+
   /**
    * Removes the mapping for a key from this map if it is present (optional operation).
    *
@@ -223,6 +233,16 @@ public interface AtomicMap<K, V> extends SyncPrimitive {
    */
   Versioned<V> remove(K key);
 
+  /**
+   * Removes the mappings for all of the specified keys from this map if they are present.
+   * <p>
+   * Keys are grouped by partition, and each partition removes its keys in a single operation. The update is
+   * atomic within a partition but not across partitions.
+   *
+   * @param keys keys whose mappings are to be removed from the map
+   */
+  void removeAll(Iterable<K> keys);
+
   /**
    * Removes all of the mappings from this map (optional operation).
    * The map will be empty after this call returns.
@@ -116,15 +116,9 @@ public abstract class AbstractAtomicMapProxy<P extends AsyncPrimitive, S extends
 
   @Override
   public CompletableFuture<Map<String, Versioned<byte[]>>> getAllPresent(Iterable<String> keys) {
-    return Futures.allOf(getProxyClient().getPartitions()
+    return Futures.allOf(groupByPartition(keys).entrySet()
         .stream()
-        .map(partition -> {
-          Set<String> uniqueKeys = new HashSet<>();
-          for (String key : keys) {
-            uniqueKeys.add(key);
-          }
-          return partition.apply(service -> service.getAllPresent(uniqueKeys));
-        })
+        .map(e -> getProxyClient().applyOn(e.getKey(), service -> service.getAllPresent(e.getValue())))
         .collect(Collectors.toList()))
         .thenApply(maps -> {
           Map<String, Versioned<byte[]>> result = new HashMap<>();
@@ -135,6 +129,20 @@ public abstract class AbstractAtomicMapProxy<P extends AsyncPrimitive, S extends
         });
   }
 
+  /**
+   * Groups the given keys by the partition to which they belong.
+   *
+   * @param keys the keys to group
+   * @return the unique keys grouped by partition
+   */
+  private Map<PartitionId, Set<String>> groupByPartition(Iterable<String> keys) {
+    Map<PartitionId, Set<String>> keysByPartition = new HashMap<>();
+    for (String key : keys) {
+      keysByPartition.computeIfAbsent(getProxyClient().getPartitionId(key), k -> new HashSet<>()).add(key);
+    }
+    return keysByPartition;
+  }
+
   @Override
   public CompletableFuture<Versioned<byte[]>> getOrDefault(String key, byte[] defaultValue) {
     return getProxyClient().applyBy(key, service -> service.getOrDefault(key, defaultValue));
@@ -171,6 +179,19 @@ public abstract class AbstractAtomicMapProxy<P extends AsyncPrimitive, S extends
         .thenApply(v -> v.result());
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends String, ? extends byte[]> entries) {
+    Map<PartitionId, Map<String, byte[]>> entriesByPartition = new HashMap<>();
+    entries.forEach((key, value) ->
+        entriesByPartition.computeIfAbsent(getProxyClient().getPartitionId(key), k -> new HashMap<>()).put(key, value));
+    return Futures.allOf(entriesByPartition.entrySet()
+        .stream()
+        .map(e -> getProxyClient().applyOn(e.getKey(), service -> service.putAll(e.getValue()))
+            .thenAccept(this::throwIfLocked))
+        .collect(Collectors.toList()))
+        .thenApply(v -> null);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public CompletableFuture<Versioned<byte[]>> putIfAbsent(String key, byte[] value, Duration ttl) {
@@ -187,6 +208,16 @@ public abstract class AbstractAtomicMapProxy<P extends AsyncPrimitive, S extends
         .thenApply(v -> v.result());
   }
 
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<String> keys) {
+    return Futures.allOf(groupByPartition(keys).entrySet()
+        .stream()
+        .map(e -> getProxyClient().applyOn(e.getKey(), service -> service.removeAll(e.getValue()))
+            .thenAccept(this::throwIfLocked))
+        .collect(Collectors.toList()))
+        .thenApply(v -> null);
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public CompletableFuture<Boolean> remove(String key, byte[] value) {
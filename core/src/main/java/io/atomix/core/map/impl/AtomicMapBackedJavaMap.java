@@ -105,9 +105,7 @@ public final class AtomicMapBackedJavaMap<K, V> implements Map<K, V> {
 
   @Override
   public void putAll(Map<? extends K, ? extends V> m) {
-    m.forEach((k, v) -> {
-      backingMap.put(k, v);
-    });
+    backingMap.putAll(m);
   }
 
   @Override
@@ -172,6 +172,18 @@ public interface AtomicMapService {
   @Command("putAndGetWithTtl")
   MapEntryUpdateResult<String, byte[]> putAndGet(String key, byte[] value, long ttl);
 
+  /**
+   * Copies all of the given mappings to this map.
+   * <p>
+   * The mappings are stored atomically: if any of the keys has been locked by a transaction, none of the
+   * mappings are stored.
+   *
+   * @param entries mappings to be stored in this map
+   * @return the update status
+   */
+  @Command
+  MapEntryUpdateResult.Status putAll(Map<String, byte[]> entries);
+
   /**
    * Removes the mapping for a key from this map if it is present (optional operation).
    *
@@ -182,6 +194,18 @@ public interface AtomicMapService {
   @Command
   MapEntryUpdateResult<String, byte[]> remove(String key);
 
+  /**
+   * Removes the mappings for all of the given keys from this map if they are present.
+   * <p>
+   * The mappings are removed atomically: if any of the keys has been locked by a transaction, none of the
+   * mappings are removed.
+   *
+   * @param keys keys whose mappings are to be removed from the map
+   * @return the update status
+   */
+  @Command
+  MapEntryUpdateResult.Status removeAll(Set<String> keys);
+
   /**
    * Removes all of the mappings from this map (optional operation).
    * The map will be empty after this call returns.
@@ -134,11 +134,21 @@ public class BlockingAtomicMap<K, V> extends Synchronous<AsyncAtomicMap<K, V>> i
     return complete(asyncMap.putAndGet(key, value, ttl));
   }
 
+  @Override
+  public void putAll(Map<? extends K, ? extends V> entries) {
+    complete(asyncMap.putAll(entries));
+  }
+
   @Override
   public Versioned<V> remove(K key) {
     return complete(asyncMap.remove(key));
   }
 
+  @Override
+  public void removeAll(Iterable<K> keys) {
+    complete(asyncMap.removeAll(keys));
+  }
+
   @Override
   public void clear() {
     complete(asyncMap.clear());
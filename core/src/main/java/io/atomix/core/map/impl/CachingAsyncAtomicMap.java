@@ -25,6 +25,7 @@ import io.atomix.primitive.PrimitiveState;
 import io.atomix.utils.time.Versioned;
 import org.slf4j.Logger;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
@@ -151,6 +152,18 @@ public class CachingAsyncAtomicMap<K, V> extends DelegatingAsyncAtomicMap<K, V>
         .whenComplete((r, e) -> cache.invalidate(key));
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries) {
+    return super.putAll(entries)
+        .whenComplete((r, e) -> cache.invalidateAll(entries.keySet()));
+  }
+
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<K> keys) {
+    return super.removeAll(keys)
+        .whenComplete((r, e) -> cache.invalidateAll(keys));
+  }
+
   @Override
   public CompletableFuture<Boolean> containsKey(K key) {
     return cache.getUnchecked(key).thenApply(Objects::nonNull)
@@ -29,6 +29,8 @@ import io.atomix.core.transaction.impl.RollbackResult;
 import io.atomix.primitive.service.AbstractPrimitiveService;
 import io.atomix.primitive.service.BackupInput;
 import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.CopyOnWriteMapView;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.session.Session;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.utils.concurrent.Scheduled;
@@ -58,6 +60,12 @@ public class DefaultAtomicMapService
     implements AtomicMapService {
   private static final int MAX_ITERATOR_BATCH_SIZE = 1024 * 32;
 
+  /**
+   * Marks a snapshot in which map entries are streamed individually. Snapshots written before entries were streamed
+   * begin with the length of the serialized listeners, which can never be negative.
+   */
+  private static final int STREAMED_FORMAT = -1;
+
   private final Serializer serializer;
   protected Set<SessionId> listeners = Sets.newLinkedHashSet();
   private Map<String, MapEntryValue> map;
@@ -65,6 +73,7 @@ public class DefaultAtomicMapService
   protected Map<TransactionId, TransactionScope> activeTransactions = Maps.newHashMap();
   protected Map<Long, IteratorContext> entryIterators = Maps.newHashMap();
   protected long currentVersion;
+  private volatile CopyOnWriteMapView<String, MapEntryValue> backupView;
 
   public DefaultAtomicMapService() {
     super(AtomicMapType.instance(), AtomicMapClient.class);
@@ -94,28 +103,95 @@ public class DefaultAtomicMapService
     return serializer;
   }
 
+  /**
+   * Records the value of the given key prior to it being modified while a point-in-time backup is in progress.
+   *
+   * @param key the key to be modified
+   */
+  protected void beforeUpdate(String key) {
+    CopyOnWriteMapView<String, MapEntryValue> backupView = this.backupView;
+    if (backupView != null) {
+      backupView.beforeUpdate(key);
+    }
+  }
+
   @Override
   public void backup(BackupOutput writer) {
+    writer.writeInt(STREAMED_FORMAT);
     writer.writeObject(listeners);
     writer.writeObject(preparedKeys);
-    writer.writeObject(entries());
     writer.writeObject(activeTransactions);
     writer.writeLong(currentVersion);
     writer.writeObject(entryIterators);
+    entries().forEach((key, value) -> writer.writeBoolean(true).writeString(key).writeObject(value));
+    writer.writeBoolean(false);
+  }
+
+  @Override
+  public ServiceBackup prepareBackup() {
+    // Only one point-in-time backup can be in progress at a time.
+    if (backupView != null) {
+      return null;
+    }
+
+    // The map is written from a point-in-time view, and the remaining state is encoded immediately.
+    CopyOnWriteMapView<String, MapEntryValue> backupView = new CopyOnWriteMapView<>(entries());
+    byte[] listeners = serializer.encode(this.listeners);
+    byte[] preparedKeys = serializer.encode(this.preparedKeys);
+    byte[] activeTransactions = serializer.encode(this.activeTransactions);
+    long currentVersion = this.currentVersion;
+    byte[] entryIterators = serializer.encode(this.entryIterators);
+    this.backupView = backupView;
+    return new ServiceBackup() {
+      @Override
+      public void backup(BackupOutput writer) {
+        writer.writeInt(STREAMED_FORMAT);
+        writer.writeInt(listeners.length).write(listeners);
+        writer.writeInt(preparedKeys.length).write(preparedKeys);
+        writer.writeInt(activeTransactions.length).write(activeTransactions);
+        writer.writeLong(currentVersion);
+        writer.writeInt(entryIterators.length).write(entryIterators);
+        backupView.forEach((key, value) -> writer.writeBoolean(true).writeString(key).writeObject(value));
+        writer.writeBoolean(false);
+      }
+
+      @Override
+      public void close() {
+        backupView.release();
+        DefaultAtomicMapService.this.backupView = null;
+      }
+    };
   }
 
   @Override
   public void restore(BackupInput reader) {
-    listeners = reader.readObject();
-    preparedKeys = reader.readObject();
-    map = reader.readObject();
-    activeTransactions = reader.readObject();
-    currentVersion = reader.readLong();
-    entryIterators = reader.readObject();
+    int format = reader.readInt();
+    if (format == STREAMED_FORMAT) {
+      listeners = reader.readObject();
+      preparedKeys = reader.readObject();
+      activeTransactions = reader.readObject();
+      currentVersion = reader.readLong();
+      entryIterators = reader.readObject();
+      map = createMap();
+      while (reader.readBoolean()) {
+        String key = reader.readString();
+        map.put(key, reader.readObject());
+      }
+    } else {
+      // Snapshots written before entries were streamed serialize the map as a single object.
+      listeners = serializer.decode(reader.readBytes(format));
+      preparedKeys = reader.readObject();
+      map = createMap();
+      map.putAll(reader.<Map<String, MapEntryValue>>readObject());
+      activeTransactions = reader.readObject();
+      currentVersion = reader.readLong();
+      entryIterators = reader.readObject();
+    }
 
     map.forEach((key, value) -> {
       if (value.ttl() > 0) {
         value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl() - (getWallClock().getTime().unixTimestamp() - value.created())), () -> {
+          beforeUpdate(key);
           entries().remove(key, value);
           publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
         });
@@ -153,10 +229,14 @@ public class DefaultAtomicMapService
 
   @Override
   public Map<String, Versioned<byte[]>> getAllPresent(Set<String> keys) {
-    return entries().entrySet().stream()
-        .filter(entry -> entry.getValue().type() != MapEntryValue.Type.TOMBSTONE
-            && keys.contains(entry.getKey()))
-        .collect(Collectors.toMap(Map.Entry::getKey, o -> toVersioned(o.getValue())));
+    Map<String, Versioned<byte[]>> result = new HashMap<>();
+    for (String key : keys) {
+      MapEntryValue value = entries().get(key);
+      if (!valueIsNull(value)) {
+        result.put(key, toVersioned(value));
+      }
+    }
+    return result;
   }
 
   @Override
@@ -249,6 +329,7 @@ public class DefaultAtomicMapService
    * @param value the value to update
    */
   protected void putValue(String key, MapEntryValue value) {
+    beforeUpdate(key);
     MapEntryValue oldValue = entries().put(key, value);
     cancelTtl(oldValue);
     scheduleTtl(key, value);
@@ -262,6 +343,7 @@ public class DefaultAtomicMapService
   protected void scheduleTtl(String key, MapEntryValue value) {
     if (value.ttl() > 0) {
       value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl()), () -> {
+        beforeUpdate(key);
         entries().remove(key, value);
         publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
       });
@@ -322,6 +404,16 @@ public class DefaultAtomicMapService
     return new MapEntryUpdateResult<>(MapEntryUpdateResult.Status.NOOP, getCurrentIndex(), key, toVersioned(oldValue));
   }
 
+  @Override
+  public MapEntryUpdateResult.Status putAll(Map<String, byte[]> entries) {
+    // If any of the keys has been locked by a transaction, return a WRITE_LOCK error without updating the map.
+    if (isLocked(entries.keySet())) {
+      return MapEntryUpdateResult.Status.WRITE_LOCK;
+    }
+    entries.forEach((key, value) -> put(key, value, 0));
+    return MapEntryUpdateResult.Status.OK;
+  }
+
   @Override
   public MapEntryUpdateResult<String, byte[]> putIfAbsent(String key, byte[] value, long ttl) {
     MapEntryValue oldValue = entries().get(key);
@@ -413,6 +505,7 @@ public class DefaultAtomicMapService
     }
 
     // If no transactions are active, remove the key. Otherwise, replace it with a tombstone.
+    beforeUpdate(key);
     if (activeTransactions.isEmpty()) {
       entries().remove(key);
     } else {
@@ -432,6 +525,31 @@ public class DefaultAtomicMapService
     return removeIf(getCurrentIndex(), key, v -> true);
   }
 
+  @Override
+  public MapEntryUpdateResult.Status removeAll(Set<String> keys) {
+    // If any of the keys has been locked by a transaction, return a WRITE_LOCK error without updating the map.
+    if (isLocked(keys)) {
+      return MapEntryUpdateResult.Status.WRITE_LOCK;
+    }
+    keys.forEach(this::remove);
+    return MapEntryUpdateResult.Status.OK;
+  }
+
+  /**
+   * Returns a boolean indicating whether any of the given keys has been locked by a transaction.
+   *
+   * @param keys the keys to check
+   * @return indicates whether any of the given keys has been locked by a transaction
+   */
+  private boolean isLocked(Collection<String> keys) {
+    for (String key : keys) {
+      if (preparedKeys.contains(key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public MapEntryUpdateResult<String, byte[]> remove(String key, byte[] value) {
     return removeIf(getCurrentIndex(), key, v ->
@@ -523,6 +641,7 @@ public class DefaultAtomicMapService
         Versioned<byte[]> removedValue = new Versioned<>(value.value(), value.version());
         publish(new AtomicMapEvent<>(AtomicMapEvent.Type.REMOVE, "", key, null, removedValue));
         cancelTtl(value);
+        beforeUpdate(key);
         if (activeTransactions.isEmpty()) {
           iterator.remove();
         } else {
@@ -745,6 +864,7 @@ public class DefaultAtomicMapService
         continue;
       }
 
+      beforeUpdate(key);
       MapEntryValue previousValue = entries().remove(key);
 
       // Cancel the previous timer if set.
@@ -831,8 +951,10 @@ public class DefaultAtomicMapService
     if (activeTransactions.isEmpty()) {
       Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
       while (iterator.hasNext()) {
-        MapEntryValue value = iterator.next().getValue();
+        Map.Entry<String, MapEntryValue> entry = iterator.next();
+        MapEntryValue value = entry.getValue();
         if (value.type() == MapEntryValue.Type.TOMBSTONE) {
+          beforeUpdate(entry.getKey());
           iterator.remove();
         }
       }
@@ -842,8 +964,10 @@ public class DefaultAtomicMapService
           .min().getAsLong();
       Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
       while (iterator.hasNext()) {
-        MapEntryValue value = iterator.next().getValue();
+        Map.Entry<String, MapEntryValue> entry = iterator.next();
+        MapEntryValue value = entry.getValue();
         if (value.type() == MapEntryValue.Type.TOMBSTONE && value.version < lowWaterMark) {
+          beforeUpdate(entry.getKey());
           iterator.remove();
         }
       }
@@ -101,11 +101,21 @@ public class DelegatingAsyncAtomicMap<K, V>
     return delegateMap.putAndGet(key, value, ttl);
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries) {
+    return delegateMap.putAll(entries);
+  }
+
   @Override
   public CompletableFuture<Versioned<V>> remove(K key) {
     return delegateMap.remove(key);
   }
 
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<K> keys) {
+    return delegateMap.removeAll(keys);
+  }
+
   @Override
   public CompletableFuture<Void> clear() {
     return delegateMap.clear();
@@ -19,6 +19,9 @@ import com.google.common.collect.ImmutableMap;
 import io.atomix.core.map.AsyncAtomicMap;
 import io.atomix.utils.time.Versioned;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -74,6 +77,23 @@ public class NotNullAsyncAtomicMap<K, V> extends DelegatingAsyncAtomicMap<K, V>
     return super.putAndGet(key, value);
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries) {
+    Map<K, V> values = new HashMap<>();
+    List<K> removedKeys = new ArrayList<>();
+    entries.forEach((key, value) -> {
+      if (value == null) {
+        removedKeys.add(key);
+      } else {
+        values.put(key, value);
+      }
+    });
+    if (removedKeys.isEmpty()) {
+      return super.putAll(values);
+    }
+    return CompletableFuture.allOf(super.putAll(values), super.removeAll(removedKeys));
+  }
+
   @Override
   public CompletableFuture<Versioned<V>> putIfAbsent(K key, V value) {
     if (value == null) {
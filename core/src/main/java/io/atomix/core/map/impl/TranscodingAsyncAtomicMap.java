@@ -33,6 +33,7 @@ import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.time.Versioned;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -187,6 +188,30 @@ public class TranscodingAsyncAtomicMap<K1, V1, K2, V2> extends DelegatingAsyncPr
     }
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends K1, ? extends V1> entries) {
+    try {
+      Map<K2, V2> encodedEntries = new HashMap<>();
+      entries.forEach((key, value) -> encodedEntries.put(keyEncoder.apply(key), valueEncoder.apply(value)));
+      return backingMap.putAll(encodedEntries);
+    } catch (Exception e) {
+      return Futures.exceptionalFuture(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<K1> keys) {
+    try {
+      Set<K2> uniqueKeys = new HashSet<>();
+      for (K1 key : keys) {
+        uniqueKeys.add(keyEncoder.apply(key));
+      }
+      return backingMap.removeAll(uniqueKeys);
+    } catch (Exception e) {
+      return Futures.exceptionalFuture(e);
+    }
+  }
+
   @Override
   public CompletableFuture<Void> clear() {
     return backingMap.clear();
@@ -20,6 +20,7 @@ import io.atomix.core.map.AsyncAtomicMap;
 import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.time.Versioned;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
@@ -63,6 +64,16 @@ public class UnmodifiableAsyncAtomicMap<K, V> extends DelegatingAsyncAtomicMap<K
     return Futures.exceptionalFuture(new UnsupportedOperationException(ERROR_MSG));
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends K, ? extends V> entries) {
+    return Futures.exceptionalFuture(new UnsupportedOperationException(ERROR_MSG));
+  }
+
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<K> keys) {
+    return Futures.exceptionalFuture(new UnsupportedOperationException(ERROR_MSG));
+  }
+
   @Override
   public CompletableFuture<Void> clear() {
     return Futures.exceptionalFuture(new UnsupportedOperationException(ERROR_MSG));
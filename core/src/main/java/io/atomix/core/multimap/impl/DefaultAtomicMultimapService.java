@@ -27,6 +27,8 @@ import io.atomix.core.multimap.AtomicMultimapType;
 import io.atomix.primitive.service.AbstractPrimitiveService;
 import io.atomix.primitive.service.BackupInput;
 import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.CopyOnWriteMapView;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.session.Session;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.utils.misc.Match;
@@ -63,6 +65,12 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   private static final int MAX_ITERATOR_BATCH_SIZE = 1024 * 32;
 
+  /**
+   * Marks a snapshot in which map entries are streamed individually. Snapshots written before entries were streamed
+   * begin with the global version, which can never be negative.
+   */
+  private static final long STREAMED_FORMAT = -1;
+
   private final Serializer serializer = Serializer.using(Namespace.builder()
       .register(AtomicMultimapType.instance().namespace())
       .register(SessionId.class)
@@ -89,6 +97,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
   private Set<SessionId> listeners = new LinkedHashSet<>();
   private Map<String, MapEntryValues> backingMap = Maps.newConcurrentMap();
   protected Map<Long, IteratorContext> entryIterators = Maps.newHashMap();
+  private volatile CopyOnWriteMapView<String, MapEntryValues> backupView;
 
   public DefaultAtomicMultimapService() {
     super(AtomicMultimapType.instance(), AtomicMultimapClient.class);
@@ -99,18 +108,79 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
     return serializer;
   }
 
+  /**
+   * Records the values of the given key prior to them being modified while a point-in-time backup is in progress.
+   * <p>
+   * Values are modified in place, so the values for the key must be read from the backing map after this method
+   * is called.
+   *
+   * @param key the key to be modified
+   */
+  private void beforeUpdate(String key) {
+    CopyOnWriteMapView<String, MapEntryValues> backupView = this.backupView;
+    if (backupView != null) {
+      backupView.beforeUpdate(key);
+    }
+  }
+
   @Override
   public void backup(BackupOutput writer) {
+    writer.writeLong(STREAMED_FORMAT);
     writer.writeLong(globalVersion.get());
     writer.writeObject(listeners);
-    writer.writeObject(backingMap);
+    backingMap.forEach((key, values) -> writer.writeBoolean(true).writeString(key).writeObject(values));
+    writer.writeBoolean(false);
+  }
+
+  @Override
+  public ServiceBackup prepareBackup() {
+    // Only one point-in-time backup can be in progress at a time.
+    if (backupView != null) {
+      return null;
+    }
+
+    // The map is written from a point-in-time view, and the remaining state is encoded immediately.
+    CopyOnWriteMapView<String, MapEntryValues> backupView = new CopyOnWriteMapView<>(backingMap, MapEntryValues::copy);
+    long globalVersion = this.globalVersion.get();
+    byte[] listeners = serializer.encode(this.listeners);
+    this.backupView = backupView;
+    return new ServiceBackup() {
+      @Override
+      public void backup(BackupOutput writer) {
+        writer.writeLong(STREAMED_FORMAT);
+        writer.writeLong(globalVersion);
+        writer.writeInt(listeners.length).write(listeners);
+        backupView.forEach((key, values) -> writer.writeBoolean(true).writeString(key).writeObject(values));
+        writer.writeBoolean(false);
+      }
+
+      @Override
+      public void close() {
+        backupView.release();
+        DefaultAtomicMultimapService.this.backupView = null;
+      }
+    };
   }
 
   @Override
   public void restore(BackupInput reader) {
-    globalVersion = new AtomicLong(reader.readLong());
-    listeners = reader.readObject();
-    backingMap = reader.readObject();
+    long format = reader.readLong();
+    if (format == STREAMED_FORMAT) {
+      globalVersion = new AtomicLong(reader.readLong());
+      listeners = reader.readObject();
+      backingMap = Maps.newConcurrentMap();
+      while (reader.readBoolean()) {
+        String key = reader.readString();
+        backingMap.put(key, reader.readObject());
+      }
+    } else {
+      // Snapshots written before entries were streamed begin with the global version and serialize the map as a
+      // single object.
+      globalVersion = new AtomicLong(format);
+      listeners = reader.readObject();
+      backingMap = Maps.newConcurrentMap();
+      backingMap.putAll(reader.<Map<String, MapEntryValues>>readObject());
+    }
   }
 
   @Override
@@ -185,6 +255,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public void clear() {
+    backingMap.keySet().forEach(this::beforeUpdate);
     backingMap.clear();
   }
 
@@ -207,6 +278,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public boolean remove(String key, byte[] value) {
+    beforeUpdate(key);
     MapEntryValues entry = backingMap.get(key);
     if (entry == null) {
       return false;
@@ -224,6 +296,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public Versioned<Collection<? extends byte[]>> removeAll(String key) {
+    beforeUpdate(key);
     MapEntryValues entry = backingMap.get(key);
     if (entry == null) {
       return new Versioned<>(Collections.emptyList(), 0);
@@ -237,6 +310,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public boolean removeAll(String key, Collection<? extends byte[]> values) {
+    beforeUpdate(key);
     MapEntryValues entry = backingMap.get(key);
     if (entry == null) {
       return false;
@@ -255,6 +329,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public boolean put(String key, byte[] value) {
+    beforeUpdate(key);
     if (backingMap.computeIfAbsent(key, k -> new NonTransactionalValues()).put(key, value)) {
       onChange(key, value, null);
       return true;
@@ -268,6 +343,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
       return false;
     }
 
+    beforeUpdate(key);
     Collection<? extends byte[]> addedValues = backingMap.computeIfAbsent(key, k -> new NonTransactionalValues()).putAll(key, values);
     if (addedValues != null) {
       addedValues.forEach(value -> onChange(key, value, null));
@@ -278,6 +354,7 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
 
   @Override
   public Versioned<Collection<? extends byte[]>> replaceValues(String key, Collection<byte[]> values) {
+    beforeUpdate(key);
     MapEntryValues entry = backingMap.computeIfAbsent(key, k -> new NonTransactionalValues());
 
     Collection<? extends byte[]> oldValues = entry.values();
@@ -446,6 +523,8 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
     Versioned<Collection<? extends byte[]>> removeAll(String key);
 
     Versioned<Collection<? extends byte[]>> removeAll(String key, Collection<? extends byte[]> values);
+
+    MapEntryValues copy();
   }
 
   private class NonTransactionalValues implements MapEntryValues {
@@ -458,6 +537,14 @@ public class DefaultAtomicMultimapService extends AbstractPrimitiveService<Atomi
       this.version = globalVersion.get();
     }
 
+    @Override
+    public MapEntryValues copy() {
+      NonTransactionalValues copy = new NonTransactionalValues();
+      copy.version = version;
+      copy.valueSet.addAll(valueSet);
+      return copy;
+    }
+
     @Override
     public Collection<? extends byte[]> values() {
       return ImmutableSet.copyOf(valueSet);
@@ -204,11 +204,21 @@ public class BlockingAtomicTreeMap<V>
     return complete(treeMap.putAndGet(key, value, ttl));
   }
 
+  @Override
+  public void putAll(Map<? extends String, ? extends V> entries) {
+    complete(treeMap.putAll(entries));
+  }
+
   @Override
   public Versioned<V> remove(String key) {
     return complete(treeMap.remove(key));
   }
 
+  @Override
+  public void removeAll(Iterable<String> keys) {
+    complete(treeMap.removeAll(keys));
+  }
+
   @Override
   public void clear() {
     complete(treeMap.clear());
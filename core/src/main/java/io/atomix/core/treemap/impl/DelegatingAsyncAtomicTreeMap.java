@@ -184,11 +184,21 @@ public class DelegatingAsyncAtomicTreeMap<V>
     return delegateMap.putAndGet(key, value, ttl);
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends String, ? extends V> entries) {
+    return delegateMap.putAll(entries);
+  }
+
   @Override
   public CompletableFuture<Versioned<V>> remove(String key) {
     return delegateMap.remove(key);
   }
 
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<String> keys) {
+    return delegateMap.removeAll(keys);
+  }
+
   @Override
   public CompletableFuture<Void> clear() {
     return delegateMap.clear();
@@ -33,6 +33,7 @@ import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.time.Versioned;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
@@ -215,11 +216,23 @@ public class TranscodingAsyncAtomicTreeMap<V1, V2> extends DelegatingAsyncPrimit
         .thenApply(versionedValueDecoder);
   }
 
+  @Override
+  public CompletableFuture<Void> putAll(Map<? extends String, ? extends V1> entries) {
+    Map<String, V2> encodedEntries = new HashMap<>();
+    entries.forEach((key, value) -> encodedEntries.put(key, valueEncoder.apply(value)));
+    return backingMap.putAll(encodedEntries);
+  }
+
   @Override
   public CompletableFuture<Versioned<V1>> remove(String key) {
     return backingMap.remove(key).thenApply(versionedValueDecoder);
   }
 
+  @Override
+  public CompletableFuture<Void> removeAll(Iterable<String> keys) {
+    return backingMap.removeAll(keys);
+  }
+
   @Override
   public CompletableFuture<Void> clear() {
     return backingMap.clear();
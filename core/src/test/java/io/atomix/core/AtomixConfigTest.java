@@ -21,6 +21,9 @@ import io.atomix.cluster.MembershipConfig;
 import io.atomix.cluster.MulticastConfig;
 import io.atomix.cluster.discovery.MulticastDiscoveryConfig;
 import io.atomix.cluster.discovery.MulticastDiscoveryProvider;
+import io.atomix.cluster.messaging.ChannelPoolStrategy;
+import io.atomix.cluster.messaging.CompressionType;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.core.map.AtomicMapConfig;
 import io.atomix.core.profile.ConsensusProfile;
 import io.atomix.core.profile.ConsensusProfileConfig;
@@ -84,6 +87,18 @@ public class AtomixConfigTest {
     assertEquals(12, membership.getReachabilityThreshold());
     assertEquals(Duration.ofSeconds(15), membership.getReachabilityTimeout());
 
+    MessagingConfig messaging = cluster.getMessagingConfig();
+    assertEquals(Duration.ofMillis(1), messaging.getFlushDelay());
+    assertEquals(32768, messaging.getFlushBytes());
+    assertEquals(CompressionType.LZ4, messaging.getCompression());
+    assertEquals(8192, messaging.getCompressionThreshold());
+    assertEquals(4, messaging.getChannelPoolSize());
+    assertEquals(ChannelPoolStrategy.HASH, messaging.getChannelPoolStrategy());
+    assertEquals(512, messaging.getMaxPendingRequests());
+    assertEquals(1048576, messaging.getMaxPendingBytes());
+    assertEquals(Duration.ofMillis(100), messaging.getBackpressureTimeout());
+    assertEquals(4, messaging.getBroadcastFanout());
+
     MulticastDiscoveryConfig discovery = (MulticastDiscoveryConfig) cluster.getDiscoveryConfig();
     assertEquals(MulticastDiscoveryProvider.TYPE, discovery.getType());
     assertEquals(Duration.ofSeconds(1), discovery.getBroadcastInterval());
@@ -99,6 +114,16 @@ public class AtomixConfigTest {
     assertEquals(RaftPartitionGroup.TYPE, groupOne.getType());
     assertEquals("one", groupOne.getName());
     assertEquals(7, groupOne.getPartitions());
+    assertEquals(8, groupOne.getMaxAppendsPerFollower());
+    assertEquals(new MemorySize(1024 * 1024 * 2), groupOne.getMaxAppendBytesPerFollower());
+    assertEquals(new MemorySize(1024 * 1024 * 4), groupOne.getSnapshotChunkSize());
+    assertEquals(2, groupOne.getMaxSnapshotChunksPerFollower());
+    assertEquals(32, groupOne.getMaxCommandBatchSize());
+    assertEquals(Duration.ofMillis(2), groupOne.getCommandBatchLinger());
+    assertTrue(groupOne.isHeartbeatCoalescing());
+    assertEquals(Duration.ofMillis(250), groupOne.getHeartbeatCoalescingTimeout());
+    assertEquals(4, groupOne.getThreadPoolSize());
+    assertEquals(2, groupOne.getCompactionThreadPoolSize());
 
     PrimaryBackupPartitionGroupConfig groupTwo = (PrimaryBackupPartitionGroupConfig) config.getPartitionGroups().get("two");
     assertEquals(PrimaryBackupPartitionGroup.TYPE, groupTwo.getType());
@@ -264,6 +264,42 @@ public abstract class AtomicMapTest extends AbstractPrimitiveTest {
     }).get(30, TimeUnit.SECONDS);
   }
 
+  @Test
+  public void testBulkMapOperations() throws Throwable {
+    AsyncAtomicMap<String, String> map = atomix().<String, String>atomicMapBuilder("testBulkMapOperationsMap", protocol()).build().async();
+
+    Map<String, String> entries = Maps.newHashMap();
+    for (int i = 0; i < 100; i++) {
+      entries.put("key" + i, "value" + i);
+    }
+    map.putAll(entries).get(30, TimeUnit.SECONDS);
+
+    map.size().thenAccept(result -> {
+      assertEquals(100, (int) result);
+    }).get(30, TimeUnit.SECONDS);
+
+    map.getAllPresent(Arrays.asList("key0", "key50", "key99", "key100", "key0")).thenAccept(result -> {
+      assertEquals(3, result.size());
+      assertEquals("value0", result.get("key0").value());
+      assertEquals("value50", result.get("key50").value());
+      assertEquals("value99", result.get("key99").value());
+    }).get(30, TimeUnit.SECONDS);
+
+    List<String> keys = entries.keySet().stream()
+        .filter(key -> Integer.parseInt(key.substring(3)) % 2 == 0)
+        .collect(Collectors.toList());
+    map.removeAll(keys).get(30, TimeUnit.SECONDS);
+
+    map.size().thenAccept(result -> {
+      assertEquals(50, (int) result);
+    }).get(30, TimeUnit.SECONDS);
+
+    map.getAllPresent(entries.keySet()).thenAccept(result -> {
+      assertEquals(50, result.size());
+      result.keySet().forEach(key -> assertEquals(1, Integer.parseInt(key.substring(3)) % 2));
+    }).get(30, TimeUnit.SECONDS);
+  }
+
   @Test
   public void testMapComputeOperations() throws Throwable {
     final String value1 = "value1";
@@ -17,6 +17,8 @@ package io.atomix.core.map.impl;
 
 import io.atomix.core.map.AtomicMapType;
 import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.service.ServiceContext;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
@@ -34,6 +36,7 @@ import java.time.Duration;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -70,6 +73,73 @@ public class DefaultAtomicMapServiceTest {
     assertArrayEquals("Hello world!".getBytes(), value.value());
   }
 
+  @Test
+  public void testPointInTimeSnapshot() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    DefaultAtomicMapService service = new TestAtomicMapService();
+    service.init(context);
+
+    service.put("foo", "Hello world!".getBytes());
+    service.put("bar", "Hello world!".getBytes());
+
+    ServiceBackup backup = service.prepareBackup();
+    assertNotNull(backup);
+    assertNull(service.prepareBackup());
+
+    // Modify the map after the backup has been prepared.
+    service.put("foo", "Goodbye world!".getBytes());
+    service.remove("bar");
+    service.put("baz", "Hello world!".getBytes());
+
+    Buffer buffer = HeapBuffer.allocate();
+    backup.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    backup.close();
+
+    assertArrayEquals("Goodbye world!".getBytes(), service.get("foo").value());
+    assertNotNull(service.prepareBackup());
+
+    service = new TestAtomicMapService();
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    assertArrayEquals("Hello world!".getBytes(), service.get("foo").value());
+    assertArrayEquals("Hello world!".getBytes(), service.get("bar").value());
+    assertNull(service.get("baz"));
+  }
+
+  @Test
+  public void testRestoreLegacySnapshot() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    DefaultAtomicMapService service = new TestAtomicMapService();
+    service.init(context);
+
+    service.put("foo", "Hello world!".getBytes());
+
+    // Write the map as a single object as snapshots did before entries were streamed.
+    Buffer buffer = HeapBuffer.allocate();
+    BackupOutput writer = new DefaultBackupOutput(buffer, service.serializer());
+    writer.writeObject(service.listeners);
+    writer.writeObject(service.preparedKeys);
+    writer.writeObject(service.entries());
+    writer.writeObject(service.activeTransactions);
+    writer.writeLong(service.currentVersion);
+    writer.writeObject(service.entryIterators);
+
+    service = new TestAtomicMapService();
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    assertArrayEquals("Hello world!".getBytes(), service.get("foo").value());
+  }
+
   private static class TestAtomicMapService extends DefaultAtomicMapService {
     @Override
     protected Scheduler getScheduler() {
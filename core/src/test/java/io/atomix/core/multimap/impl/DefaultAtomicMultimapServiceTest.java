@@ -17,6 +17,8 @@ package io.atomix.core.multimap.impl;
 
 import io.atomix.core.multimap.AtomicMultimapType;
 import io.atomix.primitive.PrimitiveId;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.service.ServiceContext;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
@@ -28,11 +30,14 @@ import io.atomix.utils.time.Versioned;
 import io.atomix.utils.time.WallClock;
 import org.junit.Test;
 
+import java.lang.reflect.Field;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -68,4 +73,71 @@ public class DefaultAtomicMultimapServiceTest {
     assertEquals(1, value.value().size());
     assertArrayEquals("Hello world!".getBytes(), value.value().iterator().next());
   }
+
+  @Test
+  public void testPointInTimeSnapshot() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMultimapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    DefaultAtomicMultimapService service = new DefaultAtomicMultimapService();
+    service.init(context);
+    service.put("foo", "Hello world!".getBytes());
+
+    ServiceBackup backup = service.prepareBackup();
+    assertNotNull(backup);
+
+    // Modify the multimap after the backup has been prepared.
+    service.put("foo", "Goodbye world!".getBytes());
+    service.put("bar", "Hello world!".getBytes());
+
+    Buffer buffer = HeapBuffer.allocate();
+    backup.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    backup.close();
+
+    assertEquals(2, service.get("foo").value().size());
+
+    service = new DefaultAtomicMultimapService();
+    service.init(context);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    Versioned<Collection<? extends byte[]>> value = service.get("foo");
+    assertNotNull(value);
+    assertEquals(1, value.value().size());
+    assertArrayEquals("Hello world!".getBytes(), value.value().iterator().next());
+    assertTrue(service.get("bar").value().isEmpty());
+  }
+
+  @Test
+  public void testRestoreLegacySnapshot() throws Exception {
+    ServiceContext context = mock(ServiceContext.class);
+    when(context.serviceType()).thenReturn(AtomicMultimapType.instance());
+    when(context.serviceName()).thenReturn("test");
+    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.wallClock()).thenReturn(new WallClock());
+
+    DefaultAtomicMultimapService service = new DefaultAtomicMultimapService();
+    service.init(context);
+    service.put("foo", "Hello world!".getBytes());
+
+    Field backingMap = DefaultAtomicMultimapService.class.getDeclaredField("backingMap");
+    backingMap.setAccessible(true);
+
+    // Write the multimap as a single object as snapshots did before entries were streamed.
+    Buffer buffer = HeapBuffer.allocate();
+    BackupOutput writer = new DefaultBackupOutput(buffer, service.serializer());
+    writer.writeLong(2);
+    writer.writeObject(new LinkedHashSet<SessionId>());
+    writer.writeObject(backingMap.get(service));
+
+    service = new DefaultAtomicMultimapService();
+    service.init(context);
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    Versioned<Collection<? extends byte[]>> value = service.get("foo");
+    assertEquals(1, value.value().size());
+    assertArrayEquals("Hello world!".getBytes(), value.value().iterator().next());
+  }
 }
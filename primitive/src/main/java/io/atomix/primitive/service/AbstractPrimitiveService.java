@@ -20,6 +20,7 @@ import io.atomix.primitive.PrimitiveException;
 import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.Operations;
 import io.atomix.primitive.service.impl.DefaultServiceExecutor;
 import io.atomix.primitive.session.Session;
@@ -50,8 +51,9 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
   private final Serializer serializer;
   private Logger log;
   private ServiceContext context;
-  private ServiceExecutor executor;
+  private DefaultServiceExecutor executor;
   private final Map<SessionId, Session<C>> sessions = Maps.newHashMap();
+  private long stateVersion = 1;
 
   protected AbstractPrimitiveService(PrimitiveType primitiveType) {
     this(primitiveType, null);
@@ -104,14 +106,35 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
 
   @Override
   public final void tick(WallClockTimestamp timestamp) {
+    // Scheduled tasks may modify the service state.
+    long executedTaskCount = executor.getExecutedTaskCount();
     executor.tick(timestamp);
+    if (executor.getExecutedTaskCount() != executedTaskCount) {
+      stateVersion++;
+    }
   }
 
   @Override
   public final byte[] apply(Commit<byte[]> commit) {
+    if (commit.operation().type() == OperationType.COMMAND) {
+      stateVersion++;
+    }
     return executor.apply(commit);
   }
 
+  /**
+   * Returns the version of the service state.
+   * <p>
+   * The state version is incremented each time a command is applied, a session is registered or closed, or a
+   * scheduled task is executed. Services which modify their state by other means must override this method.
+   *
+   * @return the version of the service state
+   */
+  @Override
+  public long stateVersion() {
+    return stateVersion;
+  }
+
   /**
    * Configures the state machine.
    * <p>
@@ -294,6 +317,7 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
   @Override
   @SuppressWarnings("unchecked")
   public final void register(Session session) {
+    stateVersion++;
     sessions.put(session.sessionId(), new ClientSession<>(clientInterface, session));
     onOpen(session);
   }
@@ -302,6 +326,7 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
   public final void expire(SessionId sessionId) {
     Session session = sessions.remove(sessionId);
     if (session != null) {
+      stateVersion++;
       onExpire(session);
     }
   }
@@ -310,6 +335,7 @@ public abstract class AbstractPrimitiveService<C> implements PrimitiveService {
   public final void close(SessionId sessionId) {
     Session session = sessions.remove(sessionId);
     if (session != null) {
+      stateVersion++;
       onClose(session);
     }
   }
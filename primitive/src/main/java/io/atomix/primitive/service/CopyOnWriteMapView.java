@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Point-in-time view of a concurrent map which is modified by a primitive service.
+ * <p>
+ * The view allows a service's map to be backed up on another thread while the service continues to modify it.
+ * Rather than copying the map when the view is created, the view records the prior value of each key the first
+ * time the key is modified after the view was created. The service must call {@link #beforeUpdate(Object)} on the
+ * service thread before modifying a key in the underlying map. Values which are modified in place are copied before
+ * being modified via the value copier, leaving the original value intact for the view.
+ * <p>
+ * The underlying map must be a concurrent map whose iterators are weakly consistent.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class CopyOnWriteMapView<K, V> {
+  private static final Object ABSENT = new Object();
+
+  private final Map<K, V> map;
+  private final UnaryOperator<V> copier;
+  private final Map<K, Object> priorValues = new ConcurrentHashMap<>();
+  private volatile boolean released;
+
+  public CopyOnWriteMapView(Map<K, V> map) {
+    this(map, null);
+  }
+
+  public CopyOnWriteMapView(Map<K, V> map, UnaryOperator<V> copier) {
+    this.map = checkNotNull(map, "map cannot be null");
+    this.copier = copier;
+  }
+
+  /**
+   * Records the value of the given key prior to it being modified.
+   * <p>
+   * This method must be called on the service thread before the key is modified in the underlying map. If the view
+   * was created with a value copier, the current value is replaced in the underlying map with a copy, and the service
+   * must read the value from the map after calling this method in order to modify the copy.
+   *
+   * @param key the key to be modified
+   */
+  public void beforeUpdate(K key) {
+    if (released || priorValues.containsKey(key)) {
+      return;
+    }
+    V value = map.get(key);
+    priorValues.put(key, value != null ? value : ABSENT);
+    if (value != null && copier != null) {
+      map.put(key, copier.apply(value));
+    }
+  }
+
+  /**
+   * Iterates over the entries in the map at the time the view was created.
+   * <p>
+   * This method may be called on any thread. An entry may be passed to the consumer more than once, but always with
+   * the value it had at the time the view was created.
+   *
+   * @param consumer the entry consumer
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(BiConsumer<K, V> consumer) {
+    // Entries are read before checking for a prior value. If the key is modified after it's read, the entry
+    // holds the value at the time the view was created, so it's safe to pass it to the consumer.
+    for (Map.Entry<K, V> entry : map.entrySet()) {
+      V value = entry.getValue();
+      if (!priorValues.containsKey(entry.getKey())) {
+        consumer.accept(entry.getKey(), value);
+      }
+    }
+    for (Map.Entry<K, Object> entry : priorValues.entrySet()) {
+      if (entry.getValue() != ABSENT) {
+        consumer.accept(entry.getKey(), (V) entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Releases the view, discarding the prior values recorded for the map.
+   */
+  public void release() {
+    released = true;
+    priorValues.clear();
+  }
+}
@@ -58,6 +58,20 @@ public interface PrimitiveService {
    */
   void backup(BackupOutput output);
 
+  /**
+   * Prepares a point-in-time backup of the service state.
+   * <p>
+   * This method is called on the service thread. The returned backup captures the state of the service at the time
+   * this method is called and may be written on another thread while the service continues to apply operations.
+   * Services that can't capture their state without copying it should return {@code null}, in which case the service
+   * is backed up on the service thread via {@link #backup(BackupOutput)}.
+   *
+   * @return a point-in-time backup of the service state or {@code null} if point-in-time backups are not supported
+   */
+  default ServiceBackup prepareBackup() {
+    return null;
+  }
+
   /**
    * Restores the service state from the given buffer.
    *
@@ -65,6 +79,20 @@ public interface PrimitiveService {
    */
   void restore(BackupInput input);
 
+  /**
+   * Returns the version of the service state.
+   * <p>
+   * The state version must change each time the service state may have been modified, and must not change as a
+   * result of queries. It allows the state of a service which hasn't changed since it was last backed up to be
+   * reused rather than backed up again. Services that don't track changes to their state return {@code 0}, in which
+   * case the service is backed up every time.
+   *
+   * @return the version of the service state or {@code 0} if the service doesn't track changes to its state
+   */
+  default long stateVersion() {
+    return 0;
+  }
+
   /**
    * Applies a commit to the state machine.
    *
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service;
+
+/**
+ * Point-in-time backup of a primitive service's state.
+ * <p>
+ * A service backup captures the state of a service at the time it's prepared. Unlike {@link PrimitiveService#backup(BackupOutput)},
+ * the backup may be written on a thread other than the service thread while the service continues to apply operations.
+ * The backup must be written in the same format as {@link PrimitiveService#backup(BackupOutput)} so it can be restored
+ * via {@link PrimitiveService#restore(BackupInput)}.
+ *
+ * @see PrimitiveService#prepareBackup()
+ */
+public interface ServiceBackup extends AutoCloseable {
+
+  /**
+   * Writes the point-in-time state of the service to the given buffer.
+   *
+   * @param output the buffer to which to back up the service state
+   */
+  void backup(BackupOutput output);
+
+  /**
+   * Releases the backup once it has been written.
+   */
+  @Override
+  default void close() {
+  }
+}
@@ -32,7 +32,6 @@ import org.slf4j.Logger;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -53,11 +52,13 @@ public class DefaultServiceExecutor implements ServiceExecutor {
   private final ServiceContext context;
   private final Logger log;
   private final Queue<Runnable> tasks = new LinkedList<>();
-  private final List<ScheduledTask> scheduledTasks = new ArrayList<>();
+  private final TimingWheel scheduledTasks = new TimingWheel();
+  private final List<TimingWheel.Timer> expired = new ArrayList<>();
   private final List<ScheduledTask> complete = new ArrayList<>();
   private final Map<String, Function<Commit<byte[]>, byte[]>> operations = new HashMap<>();
   private OperationType operationType;
   private long timestamp;
+  private long executedTaskCount;
 
   public DefaultServiceExecutor(ServiceContext context, Serializer serializer) {
     this.serializer = checkNotNull(serializer);
@@ -96,22 +97,24 @@ public class DefaultServiceExecutor implements ServiceExecutor {
     long unixTimestamp = timestamp.unixTimestamp();
     this.operationType = OperationType.COMMAND;
     if (!scheduledTasks.isEmpty()) {
-      // Iterate through scheduled tasks until we reach a task that has not met its scheduled time.
-      // The tasks list is sorted by time on insertion.
-      Iterator<ScheduledTask> iterator = scheduledTasks.iterator();
-      while (iterator.hasNext()) {
-        ScheduledTask task = iterator.next();
-        if (task.isRunnable(unixTimestamp)) {
-          this.timestamp = task.time;
-          this.operationType = OperationType.COMMAND;
-          log.trace("Executing scheduled task {}", task);
-          task.execute();
-          complete.add(task);
-          iterator.remove();
-        } else {
-          break;
+      // Advance the timing wheel to collect the tasks that have met their scheduled time. A task is
+      // runnable once the timestamp has passed its scheduled time. Expired tasks are returned in order
+      // of their scheduled time and then the order in which they were scheduled.
+      scheduledTasks.advance(unixTimestamp - 1, expired);
+      for (TimingWheel.Timer timer : expired) {
+        ScheduledTask task = (ScheduledTask) timer;
+        // A task may have been cancelled by a task that expired before it.
+        if (task.cancelled) {
+          continue;
         }
+        this.timestamp = task.time;
+        this.operationType = OperationType.COMMAND;
+        log.trace("Executing scheduled task {}", task);
+        task.execute();
+        executedTaskCount++;
+        complete.add(task);
       }
+      expired.clear();
 
       // Iterate through tasks that were completed and reschedule them.
       for (ScheduledTask task : complete) {
@@ -121,6 +124,15 @@ public class DefaultServiceExecutor implements ServiceExecutor {
     }
   }
 
+  /**
+   * Returns the number of scheduled tasks executed by the executor.
+   *
+   * @return the number of scheduled tasks executed by the executor
+   */
+  public long getExecutedTaskCount() {
+    return executedTaskCount;
+  }
+
   /**
    * Checks that the current operation is of the given type.
    *
@@ -232,10 +244,10 @@ public class DefaultServiceExecutor implements ServiceExecutor {
   /**
    * Scheduled task.
    */
-  private class ScheduledTask implements Scheduled {
+  private class ScheduledTask extends TimingWheel.Timer implements Scheduled {
     private final long interval;
     private final Runnable callback;
-    private long time;
+    private boolean cancelled;
 
     private ScheduledTask(Runnable callback, long delay) {
       this(callback, delay, 0);
@@ -251,34 +263,7 @@ public class DefaultServiceExecutor implements ServiceExecutor {
      * Schedules the task.
      */
     private Scheduled schedule() {
-      // Perform binary search to insert the task at the appropriate position in the tasks list.
-      if (scheduledTasks.isEmpty()) {
-        scheduledTasks.add(this);
-      } else {
-        int l = 0;
-        int u = scheduledTasks.size() - 1;
-        int i;
-        while (true) {
-          i = (u + l) / 2;
-          long t = scheduledTasks.get(i).time;
-          if (t == time) {
-            scheduledTasks.add(i, this);
-            return this;
-          } else if (t < time) {
-            l = i + 1;
-            if (l > u) {
-              scheduledTasks.add(i + 1, this);
-              return this;
-            }
-          } else {
-            u = i - 1;
-            if (l > u) {
-              scheduledTasks.add(i, this);
-              return this;
-            }
-          }
-        }
-      }
+      scheduledTasks.add(this);
       return this;
     }
 
@@ -286,19 +271,12 @@ public class DefaultServiceExecutor implements ServiceExecutor {
      * Reschedules the task.
      */
     private void reschedule(long timestamp) {
-      if (interval > 0) {
+      if (interval > 0 && !cancelled) {
         time = timestamp + interval;
         schedule();
       }
     }
 
-    /**
-     * Returns a boolean value indicating whether the task delay has been met.
-     */
-    private boolean isRunnable(long timestamp) {
-      return timestamp > time;
-    }
-
     /**
      * Executes the task.
      */
@@ -312,6 +290,7 @@ public class DefaultServiceExecutor implements ServiceExecutor {
 
     @Override
     public synchronized void cancel() {
+      cancelled = true;
       scheduledTasks.remove(this);
     }
   }
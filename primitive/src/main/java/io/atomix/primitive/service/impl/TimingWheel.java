@@ -0,0 +1,316 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service.impl;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * The timing wheel stores timers in {@value #LEVELS} levels of {@value #WHEEL_SIZE} slots each. A timer is stored
+ * at the lowest level at which its time shares all higher digits with the wheel's current time, so level {@code 0}
+ * holds timers due within the current {@value #WHEEL_SIZE} milliseconds, level {@code 1} holds timers due within
+ * the current {@code 64 * 64} milliseconds, and so on. As the wheel advances into a slot at a higher level, the
+ * timers in the slot are cascaded down to lower levels. Each slot is an intrusive doubly linked list, so
+ * {@link #add(Timer) adding} and {@link #remove(Timer) removing} timers are constant time operations.
+ * <p>
+ * The wheel has no notion of wall clock time. It is advanced explicitly by the caller, e.g. with the timestamps
+ * of entries in a replicated log. Expired timers are returned in order of their time and, for timers with the
+ * same time, in the order in which they were added, so the order in which timers expire is deterministic for a
+ * given sequence of operations.
+ * <p>
+ * This class is not thread safe.
+ */
+final class TimingWheel {
+  private static final int WHEEL_BITS = 6;
+  private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+  private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+  private static final int OVERDUE = LEVELS;
+
+  private static final Comparator<Timer> TIMER_ORDER = (a, b) -> {
+    int compare = Long.compare(a.time, b.time);
+    return compare != 0 ? compare : Long.compare(a.sequence, b.sequence);
+  };
+
+  private final Timer[][] slots = new Timer[LEVELS][];
+  private final long[] occupied = new long[LEVELS];
+  private Timer overdue;
+  private long currentTime;
+  private long nextSequence;
+  private int size;
+
+  /**
+   * Returns the time up to which the wheel has been advanced.
+   *
+   * @return the time up to which the wheel has been advanced
+   */
+  long currentTime() {
+    return currentTime;
+  }
+
+  /**
+   * Returns the number of timers in the wheel.
+   *
+   * @return the number of timers in the wheel
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a boolean indicating whether the wheel contains no timers.
+   *
+   * @return indicates whether the wheel contains no timers
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Adds a timer to the wheel.
+   * <p>
+   * A timer whose time is not after the wheel's current time will expire the next time the wheel is advanced to
+   * a time that is not before the timer's time.
+   *
+   * @param timer the timer to add
+   * @throws IllegalStateException if the timer is already in a wheel
+   */
+  void add(Timer timer) {
+    if (timer.level >= 0) {
+      throw new IllegalStateException("timer is already scheduled");
+    }
+    timer.sequence = nextSequence++;
+    insert(timer);
+    size++;
+  }
+
+  /**
+   * Removes a timer from the wheel.
+   *
+   * @param timer the timer to remove
+   * @return indicates whether the timer was removed
+   */
+  boolean remove(Timer timer) {
+    if (timer.level < 0) {
+      return false;
+    }
+    unlink(timer);
+    size--;
+    return true;
+  }
+
+  /**
+   * Advances the wheel to the given time, removing all timers whose time is not after the given time.
+   *
+   * @param time    the time to which to advance the wheel
+   * @param expired the list to which to add expired timers, in expiration order
+   */
+  void advance(long time, List<Timer> expired) {
+    int start = expired.size();
+
+    // Timers added at or before the current time are held in the overdue list. The time to which the wheel is
+    // advanced may be earlier than the current time, so only expire overdue timers that are due at that time.
+    Timer timer = overdue;
+    while (timer != null) {
+      Timer next = timer.next;
+      if (timer.time <= time) {
+        unlink(timer);
+        expired.add(timer);
+      }
+      timer = next;
+    }
+
+    while (currentTime < time) {
+      long next = nextTime();
+      if (next > time) {
+        currentTime = time;
+        break;
+      }
+
+      // Cascade each slot that starts at the next time, from the highest level to the lowest. Timers in the
+      // level 0 slot are due at exactly the next time.
+      currentTime = next;
+      for (int level = LEVELS - 1; level >= 0; level--) {
+        if ((next & lowMask(level)) == 0) {
+          cascade(level, digit(next, level), expired);
+        }
+      }
+    }
+
+    size -= expired.size() - start;
+    if (expired.size() - start > 1) {
+      expired.subList(start, expired.size()).sort(TIMER_ORDER);
+    }
+  }
+
+  /**
+   * Removes all timers from the given slot, expiring timers that are due and reinserting the rest.
+   */
+  private void cascade(int level, int slot, List<Timer> expired) {
+    if ((occupied[level] & (1L << slot)) == 0) {
+      return;
+    }
+
+    Timer timer = slots[level][slot];
+    slots[level][slot] = null;
+    occupied[level] &= ~(1L << slot);
+    while (timer != null) {
+      Timer next = timer.next;
+      timer.prev = null;
+      timer.next = null;
+      if (timer.time <= currentTime) {
+        timer.level = -1;
+        expired.add(timer);
+      } else {
+        insert(timer);
+      }
+      timer = next;
+    }
+  }
+
+  /**
+   * Returns the earliest time after the current time at which a slot must be expired or cascaded.
+   */
+  private long nextTime() {
+    for (int level = 0; level < LEVELS; level++) {
+      int digit = digit(currentTime, level);
+      long candidates = digit == WHEEL_MASK ? 0 : occupied[level] & (-1L << (digit + 1));
+      if (candidates != 0) {
+        int shift = level * WHEEL_BITS;
+        return (currentTime & ~(lowMask(level + 1))) | ((long) Long.numberOfTrailingZeros(candidates) << shift);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Inserts a timer into the slot for its time relative to the current time.
+   */
+  private void insert(Timer timer) {
+    if (timer.time <= currentTime) {
+      link(timer, OVERDUE, 0);
+    } else {
+      int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(timer.time ^ currentTime)) / WHEEL_BITS;
+      link(timer, level, digit(timer.time, level));
+    }
+  }
+
+  /**
+   * Links a timer at the head of the given slot.
+   */
+  private void link(Timer timer, int level, int slot) {
+    Timer head;
+    if (level == OVERDUE) {
+      head = overdue;
+      overdue = timer;
+    } else {
+      if (slots[level] == null) {
+        slots[level] = new Timer[WHEEL_SIZE];
+      }
+      head = slots[level][slot];
+      slots[level][slot] = timer;
+      occupied[level] |= 1L << slot;
+    }
+    timer.level = level;
+    timer.slot = slot;
+    timer.prev = null;
+    timer.next = head;
+    if (head != null) {
+      head.prev = timer;
+    }
+  }
+
+  /**
+   * Unlinks a timer from its slot.
+   */
+  private void unlink(Timer timer) {
+    if (timer.prev != null) {
+      timer.prev.next = timer.next;
+    } else if (timer.level == OVERDUE) {
+      overdue = timer.next;
+    } else {
+      slots[timer.level][timer.slot] = timer.next;
+      if (timer.next == null) {
+        occupied[timer.level] &= ~(1L << timer.slot);
+      }
+    }
+    if (timer.next != null) {
+      timer.next.prev = timer.prev;
+    }
+    timer.prev = null;
+    timer.next = null;
+    timer.level = -1;
+  }
+
+  /**
+   * Returns the digit of the given time at the given level.
+   */
+  private static int digit(long time, int level) {
+    return (int) (time >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+  }
+
+  /**
+   * Returns a mask of the time bits below the given level.
+   */
+  private static long lowMask(int level) {
+    int bits = level * WHEEL_BITS;
+    return bits >= Long.SIZE ? -1L : (1L << bits) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("currentTime", currentTime)
+        .add("size", size)
+        .toString();
+  }
+
+  /**
+   * Timing wheel timer.
+   * <p>
+   * Timers are stored intrusively in the wheel's slots, so a timer may be in at most one wheel at a time.
+   */
+  abstract static class Timer {
+    private Timer prev;
+    private Timer next;
+    private int level = -1;
+    private int slot;
+    private long sequence;
+    protected long time;
+
+    /**
+     * Returns the time at which the timer expires.
+     *
+     * @return the time at which the timer expires
+     */
+    long time() {
+      return time;
+    }
+
+    /**
+     * Returns a boolean indicating whether the timer is in a wheel.
+     *
+     * @return indicates whether the timer is in a wheel
+     */
+    boolean isScheduled() {
+      return level >= 0;
+    }
+  }
+}
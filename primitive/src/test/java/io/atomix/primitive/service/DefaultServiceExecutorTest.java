@@ -22,15 +22,20 @@ import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.service.impl.DefaultCommit;
 import io.atomix.primitive.service.impl.DefaultServiceExecutor;
 import io.atomix.primitive.session.Session;
+import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.serializer.Namespaces;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -92,6 +97,46 @@ public class DefaultServiceExecutorTest {
     assertTrue(calls.contains("a"));
   }
 
+  @Test
+  public void testScheduledTaskOrder() throws Exception {
+    ServiceExecutor executor = executor();
+    executor.register(OperationId.command("a"), () -> {
+    });
+    executor.apply(commit(OperationId.command("a"), 1, null, 0));
+
+    List<String> calls = new ArrayList<>();
+    executor.schedule(Duration.ofMillis(200), () -> calls.add("c"));
+    executor.schedule(Duration.ofMillis(100), () -> calls.add("a"));
+    executor.schedule(Duration.ofMillis(100), () -> calls.add("b"));
+    Scheduled cancelled = executor.schedule(Duration.ofMillis(150), () -> calls.add("d"));
+    executor.schedule(Duration.ofMillis(50), Duration.ofMillis(100), () -> calls.add("e"));
+    cancelled.cancel();
+
+    executor.tick(new WallClockTimestamp(1000));
+    assertEquals(Arrays.asList("e", "a", "b", "c"), calls);
+
+    calls.clear();
+    executor.tick(new WallClockTimestamp(1500));
+    assertEquals(Arrays.asList("e"), calls);
+  }
+
+  @Test
+  public void testExecutedTaskCount() throws Exception {
+    DefaultServiceExecutor executor = (DefaultServiceExecutor) executor();
+    executor.register(OperationId.command("a"), () -> {
+    });
+    executor.apply(commit(OperationId.command("a"), 1, null, 0));
+
+    executor.schedule(Duration.ofMillis(100), () -> {
+    });
+    executor.tick(new WallClockTimestamp(50));
+    assertEquals(0, executor.getExecutedTaskCount());
+    executor.tick(new WallClockTimestamp(101));
+    assertEquals(1, executor.getExecutedTaskCount());
+    executor.tick(new WallClockTimestamp(200));
+    assertEquals(1, executor.getExecutedTaskCount());
+  }
+
   private ServiceExecutor executor() {
     ServiceContext context = mock(ServiceContext.class);
     when(context.serviceId()).thenReturn(PrimitiveId.from(1));
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service.impl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Timing wheel test.
+ */
+public class TimingWheelTest {
+  @Test
+  public void testAdvance() throws Exception {
+    TimingWheel wheel = new TimingWheel();
+    TestTimer a = new TestTimer(1, 100);
+    TestTimer b = new TestTimer(2, 5000);
+    TestTimer c = new TestTimer(3, 100);
+    wheel.add(a);
+    wheel.add(b);
+    wheel.add(c);
+    assertEquals(3, wheel.size());
+
+    List<TimingWheel.Timer> expired = new ArrayList<>();
+    wheel.advance(99, expired);
+    assertTrue(expired.isEmpty());
+
+    wheel.advance(100, expired);
+    assertEquals(2, expired.size());
+    assertEquals(a, expired.get(0));
+    assertEquals(c, expired.get(1));
+    assertFalse(a.isScheduled());
+    assertEquals(1, wheel.size());
+
+    expired.clear();
+    wheel.advance(10000, expired);
+    assertEquals(1, expired.size());
+    assertEquals(b, expired.get(0));
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void testRemove() throws Exception {
+    TimingWheel wheel = new TimingWheel();
+    TestTimer a = new TestTimer(1, 100);
+    TestTimer b = new TestTimer(2, 100);
+    wheel.add(a);
+    wheel.add(b);
+    assertTrue(wheel.remove(a));
+    assertFalse(wheel.remove(a));
+
+    List<TimingWheel.Timer> expired = new ArrayList<>();
+    wheel.advance(1000, expired);
+    assertEquals(1, expired.size());
+    assertEquals(b, expired.get(0));
+  }
+
+  @Test
+  public void testOverdueTimers() throws Exception {
+    TimingWheel wheel = new TimingWheel();
+    List<TimingWheel.Timer> expired = new ArrayList<>();
+    wheel.advance(1000, expired);
+
+    TestTimer a = new TestTimer(1, 500);
+    TestTimer b = new TestTimer(2, 900);
+    wheel.add(a);
+    wheel.add(b);
+    wheel.advance(600, expired);
+    assertEquals(1, expired.size());
+    assertEquals(a, expired.get(0));
+    assertTrue(b.isScheduled());
+
+    wheel.advance(1000, expired);
+    assertEquals(2, expired.size());
+    assertEquals(b, expired.get(1));
+    assertTrue(wheel.isEmpty());
+  }
+
+  @Test
+  public void testExpirationOrder() throws Exception {
+    Random random = new Random(42);
+    TimingWheel wheel = new TimingWheel();
+    List<TestTimer> timers = new ArrayList<>();
+    long time = System.currentTimeMillis();
+
+    for (int i = 0; i < 10000; i++) {
+      TestTimer timer = new TestTimer(i, time + random.nextInt(1000000));
+      wheel.add(timer);
+      timers.add(timer);
+    }
+
+    // Remove a random subset of the timers.
+    for (int i = 0; i < 1000; i++) {
+      TestTimer timer = timers.remove(random.nextInt(timers.size()));
+      assertTrue(wheel.remove(timer));
+    }
+    assertEquals(timers.size(), wheel.size());
+
+    timers.sort(Comparator.<TestTimer>comparingLong(TimingWheel.Timer::time).thenComparingInt(t -> t.id));
+
+    // Advance the wheel in random increments and verify timers expire in order.
+    List<TimingWheel.Timer> expired = new ArrayList<>();
+    while (!wheel.isEmpty()) {
+      time += random.nextInt(10000);
+      int start = expired.size();
+      wheel.advance(time, expired);
+      for (int i = start; i < expired.size(); i++) {
+        assertTrue(expired.get(i).time() <= time);
+      }
+    }
+    assertEquals(timers, expired);
+  }
+
+  private static class TestTimer extends TimingWheel.Timer {
+    private final int id;
+
+    TestTimer(int id, long time) {
+      this.id = id;
+      this.time = time;
+    }
+  }
+}
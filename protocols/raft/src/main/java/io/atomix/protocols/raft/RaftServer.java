@@ -27,6 +27,7 @@ import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.concurrent.ThreadModel;
 
 import java.net.InetAddress;
@@ -493,6 +494,13 @@ public interface RaftServer {
    */
   CompletableFuture<RaftServer> promote();
 
+  /**
+   * Takes a snapshot of the server's state machine and compacts the server's log.
+   *
+   * @return a future to be completed once the log has been compacted
+   */
+  CompletableFuture<Void> compact();
+
   /**
    * Returns a boolean indicating whether the server is running.
    *
@@ -552,6 +560,12 @@ public interface RaftServer {
     private static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofMillis(5000);
     private static final ThreadModel DEFAULT_THREAD_MODEL = ThreadModel.SHARED_THREAD_POOL;
     private static final int DEFAULT_THREAD_POOL_SIZE = Math.max(Math.min(Runtime.getRuntime().availableProcessors() * 2, 8), 4);
+    private static final int DEFAULT_MAX_APPENDS_PER_FOLLOWER = 4;
+    private static final int DEFAULT_MAX_APPEND_BYTES_PER_FOLLOWER = 1024 * 1024;
+    private static final int DEFAULT_SNAPSHOT_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER = 4;
+    private static final int DEFAULT_MAX_COMMAND_BATCH_SIZE = 1;
+    private static final Duration DEFAULT_COMMAND_BATCH_LINGER = Duration.ZERO;
 
     protected String name;
     protected MemberId localMemberId;
@@ -564,6 +578,15 @@ public interface RaftServer {
     protected PrimitiveTypeRegistry primitiveTypes;
     protected ThreadModel threadModel = DEFAULT_THREAD_MODEL;
     protected int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+    protected ThreadContextFactory threadContextFactory;
+    protected ThreadContextFactory compactionContextFactory;
+    protected int maxAppendsPerFollower = DEFAULT_MAX_APPENDS_PER_FOLLOWER;
+    protected int maxAppendBytesPerFollower = DEFAULT_MAX_APPEND_BYTES_PER_FOLLOWER;
+    protected int snapshotChunkSize = DEFAULT_SNAPSHOT_CHUNK_SIZE;
+    protected int maxSnapshotChunksPerFollower = DEFAULT_MAX_SNAPSHOT_CHUNKS_PER_FOLLOWER;
+    protected int maxCommandBatchSize = DEFAULT_MAX_COMMAND_BATCH_SIZE;
+    protected Duration commandBatchLinger = DEFAULT_COMMAND_BATCH_LINGER;
+    protected boolean alignHeartbeats;
 
     protected Builder(MemberId localMemberId) {
       this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
@@ -698,5 +721,145 @@ public interface RaftServer {
       this.threadPoolSize = threadPoolSize;
       return this;
     }
+
+    /**
+     * Sets a thread context factory shared with other servers.
+     * <p>
+     * When a shared factory is configured, the server's internal thread contexts and the contexts used by its
+     * services are created by the shared factory rather than each server starting its own threads. This allows
+     * many servers hosted on the same node to share a bounded number of threads. The
+     * {@link #withThreadModel(ThreadModel) thread model} and {@link #withThreadPoolSize(int) thread pool size} are
+     * ignored when a shared factory is configured. The shared factory is not closed when the server is closed.
+     *
+     * @param threadContextFactory the shared thread context factory
+     * @return The server builder.
+     * @throws NullPointerException if the {@code threadContextFactory} is {@code null}
+     */
+    public Builder withThreadContextFactory(ThreadContextFactory threadContextFactory) {
+      this.threadContextFactory = checkNotNull(threadContextFactory, "threadContextFactory cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets a thread context factory for log compaction shared with other servers.
+     * <p>
+     * By default, each server compacts its log on a dedicated thread. The shared factory is not closed when the
+     * server is closed.
+     *
+     * @param compactionContextFactory the shared compaction thread context factory
+     * @return The server builder.
+     * @throws NullPointerException if the {@code compactionContextFactory} is {@code null}
+     */
+    public Builder withCompactionContextFactory(ThreadContextFactory compactionContextFactory) {
+      this.compactionContextFactory = checkNotNull(compactionContextFactory, "compactionContextFactory cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of append requests that may be in flight to each follower.
+     * <p>
+     * The leader pipelines append requests to each follower, sending the next batch of entries before the previous
+     * batch has been acknowledged, up to the configured number of requests and bytes.
+     *
+     * @param maxAppendsPerFollower The maximum number of append requests that may be in flight to each follower.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum number of appends is not positive
+     */
+    public Builder withMaxAppendsPerFollower(int maxAppendsPerFollower) {
+      checkArgument(maxAppendsPerFollower > 0, "maxAppendsPerFollower must be positive");
+      this.maxAppendsPerFollower = maxAppendsPerFollower;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of entry bytes that may be in flight to each follower.
+     *
+     * @param maxAppendBytesPerFollower The maximum number of entry bytes that may be in flight to each follower.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum number of bytes is not positive
+     */
+    public Builder withMaxAppendBytesPerFollower(int maxAppendBytesPerFollower) {
+      checkArgument(maxAppendBytesPerFollower > 0, "maxAppendBytesPerFollower must be positive");
+      this.maxAppendBytesPerFollower = maxAppendBytesPerFollower;
+      return this;
+    }
+
+    /**
+     * Sets the size of the chunks in which snapshots are replicated to followers.
+     *
+     * @param snapshotChunkSize The size of the chunks in which snapshots are replicated to followers.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public Builder withSnapshotChunkSize(int snapshotChunkSize) {
+      checkArgument(snapshotChunkSize > 0, "snapshotChunkSize must be positive");
+      this.snapshotChunkSize = snapshotChunkSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks that may be in flight to each follower.
+     * <p>
+     * When a snapshot is installed on a follower, the leader pipelines snapshot chunks to the follower, sending
+     * the next chunk before the previous chunk has been acknowledged, up to the configured number of chunks.
+     *
+     * @param maxSnapshotChunksPerFollower The maximum number of snapshot chunks that may be in flight to each follower.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum number of chunks is not positive
+     */
+    public Builder withMaxSnapshotChunksPerFollower(int maxSnapshotChunksPerFollower) {
+      checkArgument(maxSnapshotChunksPerFollower > 0, "maxSnapshotChunksPerFollower must be positive");
+      this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of client commands that may be committed in a single batch.
+     * <p>
+     * When the batch size is greater than {@code 1}, the leader collects commands that arrive within the
+     * {@link #withCommandBatchLinger(Duration) linger time} and commits them together. Each command is still
+     * written to its own log entry at its own index, but the entries of a batch are appended to the log together
+     * and replicated to followers in a single round of append requests. A batch size of {@code 1} disables
+     * command batching.
+     *
+     * @param maxCommandBatchSize The maximum number of client commands that may be committed in a single batch.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the maximum batch size is not positive
+     */
+    public Builder withMaxCommandBatchSize(int maxCommandBatchSize) {
+      checkArgument(maxCommandBatchSize > 0, "maxCommandBatchSize must be positive");
+      this.maxCommandBatchSize = maxCommandBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the time for which the leader waits for additional commands before writing a command batch.
+     *
+     * @param commandBatchLinger The time for which the leader waits for additional commands before writing a batch.
+     * @return The server builder.
+     * @throws NullPointerException if the linger time is null
+     * @throws IllegalArgumentException if the linger time is negative
+     */
+    public Builder withCommandBatchLinger(Duration commandBatchLinger) {
+      checkNotNull(commandBatchLinger, "commandBatchLinger cannot be null");
+      checkArgument(!commandBatchLinger.isNegative(), "commandBatchLinger cannot be negative");
+      this.commandBatchLinger = commandBatchLinger;
+      return this;
+    }
+
+    /**
+     * Sets whether to align the leader's heartbeats to multiples of the heartbeat interval.
+     * <p>
+     * By default, a leader starts sending heartbeats as soon as it's elected. When heartbeats are aligned, the
+     * first heartbeat is delayed to the next multiple of the heartbeat interval so that leaders of different
+     * partitions on the same node send heartbeats at the same time, allowing them to be coalesced by the transport.
+     *
+     * @param alignHeartbeats Whether to align the leader's heartbeats to multiples of the heartbeat interval.
+     * @return The server builder.
+     */
+    public Builder withAlignedHeartbeats(boolean alignHeartbeats) {
+      this.alignHeartbeats = alignHeartbeats;
+      return this;
+    }
   }
 }
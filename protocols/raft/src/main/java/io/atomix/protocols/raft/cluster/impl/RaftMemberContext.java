@@ -17,7 +17,7 @@ package io.atomix.protocols.raft.cluster.impl;
 
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.protocols.raft.storage.log.RaftLogReader;
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -27,28 +27,29 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Cluster member state.
  */
 public final class RaftMemberContext {
-  private static final int MAX_APPENDS = 2;
-  private static final int APPEND_WINDOW_SIZE = 8;
   private final DefaultRaftMember member;
   private long term;
   private long configIndex;
   private long snapshotIndex;
   private long nextSnapshotIndex;
-  private int nextSnapshotOffset;
+  private long nextSnapshotOffset;
+  private SnapshotReader snapshotReader;
   private long matchIndex;
   private long heartbeatTime;
+  private final RaftClusterContext cluster;
   private int appending;
+  private int appendingBytes;
   private boolean appendSucceeded;
   private long appendTime;
   private boolean configuring;
-  private boolean installing;
+  private int installing;
   private int failures;
   private long failureTime;
   private volatile RaftLogReader reader;
-  private final DescriptiveStatistics timeStats = new DescriptiveStatistics(APPEND_WINDOW_SIZE);
 
   RaftMemberContext(DefaultRaftMember member, RaftClusterContext cluster) {
     this.member = checkNotNull(member, "member cannot be null").setCluster(cluster);
+    this.cluster = cluster;
   }
 
   /**
@@ -58,23 +59,25 @@ public final class RaftMemberContext {
     snapshotIndex = 0;
     nextSnapshotIndex = 0;
     nextSnapshotOffset = 0;
+    setSnapshotReader(null);
     matchIndex = 0;
     heartbeatTime = 0;
     appending = 0;
-    timeStats.clear();
+    appendingBytes = 0;
     configuring = false;
-    installing = false;
+    installing = 0;
     appendSucceeded = false;
     failures = 0;
     failureTime = 0;
 
+    // Entries are replicated to the member in their serialized form, so the reader doesn't decode them.
     switch (member.getType()) {
       case PASSIVE:
-        reader = log.openReader(log.writer().getLastIndex() + 1, RaftLogReader.Mode.COMMITS);
+        reader = log.openReader(log.writer().getLastIndex() + 1, RaftLogReader.Mode.COMMITS, true);
         break;
       case PROMOTABLE:
       case ACTIVE:
-        reader = log.openReader(log.writer().getLastIndex() + 1, RaftLogReader.Mode.ALL);
+        reader = log.openReader(log.writer().getLastIndex() + 1, RaftLogReader.Mode.ALL, true);
         break;
     }
   }
@@ -174,7 +177,7 @@ public final class RaftMemberContext {
    *
    * @return The member's snapshot offset.
    */
-  public int getNextSnapshotOffset() {
+  public long getNextSnapshotOffset() {
     return nextSnapshotOffset;
   }
 
@@ -183,10 +186,31 @@ public final class RaftMemberContext {
    *
    * @param nextSnapshotOffset The member's snapshot offset.
    */
-  public void setNextSnapshotOffset(int nextSnapshotOffset) {
+  public void setNextSnapshotOffset(long nextSnapshotOffset) {
     this.nextSnapshotOffset = nextSnapshotOffset;
   }
 
+  /**
+   * Returns the reader for the snapshot being installed on the member.
+   *
+   * @return The reader for the snapshot being installed on the member.
+   */
+  public SnapshotReader getSnapshotReader() {
+    return snapshotReader;
+  }
+
+  /**
+   * Sets the reader for the snapshot being installed on the member, closing the previous reader.
+   *
+   * @param snapshotReader The reader for the snapshot being installed on the member.
+   */
+  public void setSnapshotReader(SnapshotReader snapshotReader) {
+    if (this.snapshotReader != null && this.snapshotReader != snapshotReader) {
+      this.snapshotReader.close();
+    }
+    this.snapshotReader = snapshotReader;
+  }
+
   /**
    * Returns the member's match index.
    *
@@ -208,11 +232,17 @@ public final class RaftMemberContext {
 
   /**
    * Returns a boolean indicating whether an append request can be sent to the member.
+   * <p>
+   * Append requests are pipelined to the member as long as the last append succeeded and the number of in-flight
+   * requests and entry bytes are within the configured per-follower limits.
    *
    * @return Indicates whether an append request can be sent to the member.
    */
   public boolean canAppend() {
-    return appending == 0 || (appendSucceeded && appending < MAX_APPENDS && System.currentTimeMillis() - (timeStats.getMean() / MAX_APPENDS) >= appendTime);
+    return appending == 0
+        || (appendSucceeded
+        && appending < cluster.getContext().getMaxAppendsPerFollower()
+        && appendingBytes < cluster.getContext().getMaxAppendBytesPerFollower());
   }
 
   /**
@@ -251,7 +281,17 @@ public final class RaftMemberContext {
    * Starts an append request to the member.
    */
   public void startAppend() {
+    startAppend(0);
+  }
+
+  /**
+   * Starts an append request to the member.
+   *
+   * @param bytes The number of entry bytes in the append request.
+   */
+  public void startAppend(int bytes) {
     appending++;
+    appendingBytes += bytes;
     appendTime = System.currentTimeMillis();
   }
 
@@ -259,17 +299,17 @@ public final class RaftMemberContext {
    * Completes an append request to the member.
    */
   public void completeAppend() {
-    appending--;
+    completeAppend(0);
   }
 
   /**
    * Completes an append request to the member.
    *
-   * @param time The time in milliseconds for the append.
+   * @param bytes The number of entry bytes in the append request.
    */
-  public void completeAppend(long time) {
+  public void completeAppend(int bytes) {
     appending--;
-    timeStats.addValue(time);
+    appendingBytes -= bytes;
   }
 
   /**
@@ -301,21 +341,30 @@ public final class RaftMemberContext {
    * @return Indicates whether an install request can be sent to the member.
    */
   public boolean canInstall() {
-    return !installing;
+    return installing < cluster.getContext().getMaxSnapshotChunksPerFollower();
+  }
+
+  /**
+   * Returns a boolean indicating whether any install requests are in flight to the member.
+   *
+   * @return Indicates whether any install requests are in flight to the member.
+   */
+  public boolean isInstalling() {
+    return installing > 0;
   }
 
   /**
    * Starts an install request to the member.
    */
   public void startInstall() {
-    installing = true;
+    installing++;
   }
 
   /**
    * Completes an install request to the member.
    */
   public void completeInstall() {
-    installing = false;
+    installing--;
   }
 
   /**
@@ -388,6 +437,7 @@ public final class RaftMemberContext {
         .add("nextIndex", reader != null ? reader.getNextIndex() : matchIndex + 1)
         .add("heartbeatTime", heartbeatTime)
         .add("appending", appending)
+        .add("appendingBytes", appendingBytes)
         .add("appendSucceeded", appendSucceeded)
         .add("appendTime", appendTime)
         .add("configuring", configuring)
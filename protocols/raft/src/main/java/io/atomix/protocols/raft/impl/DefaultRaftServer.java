@@ -135,6 +135,11 @@ public class DefaultRaftServer implements RaftServer {
     return context.anoint().thenApply(v -> this);
   }
 
+  @Override
+  public CompletableFuture<Void> compact() {
+    return context.compact();
+  }
+
   /**
    * Returns a boolean indicating whether the server is running.
    *
@@ -243,10 +248,17 @@ public class DefaultRaftServer implements RaftServer {
         storage = RaftStorage.builder().build();
       }
 
-      RaftContext raft = new RaftContext(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize);
+      RaftContext raft = new RaftContext(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize, threadContextFactory, compactionContextFactory);
       raft.setElectionTimeout(electionTimeout);
       raft.setHeartbeatInterval(heartbeatInterval);
       raft.setSessionTimeout(sessionTimeout);
+      raft.setMaxAppendsPerFollower(maxAppendsPerFollower);
+      raft.setMaxAppendBytesPerFollower(maxAppendBytesPerFollower);
+      raft.setSnapshotChunkSize(snapshotChunkSize);
+      raft.setMaxSnapshotChunksPerFollower(maxSnapshotChunksPerFollower);
+      raft.setMaxCommandBatchSize(maxCommandBatchSize);
+      raft.setCommandBatchLinger(commandBatchLinger);
+      raft.setAlignHeartbeats(alignHeartbeats);
 
       return new DefaultRaftServer(raft);
     }
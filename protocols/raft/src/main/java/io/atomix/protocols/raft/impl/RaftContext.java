@@ -32,6 +32,7 @@ import io.atomix.protocols.raft.roles.FollowerRole;
 import io.atomix.protocols.raft.roles.InactiveRole;
 import io.atomix.protocols.raft.roles.LeaderRole;
 import io.atomix.protocols.raft.roles.PassiveRole;
+import io.atomix.protocols.raft.roles.PendingSnapshot;
 import io.atomix.protocols.raft.roles.PromotableRole;
 import io.atomix.protocols.raft.roles.RaftRole;
 import io.atomix.protocols.raft.session.RaftSessionRegistry;
@@ -55,7 +56,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -103,12 +104,20 @@ public class RaftContext implements AutoCloseable {
   private Duration electionTimeout = Duration.ofMillis(500);
   private Duration heartbeatInterval = Duration.ofMillis(150);
   private Duration sessionTimeout = Duration.ofMillis(5000);
+  private int maxAppendsPerFollower = 4;
+  private int maxAppendBytesPerFollower = 1024 * 1024;
+  private int snapshotChunkSize = 1024 * 1024;
+  private int maxSnapshotChunksPerFollower = 4;
+  private int maxCommandBatchSize = 1;
+  private Duration commandBatchLinger = Duration.ZERO;
+  private boolean alignHeartbeats;
   private volatile MemberId leader;
   private volatile long term;
   private MemberId lastVotedFor;
   private long commitIndex;
   private volatile long firstCommitIndex;
   private volatile long lastApplied;
+  private PendingSnapshot pendingSnapshot;
 
   @SuppressWarnings("unchecked")
   public RaftContext(
@@ -120,6 +129,21 @@ public class RaftContext implements AutoCloseable {
       PrimitiveTypeRegistry primitiveTypes,
       ThreadModel threadModel,
       int threadPoolSize) {
+    this(name, localMemberId, membershipService, protocol, storage, primitiveTypes, threadModel, threadPoolSize, null, null);
+  }
+
+  @SuppressWarnings("unchecked")
+  public RaftContext(
+      String name,
+      MemberId localMemberId,
+      ClusterMembershipService membershipService,
+      RaftServerProtocol protocol,
+      RaftStorage storage,
+      PrimitiveTypeRegistry primitiveTypes,
+      ThreadModel threadModel,
+      int threadPoolSize,
+      ThreadContextFactory sharedThreadContextFactory,
+      ThreadContextFactory sharedCompactionContextFactory) {
     this.name = checkNotNull(name, "name cannot be null");
     this.membershipService = checkNotNull(membershipService, "membershipService cannot be null");
     this.protocol = checkNotNull(protocol, "protocol cannot be null");
@@ -129,13 +153,24 @@ public class RaftContext implements AutoCloseable {
         .addValue(name)
         .build());
 
+    // If a shared thread context factory is provided, multiplex the server's contexts onto the shared threads.
+    // Shared factories are owned by the caller, so service contexts are created through a factory that does not
+    // close the shared threads when the server is closed.
     String baseThreadName = String.format("raft-server-%s", name);
-    this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
-    this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
-    this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
-    this.compactionContext = new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
-
-    this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
+    if (sharedThreadContextFactory != null) {
+      this.threadContext = sharedThreadContextFactory.createContext();
+      this.loadContext = sharedThreadContextFactory.createContext();
+      this.stateContext = sharedThreadContextFactory.createContext();
+      this.threadContextFactory = sharedThreadContextFactory::createContext;
+    } else {
+      this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
+      this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
+      this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
+      this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
+    }
+    this.compactionContext = sharedCompactionContextFactory != null
+        ? sharedCompactionContextFactory.createContext()
+        : new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
 
     this.loadMonitor = new LoadMonitor(LOAD_WINDOW_SIZE, HIGH_LOAD_THRESHOLD, loadContext);
 
@@ -309,6 +344,132 @@ public class RaftContext implements AutoCloseable {
     return electionTimeout;
   }
 
+  /**
+   * Sets the maximum number of append requests that may be in flight to each follower.
+   *
+   * @param maxAppendsPerFollower The maximum number of append requests that may be in flight to each follower.
+   */
+  public void setMaxAppendsPerFollower(int maxAppendsPerFollower) {
+    this.maxAppendsPerFollower = maxAppendsPerFollower;
+  }
+
+  /**
+   * Returns the maximum number of append requests that may be in flight to each follower.
+   *
+   * @return The maximum number of append requests that may be in flight to each follower.
+   */
+  public int getMaxAppendsPerFollower() {
+    return maxAppendsPerFollower;
+  }
+
+  /**
+   * Sets the maximum number of entry bytes that may be in flight to each follower.
+   *
+   * @param maxAppendBytesPerFollower The maximum number of entry bytes that may be in flight to each follower.
+   */
+  public void setMaxAppendBytesPerFollower(int maxAppendBytesPerFollower) {
+    this.maxAppendBytesPerFollower = maxAppendBytesPerFollower;
+  }
+
+  /**
+   * Returns the maximum number of entry bytes that may be in flight to each follower.
+   *
+   * @return The maximum number of entry bytes that may be in flight to each follower.
+   */
+  public int getMaxAppendBytesPerFollower() {
+    return maxAppendBytesPerFollower;
+  }
+
+  /**
+   * Sets the size of the chunks in which snapshots are replicated to followers.
+   *
+   * @param snapshotChunkSize The size of the chunks in which snapshots are replicated to followers.
+   */
+  public void setSnapshotChunkSize(int snapshotChunkSize) {
+    this.snapshotChunkSize = snapshotChunkSize;
+  }
+
+  /**
+   * Returns the size of the chunks in which snapshots are replicated to followers.
+   *
+   * @return The size of the chunks in which snapshots are replicated to followers.
+   */
+  public int getSnapshotChunkSize() {
+    return snapshotChunkSize;
+  }
+
+  /**
+   * Sets the maximum number of snapshot chunks that may be in flight to each follower.
+   *
+   * @param maxSnapshotChunksPerFollower The maximum number of snapshot chunks that may be in flight to each follower.
+   */
+  public void setMaxSnapshotChunksPerFollower(int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks that may be in flight to each follower.
+   *
+   * @return The maximum number of snapshot chunks that may be in flight to each follower.
+   */
+  public int getMaxSnapshotChunksPerFollower() {
+    return maxSnapshotChunksPerFollower;
+  }
+
+  /**
+   * Sets the maximum number of client commands that may be committed in a single batch.
+   *
+   * @param maxCommandBatchSize The maximum number of client commands that may be committed in a single batch.
+   */
+  public void setMaxCommandBatchSize(int maxCommandBatchSize) {
+    this.maxCommandBatchSize = maxCommandBatchSize;
+  }
+
+  /**
+   * Returns the maximum number of client commands that may be committed in a single batch.
+   *
+   * @return The maximum number of client commands that may be committed in a single batch.
+   */
+  public int getMaxCommandBatchSize() {
+    return maxCommandBatchSize;
+  }
+
+  /**
+   * Sets the time for which the leader waits for additional commands before writing a command batch.
+   *
+   * @param commandBatchLinger The time for which the leader waits for additional commands before writing a batch.
+   */
+  public void setCommandBatchLinger(Duration commandBatchLinger) {
+    this.commandBatchLinger = commandBatchLinger;
+  }
+
+  /**
+   * Returns the time for which the leader waits for additional commands before writing a command batch.
+   *
+   * @return The time for which the leader waits for additional commands before writing a batch.
+   */
+  public Duration getCommandBatchLinger() {
+    return commandBatchLinger;
+  }
+
+  /**
+   * Sets whether to align the leader's heartbeats to multiples of the heartbeat interval.
+   *
+   * @param alignHeartbeats Whether to align the leader's heartbeats to multiples of the heartbeat interval.
+   */
+  public void setAlignHeartbeats(boolean alignHeartbeats) {
+    this.alignHeartbeats = alignHeartbeats;
+  }
+
+  /**
+   * Returns whether the leader's heartbeats are aligned to multiples of the heartbeat interval.
+   *
+   * @return Whether the leader's heartbeats are aligned to multiples of the heartbeat interval.
+   */
+  public boolean isAlignHeartbeats() {
+    return alignHeartbeats;
+  }
+
   /**
    * Sets the heartbeat interval.
    *
@@ -532,6 +693,25 @@ public class RaftContext implements AutoCloseable {
     return lastApplied;
   }
 
+  /**
+   * Sets the snapshot currently being installed from the leader.
+   *
+   * @param pendingSnapshot the snapshot currently being installed from the leader
+   */
+  public void setPendingSnapshot(PendingSnapshot pendingSnapshot) {
+    checkThread();
+    this.pendingSnapshot = pendingSnapshot;
+  }
+
+  /**
+   * Returns the snapshot currently being installed from the leader.
+   *
+   * @return the snapshot currently being installed from the leader or {@code null} if no snapshot is being installed
+   */
+  public PendingSnapshot getPendingSnapshot() {
+    return pendingSnapshot;
+  }
+
   /**
    * Returns the server load monitor.
    *
@@ -661,6 +841,7 @@ public class RaftContext implements AutoCloseable {
     protocol.registerReconfigureHandler(request -> runOnContext(() -> role.onReconfigure(request)));
     protocol.registerLeaveHandler(request -> runOnContext(() -> role.onLeave(request)));
     protocol.registerTransferHandler(request -> runOnContext(() -> role.onTransfer(request)));
+    protocol.registerReadIndexHandler(request -> runOnContext(() -> role.onReadIndex(request)));
     protocol.registerAppendHandler(request -> runOnContext(() -> role.onAppend(request)));
     protocol.registerPollHandler(request -> runOnContext(() -> role.onPoll(request)));
     protocol.registerVoteHandler(request -> runOnContext(() -> role.onVote(request)));
@@ -696,6 +877,7 @@ public class RaftContext implements AutoCloseable {
     protocol.unregisterReconfigureHandler();
     protocol.unregisterLeaveHandler();
     protocol.unregisterTransferHandler();
+    protocol.unregisterReadIndexHandler();
     protocol.unregisterAppendHandler();
     protocol.unregisterPollHandler();
     protocol.unregisterVoteHandler();
@@ -703,6 +885,23 @@ public class RaftContext implements AutoCloseable {
     protocol.unregisterQueryHandler();
   }
 
+  /**
+   * Takes a snapshot of the state machine and compacts the log.
+   *
+   * @return a future to be completed once the log has been compacted
+   */
+  public CompletableFuture<Void> compact() {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    threadContext.execute(() -> stateMachine.compact().whenComplete((result, error) -> {
+      if (error == null) {
+        future.complete(null);
+      } else {
+        future.completeExceptionally(error);
+      }
+    }));
+    return future;
+  }
+
   /**
    * Attempts to become the leader.
    */
@@ -792,23 +991,41 @@ public class RaftContext implements AutoCloseable {
     log.info("Transitioning to {}", role);
 
     // Close the old state.
-    try {
-      this.role.stop().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to close Raft state", e);
-    }
+    checkTransition(this.role.stop(), "failed to close Raft state");
 
-    // Force state transitions to occur synchronously in order to prevent race conditions.
-    try {
-      this.role = createRole(role);
-      this.role.start().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to initialize Raft state", e);
-    }
+    // Fail reads awaiting the state machine so they're retried against the new state.
+    stateMachine.failAppliedFutures();
+
+    // Start the new role. If the role completes its start synchronously, a failure is thrown here. Otherwise,
+    // checkTransition logs the failure once the role finishes starting rather than blocking the Raft thread.
+    this.role = createRole(role);
+    checkTransition(this.role.start(), "failed to initialize Raft state");
 
     roleChangeListeners.forEach(l -> l.accept(this.role.role()));
   }
 
+  /**
+   * Checks the outcome of a role transition without blocking the Raft thread.
+   * <p>
+   * Roles complete their start and stop futures synchronously unless they have to wait for work on another context.
+   * The server thread may share a thread pool with those contexts, so incomplete futures are not awaited.
+   */
+  private void checkTransition(CompletableFuture<?> future, String message) {
+    if (future.isDone()) {
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        throw new IllegalStateException(message, e.getCause());
+      }
+    } else {
+      future.whenComplete((result, error) -> {
+        if (error != null) {
+          log.error(message, error);
+        }
+      });
+    }
+  }
+
   /**
    * Creates an internal state for the given state type.
    */
@@ -848,6 +1065,12 @@ public class RaftContext implements AutoCloseable {
     } catch (Exception e) {
     }
 
+    // Discard any partially installed snapshot.
+    if (pendingSnapshot != null) {
+      pendingSnapshot.rollback();
+      pendingSnapshot = null;
+    }
+
     // Close the snapshot store.
     try {
       snapshotStore.close();
@@ -21,6 +21,7 @@ import io.atomix.cluster.MemberId;
 import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.service.PrimitiveService;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.service.ServiceConfig;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.primitive.session.SessionMetadata;
@@ -43,6 +44,8 @@ import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotWriter;
 import io.atomix.storage.StorageLevel;
+import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.concurrent.ComposableFuture;
 import io.atomix.utils.concurrent.Futures;
@@ -58,13 +61,17 @@ import org.slf4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Internal server state machine.
@@ -78,6 +85,8 @@ public class RaftServiceManager implements AutoCloseable {
   private static final Duration COMPACT_DELAY = Duration.ofSeconds(10);
 
   private static final int SEGMENT_BUFFER_FACTOR = 5;
+  static final int MAX_APPLY_BATCH_SIZE = 1024;
+  private static final int SNAPSHOT_COPY_BUFFER_SIZE = 1024 * 64;
 
   private final Logger logger;
   private final RaftContext raft;
@@ -87,9 +96,14 @@ public class RaftServiceManager implements AutoCloseable {
   private final RaftLog log;
   private final RaftLogReader reader;
   private final Map<Long, CompletableFuture> futures = Maps.newHashMap();
+  private final NavigableMap<Long, CompletableFuture<Void>> appliedFutures = new TreeMap<>();
   private volatile CompletableFuture<Void> compactFuture;
   private long lastEnqueued;
+  private long lastDequeued;
+  private boolean draining;
   private long lastCompacted;
+  private Snapshot baseSnapshot;
+  private Map<PrimitiveId, Long> baseStateVersions = new HashMap<>();
 
   public RaftServiceManager(RaftContext raft, ThreadContext stateContext, ThreadContext compactionContext, ThreadContextFactory threadContextFactory) {
     this.raft = checkNotNull(raft, "state cannot be null");
@@ -102,6 +116,7 @@ public class RaftServiceManager implements AutoCloseable {
         .addValue(raft.getName())
         .build());
     this.lastEnqueued = reader.getFirstIndex() - 1;
+    this.lastDequeued = lastEnqueued;
     scheduleSnapshots();
   }
 
@@ -188,9 +203,10 @@ public class RaftServiceManager implements AutoCloseable {
       compactFuture = new OrderedFuture<>();
 
       // Wait for snapshots in all state machines to be completed before compacting the log at the last applied index.
-      takeSnapshots(lastApplied).whenCompleteAsync((snapshot, error) -> {
+      Map<PrimitiveId, Long> stateVersions = new HashMap<>();
+      takeSnapshots(lastApplied, stateVersions).whenCompleteAsync((snapshot, error) -> {
         if (error == null) {
-          scheduleCompletion(snapshot.persist());
+          scheduleCompletion(snapshot.persist(), stateVersions);
         }
       }, compactionContext);
 
@@ -211,32 +227,137 @@ public class RaftServiceManager implements AutoCloseable {
 
   /**
    * Takes and persists snapshots of provided services.
+   * <p>
+   * Snapshots are taken in the state machine thread. Services that support point-in-time backups are only captured
+   * in the state machine thread, and their state is written to the snapshot in the compaction thread while the state
+   * machine continues to apply entries. Services whose state hasn't changed since the base snapshot was taken are
+   * not serialized again. Instead, their serialized state is copied from the base snapshot in the compaction thread,
+   * so every snapshot still contains the full state of every service.
    *
-   * @param index the compaction index
+   * @param index         the compaction index
+   * @param stateVersions the map to which to add the state version of each service in the snapshot
    * @return future to be completed once all snapshots have been completed
    */
-  private CompletableFuture<Snapshot> takeSnapshots(long index) {
+  private CompletableFuture<Snapshot> takeSnapshots(long index, Map<PrimitiveId, Long> stateVersions) {
     ComposableFuture<Snapshot> future = new ComposableFuture<>();
     stateContext.execute(() -> {
+      Snapshot snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
+      SnapshotWriter writer = snapshot.openWriter();
+      List<PendingServiceSnapshot> pendingSnapshots = new ArrayList<>();
+      SnapshotReader baseReader = null;
       try {
-        future.complete(snapshot(index));
+        Snapshot baseSnapshot = raft.getSnapshotStore().getCurrentSnapshot();
+        if (baseSnapshot != this.baseSnapshot) {
+          baseSnapshot = null;
+        }
+        snapshot(writer, baseSnapshot, pendingSnapshots, stateVersions);
+
+        // Open the base snapshot before returning from the state machine thread. Snapshots replaced in the snapshot
+        // store are not deleted until their open readers are closed, so the base snapshot remains readable until
+        // unchanged service states have been copied from it.
+        if (pendingSnapshots.stream().anyMatch(PendingServiceSnapshot::isUnchanged)) {
+          baseReader = baseSnapshot.openReader();
+        }
       } catch (Exception e) {
+        pendingSnapshots.forEach(PendingServiceSnapshot::close);
+        writer.close();
+        snapshot.close();
         future.completeExceptionally(e);
+        return;
       }
+
+      SnapshotReader reader = baseReader;
+      compactionContext.execute(() -> {
+        try {
+          Map<PrimitiveId, ServiceState> baseStates = reader != null ? locateServiceStates(reader) : new HashMap<>();
+          for (PendingServiceSnapshot pendingSnapshot : pendingSnapshots) {
+            writer.buffer().mark();
+            SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
+            serviceWriter.write(pendingSnapshot.header);
+            if (pendingSnapshot.isUnchanged()) {
+              copyServiceState(reader, baseStates.get(pendingSnapshot.service.serviceId()), serviceWriter);
+            } else {
+              pendingSnapshot.service.completeSnapshot(serviceWriter, pendingSnapshot.backup);
+            }
+            int length = serviceWriter.buffer().position();
+            writer.buffer().reset().writeInt(length).skip(length);
+          }
+          writer.close();
+          future.complete(snapshot);
+        } catch (Exception e) {
+          writer.close();
+          snapshot.close();
+          future.completeExceptionally(e);
+        } finally {
+          pendingSnapshots.forEach(PendingServiceSnapshot::close);
+          if (reader != null) {
+            reader.close();
+          }
+        }
+      });
     });
     return future;
   }
 
+  /**
+   * Locates the state of each service in the given snapshot.
+   *
+   * @param reader the snapshot reader
+   * @return the location of each service's state in the snapshot
+   */
+  private Map<PrimitiveId, ServiceState> locateServiceStates(SnapshotReader reader) {
+    Map<PrimitiveId, ServiceState> states = new HashMap<>();
+    int start = reader.position();
+    while (reader.hasRemaining()) {
+      int length = reader.readInt();
+      if (length > 0) {
+        int end = reader.position() + length;
+        PrimitiveId primitiveId = PrimitiveId.from(reader.readLong());
+        reader.readString();
+        reader.readString();
+        reader.skip(reader.readInt());
+        RaftServiceContext.skipSessions(reader);
+        states.put(primitiveId, new ServiceState(reader.position() - start, end - reader.position()));
+        reader.skip(end - reader.position());
+      }
+    }
+    return states;
+  }
+
+  /**
+   * Copies a service's state from the given snapshot reader to the given writer.
+   *
+   * @param reader the reader from which to copy the service state
+   * @param state  the location of the service state in the reader
+   * @param writer the writer to which to copy the service state
+   */
+  private void copyServiceState(SnapshotReader reader, ServiceState state, SnapshotWriter writer) {
+    checkState(state != null, "service state not found in snapshot %s", reader.snapshot().index());
+    byte[] bytes = new byte[Math.min(state.length, SNAPSHOT_COPY_BUFFER_SIZE)];
+    int copied = 0;
+    while (copied < state.length) {
+      int length = Math.min(bytes.length, state.length - copied);
+      reader.read(state.offset + copied, bytes, 0, length);
+      writer.write(bytes, 0, length);
+      copied += length;
+    }
+  }
+
   /**
    * Schedules a completion check for the snapshot at the given index.
    *
-   * @param snapshot the snapshot to complete
+   * @param snapshot      the snapshot to complete
+   * @param stateVersions the state version of each service in the snapshot
    */
-  private void scheduleCompletion(Snapshot snapshot) {
+  private void scheduleCompletion(Snapshot snapshot, Map<PrimitiveId, Long> stateVersions) {
     stateContext.schedule(SNAPSHOT_COMPLETION_DELAY, () -> {
       if (completeSnapshot(snapshot.index())) {
         logger.debug("Completing snapshot {}", snapshot.index());
         snapshot.complete();
+
+        // Services that don't change before the next snapshot can copy their state from this snapshot.
+        baseSnapshot = snapshot;
+        baseStateVersions = stateVersions;
         // If log compaction is being forced, immediately compact the logs.
         if (!raft.getLoadMonitor().isUnderHighLoad() || isRunningOutOfDiskSpace()) {
           compactLogs(snapshot.index());
@@ -244,7 +365,7 @@ public class RaftServiceManager implements AutoCloseable {
           scheduleCompaction(snapshot.index());
         }
       } else {
-        scheduleCompletion(snapshot);
+        scheduleCompletion(snapshot, stateVersions);
       }
     });
   }
@@ -312,61 +433,138 @@ public class RaftServiceManager implements AutoCloseable {
   }
 
   /**
-   * Applies all entries up to the given index.
+   * Returns a future to be completed once all entries up to the given index have been applied.
+   * <p>
+   * Unlike {@link #apply(long)}, this method does not force entries to be applied; it waits for entries up to the
+   * given index to be committed and applied in the normal course of replication. The returned future is completed
+   * on the Raft thread once the entries have been submitted to the state machine, so operations submitted to the
+   * state machine when the future is completed are applied after the entries.
    *
-   * @param index the index up to which to apply entries
+   * @param index the index up to which to wait for entries to be applied
+   * @return a future to be completed once all entries up to the given index have been applied
    */
-  private void enqueueBatch(long index) {
-    while (lastEnqueued < index) {
-      enqueueIndex(++lastEnqueued);
+  public CompletableFuture<Void> awaitApplied(long index) {
+    raft.checkThread();
+    if (index <= lastDequeued) {
+      return CompletableFuture.completedFuture(null);
     }
+    return appliedFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
   }
 
   /**
-   * Enqueues an index to be applied to the state machine.
-   *
-   * @param index the index to be applied to the state machine
+   * Fails all futures awaiting entries to be applied.
+   * <p>
+   * Reads waiting for this server to catch up to a read index are failed as {@link RaftException.Unavailable} when
+   * the server changes roles or is closed so they can be retried on another server.
+   */
+  public void failAppliedFutures() {
+    while (!appliedFutures.isEmpty()) {
+      appliedFutures.pollFirstEntry().getValue().completeExceptionally(
+          new RaftException.Unavailable("Server is no longer serving reads"));
+    }
+  }
+
+  /**
+   * Completes futures awaiting entries up to the given index to be applied.
    */
-  private void enqueueIndex(long index) {
-    raft.getThreadContext().execute(() -> applyIndex(index));
+  private void completeAppliedFutures(long index) {
+    while (!appliedFutures.isEmpty() && appliedFutures.firstKey() <= index) {
+      appliedFutures.pollFirstEntry().getValue().complete(null);
+    }
   }
 
   /**
-   * Applies the next entry in the log up to the given index.
+   * Applies all entries up to the given index.
+   * <p>
+   * Entries are not applied immediately. Instead, the highest index to apply is recorded and a single task is
+   * scheduled to drain all enqueued entries, so entries committed in quick succession are read and applied
+   * together rather than in one task per index.
    *
-   * @param index the index up to which to apply the entry
+   * @param index the index up to which to apply entries
+   */
+  private void enqueueBatch(long index) {
+    if (index > lastEnqueued) {
+      lastEnqueued = index;
+      if (!draining) {
+        draining = true;
+        raft.getThreadContext().execute(this::drainBatch);
+      }
+    }
+  }
+
+  /**
+   * Reads the next batch of enqueued entries from the log and applies them to the state machine.
+   * <p>
+   * Entries are read in the Raft thread and then applied in a single task in the state machine thread. Only
+   * entries for which a caller is waiting on a result have a future to complete. If more than
+   * {@link #MAX_APPLY_BATCH_SIZE} entries are enqueued, the remaining entries are drained in a subsequent task
+   * to avoid starving other tasks in the Raft thread.
    */
   @SuppressWarnings("unchecked")
-  private void applyIndex(long index) {
-    // Apply entries prior to this entry.
-    if (reader.hasNext() && reader.getNextIndex() == index) {
+  private void drainBatch() {
+    List<Indexed<RaftLogEntry>> entries = new ArrayList<>((int) Math.min(lastEnqueued - lastDequeued, MAX_APPLY_BATCH_SIZE));
+    List<CompletableFuture> entryFutures = new ArrayList<>(entries.size());
+    while (lastDequeued < lastEnqueued && entries.size() < MAX_APPLY_BATCH_SIZE) {
+      long index = ++lastDequeued;
+
       // Read the entry from the log. If the entry is non-null then apply it, otherwise
       // simply update the last applied index and return a null result.
-      Indexed<RaftLogEntry> entry = reader.next();
-      try {
-        if (entry.index() != index) {
-          throw new IllegalStateException("inconsistent index applying entry " + index + ": " + entry);
+      if (reader.hasNext() && reader.getNextIndex() == index) {
+        Indexed<RaftLogEntry> entry = reader.next();
+        try {
+          if (entry.index() != index) {
+            throw new IllegalStateException("inconsistent index applying entry " + index + ": " + entry);
+          }
+          entries.add(entry);
+          entryFutures.add(futures.remove(index));
+        } catch (Exception e) {
+          logger.error("Failed to apply {}: {}", entry, e);
+        } finally {
+          raft.setLastApplied(index);
         }
+      } else {
         CompletableFuture future = futures.remove(index);
-        apply(entry).whenComplete((r, e) -> {
-          if (future != null) {
-            if (e == null) {
-              future.complete(r);
-            } else {
-              future.completeExceptionally(e);
-            }
-          }
-        });
-      } catch (Exception e) {
-        logger.error("Failed to apply {}: {}", entry, e);
-      } finally {
-        raft.setLastApplied(index);
+        if (future != null) {
+          logger.error("Cannot apply index " + index);
+          future.completeExceptionally(new IndexOutOfBoundsException("Cannot apply index " + index));
+        }
       }
+    }
+
+    if (!entries.isEmpty()) {
+      stateContext.execute(() -> applyBatch(entries, entryFutures));
+    }
+    completeAppliedFutures(lastDequeued);
+
+    if (lastDequeued < lastEnqueued) {
+      raft.getThreadContext().execute(this::drainBatch);
     } else {
-      CompletableFuture future = futures.remove(index);
-      if (future != null) {
-        logger.error("Cannot apply index " + index);
-        future.completeExceptionally(new IndexOutOfBoundsException("Cannot apply index " + index));
+      draining = false;
+    }
+  }
+
+  /**
+   * Applies a batch of entries to the state machine in the state machine thread.
+   *
+   * @param entries the entries to apply
+   * @param futures the futures to complete with the result of each entry, or {@code null} for entries whose
+   *                results are not awaited
+   */
+  @SuppressWarnings("unchecked")
+  private void applyBatch(List<Indexed<RaftLogEntry>> entries, List<CompletableFuture> futures) {
+    for (int i = 0; i < entries.size(); i++) {
+      Indexed<RaftLogEntry> entry = entries.get(i);
+      CompletableFuture future = futures.get(i);
+      logger.trace("Applying {}", entry);
+      try {
+        Object result = applyEntry(entry);
+        if (future != null) {
+          future.complete(result);
+        }
+      } catch (Exception e) {
+        if (future != null) {
+          future.completeExceptionally(e);
+        }
       }
     }
   }
@@ -395,25 +593,7 @@ public class RaftServiceManager implements AutoCloseable {
             }
           });
         } else {
-          install(entry.index());
-          if (entry.type() == CommandEntry.class) {
-            future.complete((T) applyCommand(entry.cast()));
-          } else if (entry.type() == OpenSessionEntry.class) {
-            future.complete((T) (Long) applyOpenSession(entry.cast()));
-          } else if (entry.type() == KeepAliveEntry.class) {
-            future.complete((T) applyKeepAlive(entry.cast()));
-          } else if (entry.type() == CloseSessionEntry.class) {
-            applyCloseSession(entry.cast());
-            future.complete(null);
-          } else if (entry.type() == MetadataEntry.class) {
-            future.complete((T) applyMetadata(entry.cast()));
-          } else if (entry.type() == InitializeEntry.class) {
-            future.complete((T) applyInitialize(entry.cast()));
-          } else if (entry.type() == ConfigurationEntry.class) {
-            future.complete((T) applyConfiguration(entry.cast()));
-          } else {
-            future.completeExceptionally(new RaftException.ProtocolException("Unknown entry type"));
-          }
+          future.complete((T) applyEntry(entry));
         }
       } catch (Exception e) {
         future.completeExceptionally(e);
@@ -423,25 +603,85 @@ public class RaftServiceManager implements AutoCloseable {
   }
 
   /**
-   * Takes snapshots for the given index.
+   * Applies a log entry to the state machine in the state machine thread.
    *
-   * @param index the index for which to take snapshots
+   * @param entry the entry to apply
+   * @return the result of the entry
+   * @throws RaftException.ProtocolException if the entry type is unknown
    */
-  private Snapshot snapshot(long index) {
-    Snapshot snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
-    try (SnapshotWriter writer = snapshot.openWriter()) {
-      for (RaftServiceContext service : raft.getServices()) {
+  private Object applyEntry(Indexed<? extends RaftLogEntry> entry) {
+    install(entry.index());
+    if (entry.type() == CommandEntry.class) {
+      return applyCommand(entry.cast());
+    } else if (entry.type() == OpenSessionEntry.class) {
+      return applyOpenSession(entry.cast());
+    } else if (entry.type() == KeepAliveEntry.class) {
+      return applyKeepAlive(entry.cast());
+    } else if (entry.type() == CloseSessionEntry.class) {
+      applyCloseSession(entry.cast());
+      return null;
+    } else if (entry.type() == MetadataEntry.class) {
+      return applyMetadata(entry.cast());
+    } else if (entry.type() == InitializeEntry.class) {
+      return applyInitialize(entry.cast());
+    } else if (entry.type() == ConfigurationEntry.class) {
+      return applyConfiguration(entry.cast());
+    } else {
+      throw new RaftException.ProtocolException("Unknown entry type");
+    }
+  }
+
+  /**
+   * Takes snapshots of all services.
+   * <p>
+   * Services that don't support point-in-time backups and have changed since the base snapshot are written to the
+   * snapshot immediately. For all other services, the service headers and sessions are written to a temporary buffer
+   * and the services are added to the given list of pending snapshots to be written once the state machine thread
+   * has been released.
+   *
+   * @param writer           the snapshot writer
+   * @param baseSnapshot     the snapshot from which to copy unchanged service states, or {@code null}
+   * @param pendingSnapshots the list to which to add pending service snapshots
+   * @param stateVersions    the map to which to add the state version of each service
+   */
+  private void snapshot(
+      SnapshotWriter writer,
+      Snapshot baseSnapshot,
+      List<PendingServiceSnapshot> pendingSnapshots,
+      Map<PrimitiveId, Long> stateVersions) {
+    for (RaftServiceContext service : raft.getServices()) {
+      long stateVersion = service.stateVersion();
+      stateVersions.put(service.serviceId(), stateVersion);
+
+      // If the service state hasn't changed since the base snapshot was taken, copy the state from the base snapshot.
+      Long baseStateVersion = baseSnapshot != null ? baseStateVersions.get(service.serviceId()) : null;
+      boolean unchanged = stateVersion != 0 && baseStateVersion != null && baseStateVersion == stateVersion;
+
+      ServiceBackup backup = null;
+      byte[] header;
+      try (Buffer buffer = HeapBuffer.allocate()) {
+        SnapshotWriter pendingWriter = new SnapshotWriter(buffer, writer.snapshot());
+        snapshotServiceHeader(pendingWriter, service);
+        if (unchanged) {
+          logger.trace("Copying state of service {} from snapshot {}", service.serviceId(), baseSnapshot.index());
+          service.snapshotSessions(pendingWriter);
+        } else {
+          backup = service.prepareSnapshot(pendingWriter);
+        }
+        header = new byte[buffer.flip().remaining()];
+        buffer.read(header);
+      }
+
+      if (unchanged || backup != null) {
+        pendingSnapshots.add(new PendingServiceSnapshot(service, header, backup));
+      } else {
         writer.buffer().mark();
         SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
         snapshotService(serviceWriter, service);
         int length = serviceWriter.buffer().position();
         writer.buffer().reset().writeInt(length).skip(length);
       }
-    } catch (Exception e) {
-      snapshot.close();
-      throw e;
     }
-    return snapshot;
   }
 
   /**
@@ -451,12 +691,22 @@ public class RaftServiceManager implements AutoCloseable {
    * @param service the service to snapshot
    */
   private void snapshotService(SnapshotWriter writer, RaftServiceContext service) {
+    snapshotServiceHeader(writer, service);
+    service.takeSnapshot(writer);
+  }
+
+  /**
+   * Writes the header for the given service to the snapshot.
+   *
+   * @param writer  the snapshot writer
+   * @param service the service for which to write the header
+   */
+  private void snapshotServiceHeader(SnapshotWriter writer, RaftServiceContext service) {
     writer.writeLong(service.serviceId().id());
     writer.writeString(service.serviceType().name());
     writer.writeString(service.serviceName());
     byte[] config = Serializer.using(service.serviceType().namespace()).encode(service.serviceConfig());
     writer.writeInt(config.length).writeBytes(config);
-    service.takeSnapshot(writer);
   }
 
   /**
@@ -470,16 +720,24 @@ public class RaftServiceManager implements AutoCloseable {
     // If snapshots exist for the prior index, iterate through snapshots and populate services/sessions.
     if (snapshot != null) {
       logger.debug("Installing snapshot {}", snapshot);
+      Map<PrimitiveId, Long> stateVersions = new HashMap<>();
       try (SnapshotReader reader = snapshot.openReader()) {
         while (reader.hasRemaining()) {
           int length = reader.readInt();
           if (length > 0) {
             SnapshotReader serviceReader = new SnapshotReader(reader.buffer().slice(length), reader.snapshot());
-            installService(serviceReader);
+            RaftServiceContext service = installService(serviceReader);
+            if (service != null) {
+              stateVersions.put(service.serviceId(), service.stateVersion());
+            }
             reader.skip(length);
           }
         }
       }
+
+      // Services that don't change before the next snapshot can copy their state from the installed snapshot.
+      baseSnapshot = snapshot;
+      baseStateVersions = stateVersions;
     }
   }
 
@@ -487,8 +745,9 @@ public class RaftServiceManager implements AutoCloseable {
    * Restores the service associated with the given snapshot.
    *
    * @param reader the snapshot reader
+   * @return the installed service or {@code null} if the service could not be installed
    */
-  private void installService(SnapshotReader reader) {
+  private RaftServiceContext installService(SnapshotReader reader) {
     PrimitiveId primitiveId = PrimitiveId.from(reader.readLong());
     try {
       PrimitiveType primitiveType = raft.getPrimitiveTypes().getPrimitiveType(reader.readString());
@@ -501,8 +760,10 @@ public class RaftServiceManager implements AutoCloseable {
       if (service != null) {
         service.installSnapshot(reader);
       }
+      return service;
     } catch (ConfigurationException e) {
       logger.error(e.getMessage(), e);
+      return null;
     }
   }
 
@@ -802,5 +1063,55 @@ public class RaftServiceManager implements AutoCloseable {
   @Override
   public void close() {
     // Don't close the thread context here since state machines can be reused.
+    failAppliedFutures();
+  }
+
+  /**
+   * Service snapshot to be completed outside of the state machine thread.
+   * <p>
+   * The service state is either written from a point-in-time backup of the service or, if the service hasn't
+   * changed since the base snapshot was taken, copied from the base snapshot.
+   */
+  private static class PendingServiceSnapshot {
+    private final RaftServiceContext service;
+    private final byte[] header;
+    private final ServiceBackup backup;
+
+    PendingServiceSnapshot(RaftServiceContext service, byte[] header, ServiceBackup backup) {
+      this.service = service;
+      this.header = header;
+      this.backup = backup;
+    }
+
+    /**
+     * Returns whether the service state is unchanged since the base snapshot.
+     *
+     * @return whether the service state is copied from the base snapshot
+     */
+    boolean isUnchanged() {
+      return backup == null;
+    }
+
+    /**
+     * Releases the service backup.
+     */
+    void close() {
+      if (backup != null) {
+        backup.close();
+      }
+    }
+  }
+
+  /**
+   * Location of a service's state in a snapshot.
+   */
+  private static class ServiceState {
+    private final int offset;
+    private final int length;
+
+    ServiceState(int offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
   }
 }
@@ -21,13 +21,16 @@ import io.atomix.primitive.partition.PartitionId;
 import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.protocols.raft.partition.impl.RaftClientCommunicator;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatAggregator;
 import io.atomix.protocols.raft.partition.impl.RaftNamespaces;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionClient;
 import io.atomix.protocols.raft.partition.impl.RaftPartitionServer;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.serializer.Serializer;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
@@ -40,20 +43,30 @@ import static com.google.common.base.MoreObjects.toStringHelper;
  */
 public class RaftPartition implements Partition {
   private final PartitionId partitionId;
-  private final StorageLevel storageLevel;
-  private final long segmentSize;
-  private final boolean flushOnCommit;
+  private final RaftPartitionGroupConfig config;
   private final File dataDirectory;
+  private final ThreadContextFactory threadContextFactory;
+  private final ThreadContextFactory compactionContextFactory;
+  private RaftHeartbeatAggregator heartbeatAggregator;
   private PartitionMetadata partition;
   private RaftPartitionClient client;
   private RaftPartitionServer server;
 
-  public RaftPartition(PartitionId partitionId, StorageLevel storageLevel, long segmentSize, boolean flushOnCommit, File dataDirectory) {
+  public RaftPartition(PartitionId partitionId, RaftPartitionGroupConfig config, File dataDirectory) {
+    this(partitionId, config, dataDirectory, null, null);
+  }
+
+  public RaftPartition(
+      PartitionId partitionId,
+      RaftPartitionGroupConfig config,
+      File dataDirectory,
+      ThreadContextFactory threadContextFactory,
+      ThreadContextFactory compactionContextFactory) {
     this.partitionId = partitionId;
-    this.storageLevel = storageLevel;
-    this.segmentSize = segmentSize;
-    this.flushOnCommit = flushOnCommit;
+    this.config = config;
     this.dataDirectory = dataDirectory;
+    this.threadContextFactory = threadContextFactory;
+    this.compactionContextFactory = compactionContextFactory;
   }
 
   @Override
@@ -102,7 +115,7 @@ public class RaftPartition implements Partition {
    * @return the Raft partition storage level
    */
   public StorageLevel storageLevel() {
-    return storageLevel;
+    return StorageLevel.valueOf(config.getStorageLevel().toUpperCase());
   }
 
   /**
@@ -111,7 +124,7 @@ public class RaftPartition implements Partition {
    * @return the log segment size
    */
   public long segmentSize() {
-    return segmentSize;
+    return config.getSegmentSize().bytes();
   }
 
   /**
@@ -120,7 +133,61 @@ public class RaftPartition implements Partition {
    * @return whether to flush logs to disk on commit
    */
   public boolean flushOnCommit() {
-    return flushOnCommit;
+    return config.isFlushOnCommit();
+  }
+
+  /**
+   * Returns the maximum number of append requests that may be in flight to a follower at any time.
+   *
+   * @return the maximum number of append requests that may be in flight to a follower
+   */
+  public int maxAppendsPerFollower() {
+    return config.getMaxAppendsPerFollower();
+  }
+
+  /**
+   * Returns the maximum number of entry bytes that may be in flight to a follower at any time.
+   *
+   * @return the maximum number of entry bytes that may be in flight to a follower
+   */
+  public long maxAppendBytesPerFollower() {
+    return config.getMaxAppendBytesPerFollower().bytes();
+  }
+
+  /**
+   * Returns the size of the chunks in which snapshots are replicated to followers.
+   *
+   * @return the size of the chunks in which snapshots are replicated to followers
+   */
+  public long snapshotChunkSize() {
+    return config.getSnapshotChunkSize().bytes();
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks that may be in flight to a follower.
+   *
+   * @return the maximum number of snapshot chunks that may be in flight to a follower
+   */
+  public int maxSnapshotChunksPerFollower() {
+    return config.getMaxSnapshotChunksPerFollower();
+  }
+
+  /**
+   * Returns the maximum number of client commands that may be committed in a single batch.
+   *
+   * @return the maximum number of client commands that may be committed in a single batch
+   */
+  public int maxCommandBatchSize() {
+    return config.getMaxCommandBatchSize();
+  }
+
+  /**
+   * Returns the time for which the leader waits for additional commands before writing a command batch.
+   *
+   * @return the command batch linger time
+   */
+  public Duration commandBatchLinger() {
+    return config.getCommandBatchLinger();
   }
 
   /**
@@ -132,6 +199,34 @@ public class RaftPartition implements Partition {
     return dataDirectory;
   }
 
+  /**
+   * Returns the thread context factory shared by the partitions in the group.
+   *
+   * @return the shared thread context factory, or {@code null} if the partition server uses dedicated threads
+   */
+  public ThreadContextFactory threadContextFactory() {
+    return threadContextFactory;
+  }
+
+  /**
+   * Returns the compaction thread context factory shared by the partitions in the group.
+   *
+   * @return the shared compaction thread context factory, or {@code null} if the partition server uses a
+   *     dedicated compaction thread
+   */
+  public ThreadContextFactory compactionContextFactory() {
+    return compactionContextFactory;
+  }
+
+  /**
+   * Returns the heartbeat aggregator shared by the partitions in the group.
+   *
+   * @return the shared heartbeat aggregator, or {@code null} if heartbeats are sent separately for each partition
+   */
+  public RaftHeartbeatAggregator heartbeatAggregator() {
+    return heartbeatAggregator;
+  }
+
   @Override
   public RaftPartitionClient getClient() {
     return client;
@@ -141,7 +236,18 @@ public class RaftPartition implements Partition {
    * Opens the partition.
    */
   CompletableFuture<Partition> open(PartitionMetadata metadata, PartitionManagementService managementService) {
+    return open(metadata, managementService, null);
+  }
+
+  /**
+   * Opens the partition, coalescing the partition's heartbeats through the given aggregator.
+   */
+  CompletableFuture<Partition> open(
+      PartitionMetadata metadata,
+      PartitionManagementService managementService,
+      RaftHeartbeatAggregator heartbeatAggregator) {
     this.partition = metadata;
+    this.heartbeatAggregator = heartbeatAggregator;
     this.client = createClient(managementService);
     if (partition.members().contains(managementService.getMembershipService().getLocalMember().id())) {
       server = createServer(managementService);
@@ -30,11 +30,16 @@ import io.atomix.primitive.partition.PartitionManagementService;
 import io.atomix.primitive.partition.PartitionMetadata;
 import io.atomix.primitive.protocol.PrimitiveProtocol;
 import io.atomix.protocols.raft.MultiRaftProtocol;
+import io.atomix.protocols.raft.partition.impl.RaftHeartbeatAggregator;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.SharedThreadPoolContextFactory;
+import io.atomix.utils.concurrent.ThreadContextFactory;
+import io.atomix.utils.memory.MemorySize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -48,6 +53,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -90,16 +96,19 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(RaftPartitionGroup.class);
 
-  private static Collection<RaftPartition> buildPartitions(RaftPartitionGroupConfig config) {
+  private static Collection<RaftPartition> buildPartitions(
+      RaftPartitionGroupConfig config,
+      ThreadContextFactory threadContextFactory,
+      ThreadContextFactory compactionContextFactory) {
     File partitionsDir = new File(config.getDataDirectory(), "partitions");
     List<RaftPartition> partitions = new ArrayList<>(config.getPartitions());
     for (int i = 0; i < config.getPartitions(); i++) {
       partitions.add(new RaftPartition(
           PartitionId.from(config.getName(), i + 1),
-          StorageLevel.valueOf(config.getStorageLevel().toUpperCase()),
-          config.getSegmentSize().bytes(),
-          config.isFlushOnCommit(),
-          new File(partitionsDir, String.valueOf(i + 1))));
+          config,
+          new File(partitionsDir, String.valueOf(i + 1)),
+          threadContextFactory,
+          compactionContextFactory));
     }
     return partitions;
   }
@@ -109,13 +118,28 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
   private final int partitionSize;
   private final Map<PartitionId, RaftPartition> partitions = Maps.newConcurrentMap();
   private final List<PartitionId> sortedPartitionIds = Lists.newCopyOnWriteArrayList();
+  private final ThreadContextFactory threadContextFactory;
+  private final ThreadContextFactory compactionContextFactory;
   private Collection<PartitionMetadata> metadata;
+  private RaftHeartbeatAggregator heartbeatAggregator;
 
   public RaftPartitionGroup(RaftPartitionGroupConfig config) {
     this.name = config.getName();
     this.config = config;
     this.partitionSize = config.getPartitionSize();
-    buildPartitions(config).forEach(p -> {
+
+    // If a shared thread pool is configured, multiplex all the partition servers in the group onto the same threads.
+    if (config.getThreadPoolSize() > 0) {
+      this.threadContextFactory = new SharedThreadPoolContextFactory(
+          "raft-partition-group-" + name + "-%d", config.getThreadPoolSize(), LOGGER);
+      this.compactionContextFactory = new SharedThreadPoolContextFactory(
+          "raft-partition-group-" + name + "-compaction-%d", config.getCompactionThreadPoolSize(), LOGGER);
+    } else {
+      this.threadContextFactory = null;
+      this.compactionContextFactory = null;
+    }
+
+    buildPartitions(config, threadContextFactory, compactionContextFactory).forEach(p -> {
       this.partitions.put(p.id(), p);
       this.sortedPartitionIds.add(p.id());
     });
@@ -169,13 +193,27 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
   @Override
   public CompletableFuture<ManagedPartitionGroup> join(PartitionManagementService managementService) {
     this.metadata = buildPartitions();
-    List<CompletableFuture<Partition>> futures = metadata.stream()
-        .map(metadata -> {
-          RaftPartition partition = partitions.get(metadata.id());
-          return partition.open(metadata, managementService);
-        })
-        .collect(Collectors.toList());
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(v -> {
+
+    // If heartbeat coalescing is enabled, start the aggregator before opening partitions to ensure heartbeats
+    // from other members can be handled as soon as the partitions' handlers are registered.
+    CompletableFuture<Void> aggregatorFuture;
+    if (config.isHeartbeatCoalescing()) {
+      heartbeatAggregator = new RaftHeartbeatAggregator(
+          name, managementService.getMessagingService(), config.getHeartbeatCoalescingTimeout());
+      aggregatorFuture = heartbeatAggregator.start();
+    } else {
+      aggregatorFuture = CompletableFuture.completedFuture(null);
+    }
+
+    return aggregatorFuture.thenCompose(v -> {
+      List<CompletableFuture<Partition>> futures = metadata.stream()
+          .map(metadata -> {
+            RaftPartition partition = partitions.get(metadata.id());
+            return partition.open(metadata, managementService, heartbeatAggregator);
+          })
+          .collect(Collectors.toList());
+      return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+    }).thenApply(v -> {
       LOGGER.info("Started");
       return this;
     });
@@ -218,6 +256,15 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
         .map(RaftPartition::close)
         .collect(Collectors.toList());
     return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).thenRun(() -> {
+      if (heartbeatAggregator != null) {
+        heartbeatAggregator.stop();
+      }
+      if (threadContextFactory != null) {
+        threadContextFactory.close();
+      }
+      if (compactionContextFactory != null) {
+        compactionContextFactory.close();
+      }
       LOGGER.info("Stopped");
     });
   }
@@ -318,6 +365,141 @@ public class RaftPartitionGroup implements ManagedPartitionGroup {
       return this;
     }
 
+    /**
+     * Sets the maximum number of append requests that may be in flight to each follower.
+     *
+     * @param maxAppendsPerFollower the maximum number of append requests that may be in flight to each follower
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the maximum number of appends is not positive
+     */
+    public Builder withMaxAppendsPerFollower(int maxAppendsPerFollower) {
+      checkArgument(maxAppendsPerFollower > 0, "maxAppendsPerFollower must be positive");
+      config.setMaxAppendsPerFollower(maxAppendsPerFollower);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of entry bytes that may be in flight to each follower.
+     *
+     * @param maxAppendBytesPerFollower the maximum number of entry bytes that may be in flight to each follower
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the maximum number of bytes is not positive
+     */
+    public Builder withMaxAppendBytesPerFollower(MemorySize maxAppendBytesPerFollower) {
+      checkNotNull(maxAppendBytesPerFollower, "maxAppendBytesPerFollower cannot be null");
+      checkArgument(maxAppendBytesPerFollower.bytes() > 0, "maxAppendBytesPerFollower must be positive");
+      config.setMaxAppendBytesPerFollower(maxAppendBytesPerFollower);
+      return this;
+    }
+
+    /**
+     * Sets the size of the chunks in which snapshots are replicated to followers.
+     *
+     * @param snapshotChunkSize the size of the chunks in which snapshots are replicated to followers
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the chunk size is not positive
+     */
+    public Builder withSnapshotChunkSize(MemorySize snapshotChunkSize) {
+      checkNotNull(snapshotChunkSize, "snapshotChunkSize cannot be null");
+      checkArgument(snapshotChunkSize.bytes() > 0, "snapshotChunkSize must be positive");
+      config.setSnapshotChunkSize(snapshotChunkSize);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks that may be in flight to each follower.
+     *
+     * @param maxSnapshotChunksPerFollower the maximum number of snapshot chunks that may be in flight to each follower
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the maximum number of chunks is not positive
+     */
+    public Builder withMaxSnapshotChunksPerFollower(int maxSnapshotChunksPerFollower) {
+      checkArgument(maxSnapshotChunksPerFollower > 0, "maxSnapshotChunksPerFollower must be positive");
+      config.setMaxSnapshotChunksPerFollower(maxSnapshotChunksPerFollower);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of client commands that may be committed in a single batch.
+     *
+     * @param maxCommandBatchSize the maximum number of client commands that may be committed in a single batch
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the maximum batch size is not positive
+     */
+    public Builder withMaxCommandBatchSize(int maxCommandBatchSize) {
+      checkArgument(maxCommandBatchSize > 0, "maxCommandBatchSize must be positive");
+      config.setMaxCommandBatchSize(maxCommandBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the time for which the leader waits for additional commands before writing a command batch.
+     *
+     * @param commandBatchLinger the time for which the leader waits for additional commands before writing a batch
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the linger time is negative
+     */
+    public Builder withCommandBatchLinger(Duration commandBatchLinger) {
+      checkNotNull(commandBatchLinger, "commandBatchLinger cannot be null");
+      checkArgument(!commandBatchLinger.isNegative(), "commandBatchLinger cannot be negative");
+      config.setCommandBatchLinger(commandBatchLinger);
+      return this;
+    }
+
+    /**
+     * Sets whether to coalesce heartbeats from all the partitions in the group to each member.
+     *
+     * @param heartbeatCoalescing whether to coalesce heartbeats from all the partitions in the group to each member
+     * @return the Raft partition group builder
+     */
+    public Builder withHeartbeatCoalescing(boolean heartbeatCoalescing) {
+      config.setHeartbeatCoalescing(heartbeatCoalescing);
+      return this;
+    }
+
+    /**
+     * Sets the time to wait for a response to a batch of coalesced heartbeats.
+     *
+     * @param heartbeatCoalescingTimeout the time to wait for a response to a batch of coalesced heartbeats
+     * @return the Raft partition group builder
+     * @throws NullPointerException if the timeout is null
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public Builder withHeartbeatCoalescingTimeout(Duration heartbeatCoalescingTimeout) {
+      checkNotNull(heartbeatCoalescingTimeout, "heartbeatCoalescingTimeout cannot be null");
+      checkArgument(!heartbeatCoalescingTimeout.isNegative() && !heartbeatCoalescingTimeout.isZero(),
+          "heartbeatCoalescingTimeout must be positive");
+      config.setHeartbeatCoalescingTimeout(heartbeatCoalescingTimeout);
+      return this;
+    }
+
+    /**
+     * Sets the number of threads shared by the partitions in the group.
+     *
+     * @param threadPoolSize the number of threads shared by the partitions in the group, or {@code 0} to use
+     *     dedicated threads for each partition
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the thread pool size is negative
+     */
+    public Builder withThreadPoolSize(int threadPoolSize) {
+      checkArgument(threadPoolSize >= 0, "threadPoolSize cannot be negative");
+      config.setThreadPoolSize(threadPoolSize);
+      return this;
+    }
+
+    /**
+     * Sets the number of threads shared by the partitions in the group for log compaction.
+     *
+     * @param compactionThreadPoolSize the number of threads shared by the partitions in the group for log compaction
+     * @return the Raft partition group builder
+     * @throws IllegalArgumentException if the thread pool size is not positive
+     */
+    public Builder withCompactionThreadPoolSize(int compactionThreadPoolSize) {
+      checkArgument(compactionThreadPoolSize > 0, "compactionThreadPoolSize must be positive");
+      config.setCompactionThreadPoolSize(compactionThreadPoolSize);
+      return this;
+    }
+
     /**
      * Sets the path to the data directory.
      *
@@ -20,9 +20,12 @@ import io.atomix.primitive.partition.PartitionGroupConfig;
 import io.atomix.storage.StorageLevel;
 import io.atomix.utils.memory.MemorySize;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 /**
  * Raft partition group configuration.
  */
@@ -35,6 +38,16 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
   private String storageLevel = StorageLevel.MAPPED.name();
   private long segmentSize = 1024 * 1024 * 32;
   private boolean flushOnCommit = true;
+  private int maxAppendsPerFollower = 4;
+  private long maxAppendBytesPerFollower = 1024 * 1024;
+  private long snapshotChunkSize = 1024 * 1024;
+  private int maxSnapshotChunksPerFollower = 4;
+  private int maxCommandBatchSize = 1;
+  private Duration commandBatchLinger = Duration.ZERO;
+  private boolean heartbeatCoalescing;
+  private Duration heartbeatCoalescingTimeout = Duration.ofMillis(500);
+  private int threadPoolSize;
+  private int compactionThreadPoolSize = Math.max(Runtime.getRuntime().availableProcessors() / 4, 1);
   private String dataDirectory;
 
   @Override
@@ -148,6 +161,232 @@ public class RaftPartitionGroupConfig extends PartitionGroupConfig<RaftPartition
     return this;
   }
 
+  /**
+   * Returns the maximum number of append requests that may be in flight to each follower.
+   *
+   * @return the maximum number of append requests that may be in flight to each follower
+   */
+  public int getMaxAppendsPerFollower() {
+    return maxAppendsPerFollower;
+  }
+
+  /**
+   * Sets the maximum number of append requests that may be in flight to each follower.
+   * <p>
+   * Increasing the number of in-flight appends allows the leader to keep links to followers saturated when
+   * round trip times are high, e.g. when followers are located in different availability zones.
+   *
+   * @param maxAppendsPerFollower the maximum number of append requests that may be in flight to each follower
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxAppendsPerFollower(int maxAppendsPerFollower) {
+    this.maxAppendsPerFollower = maxAppendsPerFollower;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of entry bytes that may be in flight to each follower.
+   *
+   * @return the maximum number of entry bytes that may be in flight to each follower
+   */
+  public MemorySize getMaxAppendBytesPerFollower() {
+    return MemorySize.from(maxAppendBytesPerFollower);
+  }
+
+  /**
+   * Sets the maximum number of entry bytes that may be in flight to each follower.
+   *
+   * @param maxAppendBytesPerFollower the maximum number of entry bytes that may be in flight to each follower
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxAppendBytesPerFollower(MemorySize maxAppendBytesPerFollower) {
+    this.maxAppendBytesPerFollower = maxAppendBytesPerFollower.bytes();
+    return this;
+  }
+
+  /**
+   * Returns the size of the chunks in which snapshots are replicated to followers.
+   *
+   * @return the size of the chunks in which snapshots are replicated to followers
+   */
+  public MemorySize getSnapshotChunkSize() {
+    return MemorySize.from(snapshotChunkSize);
+  }
+
+  /**
+   * Sets the size of the chunks in which snapshots are replicated to followers.
+   *
+   * @param snapshotChunkSize the size of the chunks in which snapshots are replicated to followers
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setSnapshotChunkSize(MemorySize snapshotChunkSize) {
+    this.snapshotChunkSize = snapshotChunkSize.bytes();
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks that may be in flight to each follower.
+   *
+   * @return the maximum number of snapshot chunks that may be in flight to each follower
+   */
+  public int getMaxSnapshotChunksPerFollower() {
+    return maxSnapshotChunksPerFollower;
+  }
+
+  /**
+   * Sets the maximum number of snapshot chunks that may be in flight to each follower.
+   *
+   * @param maxSnapshotChunksPerFollower the maximum number of snapshot chunks that may be in flight to each follower
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxSnapshotChunksPerFollower(int maxSnapshotChunksPerFollower) {
+    this.maxSnapshotChunksPerFollower = maxSnapshotChunksPerFollower;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of client commands that may be committed in a single batch.
+   *
+   * @return the maximum number of client commands that may be committed in a single batch
+   */
+  public int getMaxCommandBatchSize() {
+    return maxCommandBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of client commands that may be committed in a single batch.
+   * <p>
+   * When the batch size is greater than {@code 1}, the leader collects commands that arrive within the
+   * {@link #setCommandBatchLinger(Duration) linger time} and commits them together, amortizing the cost of
+   * replicating and flushing entries across many commands. Each command is still written to its own log entry.
+   * A batch size of {@code 1} disables command batching.
+   *
+   * @param maxCommandBatchSize the maximum number of client commands that may be committed in a single batch
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setMaxCommandBatchSize(int maxCommandBatchSize) {
+    this.maxCommandBatchSize = maxCommandBatchSize;
+    return this;
+  }
+
+  /**
+   * Returns the time for which the leader waits for additional commands before writing a command batch.
+   *
+   * @return the time for which the leader waits for additional commands before writing a command batch
+   */
+  public Duration getCommandBatchLinger() {
+    return commandBatchLinger;
+  }
+
+  /**
+   * Sets the time for which the leader waits for additional commands before writing a command batch.
+   * <p>
+   * A linger time of zero batches only those commands that are already queued on the leader's thread.
+   *
+   * @param commandBatchLinger the time for which the leader waits for additional commands before writing a batch
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setCommandBatchLinger(Duration commandBatchLinger) {
+    this.commandBatchLinger = checkNotNull(commandBatchLinger);
+    return this;
+  }
+
+  /**
+   * Returns whether heartbeats from all the partitions in the group are coalesced.
+   *
+   * @return whether heartbeats from all the partitions in the group are coalesced
+   */
+  public boolean isHeartbeatCoalescing() {
+    return heartbeatCoalescing;
+  }
+
+  /**
+   * Sets whether to coalesce heartbeats from all the partitions in the group to each member.
+   * <p>
+   * By default, each partition leader sends a separate heartbeat to each of its followers every heartbeat interval.
+   * When heartbeat coalescing is enabled, heartbeats from all the partitions led by a node are sent to each member in
+   * a single message, and their responses are returned in a single message. Heartbeat coalescing must be enabled on
+   * all the members of the partition group.
+   *
+   * @param heartbeatCoalescing whether to coalesce heartbeats from all the partitions in the group to each member
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setHeartbeatCoalescing(boolean heartbeatCoalescing) {
+    this.heartbeatCoalescing = heartbeatCoalescing;
+    return this;
+  }
+
+  /**
+   * Returns the time to wait for a response to a batch of coalesced heartbeats.
+   *
+   * @return the time to wait for a response to a batch of coalesced heartbeats
+   */
+  public Duration getHeartbeatCoalescingTimeout() {
+    return heartbeatCoalescingTimeout;
+  }
+
+  /**
+   * Sets the time to wait for a response to a batch of coalesced heartbeats.
+   * <p>
+   * Heartbeats queued for a member are not sent until the batch in flight to the member completes, so the timeout
+   * should be short relative to the election timeout.
+   *
+   * @param heartbeatCoalescingTimeout the time to wait for a response to a batch of coalesced heartbeats
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setHeartbeatCoalescingTimeout(Duration heartbeatCoalescingTimeout) {
+    this.heartbeatCoalescingTimeout = checkNotNull(heartbeatCoalescingTimeout);
+    return this;
+  }
+
+  /**
+   * Returns the number of threads shared by the partitions in the group.
+   *
+   * @return the number of threads shared by the partitions in the group
+   */
+  public int getThreadPoolSize() {
+    return threadPoolSize;
+  }
+
+  /**
+   * Sets the number of threads shared by the partitions in the group.
+   * <p>
+   * By default, each partition server starts its own threads, so the number of threads on a node grows with the
+   * number of partitions it hosts. When the thread pool size is positive, the servers for all partitions in the
+   * group multiplex their work onto a single pool of the given size. Work for each partition is still executed in
+   * order.
+   *
+   * @param threadPoolSize the number of threads shared by the partitions in the group, or {@code 0} to use
+   *     dedicated threads for each partition
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setThreadPoolSize(int threadPoolSize) {
+    this.threadPoolSize = threadPoolSize;
+    return this;
+  }
+
+  /**
+   * Returns the number of threads shared by the partitions in the group for log compaction.
+   *
+   * @return the number of threads shared by the partitions in the group for log compaction
+   */
+  public int getCompactionThreadPoolSize() {
+    return compactionThreadPoolSize;
+  }
+
+  /**
+   * Sets the number of threads shared by the partitions in the group for log compaction.
+   * <p>
+   * The compaction thread pool is only used when the {@link #setThreadPoolSize(int) thread pool size} is positive.
+   *
+   * @param compactionThreadPoolSize the number of threads shared by the partitions in the group for log compaction
+   * @return the Raft partition group configuration
+   */
+  public RaftPartitionGroupConfig setCompactionThreadPoolSize(int compactionThreadPoolSize) {
+    this.compactionThreadPoolSize = compactionThreadPoolSize;
+    return this;
+  }
+
   /**
    * Returns the partition data directory.
    *
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import com.google.common.collect.Maps;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.cluster.messaging.MessagingException;
+import io.atomix.protocols.raft.RaftError;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Node-level aggregator that coalesces Raft heartbeats for all the partitions in a partition group.
+ * <p>
+ * Each partition leader sends empty {@link AppendRequest}s to its followers to maintain its leadership and
+ * propagate its commit index. When many partitions are hosted on the same set of nodes, each pair of nodes
+ * exchanges a heartbeat per partition per heartbeat interval. The aggregator instead sends at most one batch of
+ * heartbeats to each member at a time: heartbeats sent while a batch to the member is in flight are queued and sent
+ * together in a single message once the in-flight batch completes. The receiving aggregator dispatches each
+ * heartbeat to the append handler for its partition and returns the responses in a single message, which are then
+ * completed individually on the sending side. So that a slow partition doesn't hold up the heartbeats of the others,
+ * the receiving aggregator replies after half the batch timeout with the responses of the partitions that have
+ * finished, and fails the remaining heartbeats with {@link RaftError.Type#UNAVAILABLE}.
+ * <p>
+ * Only empty append requests are aggregated. Append requests carrying entries are sent directly by each
+ * partition's {@link RaftServerCommunicator}, which only coalesces a heartbeat when no appends to the member are in
+ * flight. All the members of a partition group must use an aggregator for aggregated heartbeats to be handled.
+ */
+public class RaftHeartbeatAggregator {
+  private static final AppendResponse UNAVAILABLE = AppendResponse.builder()
+      .withStatus(RaftResponse.Status.ERROR)
+      .withError(RaftError.Type.UNAVAILABLE)
+      .build();
+
+  private final Logger log = getLogger(getClass());
+  private final String subject;
+  private final Duration batchTimeout;
+  private final ClusterCommunicationService clusterCommunicator;
+  private final Serializer serializer = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+  private final Map<String, Function<AppendRequest, CompletableFuture<AppendResponse>>> handlers = Maps.newConcurrentMap();
+  private final Map<MemberId, Destination> destinations = Maps.newConcurrentMap();
+  private ScheduledExecutorService timeoutExecutor;
+
+  public RaftHeartbeatAggregator(String name, ClusterCommunicationService clusterCommunicator, Duration batchTimeout) {
+    this.subject = String.format("%s-append-batch", checkNotNull(name, "name cannot be null"));
+    this.clusterCommunicator = checkNotNull(clusterCommunicator, "clusterCommunicator cannot be null");
+    this.batchTimeout = checkNotNull(batchTimeout, "batchTimeout cannot be null");
+  }
+
+  /**
+   * Starts handling heartbeat batches from other members.
+   *
+   * @return a future to be completed once the aggregator has been started
+   */
+  public CompletableFuture<Void> start() {
+    timeoutExecutor = Executors.newSingleThreadScheduledExecutor(namedThreads("raft-heartbeat-timeout-%d", log));
+    return clusterCommunicator.<BatchRequest, BatchResponse>subscribe(
+        subject, serializer::decode, this::handleBatch, serializer::encode);
+  }
+
+  /**
+   * Stops handling heartbeat batches from other members.
+   */
+  public void stop() {
+    clusterCommunicator.unsubscribe(subject);
+    if (timeoutExecutor != null) {
+      timeoutExecutor.shutdownNow();
+    }
+  }
+
+  /**
+   * Registers the append handler for a partition.
+   *
+   * @param appendSubject the partition's append subject
+   * @param handler       the partition's append handler
+   */
+  void registerAppendHandler(String appendSubject, Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
+    handlers.put(appendSubject, handler);
+  }
+
+  /**
+   * Unregisters the append handler for a partition.
+   *
+   * @param appendSubject the partition's append subject
+   */
+  void unregisterAppendHandler(String appendSubject) {
+    handlers.remove(appendSubject);
+  }
+
+  /**
+   * Sends an empty append request to the given member in the next heartbeat batch.
+   *
+   * @param appendSubject the partition's append subject
+   * @param memberId      the member to which to send the request
+   * @param request       the empty append request
+   * @return a future to be completed with the partition's append response
+   */
+  CompletableFuture<AppendResponse> append(String appendSubject, MemberId memberId, AppendRequest request) {
+    CompletableFuture<AppendResponse> future = new CompletableFuture<>();
+    Destination destination = destinations.computeIfAbsent(memberId, Destination::new);
+    List<PendingAppend> batch;
+    synchronized (destination) {
+      destination.pending.add(new PendingAppend(appendSubject, request, future));
+      if (destination.inFlight) {
+        return future;
+      }
+      destination.inFlight = true;
+      batch = destination.drain();
+    }
+    sendBatch(destination, batch);
+    return future;
+  }
+
+  /**
+   * Sends a batch of heartbeats to the given destination.
+   */
+  private void sendBatch(Destination destination, List<PendingAppend> batch) {
+    List<String> subjects = new ArrayList<>(batch.size());
+    List<AppendRequest> requests = new ArrayList<>(batch.size());
+    for (PendingAppend append : batch) {
+      subjects.add(append.subject);
+      requests.add(append.request);
+    }
+
+    log.trace("Sending {} heartbeats to {}", batch.size(), destination.memberId);
+    clusterCommunicator.<BatchRequest, BatchResponse>send(
+        subject,
+        new BatchRequest(subjects, requests),
+        serializer::encode,
+        serializer::decode,
+        destination.memberId,
+        batchTimeout)
+        .whenComplete((response, error) -> {
+          for (int i = 0; i < batch.size(); i++) {
+            PendingAppend append = batch.get(i);
+            if (error != null) {
+              append.future.completeExceptionally(error);
+            } else if (response.responses.get(i) == null) {
+              append.future.completeExceptionally(new MessagingException.NoRemoteHandler());
+            } else {
+              append.future.complete(response.responses.get(i));
+            }
+          }
+
+          // If heartbeats were queued while the batch was in flight, send them in the next batch.
+          List<PendingAppend> nextBatch;
+          synchronized (destination) {
+            if (destination.pending.isEmpty()) {
+              destination.inFlight = false;
+              return;
+            }
+            nextBatch = destination.drain();
+          }
+          sendBatch(destination, nextBatch);
+        });
+  }
+
+  /**
+   * Handles a batch of heartbeats from another member.
+   * <p>
+   * The response is sent once all the partitions have handled their heartbeats or half the batch timeout has elapsed,
+   * whichever comes first, so the sender receives the finished responses before its request times out.
+   */
+  @SuppressWarnings("unchecked")
+  private CompletableFuture<BatchResponse> handleBatch(BatchRequest request) {
+    CompletableFuture<AppendResponse>[] futures = new CompletableFuture[request.requests.size()];
+    for (int i = 0; i < futures.length; i++) {
+      Function<AppendRequest, CompletableFuture<AppendResponse>> handler = handlers.get(request.subjects.get(i));
+      if (handler == null) {
+        futures[i] = CompletableFuture.completedFuture(null);
+      } else {
+        futures[i] = handler.apply(request.requests.get(i)).exceptionally(error -> null);
+      }
+    }
+
+    CompletableFuture<Void> allFuture = CompletableFuture.allOf(futures);
+    if (allFuture.isDone()) {
+      return CompletableFuture.completedFuture(buildResponse(futures));
+    }
+
+    CompletableFuture<BatchResponse> responseFuture = new CompletableFuture<>();
+    ScheduledFuture<?> timeoutFuture = timeoutExecutor.schedule(
+        () -> responseFuture.complete(buildResponse(futures)), batchTimeout.toMillis() / 2, TimeUnit.MILLISECONDS);
+    allFuture.whenComplete((result, error) -> {
+      timeoutFuture.cancel(false);
+      responseFuture.complete(buildResponse(futures));
+    });
+    return responseFuture;
+  }
+
+  /**
+   * Builds a batch response from the partitions' append futures, failing heartbeats that have not yet been handled.
+   */
+  private BatchResponse buildResponse(CompletableFuture<AppendResponse>[] futures) {
+    List<AppendResponse> responses = new ArrayList<>(futures.length);
+    for (CompletableFuture<AppendResponse> future : futures) {
+      responses.add(future.isDone() ? future.join() : UNAVAILABLE);
+    }
+    return new BatchResponse(responses);
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("subject", subject)
+        .toString();
+  }
+
+  /**
+   * Heartbeat batch state for a single member.
+   */
+  private static class Destination {
+    private final MemberId memberId;
+    private List<PendingAppend> pending = new ArrayList<>();
+    private boolean inFlight;
+
+    Destination(MemberId memberId) {
+      this.memberId = memberId;
+    }
+
+    private List<PendingAppend> drain() {
+      List<PendingAppend> batch = pending;
+      pending = new ArrayList<>();
+      return batch;
+    }
+  }
+
+  /**
+   * Heartbeat waiting to be sent in a batch.
+   */
+  private static class PendingAppend {
+    private final String subject;
+    private final AppendRequest request;
+    private final CompletableFuture<AppendResponse> future;
+
+    PendingAppend(String subject, AppendRequest request, CompletableFuture<AppendResponse> future) {
+      this.subject = subject;
+      this.request = request;
+      this.future = future;
+    }
+  }
+
+  /**
+   * Heartbeat batch request.
+   */
+  static class BatchRequest {
+    private final List<String> subjects;
+    private final List<AppendRequest> requests;
+
+    BatchRequest(List<String> subjects, List<AppendRequest> requests) {
+      this.subjects = subjects;
+      this.requests = requests;
+    }
+  }
+
+  /**
+   * Heartbeat batch response.
+   * <p>
+   * Responses are ordered according to the requests in the batch. A {@code null} response indicates the
+   * heartbeat could not be handled by the receiving member, and an {@link RaftError.Type#UNAVAILABLE} error
+   * indicates the partition did not handle the heartbeat within the receiving member's deadline.
+   */
+  static class BatchResponse {
+    private final List<AppendResponse> responses;
+
+    BatchResponse(List<AppendResponse> responses) {
+      this.responses = responses;
+    }
+  }
+}
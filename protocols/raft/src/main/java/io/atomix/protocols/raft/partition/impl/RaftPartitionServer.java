@@ -132,16 +132,31 @@ public class RaftPartitionServer implements Managed<RaftPartitionServer> {
   }
 
   private RaftServer buildServer() {
-    return RaftServer.builder(localMemberId)
+    RaftServer.Builder builder = RaftServer.builder(localMemberId);
+    if (partition.threadContextFactory() != null) {
+      builder.withThreadContextFactory(partition.threadContextFactory());
+    }
+    if (partition.compactionContextFactory() != null) {
+      builder.withCompactionContextFactory(partition.compactionContextFactory());
+    }
+    return builder
         .withName(partition.name())
         .withMembershipService(membershipService)
         .withProtocol(new RaftServerCommunicator(
             partition.name(),
             Serializer.using(RaftNamespaces.RAFT_PROTOCOL),
-            clusterCommunicator))
+            clusterCommunicator,
+            partition.heartbeatAggregator()))
         .withPrimitiveTypes(primitiveTypes)
         .withElectionTimeout(Duration.ofMillis(ELECTION_TIMEOUT_MILLIS))
         .withHeartbeatInterval(Duration.ofMillis(HEARTBEAT_INTERVAL_MILLIS))
+        .withMaxAppendsPerFollower(partition.maxAppendsPerFollower())
+        .withMaxAppendBytesPerFollower((int) Math.min(partition.maxAppendBytesPerFollower(), Integer.MAX_VALUE))
+        .withSnapshotChunkSize((int) Math.min(partition.snapshotChunkSize(), Integer.MAX_VALUE))
+        .withMaxSnapshotChunksPerFollower(partition.maxSnapshotChunksPerFollower())
+        .withMaxCommandBatchSize(partition.maxCommandBatchSize())
+        .withCommandBatchLinger(partition.commandBatchLinger())
+        .withAlignedHeartbeats(partition.heartbeatAggregator() != null)
         .withStorage(RaftStorage.builder()
             .withPrefix(partition.name())
             .withStorageLevel(partition.storageLevel())
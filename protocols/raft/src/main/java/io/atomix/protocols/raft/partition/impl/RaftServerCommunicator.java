@@ -16,6 +16,7 @@
 package io.atomix.protocols.raft.partition.impl;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.messaging.ClusterCommunicationService;
 import io.atomix.primitive.session.SessionId;
@@ -47,6 +48,8 @@ import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
@@ -56,8 +59,10 @@ import io.atomix.protocols.raft.protocol.VoteRequest;
 import io.atomix.protocols.raft.protocol.VoteResponse;
 import io.atomix.utils.serializer.Serializer;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -68,15 +73,27 @@ public class RaftServerCommunicator implements RaftServerProtocol {
   private final RaftMessageContext context;
   private final Serializer serializer;
   private final ClusterCommunicationService clusterCommunicator;
+  private final RaftHeartbeatAggregator heartbeatAggregator;
+  private final Map<MemberId, AtomicInteger> appendsInFlight = Maps.newConcurrentMap();
+  private final Map<MemberId, CompletableFuture<AppendResponse>> heartbeatsInFlight = Maps.newConcurrentMap();
 
   public RaftServerCommunicator(Serializer serializer, ClusterCommunicationService clusterCommunicator) {
     this(null, serializer, clusterCommunicator);
   }
 
   public RaftServerCommunicator(String prefix, Serializer serializer, ClusterCommunicationService clusterCommunicator) {
+    this(prefix, serializer, clusterCommunicator, null);
+  }
+
+  public RaftServerCommunicator(
+      String prefix,
+      Serializer serializer,
+      ClusterCommunicationService clusterCommunicator,
+      RaftHeartbeatAggregator heartbeatAggregator) {
     this.context = new RaftMessageContext(prefix);
     this.serializer = Preconditions.checkNotNull(serializer, "serializer cannot be null");
     this.clusterCommunicator = Preconditions.checkNotNull(clusterCommunicator, "clusterCommunicator cannot be null");
+    this.heartbeatAggregator = heartbeatAggregator;
   }
 
   private <T, U> CompletableFuture<U> sendAndReceive(String subject, T request, MemberId memberId) {
@@ -143,6 +160,11 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     return sendAndReceive(context.transferSubject, request, memberId);
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return sendAndReceive(context.readIndexSubject, request, memberId);
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return sendAndReceive(context.pollSubject, request, memberId);
@@ -155,7 +177,29 @@ public class RaftServerCommunicator implements RaftServerProtocol {
 
   @Override
   public CompletableFuture<AppendResponse> append(MemberId memberId, AppendRequest request) {
-    return sendAndReceive(context.appendSubject, request, memberId);
+    if (heartbeatAggregator == null) {
+      return sendAndReceive(context.appendSubject, request, memberId);
+    }
+
+    // Coalesce heartbeats with heartbeats from other partitions to the same member, but only if no appends to the
+    // member are in flight. Coalesced heartbeats are sent in separate messages and could otherwise be reordered
+    // with the appends.
+    AtomicInteger inFlight = appendsInFlight.computeIfAbsent(memberId, id -> new AtomicInteger());
+    if (request.entryCount() == 0 && inFlight.get() == 0) {
+      CompletableFuture<AppendResponse> future = heartbeatAggregator.append(context.appendSubject, memberId, request);
+      heartbeatsInFlight.put(memberId, future);
+      future.whenComplete((response, error) -> heartbeatsInFlight.remove(memberId, future));
+      return future;
+    }
+
+    // If a coalesced heartbeat to the member is in flight, send the append once the heartbeat completes.
+    inFlight.incrementAndGet();
+    CompletableFuture<AppendResponse> heartbeat = heartbeatsInFlight.get(memberId);
+    CompletableFuture<AppendResponse> future = heartbeat != null
+        ? heartbeat.handle((response, error) -> null)
+            .thenCompose(v -> sendAndReceive(context.appendSubject, request, memberId))
+        : sendAndReceive(context.appendSubject, request, memberId);
+    return future.whenComplete((response, error) -> inFlight.decrementAndGet());
   }
 
   @Override
@@ -288,6 +332,16 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     clusterCommunicator.unsubscribe(context.transferSubject);
   }
 
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    clusterCommunicator.subscribe(context.readIndexSubject, serializer::decode, handler, serializer::encode);
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    clusterCommunicator.unsubscribe(context.readIndexSubject);
+  }
+
   @Override
   public void registerPollHandler(Function<PollRequest, CompletableFuture<PollResponse>> handler) {
     clusterCommunicator.subscribe(context.pollSubject, serializer::decode, handler, serializer::encode);
@@ -311,11 +365,17 @@ public class RaftServerCommunicator implements RaftServerProtocol {
   @Override
   public void registerAppendHandler(Function<AppendRequest, CompletableFuture<AppendResponse>> handler) {
     clusterCommunicator.subscribe(context.appendSubject, serializer::decode, handler, serializer::encode);
+    if (heartbeatAggregator != null) {
+      heartbeatAggregator.registerAppendHandler(context.appendSubject, handler);
+    }
   }
 
   @Override
   public void unregisterAppendHandler() {
     clusterCommunicator.unsubscribe(context.appendSubject);
+    if (heartbeatAggregator != null) {
+      heartbeatAggregator.unregisterAppendHandler(context.appendSubject);
+    }
   }
 
   @Override
@@ -19,6 +19,7 @@ import io.atomix.cluster.MemberId;
 import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -32,6 +33,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Append entries requests are at the core of the replication protocol. Leaders send append requests
  * to followers to replicate and commit log entries, and followers sent append requests to passive members
  * to replicate committed log entries.
+ * <p>
+ * Entries may be sent either as {@link #entries() entry objects} or as {@link #serializedEntries() serialized entries}.
+ * Serialized entries are the bytes of the entries as stored in the sender's log and are appended to the receiver's log
+ * without being decoded.
  */
 public class AppendRequest extends AbstractRaftRequest {
 
@@ -49,14 +54,27 @@ public class AppendRequest extends AbstractRaftRequest {
   private final long prevLogIndex;
   private final long prevLogTerm;
   private final List<RaftLogEntry> entries;
+  private final List<byte[]> serializedEntries;
   private final long commitIndex;
 
   public AppendRequest(long term, String leader, long prevLogIndex, long prevLogTerm, List<RaftLogEntry> entries, long commitIndex) {
+    this(term, leader, prevLogIndex, prevLogTerm, entries, Collections.emptyList(), commitIndex);
+  }
+
+  public AppendRequest(
+      long term,
+      String leader,
+      long prevLogIndex,
+      long prevLogTerm,
+      List<RaftLogEntry> entries,
+      List<byte[]> serializedEntries,
+      long commitIndex) {
     this.term = term;
     this.leader = leader;
     this.prevLogIndex = prevLogIndex;
     this.prevLogTerm = prevLogTerm;
     this.entries = entries;
+    this.serializedEntries = serializedEntries;
     this.commitIndex = commitIndex;
   }
 
@@ -105,6 +123,24 @@ public class AppendRequest extends AbstractRaftRequest {
     return entries;
   }
 
+  /**
+   * Returns the serialized log entries to append.
+   *
+   * @return A list of serialized log entries.
+   */
+  public List<byte[]> serializedEntries() {
+    return serializedEntries;
+  }
+
+  /**
+   * Returns the total number of entries in the request.
+   *
+   * @return The number of entries and serialized entries in the request.
+   */
+  public int entryCount() {
+    return entries.size() + serializedEntries.size();
+  }
+
   /**
    * Returns the leader's commit index.
    *
@@ -116,7 +152,11 @@ public class AppendRequest extends AbstractRaftRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), term, leader, prevLogIndex, prevLogTerm, entries, commitIndex);
+    int hashCode = Objects.hash(getClass(), term, leader, prevLogIndex, prevLogTerm, entries, commitIndex);
+    for (byte[] entry : serializedEntries) {
+      hashCode = 31 * hashCode + Arrays.hashCode(entry);
+    }
+    return hashCode;
   }
 
   @Override
@@ -128,11 +168,24 @@ public class AppendRequest extends AbstractRaftRequest {
           && request.prevLogIndex == prevLogIndex
           && request.prevLogTerm == prevLogTerm
           && request.entries.equals(entries)
+          && serializedEntriesEqual(request.serializedEntries, serializedEntries)
           && request.commitIndex == commitIndex;
     }
     return false;
   }
 
+  private static boolean serializedEntriesEqual(List<byte[]> left, List<byte[]> right) {
+    if (left.size() != right.size()) {
+      return false;
+    }
+    for (int i = 0; i < left.size(); i++) {
+      if (!Arrays.equals(left.get(i), right.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this)
@@ -140,7 +193,7 @@ public class AppendRequest extends AbstractRaftRequest {
         .add("leader", leader)
         .add("prevLogIndex", prevLogIndex)
         .add("prevLogTerm", prevLogTerm)
-        .add("entries", entries.size())
+        .add("entries", entryCount())
         .add("commitIndex", commitIndex)
         .toString();
   }
@@ -154,6 +207,7 @@ public class AppendRequest extends AbstractRaftRequest {
     private long logIndex;
     private long logTerm;
     private List<RaftLogEntry> entries;
+    private List<byte[]> serializedEntries;
     private long commitIndex = -1;
 
     /**
@@ -243,6 +297,18 @@ public class AppendRequest extends AbstractRaftRequest {
       return this;
     }
 
+    /**
+     * Sets the request serialized entries.
+     *
+     * @param serializedEntries The serialized request entries.
+     * @return The append request builder.
+     * @throws NullPointerException if {@code serializedEntries} is null
+     */
+    public Builder withSerializedEntries(List<byte[]> serializedEntries) {
+      this.serializedEntries = checkNotNull(serializedEntries, "serializedEntries cannot be null");
+      return this;
+    }
+
     /**
      * Sets the request commit index.
      *
@@ -263,7 +329,7 @@ public class AppendRequest extends AbstractRaftRequest {
       checkNotNull(leader, "leader cannot be null");
       checkArgument(logIndex >= 0, "prevLogIndex must be positive");
       checkArgument(logTerm >= 0, "prevLogTerm must be positive");
-      checkNotNull(entries, "entries cannot be null");
+      checkArgument(entries != null || serializedEntries != null, "entries cannot be null");
       checkArgument(commitIndex >= 0, "commitIndex must be positive");
     }
 
@@ -274,7 +340,14 @@ public class AppendRequest extends AbstractRaftRequest {
     @Override
     public AppendRequest build() {
       validate();
-      return new AppendRequest(term, leader, logIndex, logTerm, entries, commitIndex);
+      return new AppendRequest(
+          term,
+          leader,
+          logIndex,
+          logTerm,
+          entries != null ? entries : Collections.emptyList(),
+          serializedEntries != null ? serializedEntries : Collections.emptyList(),
+          commitIndex);
     }
   }
 }
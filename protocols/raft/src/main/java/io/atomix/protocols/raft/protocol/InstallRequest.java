@@ -32,7 +32,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * that its log is further behind than the last snapshot taken by the leader. Snapshots are sent
  * in chunks, with each chunk being sent in a separate install request. As requests are received by
  * the follower, the snapshot is reconstructed based on the provided {@link #chunkOffset()} and other
- * metadata. The last install request will be sent with {@link #complete()} being {@code true} to
+ * metadata, and each chunk is verified against its {@link #checksum()}. The last install request will be sent with {@link #complete()} being {@code true} to
  * indicate that all chunks of the snapshot have been sent.
  */
 public class InstallRequest extends AbstractRaftRequest {
@@ -50,17 +50,19 @@ public class InstallRequest extends AbstractRaftRequest {
   private final MemberId leader;
   private final long index;
   private final long timestamp;
-  private final int offset;
+  private final long offset;
   private final byte[] data;
+  private final long checksum;
   private final boolean complete;
 
-  public InstallRequest(long term, MemberId leader, long index, long timestamp, int offset, byte[] data, boolean complete) {
+  public InstallRequest(long term, MemberId leader, long index, long timestamp, long offset, byte[] data, long checksum, boolean complete) {
     this.term = term;
     this.leader = leader;
     this.index = index;
     this.timestamp = timestamp;
     this.offset = offset;
     this.data = data;
+    this.checksum = checksum;
     this.complete = complete;
   }
 
@@ -101,11 +103,11 @@ public class InstallRequest extends AbstractRaftRequest {
   }
 
   /**
-   * Returns the offset of the snapshot chunk.
+   * Returns the byte offset of the snapshot chunk within the snapshot.
    *
-   * @return The offset of the snapshot chunk.
+   * @return The byte offset of the snapshot chunk within the snapshot.
    */
-  public int chunkOffset() {
+  public long chunkOffset() {
     return offset;
   }
 
@@ -118,6 +120,15 @@ public class InstallRequest extends AbstractRaftRequest {
     return data;
   }
 
+  /**
+   * Returns the CRC32 checksum of the snapshot data.
+   *
+   * @return The CRC32 checksum of the snapshot data.
+   */
+  public long checksum() {
+    return checksum;
+  }
+
   /**
    * Returns a boolean value indicating whether this is the last chunk of the snapshot.
    *
@@ -129,7 +140,7 @@ public class InstallRequest extends AbstractRaftRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), term, leader, index, offset, complete, data);
+    return Objects.hash(getClass(), term, leader, index, offset, checksum, complete, data);
   }
 
   @Override
@@ -140,6 +151,7 @@ public class InstallRequest extends AbstractRaftRequest {
           && request.leader == leader
           && request.index == index
           && request.offset == offset
+          && request.checksum == checksum
           && request.complete == complete
           && Arrays.equals(request.data, data);
     }
@@ -154,6 +166,7 @@ public class InstallRequest extends AbstractRaftRequest {
         .add("index", index)
         .add("offset", offset)
         .add("data", ArraySizeHashPrinter.of(data))
+        .add("checksum", checksum)
         .add("complete", complete)
         .toString();
   }
@@ -166,8 +179,9 @@ public class InstallRequest extends AbstractRaftRequest {
     private MemberId leader;
     private long index;
     private long timestamp;
-    private int offset;
+    private long offset;
     private byte[] data;
+    private long checksum;
     private boolean complete;
 
     /**
@@ -220,12 +234,12 @@ public class InstallRequest extends AbstractRaftRequest {
     }
 
     /**
-     * Sets the request offset.
+     * Sets the byte offset of the snapshot chunk within the snapshot.
      *
-     * @param offset The request offset.
+     * @param offset The byte offset of the snapshot chunk within the snapshot.
      * @return The request builder.
      */
-    public Builder withOffset(int offset) {
+    public Builder withOffset(long offset) {
       checkArgument(offset >= 0, "offset must be positive");
       this.offset = offset;
       return this;
@@ -242,6 +256,17 @@ public class InstallRequest extends AbstractRaftRequest {
       return this;
     }
 
+    /**
+     * Sets the CRC32 checksum of the snapshot bytes.
+     *
+     * @param checksum The CRC32 checksum of the snapshot bytes.
+     * @return The request builder.
+     */
+    public Builder withChecksum(long checksum) {
+      this.checksum = checksum;
+      return this;
+    }
+
     /**
      * Sets whether the request is complete.
      *
@@ -270,7 +295,7 @@ public class InstallRequest extends AbstractRaftRequest {
     @Override
     public InstallRequest build() {
       validate();
-      return new InstallRequest(term, leader, index, timestamp, offset, data, complete);
+      return new InstallRequest(term, leader, index, timestamp, offset, data, checksum, complete);
     }
   }
 
@@ -17,12 +17,18 @@ package io.atomix.protocols.raft.protocol;
 
 import io.atomix.protocols.raft.RaftError;
 
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Snapshot installation response.
  * <p>
  * Install responses are sent once a snapshot installation request has been received and processed.
- * Install responses provide no additional metadata aside from indicating whether or not the request
- * was successful.
+ * In addition to indicating whether or not the request was successful, install responses provide the
+ * byte offset of the next chunk expected by the follower, allowing the leader to resume an interrupted
+ * snapshot transfer from the last chunk persisted by the follower.
  */
 public class InstallResponse extends AbstractRaftResponse {
 
@@ -35,18 +41,76 @@ public class InstallResponse extends AbstractRaftResponse {
     return new Builder();
   }
 
-  public InstallResponse(Status status, RaftError error) {
+  private final long nextOffset;
+
+  public InstallResponse(Status status, RaftError error, long nextOffset) {
     super(status, error);
+    this.nextOffset = nextOffset;
+  }
+
+  /**
+   * Returns the byte offset of the next snapshot chunk expected by the follower.
+   *
+   * @return The byte offset of the next snapshot chunk expected by the follower.
+   */
+  public long nextOffset() {
+    return nextOffset;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getClass(), status, nextOffset);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof InstallResponse) {
+      InstallResponse response = (InstallResponse) object;
+      return response.status == status
+          && Objects.equals(response.error, error)
+          && response.nextOffset == nextOffset;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    if (status == Status.OK) {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("nextOffset", nextOffset)
+          .toString();
+    } else {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("error", error)
+          .add("nextOffset", nextOffset)
+          .toString();
+    }
   }
 
   /**
    * Install response builder.
    */
   public static class Builder extends AbstractRaftResponse.Builder<Builder, InstallResponse> {
+    private long nextOffset;
+
+    /**
+     * Sets the byte offset of the next snapshot chunk expected by the follower.
+     *
+     * @param nextOffset The byte offset of the next snapshot chunk expected by the follower.
+     * @return The response builder.
+     */
+    public Builder withNextOffset(long nextOffset) {
+      checkArgument(nextOffset >= 0, "nextOffset must be positive");
+      this.nextOffset = nextOffset;
+      return this;
+    }
+
     @Override
     public InstallResponse build() {
       validate();
-      return new InstallResponse(status, error);
+      return new InstallResponse(status, error, nextOffset);
     }
   }
 }
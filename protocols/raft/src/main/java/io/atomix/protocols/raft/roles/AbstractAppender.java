@@ -39,6 +39,7 @@ import org.slf4j.Logger;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.CRC32;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -128,8 +129,9 @@ abstract class AbstractAppender implements AutoCloseable {
         .withPrevLogTerm(prevEntry != null ? prevEntry.entry().term() : 0)
         .withCommitIndex(raft.getCommitIndex());
 
-    // Build a list of entries to send to the member.
-    final List<RaftLogEntry> entries = new ArrayList<>();
+    // Build a list of serialized entries to send to the member. The member's reader returns the serialized bytes
+    // of each entry without decoding it, avoiding decoding and re-encoding each entry for every member.
+    final List<byte[]> entries = new ArrayList<>();
 
     // Build a list of entries up to the MAX_BATCH_SIZE. Note that entries in the log may
     // be null if they've been compacted and the member to which we're sending entries is just
@@ -143,7 +145,7 @@ abstract class AbstractAppender implements AutoCloseable {
     while (reader.hasNext()) {
       // Otherwise, read the next entry and add it to the batch.
       Indexed<RaftLogEntry> entry = reader.next();
-      entries.add(entry.entry());
+      entries.add(entry.bytes() != null ? entry.bytes() : raft.getStorage().serializer().encode(entry.entry()));
       size += entry.size();
       if (entry.index() == lastIndex || size >= MAX_BATCH_SIZE) {
         break;
@@ -151,7 +153,7 @@ abstract class AbstractAppender implements AutoCloseable {
     }
 
     // Add the entries to the request builder and build the request.
-    return builder.withEntries(entries).build();
+    return builder.withSerializedEntries(entries).build();
   }
 
   /**
@@ -159,23 +161,24 @@ abstract class AbstractAppender implements AutoCloseable {
    */
   protected void sendAppendRequest(RaftMemberContext member, AppendRequest request) {
     // If this is a heartbeat message and a heartbeat is already in progress, skip the request.
-    if (request.entries().isEmpty() && !member.canHeartbeat()) {
+    if (request.entryCount() == 0 && !member.canHeartbeat()) {
       return;
     }
 
-    // Start the append to the member.
-    member.startAppend();
+    // Start the append to the member, counting the request's entry bytes towards the member's append window.
+    int bytes = 0;
+    for (byte[] entry : request.serializedEntries()) {
+      bytes += entry.length;
+    }
+    final int appendBytes = bytes;
+    member.startAppend(appendBytes);
 
     long timestamp = System.currentTimeMillis();
 
     log.trace("Sending {} to {}", request, member.getMember().memberId());
     raft.getProtocol().append(member.getMember().memberId(), request).whenCompleteAsync((response, error) -> {
       // Complete the append to the member.
-      if (!request.entries().isEmpty()) {
-        member.completeAppend(System.currentTimeMillis() - timestamp);
-      } else {
-        member.completeAppend();
-      }
+      member.completeAppend(appendBytes);
 
       if (open) {
         if (error == null) {
@@ -187,7 +190,7 @@ abstract class AbstractAppender implements AutoCloseable {
       }
     }, raft.getThreadContext());
 
-    if (!request.entries().isEmpty() && hasMoreEntries(member)) {
+    if (request.entryCount() > 0 && hasMoreEntries(member)) {
       appendEntries(member);
     }
   }
@@ -289,8 +292,9 @@ abstract class AbstractAppender implements AutoCloseable {
    * Updates the match index when a response is received.
    */
   protected void updateMatchIndex(RaftMemberContext member, AppendResponse response) {
-    // If the replica returned a valid match index then update the existing match index.
-    member.setMatchIndex(response.lastLogIndex());
+    // If the replica returned a valid match index then update the existing match index. Responses to pipelined
+    // requests may be received out of order, so the match index is never decreased by a successful response.
+    member.setMatchIndex(Math.max(member.getMatchIndex(), response.lastLogIndex()));
   }
 
   /**
@@ -404,39 +408,60 @@ abstract class AbstractAppender implements AutoCloseable {
     // This prevents infinite loops when cluster configurations fail.
   }
 
+  /**
+   * Returns a boolean indicating whether more chunks of the given snapshot can be sent to the member.
+   */
+  protected boolean hasMoreChunks(RaftMemberContext member, Snapshot snapshot) {
+    if (member.getNextSnapshotIndex() != snapshot.index() || member.getSnapshotReader() == null) {
+      return true;
+    }
+    // Once all chunks have been sent, only resend the final chunk if no requests remain in flight.
+    return member.getNextSnapshotOffset() < member.getSnapshotReader().length() || !member.isInstalling();
+  }
+
   /**
    * Builds an install request for the given member.
+   * <p>
+   * A snapshot reader is held open for the duration of the snapshot transfer to the member, and each chunk
+   * is read from the member's next snapshot offset.
    */
   protected InstallRequest buildInstallRequest(RaftMemberContext member, Snapshot snapshot) {
     if (member.getNextSnapshotIndex() != snapshot.index()) {
       member.setNextSnapshotIndex(snapshot.index());
       member.setNextSnapshotOffset(0);
+      member.setSnapshotReader(null);
     }
 
-    InstallRequest request;
-    synchronized (snapshot) {
-      // Open a new snapshot reader.
-      try (SnapshotReader reader = snapshot.openReader()) {
-        // Skip to the next batch of bytes according to the snapshot chunk size and current offset.
-        reader.skip(member.getNextSnapshotOffset() * MAX_BATCH_SIZE);
-        byte[] data = new byte[Math.min(MAX_BATCH_SIZE, reader.remaining())];
-        reader.read(data);
-
-        // Create the install request, indicating whether this is the last chunk of data based on the number
-        // of bytes remaining in the buffer.
-        DefaultRaftMember leader = raft.getLeader();
-        request = InstallRequest.builder()
-            .withTerm(raft.getTerm())
-            .withLeader(leader != null ? leader.memberId() : null)
-            .withIndex(snapshot.index())
-            .withOffset(member.getNextSnapshotOffset())
-            .withData(data)
-            .withComplete(!reader.hasRemaining())
-            .build();
+    SnapshotReader reader = member.getSnapshotReader();
+    if (reader == null) {
+      synchronized (snapshot) {
+        reader = snapshot.openReader();
       }
+      member.setSnapshotReader(reader);
     }
 
-    return request;
+    // Read the next chunk of bytes according to the snapshot chunk size and the member's next offset.
+    int offset = (int) Math.min(member.getNextSnapshotOffset(), reader.length());
+    byte[] data = new byte[Math.min(raft.getSnapshotChunkSize(), reader.length() - offset)];
+    reader.read(offset, data, 0, data.length);
+    member.setNextSnapshotOffset(offset + data.length);
+
+    CRC32 crc32 = new CRC32();
+    crc32.update(data, 0, data.length);
+
+    // Create the install request, indicating whether this is the last chunk of data based on the number
+    // of bytes remaining in the snapshot.
+    DefaultRaftMember leader = raft.getLeader();
+    return InstallRequest.builder()
+        .withTerm(raft.getTerm())
+        .withLeader(leader != null ? leader.memberId() : null)
+        .withIndex(snapshot.index())
+        .withTimestamp(snapshot.timestamp().unixTimestamp())
+        .withOffset(offset)
+        .withData(data)
+        .withChecksum(crc32.getValue())
+        .withComplete(offset + data.length == reader.length())
+        .build();
   }
 
   /**
@@ -471,10 +496,9 @@ abstract class AbstractAppender implements AutoCloseable {
    * Handles an install response failure.
    */
   protected void handleInstallResponseFailure(RaftMemberContext member, InstallRequest request, Throwable error) {
-    // Reset the member's snapshot index and offset to resend the snapshot from the start
-    // once a connection to the member is re-established.
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+    // Rewind the member's snapshot offset to resend the failed chunk once a connection to the member
+    // is re-established.
+    rewindSnapshot(member, request, request.chunkOffset());
 
     // Log the failed attempt to contact the member.
     failAttempt(member, request, error);
@@ -494,7 +518,6 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an OK install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseOk(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     // Reset the member failure count and update the member's status if necessary.
     succeedAttempt(member);
@@ -504,11 +527,14 @@ abstract class AbstractAppender implements AutoCloseable {
     if (request.complete()) {
       member.setNextSnapshotIndex(0);
       member.setNextSnapshotOffset(0);
+      member.setSnapshotReader(null);
       member.setSnapshotIndex(request.snapshotIndex());
     }
-    // If more install requests remain, increment the member's snapshot offset.
-    else {
-      member.setNextSnapshotOffset(request.chunkOffset() + 1);
+    // If the member has already persisted chunks beyond the next offset, e.g. from a transfer started by a
+    // prior leader, skip ahead to the member's next offset.
+    else if (request.snapshotIndex() == member.getNextSnapshotIndex()
+        && response.nextOffset() > member.getNextSnapshotOffset()) {
+      member.setNextSnapshotOffset(response.nextOffset());
     }
 
     // Recursively append entries to the member.
@@ -518,11 +544,20 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an ERROR install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseError(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     log.warn("Failed to install {}", member.getMember().memberId());
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+
+    // Rewind the member's snapshot offset to the next offset expected by the member.
+    rewindSnapshot(member, request, response.nextOffset());
+  }
+
+  /**
+   * Rewinds the member's snapshot offset to the given offset.
+   */
+  private void rewindSnapshot(RaftMemberContext member, InstallRequest request, long offset) {
+    if (request.snapshotIndex() == member.getNextSnapshotIndex()) {
+      member.setNextSnapshotOffset(Math.min(member.getNextSnapshotOffset(), offset));
+    }
   }
 
   @Override
@@ -15,6 +15,7 @@
  */
 package io.atomix.protocols.raft.roles;
 
+import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.protocols.raft.RaftException;
 import io.atomix.protocols.raft.RaftServer;
 import io.atomix.protocols.raft.cluster.RaftMember;
@@ -34,6 +35,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The leader appender is responsible for sending {@link AppendRequest}s on behalf of a leader to followers.
@@ -135,6 +137,12 @@ final class LeaderAppender extends AbstractAppender {
       return CompletableFuture.completedFuture(index);
     }
 
+    // If there are no other active members in the cluster but the entry has not yet been flushed to disk by
+    // a group commit, wait for the flush to commit the index.
+    if (raft.getCluster().getActiveMemberStates().isEmpty() && index > raft.getLogWriter().getFlushedIndex()) {
+      return appendFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
+    }
+
     // If there are no other stateful servers in the cluster, immediately commit the index.
     if (raft.getCluster().getActiveMemberStates().isEmpty() && raft.getCluster().getPassiveMemberStates().isEmpty()) {
       long previousCommitIndex = raft.getCommitIndex();
@@ -195,12 +203,11 @@ final class LeaderAppender extends AbstractAppender {
         || member.getMember().getType() == RaftMember.Type.PASSIVE) {
       Snapshot snapshot = raft.getSnapshotStore().getCurrentSnapshot();
       if (snapshot != null && member.getSnapshotIndex() < snapshot.index() && snapshot.index() >= member.getLogReader().getCurrentIndex()) {
-        if (!member.canInstall()) {
-          return;
+        // Pipeline snapshot chunks to the member up to the maximum number of chunks in flight.
+        while (member.canInstall() && hasMoreChunks(member, snapshot)) {
+          log.debug("Replicating snapshot {} to {}", snapshot.index(), member.getMember().memberId());
+          sendInstallRequest(member, buildInstallRequest(member, snapshot));
         }
-
-        log.debug("Replicating snapshot {} to {}", snapshot.index(), member.getMember().memberId());
-        sendInstallRequest(member, buildInstallRequest(member, snapshot));
       } else if (member.canAppend()) {
         sendAppendRequest(member, buildAppendRequest(member, -1));
       }
@@ -304,7 +311,7 @@ final class LeaderAppender extends AbstractAppender {
   /**
    * Checks whether any futures can be completed.
    */
-  private void commitEntries() {
+  void commitEntries() {
     raft.checkThread();
 
     // Sort the list of replicas, order by the last index that was replicated
@@ -316,7 +323,8 @@ final class LeaderAppender extends AbstractAppender {
     // If the active members list is empty (a configuration change occurred between an append request/response)
     // ensure all commit futures are completed and cleared.
     if (members.isEmpty()) {
-      long commitIndex = raft.getLogWriter().getLastIndex();
+      // If group commit is enabled, only entries that have been flushed to disk can be committed.
+      long commitIndex = raft.getLogWriter().getFlushedIndex();
       long previousCommitIndex = raft.setCommitIndex(commitIndex);
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
@@ -326,7 +334,7 @@ final class LeaderAppender extends AbstractAppender {
     }
 
     // Calculate the current commit index as the median matchIndex.
-    long commitIndex = members.get(getQuorumIndex()).getMatchIndex();
+    long commitIndex = computeCommitIndex(members);
 
     // If the commit index has increased then update the commit index. Note that in order to ensure
     // the leader completeness property holds, we verify that the commit index is greater than or equal to
@@ -339,6 +347,28 @@ final class LeaderAppender extends AbstractAppender {
     }
   }
 
+  /**
+   * Computes the highest index stored on a majority of the cluster.
+   * <p>
+   * The leader's log is implicitly counted towards the quorum. When group commit is enabled, the leader's log
+   * is only counted up to the last index flushed to disk, so entries that have not yet been flushed must be
+   * stored on a majority of the cluster excluding the leader in order to be committed.
+   *
+   * @param members the active members sorted in descending order of matchIndex
+   * @return the highest index stored on a majority of the cluster
+   */
+  private long computeCommitIndex(List<RaftMemberContext> members) {
+    int quorumIndex = getQuorumIndex();
+    long commitIndex = members.get(quorumIndex).getMatchIndex();
+    if (raft.getLogWriter().isGroupCommit()) {
+      commitIndex = Math.min(commitIndex, raft.getLogWriter().getFlushedIndex());
+      if (quorumIndex + 1 < members.size()) {
+        commitIndex = Math.max(commitIndex, members.get(quorumIndex + 1).getMatchIndex());
+      }
+    }
+    return commitIndex;
+  }
+
   /**
    * Completes append entries attempts up to the given index.
    */
@@ -353,6 +383,16 @@ final class LeaderAppender extends AbstractAppender {
 
   @Override
   protected void handleAppendResponseFailure(RaftMemberContext member, AppendRequest request, Throwable error) {
+    // If the request was rejected because too many messages are pending to the member, stop pipelining requests
+    // and rewind the member's reader to resend the rejected entries. The next heartbeat will resume replication.
+    if (isOverloaded(error)) {
+      member.appendFailed();
+      long nextIndex = request.prevLogIndex() + 1;
+      if (request.entryCount() > 0 && member.getLogReader().getNextIndex() > nextIndex) {
+        member.getLogReader().reset(nextIndex);
+        log.trace("Reset next index for {} to {}", member, nextIndex);
+      }
+    }
     failHeartbeat();
     super.handleAppendResponseFailure(member, request, error);
   }
@@ -374,7 +414,7 @@ final class LeaderAppender extends AbstractAppender {
       updateMatchIndex(member, response);
 
       // If entries were committed to the replica then check commit indexes.
-      if (!request.entries().isEmpty()) {
+      if (request.entryCount() > 0) {
         commitEntries();
       }
 
@@ -420,6 +460,14 @@ final class LeaderAppender extends AbstractAppender {
 
   @Override
   protected void failAttempt(RaftMemberContext member, RaftRequest request, Throwable error) {
+    // Backpressure indicates the member is slow rather than unreachable, so don't count the failure towards
+    // backing off from or stepping down due to the member.
+    if (isOverloaded(error)) {
+      log.debug("{} to {} failed: {}", request, member.getMember().memberId(), error.getMessage());
+      failHeartbeat();
+      return;
+    }
+
     super.failAttempt(member, request, error);
 
     // Fail heartbeat futures.
@@ -435,6 +483,16 @@ final class LeaderAppender extends AbstractAppender {
     }
   }
 
+  /**
+   * Returns whether the given error indicates the request was rejected due to messaging backpressure.
+   */
+  private static boolean isOverloaded(Throwable error) {
+    if (error instanceof CompletionException) {
+      error = error.getCause();
+    }
+    return error instanceof MessagingException.Overloaded;
+  }
+
   @Override
   protected void handleConfigureResponse(RaftMemberContext member, ConfigureRequest request, ConfigureResponse response, long timestamp) {
     super.handleConfigureResponse(member, request, response, timestamp);
@@ -454,6 +512,9 @@ final class LeaderAppender extends AbstractAppender {
         future.completeExceptionally(new IllegalStateException("Inactive state")));
     heartbeatFutures.forEach(future ->
         future.completeExceptionally(new RaftException.ProtocolException("Failed to reach consensus")));
+
+    // Close the snapshot readers held open for snapshot transfers to followers.
+    raft.getCluster().getRemoteMemberStates().forEach(member -> member.setSnapshotReader(null));
   }
 
   /**
@@ -50,6 +50,8 @@ import io.atomix.protocols.raft.protocol.PollResponse;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
@@ -74,7 +76,9 @@ import io.atomix.utils.concurrent.Scheduled;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -93,6 +97,10 @@ public final class LeaderRole extends ActiveRole {
   private final Set<SessionId> expiring = Sets.newHashSet();
   private long configuring;
   private boolean transferring;
+  private CompletableFuture<Long> flushFuture;
+  private final List<CommandEntry> batchCommands = new ArrayList<>();
+  private final List<CompletableFuture<CommandResponse>> batchFutures = new ArrayList<>();
+  private Scheduled batchTimer;
 
   public LeaderRole(RaftContext context) {
     super(context);
@@ -110,8 +118,30 @@ public final class LeaderRole extends ActiveRole {
     takeLeadership();
 
     // Append initial entries to the log, including an initial no-op entry and the server's configuration.
-    appendInitialEntries().join();
+    // If the log has to be compacted to make room for the entries, finish starting once compaction completes
+    // rather than blocking the Raft thread, which may share a thread pool with the compaction.
+    CompletableFuture<Void> appendFuture = appendInitialEntries();
+    if (appendFuture.isDone()) {
+      appendFuture.join();
+      return startLeader();
+    }
+    return appendFuture.handleAsync((result, error) -> {
+      if (raft.getRaftRole() != this) {
+        return CompletableFuture.<RaftRole>completedFuture(this);
+      } else if (error != null) {
+        log.warn("Failed to append initial entries", error);
+        raft.setLeader(null);
+        raft.transition(RaftServer.Role.FOLLOWER);
+        return CompletableFuture.<RaftRole>completedFuture(this);
+      }
+      return startLeader();
+    }, raft.getThreadContext()).thenCompose(future -> future);
+  }
 
+  /**
+   * Commits the initial leader entries and starts replicating to followers.
+   */
+  private CompletableFuture<RaftRole> startLeader() {
     // Commit the initial leader entries.
     commitInitialEntries();
 
@@ -170,9 +200,15 @@ public final class LeaderRole extends ActiveRole {
   private void startAppendTimer() {
     // Set a timer that will be used to periodically synchronize with other nodes
     // in the cluster. This timer acts as a heartbeat to ensure this node remains
-    // the leader.
+    // the leader. If heartbeats are aligned, the first tick is aligned to a multiple of the heartbeat interval so
+    // that heartbeats from all the partitions led by this node are sent at the same time and can be coalesced.
     log.trace("Starting append timer");
-    appendTimer = raft.getThreadContext().schedule(Duration.ZERO, raft.getHeartbeatInterval(), this::appendMembers);
+    Duration delay = Duration.ZERO;
+    if (raft.isAlignHeartbeats()) {
+      long interval = raft.getHeartbeatInterval().toMillis();
+      delay = Duration.ofMillis(interval - System.currentTimeMillis() % interval);
+    }
+    appendTimer = raft.getThreadContext().schedule(delay, raft.getHeartbeatInterval(), this::appendMembers);
   }
 
   /**
@@ -678,6 +714,9 @@ public final class LeaderRole extends ActiveRole {
 
   /**
    * Commits a command.
+   * <p>
+   * If command batching is enabled, the command is added to the current batch and committed once the batch is
+   * written to the log. Otherwise, the command is written to the log in its own entry.
    *
    * @param request the command request
    * @param future  the command response future
@@ -685,8 +724,124 @@ public final class LeaderRole extends ActiveRole {
   private void commitCommand(CommandRequest request, CompletableFuture<CommandResponse> future) {
     final long term = raft.getTerm();
     final long timestamp = System.currentTimeMillis();
+    final CommandEntry command = new CommandEntry(term, timestamp, request.session(), request.sequenceNumber(), request.operation());
+    if (raft.getMaxCommandBatchSize() > 1) {
+      batchCommand(command, future);
+    } else {
+      commitCommand(command, future);
+    }
+  }
+
+  /**
+   * Adds a command to the current command batch.
+   * <p>
+   * The batch is written to the log once it reaches the maximum batch size or once the batch linger time has expired.
+   *
+   * @param command the command to add to the batch
+   * @param future  the command response future
+   */
+  private void batchCommand(CommandEntry command, CompletableFuture<CommandResponse> future) {
+    batchCommands.add(command);
+    batchFutures.add(future);
+
+    if (batchCommands.size() >= raft.getMaxCommandBatchSize()) {
+      flushCommands();
+    } else if (batchTimer == null) {
+      batchTimer = raft.getThreadContext().schedule(raft.getCommandBatchLinger(), this::flushCommands);
+    }
+  }
+
+  /**
+   * Writes the current command batch to the log.
+   */
+  private void flushCommands() {
+    if (batchTimer != null) {
+      batchTimer.cancel();
+      batchTimer = null;
+    }
+
+    if (batchCommands.isEmpty() || !isRunning()) {
+      return;
+    }
+
+    List<CommandEntry> commands = new ArrayList<>(batchCommands);
+    List<CompletableFuture<CommandResponse>> futures = new ArrayList<>(batchFutures);
+    batchCommands.clear();
+    batchFutures.clear();
+
+    if (commands.size() == 1) {
+      commitCommand(commands.get(0), futures.get(0));
+    } else {
+      commitCommands(commands, futures);
+    }
+  }
+
+  /**
+   * Commits a batch of commands.
+   * <p>
+   * Each command is appended to the log in its own entry, so every command is applied at its own index exactly as if
+   * it had been committed on its own. The entries are appended together and replicated to followers in a single
+   * round of append requests, and once the last entry is committed each command is applied and completed with its
+   * own result.
+   *
+   * @param commands the commands to commit
+   * @param futures  the command response futures, in the same order as the commands
+   */
+  private void commitCommands(List<CommandEntry> commands, List<CompletableFuture<CommandResponse>> futures) {
+    CompletableFuture<List<Indexed<CommandEntry>>> appendFuture = CompletableFuture.completedFuture(new ArrayList<>(commands.size()));
+    for (CommandEntry command : commands) {
+      appendFuture = appendFuture.thenCompose(entries -> appendAndCompact(command).thenApply(entry -> {
+        entries.add(entry);
+        return entries;
+      }));
+    }
+
+    appendFuture.whenCompleteAsync((entries, error) -> {
+      if (error != null) {
+        failCommands(futures);
+        return;
+      }
+
+      // Replicate the batch to followers. Committing the last entry in the batch commits all the entries before it.
+      appender.appendEntries(entries.get(entries.size() - 1).index()).whenComplete((commitIndex, commitError) -> {
+        raft.checkThread();
+        if (isRunning() && commitError == null) {
+          // If the batch was successfully committed, apply each command to the state machine.
+          for (int i = 0; i < entries.size(); i++) {
+            CompletableFuture<CommandResponse> future = futures.get(i);
+            raft.getServiceManager().<OperationResult>apply(entries.get(i).index()).whenComplete((r, e) -> {
+              completeOperation(r, CommandResponse.builder(), e, future);
+            });
+          }
+        } else {
+          failCommands(futures);
+        }
+      });
+    }, raft.getThreadContext());
+  }
+
+  /**
+   * Fails the given commands with a command failure.
+   *
+   * @param futures the command response futures to fail
+   */
+  private void failCommands(List<CompletableFuture<CommandResponse>> futures) {
+    for (CompletableFuture<CommandResponse> future : futures) {
+      future.complete(CommandResponse.builder()
+          .withStatus(RaftResponse.Status.ERROR)
+          .withError(RaftError.Type.COMMAND_FAILURE)
+          .build());
+    }
+  }
 
-    appendAndCompact(new CommandEntry(term, timestamp, request.session(), request.sequenceNumber(), request.operation()))
+  /**
+   * Commits a command in its own log entry.
+   *
+   * @param command the command entry
+   * @param future  the command response future
+   */
+  private void commitCommand(CommandEntry command, CompletableFuture<CommandResponse> future) {
+    appendAndCompact(command)
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(CommandResponse.builder()
@@ -801,6 +956,34 @@ public final class LeaderRole extends ActiveRole {
                 .build()), raft.getThreadContext());
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> onReadIndex(ReadIndexRequest request) {
+    raft.checkThread();
+    logRequest(request);
+
+    // The leader's commit index is not known to be current until an entry from its term has been committed.
+    if (initializing()) {
+      return CompletableFuture.completedFuture(logResponse(ReadIndexResponse.builder()
+          .withStatus(RaftResponse.Status.ERROR)
+          .withError(RaftError.Type.UNAVAILABLE)
+          .build()));
+    }
+
+    // Record the commit index and then confirm leadership with a round of heartbeats before returning the index.
+    // Heartbeats are shared by all read index requests and linearizable queries received in the same round.
+    final long readIndex = raft.getCommitIndex();
+    return appender.appendEntries()
+        .thenApply(index -> ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.OK)
+            .withIndex(readIndex)
+            .build())
+        .exceptionally(error -> ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.ERROR)
+            .withError(RaftError.Type.NO_LEADER)
+            .build())
+        .thenApply(this::logResponse);
+  }
+
   @Override
   public CompletableFuture<OpenSessionResponse> onOpenSession(OpenSessionRequest request) {
     final long term = raft.getTerm();
@@ -1051,6 +1234,7 @@ public final class LeaderRole extends ActiveRole {
         return CompletableFuture.completedFuture(raft.getLogWriter().append(entry))
             .thenApply(indexed -> {
               log.trace("Appended {}", indexed);
+              flushEntries(indexed.index());
               return indexed;
             });
       } catch (StorageException.OutOfDiskSpace e) {
@@ -1060,6 +1244,30 @@ public final class LeaderRole extends ActiveRole {
     }
   }
 
+  /**
+   * Flushes entries up to the given index when group commit is enabled.
+   * <p>
+   * Entries appended within the same group commit window share a single flush. Once the flush completes,
+   * the appender is notified so it can count the leader's log towards the quorum for the flushed entries.
+   *
+   * @param index the index up to which to flush entries
+   */
+  private void flushEntries(long index) {
+    if (!raft.getLogWriter().isGroupCommit()) {
+      return;
+    }
+
+    CompletableFuture<Long> future = raft.getLogWriter().flush(index);
+    if (future != flushFuture) {
+      flushFuture = future;
+      future.whenCompleteAsync((flushedIndex, error) -> {
+        if (error == null && isRunning()) {
+          appender.commitEntries();
+        }
+      }, raft.getThreadContext());
+    }
+  }
+
   /**
    * Cancels the append timer.
    */
@@ -1083,6 +1291,14 @@ public final class LeaderRole extends ActiveRole {
    * Fails pending commands.
    */
   private void failPendingCommands() {
+    if (batchTimer != null) {
+      batchTimer.cancel();
+      batchTimer = null;
+    }
+    failCommands(batchFutures);
+    batchCommands.clear();
+    batchFutures.clear();
+
     for (RaftSession session : raft.getSessions().getSessions()) {
       for (PendingCommand command : session.clearCommands()) {
         command.future().complete(logResponse(CommandResponse.builder()
@@ -33,16 +33,18 @@ import io.atomix.storage.StorageException;
 import io.atomix.storage.journal.Indexed;
 import io.atomix.utils.time.WallClockTimestamp;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
-
-import static com.google.common.base.MoreObjects.toStringHelper;
+import java.util.zip.CRC32;
 
 /**
  * Passive state.
  */
 public class PassiveRole extends InactiveRole {
-  private PendingSnapshot pendingSnapshot;
+  private List<CompletableFuture<Long>> pendingReadIndexes = new ArrayList<>();
+  private boolean readIndexInFlight;
 
   public PassiveRole(RaftContext context) {
     super(context);
@@ -177,7 +179,7 @@ public class PassiveRole extends InactiveRole {
    */
   protected void appendEntries(AppendRequest request, CompletableFuture<AppendResponse> future) {
     // Compute the last entry index from the previous log index and request entry count.
-    final long lastEntryIndex = request.prevLogIndex() + request.entries().size();
+    final long lastEntryIndex = request.prevLogIndex() + request.entryCount();
 
     // Ensure the commitIndex is not increased beyond the index of the last entry in the request.
     final long commitIndex = Math.max(raft.getCommitIndex(), Math.min(request.commitIndex(), lastEntryIndex));
@@ -185,7 +187,7 @@ public class PassiveRole extends InactiveRole {
     // Track the last log index while entries are appended.
     long lastLogIndex = request.prevLogIndex();
 
-    if (!request.entries().isEmpty()) {
+    if (request.entryCount() > 0) {
       final RaftLogWriter writer = raft.getLogWriter();
       final RaftLogReader reader = raft.getLogReader();
 
@@ -197,7 +199,7 @@ public class PassiveRole extends InactiveRole {
       }
 
       // Iterate through entries and append them.
-      for (RaftLogEntry entry : request.entries()) {
+      for (Indexed<RaftLogEntry> entry : getEntries(request)) {
         long index = ++lastLogIndex;
 
         // Get the last entry written to the log by the writer.
@@ -222,7 +224,7 @@ public class PassiveRole extends InactiveRole {
 
             // If the existing entry term doesn't match the leader's term for the same entry, truncate
             // the log and append the leader's entry.
-            if (existingEntry.entry().term() != entry.term()) {
+            if (existingEntry.entry().term() != entry.entry().term()) {
               writer.truncate(index - 1);
               if (!appendEntry(index, entry, writer, future)) {
                 return;
@@ -234,7 +236,7 @@ public class PassiveRole extends InactiveRole {
           else if (lastEntry.index() == index) {
             // If the last entry term doesn't match the leader's term for the same entry, truncate
             // the log and append the leader's entry.
-            if (lastEntry.entry().term() != entry.term()) {
+            if (lastEntry.entry().term() != entry.entry().term()) {
               writer.truncate(index - 1);
               if (!appendEntry(index, entry, writer, future)) {
                 return;
@@ -282,13 +284,36 @@ public class PassiveRole extends InactiveRole {
     succeedAppend(lastLogIndex, future);
   }
 
+  /**
+   * Returns the entries in the given request indexed from the request's previous log index.
+   * <p>
+   * Serialized entries are wrapped in lazily decoded {@link Indexed} entries so they can be appended to the log
+   * as-is and are only decoded if their term needs to be compared to an existing entry.
+   */
+  private List<Indexed<RaftLogEntry>> getEntries(AppendRequest request) {
+    final List<Indexed<RaftLogEntry>> entries = new ArrayList<>(request.entryCount());
+    long index = request.prevLogIndex();
+    for (RaftLogEntry entry : request.entries()) {
+      entries.add(new Indexed<>(++index, entry, 0));
+    }
+    for (byte[] bytes : request.serializedEntries()) {
+      entries.add(new Indexed<>(++index, bytes, raft.getStorage().serializer()));
+    }
+    return entries;
+  }
+
   /**
    * Attempts to append an entry, returning {@code false} if the append fails due to an {@link StorageException.OutOfDiskSpace} exception.
    */
-  private boolean appendEntry(long index, RaftLogEntry entry, RaftLogWriter writer, CompletableFuture<AppendResponse> future) {
+  private boolean appendEntry(long index, Indexed<RaftLogEntry> entry, RaftLogWriter writer, CompletableFuture<AppendResponse> future) {
     try {
-      Indexed<RaftLogEntry> indexed = writer.append(entry);
-      log.trace("Appended {}", indexed);
+      if (entry.bytes() != null) {
+        writer.append(entry);
+        log.trace("Appended {}", entry);
+      } else {
+        Indexed<RaftLogEntry> indexed = writer.append(entry.entry());
+        log.trace("Appended {}", indexed);
+      }
     } catch (StorageException.OutOfDiskSpace e) {
       log.trace("Append failed: {}", e);
       raft.getServiceManager().compact();
@@ -358,7 +383,8 @@ public class PassiveRole extends InactiveRole {
       return queryForward(request);
     }
 
-    // If the session's consistency level is SEQUENTIAL, handle the request here, otherwise forward it.
+    // If the session's consistency level is SEQUENTIAL, handle the request here, otherwise read from the leader's
+    // read index.
     if (session.readConsistency() == ReadConsistency.SEQUENTIAL) {
 
       // If the commit index is not in the log then we've fallen too far behind the leader to perform a local query.
@@ -379,8 +405,108 @@ public class PassiveRole extends InactiveRole {
 
       return applyQuery(entry).thenApply(this::logResponse);
     } else {
+      return queryReadIndex(request);
+    }
+  }
+
+  /**
+   * Executes a linearizable query on this server using the leader's read index.
+   * <p>
+   * The leader's commit index is requested once the leader has confirmed its leadership, and the query is applied
+   * once this server has applied all entries up to that index. If the read index cannot be obtained from the leader,
+   * the query is forwarded to the leader instead.
+   */
+  private CompletableFuture<QueryResponse> queryReadIndex(QueryRequest request) {
+    if (raft.getLeader() == null) {
       return queryForward(request);
     }
+
+    final Indexed<QueryEntry> entry = new Indexed<>(
+        request.index(),
+        new QueryEntry(
+            raft.getTerm(),
+            System.currentTimeMillis(),
+            request.session(),
+            request.sequenceNumber(),
+            request.operation()), 0);
+
+    return readIndex().handle((index, error) -> {
+      if (!isRunning()) {
+        return CompletableFuture.completedFuture(unavailableQuery());
+      } else if (error != null) {
+        log.trace("Failed to obtain read index, forwarding query to leader");
+        return queryForward(request);
+      }
+      return raft.getServiceManager().awaitApplied(index)
+          .thenCompose(v -> applyQuery(entry))
+          .exceptionally(e -> unavailableQuery())
+          .thenApply(this::logResponse);
+    }).thenCompose(future -> future);
+  }
+
+  /**
+   * Returns a query response indicating the read could not be completed on this server.
+   */
+  private QueryResponse unavailableQuery() {
+    return logResponse(QueryResponse.builder()
+        .withStatus(RaftResponse.Status.ERROR)
+        .withError(RaftError.Type.UNAVAILABLE)
+        .build());
+  }
+
+  /**
+   * Requests the leader's read index.
+   * <p>
+   * Only a single read index request is sent to the leader at any given time. Reads submitted while a request is
+   * in flight are batched in the next request to the leader.
+   */
+  private CompletableFuture<Long> readIndex() {
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    pendingReadIndexes.add(future);
+    if (!readIndexInFlight) {
+      sendReadIndex();
+    }
+    return future;
+  }
+
+  /**
+   * Sends a read index request for all pending reads to the leader.
+   */
+  private void sendReadIndex() {
+    List<CompletableFuture<Long>> futures = pendingReadIndexes;
+    pendingReadIndexes = new ArrayList<>();
+    readIndexInFlight = true;
+    forward(ReadIndexRequest.builder().build(), raft.getProtocol()::readIndex).whenComplete((response, error) -> {
+      for (CompletableFuture<Long> future : futures) {
+        if (error != null) {
+          future.completeExceptionally(error);
+        } else if (response.status() == RaftResponse.Status.OK) {
+          future.complete(response.index());
+        } else {
+          future.completeExceptionally(response.error().createException());
+        }
+      }
+
+      if (pendingReadIndexes.isEmpty()) {
+        readIndexInFlight = false;
+      } else if (!isRunning()) {
+        readIndexInFlight = false;
+        failReadIndexes();
+      } else {
+        sendReadIndex();
+      }
+    });
+  }
+
+  /**
+   * Fails all pending read index requests.
+   */
+  private void failReadIndexes() {
+    List<CompletableFuture<Long>> futures = pendingReadIndexes;
+    pendingReadIndexes = new ArrayList<>();
+    for (CompletableFuture<Long> future : futures) {
+      future.completeExceptionally(new RaftException.Unavailable("Server is no longer serving reads"));
+    }
   }
 
   /**
@@ -477,8 +603,13 @@ public class PassiveRole extends InactiveRole {
 
     // If the snapshot already exists locally, do not overwrite it with a replicated snapshot. Simply reply to the
     // request successfully.
+    PendingSnapshot pendingSnapshot = raft.getPendingSnapshot();
     Snapshot existingSnapshot = raft.getSnapshotStore().getSnapshot(request.snapshotIndex());
     if (existingSnapshot != null) {
+      if (pendingSnapshot != null && pendingSnapshot.snapshot().index() == request.snapshotIndex()) {
+        pendingSnapshot.rollback();
+        raft.setPendingSnapshot(null);
+      }
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.OK)
           .build()));
@@ -493,6 +624,7 @@ public class PassiveRole extends InactiveRole {
     if (pendingSnapshot != null && request.snapshotIndex() != pendingSnapshot.snapshot().index()) {
       pendingSnapshot.rollback();
       pendingSnapshot = null;
+      raft.setPendingSnapshot(null);
     }
 
     // If there is no pending snapshot, create a new snapshot.
@@ -502,6 +634,7 @@ public class PassiveRole extends InactiveRole {
         return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
             .withStatus(RaftResponse.Status.ERROR)
             .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset is invalid")
+            .withNextOffset(0)
             .build()));
       }
 
@@ -509,37 +642,57 @@ public class PassiveRole extends InactiveRole {
           request.snapshotIndex(),
           WallClockTimestamp.from(request.snapshotTimestamp()));
       pendingSnapshot = new PendingSnapshot(snapshot);
+      raft.setPendingSnapshot(pendingSnapshot);
     }
 
-    // If the request offset is greater than the next expected snapshot offset, fail the request.
+    // If the request offset is greater than the next expected snapshot offset, fail the request. The response
+    // indicates the next expected offset from which the leader can resend the snapshot.
     if (request.chunkOffset() > pendingSnapshot.nextOffset()) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.ERROR)
           .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset does not match the next chunk offset")
+          .withNextOffset(pendingSnapshot.nextOffset())
           .build()));
     }
-    // If the request offset has already been written, return OK to skip to the next chunk.
-    else if (request.chunkOffset() < pendingSnapshot.nextOffset()) {
+
+    // Verify the chunk checksum before writing any data to the snapshot.
+    CRC32 crc32 = new CRC32();
+    crc32.update(request.data(), 0, request.data().length);
+    if (crc32.getValue() != request.checksum()) {
+      return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
+          .withStatus(RaftResponse.Status.ERROR)
+          .withError(RaftError.Type.PROTOCOL_ERROR, "Snapshot chunk checksum does not match")
+          .withNextOffset(pendingSnapshot.nextOffset())
+          .build()));
+    }
+
+    // If the chunk has already been written, return OK to skip to the next chunk. Chunks may partially overlap
+    // the written bytes if the snapshot was resumed by a leader with a different chunk size.
+    int position = (int) (pendingSnapshot.nextOffset() - request.chunkOffset());
+    if (position > request.data().length || position == request.data().length && !request.complete()) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.OK)
+          .withNextOffset(pendingSnapshot.nextOffset())
           .build()));
     }
 
     // Write the data to the snapshot.
+    int length = request.data().length - position;
     try (SnapshotWriter writer = pendingSnapshot.snapshot().openWriter()) {
-      writer.write(request.data());
+      writer.write(request.data(), position, length);
     }
+    pendingSnapshot.incrementOffset(length);
 
-    // If the snapshot is complete, store the snapshot and reset state, otherwise update the next snapshot offset.
+    // If the snapshot is complete, store the snapshot and reset state.
+    long nextOffset = pendingSnapshot.nextOffset();
     if (request.complete()) {
       pendingSnapshot.commit();
-      pendingSnapshot = null;
-    } else {
-      pendingSnapshot.incrementOffset();
+      raft.setPendingSnapshot(null);
     }
 
     return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
         .withStatus(RaftResponse.Status.OK)
+        .withNextOffset(nextOffset)
         .build()));
   }
 
@@ -726,71 +879,4 @@ public class PassiveRole extends InactiveRole {
     }
   }
 
-  @Override
-  public CompletableFuture<Void> stop() {
-    if (pendingSnapshot != null) {
-      pendingSnapshot.rollback();
-    }
-    return super.stop();
-  }
-
-  /**
-   * Pending snapshot.
-   */
-  private static class PendingSnapshot {
-    private final Snapshot snapshot;
-    private long nextOffset;
-
-    public PendingSnapshot(Snapshot snapshot) {
-      this.snapshot = snapshot;
-    }
-
-    /**
-     * Returns the pending snapshot.
-     *
-     * @return the pending snapshot
-     */
-    public Snapshot snapshot() {
-      return snapshot;
-    }
-
-    /**
-     * Returns and increments the next snapshot offset.
-     *
-     * @return the next snapshot offset
-     */
-    public long nextOffset() {
-      return nextOffset;
-    }
-
-    /**
-     * Increments the next snapshot offset.
-     */
-    public void incrementOffset() {
-      nextOffset++;
-    }
-
-    /**
-     * Commits the snapshot to disk.
-     */
-    public void commit() {
-      snapshot.complete();
-    }
-
-    /**
-     * Closes and deletes the snapshot.
-     */
-    public void rollback() {
-      snapshot.close();
-      snapshot.delete();
-    }
-
-    @Override
-    public String toString() {
-      return toStringHelper(this)
-          .add("snapshot", snapshot)
-          .add("nextOffset", nextOffset)
-          .toString();
-    }
-  }
 }
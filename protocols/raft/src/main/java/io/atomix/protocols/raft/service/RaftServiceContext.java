@@ -24,6 +24,7 @@ import io.atomix.primitive.operation.PrimitiveOperation;
 import io.atomix.primitive.service.Commit;
 import io.atomix.primitive.service.PrimitiveService;
 import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceBackup;
 import io.atomix.primitive.service.ServiceContext;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
@@ -244,6 +245,12 @@ public class RaftServiceContext implements ServiceContext {
       session.setLastCompleted(reader.readLong());
       session.setLastApplied(reader.snapshot().index());
       session.setLastUpdated(sessionTimestamp);
+
+      // Sessions in the snapshot were open when the snapshot was taken, so open restored sessions to allow
+      // commands following the snapshot to be applied.
+      if (session.getState() == Session.State.CLOSED) {
+        session.open();
+      }
       service.register(sessions.addSession(session));
     }
     currentIndex = reader.snapshot().index();
@@ -258,6 +265,56 @@ public class RaftServiceContext implements ServiceContext {
     log.debug("Taking snapshot {}", writer.snapshot().index());
 
     // Serialize sessions to the in-memory snapshot and request a snapshot from the state machine.
+    snapshotSessions(writer);
+    service.backup(new DefaultBackupOutput(writer, service.serializer()));
+  }
+
+  /**
+   * Prepares a point-in-time snapshot of the service state.
+   * <p>
+   * If the service supports point-in-time backups, the service's sessions are written to the given writer and the
+   * service's backup is returned to be written via {@link #completeSnapshot(SnapshotWriter, ServiceBackup)}. The backup
+   * may be written on another thread while operations continue to be applied to the service.
+   *
+   * @param writer the writer to which to write the service's sessions
+   * @return the point-in-time backup of the service or {@code null} if the service doesn't support point-in-time backups
+   */
+  public ServiceBackup prepareSnapshot(SnapshotWriter writer) {
+    ServiceBackup backup = service.prepareBackup();
+    if (backup != null) {
+      log.debug("Preparing snapshot {}", writer.snapshot().index());
+      snapshotSessions(writer);
+    }
+    return backup;
+  }
+
+  /**
+   * Completes a point-in-time snapshot of the service state.
+   *
+   * @param writer the writer to which to write the service state
+   * @param backup the point-in-time backup of the service
+   */
+  public void completeSnapshot(SnapshotWriter writer, ServiceBackup backup) {
+    backup.backup(new DefaultBackupOutput(writer, service.serializer()));
+  }
+
+  /**
+   * Returns the version of the service state.
+   *
+   * @return the version of the service state or {@code 0} if the service doesn't track changes to its state
+   */
+  public long stateVersion() {
+    return service.stateVersion();
+  }
+
+  /**
+   * Writes the service's sessions to the given snapshot writer.
+   * <p>
+   * The service state must be written to the snapshot following the sessions.
+   *
+   * @param writer the writer to which to write the service's sessions
+   */
+  public void snapshotSessions(SnapshotWriter writer) {
     writer.writeLong(primitiveId.id());
     writer.writeString(primitiveType.name());
     writer.writeString(serviceName);
@@ -274,7 +331,24 @@ public class RaftServiceContext implements ServiceContext {
       writer.writeLong(session.getEventIndex());
       writer.writeLong(session.getLastCompleted());
     }
-    service.backup(new DefaultBackupOutput(writer, service.serializer()));
+  }
+
+  /**
+   * Skips the sessions in the given snapshot reader, positioning the reader at the start of the service state.
+   *
+   * @param reader the reader positioned at the start of the service's sessions
+   */
+  public static void skipSessions(SnapshotReader reader) {
+    reader.skip(Bytes.LONG); // Skip the service ID
+    reader.readString();
+    reader.readString();
+    int sessionCount = reader.readInt();
+    for (int i = 0; i < sessionCount; i++) {
+      reader.skip(Bytes.LONG);
+      reader.readString();
+      reader.readString();
+      reader.skip(Bytes.LONG * 7);
+    }
   }
 
   /**
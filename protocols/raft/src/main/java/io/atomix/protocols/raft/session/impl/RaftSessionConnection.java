@@ -16,6 +16,7 @@
 package io.atomix.protocols.raft.session.impl;
 
 import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.protocols.raft.RaftError;
 import io.atomix.protocols.raft.protocol.CloseSessionRequest;
 import io.atomix.protocols.raft.protocol.CloseSessionResponse;
@@ -39,6 +40,7 @@ import org.slf4j.Logger;
 
 import java.net.ConnectException;
 import java.nio.channels.ClosedChannelException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -52,6 +54,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Client connection that recursively connects to servers in the cluster and attempts to submit requests.
  */
 public class RaftSessionConnection {
+  private static final long BACKOFF_MILLIS = 50;
   private static final Predicate<RaftResponse> COMPLETE_PREDICATE = response ->
       response.status() == RaftResponse.Status.OK
           || response.error().type() == RaftError.Type.COMMAND_FAILURE
@@ -249,6 +252,18 @@ public class RaftSessionConnection {
     sendRequest(request, sender, count, future);
   }
 
+  /**
+   * Resends a request to the same server after an exponential backoff.
+   * <p>
+   * Requests that are rejected because too many messages are pending to the server are not a sign that the server
+   * has failed, so the connection is not reset.
+   */
+  protected <T extends RaftRequest> void backoffRequest(T request, BiFunction sender, int count, CompletableFuture future) {
+    Duration delay = Duration.ofMillis(BACKOFF_MILLIS << Math.min(count - 1, 4));
+    log.trace("Backing off {} for {}", request, delay);
+    context.schedule(delay, () -> sendRequest(request, sender, count, future));
+  }
+
   /**
    * Handles a response from the cluster.
    */
@@ -267,7 +282,13 @@ public class RaftSessionConnection {
         error = error.getCause();
       }
       log.debug("{} failed! Reason: {}", request, error);
-      if (error instanceof ConnectException || error instanceof TimeoutException || error instanceof ClosedChannelException) {
+      if (error instanceof MessagingException.Overloaded) {
+        if (count < selector.members().size() + 1) {
+          backoffRequest(request, sender, count + 1, future);
+        } else {
+          future.completeExceptionally(error);
+        }
+      } else if (error instanceof ConnectException || error instanceof TimeoutException || error instanceof ClosedChannelException) {
         if (count < selector.members().size() + 1) {
           retryRequest(error, request, sender, count + 1, selectionId, future);
         } else {
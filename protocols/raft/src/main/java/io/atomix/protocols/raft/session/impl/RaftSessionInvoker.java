@@ -15,6 +15,7 @@
  */
 package io.atomix.protocols.raft.session.impl;
 
+import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.primitive.PrimitiveException;
 import io.atomix.primitive.PrimitiveState;
 import io.atomix.primitive.operation.PrimitiveOperation;
@@ -52,7 +53,8 @@ final class RaftSessionInvoker {
   private static final Predicate<Throwable> EXCEPTION_PREDICATE = e ->
       e instanceof ConnectException
           || e instanceof TimeoutException
-          || e instanceof ClosedChannelException;
+          || e instanceof ClosedChannelException
+          || e instanceof MessagingException.Overloaded;
   private static final Predicate<Throwable> CLOSED_PREDICATE = e ->
       e instanceof RaftException.ClosedSession
           || e instanceof RaftException.UnknownSession;
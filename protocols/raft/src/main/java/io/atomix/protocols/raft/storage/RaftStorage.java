@@ -29,6 +29,7 @@ import io.atomix.utils.serializer.Serializer;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.function.Predicate;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -72,6 +73,9 @@ public class RaftStorage {
   private final boolean dynamicCompaction;
   private final double freeDiskBuffer;
   private final boolean flushOnCommit;
+  private final boolean groupCommit;
+  private final Duration groupCommitWindow;
+  private final int groupCommitBytes;
   private final boolean retainStaleSnapshots;
   private final StorageStatistics statistics;
 
@@ -85,6 +89,9 @@ public class RaftStorage {
       boolean dynamicCompaction,
       double freeDiskBuffer,
       boolean flushOnCommit,
+      boolean groupCommit,
+      Duration groupCommitWindow,
+      int groupCommitBytes,
       boolean retainStaleSnapshots) {
     this.prefix = prefix;
     this.storageLevel = storageLevel;
@@ -95,6 +102,9 @@ public class RaftStorage {
     this.dynamicCompaction = dynamicCompaction;
     this.freeDiskBuffer = freeDiskBuffer;
     this.flushOnCommit = flushOnCommit;
+    this.groupCommit = groupCommit;
+    this.groupCommitWindow = groupCommitWindow;
+    this.groupCommitBytes = groupCommitBytes;
     this.retainStaleSnapshots = retainStaleSnapshots;
     this.statistics = new StorageStatistics(directory);
     directory.mkdirs();
@@ -193,6 +203,36 @@ public class RaftStorage {
     return flushOnCommit;
   }
 
+  /**
+   * Returns whether group commit is enabled.
+   * <p>
+   * When group commit is enabled, flushes of entries appended within the group commit window are batched
+   * and performed as a single flush to disk.
+   *
+   * @return Whether group commit is enabled.
+   */
+  public boolean isGroupCommit() {
+    return groupCommit;
+  }
+
+  /**
+   * Returns the maximum amount of time for which to batch flushes when group commit is enabled.
+   *
+   * @return The group commit window.
+   */
+  public Duration groupCommitWindow() {
+    return groupCommitWindow;
+  }
+
+  /**
+   * Returns the number of bytes after which a pending group commit is flushed immediately.
+   *
+   * @return The group commit byte budget.
+   */
+  public int groupCommitBytes() {
+    return groupCommitBytes;
+  }
+
   /**
    * Returns a boolean value indicating whether to retain stale snapshots on disk.
    * <p>
@@ -280,6 +320,9 @@ public class RaftStorage {
         .withMaxSegmentSize(maxSegmentSize)
         .withMaxEntriesPerSegment(maxEntriesPerSegment)
         .withFlushOnCommit(flushOnCommit)
+        .withGroupCommit(groupCommit)
+        .withGroupCommitWindow(groupCommitWindow)
+        .withGroupCommitBytes(groupCommitBytes)
         .build();
   }
 
@@ -340,6 +383,9 @@ public class RaftStorage {
     private static final boolean DEFAULT_DYNAMIC_COMPACTION = true;
     private static final double DEFAULT_FREE_DISK_BUFFER = .2;
     private static final boolean DEFAULT_FLUSH_ON_COMMIT = true;
+    private static final boolean DEFAULT_GROUP_COMMIT = false;
+    private static final Duration DEFAULT_GROUP_COMMIT_WINDOW = Duration.ofMillis(2);
+    private static final int DEFAULT_GROUP_COMMIT_BYTES = 1024 * 1024;
     private static final boolean DEFAULT_RETAIN_STALE_SNAPSHOTS = false;
 
     private String prefix = DEFAULT_PREFIX;
@@ -351,6 +397,9 @@ public class RaftStorage {
     private boolean dynamicCompaction = DEFAULT_DYNAMIC_COMPACTION;
     private double freeDiskBuffer = DEFAULT_FREE_DISK_BUFFER;
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private boolean groupCommit = DEFAULT_GROUP_COMMIT;
+    private Duration groupCommitWindow = DEFAULT_GROUP_COMMIT_WINDOW;
+    private int groupCommitBytes = DEFAULT_GROUP_COMMIT_BYTES;
     private boolean retainStaleSnapshots = DEFAULT_RETAIN_STALE_SNAPSHOTS;
 
     private Builder() {
@@ -530,6 +579,57 @@ public class RaftStorage {
       return this;
     }
 
+    /**
+     * Enables group commit, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled, flushes of entries appended within the group commit window are batched
+     * and performed as a single flush to disk. Leaders will not count their own log towards a commit until
+     * the entry has been flushed, so durability costs a single flush per batch rather than one per entry.
+     *
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit() {
+      return withGroupCommit(true);
+    }
+
+    /**
+     * Sets whether to enable group commit, returning the builder for method chaining.
+     *
+     * @param groupCommit Whether to enable group commit.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit(boolean groupCommit) {
+      this.groupCommit = groupCommit;
+      return this;
+    }
+
+    /**
+     * Sets the maximum amount of time for which to batch flushes when group commit is enabled, returning
+     * the builder for method chaining.
+     *
+     * @param groupCommitWindow The group commit window.
+     * @return The storage builder.
+     * @throws NullPointerException if the window is {@code null}
+     */
+    public Builder withGroupCommitWindow(Duration groupCommitWindow) {
+      this.groupCommitWindow = checkNotNull(groupCommitWindow, "groupCommitWindow cannot be null");
+      return this;
+    }
+
+    /**
+     * Sets the number of bytes after which a pending group commit is flushed immediately, returning the
+     * builder for method chaining.
+     *
+     * @param groupCommitBytes The group commit byte budget.
+     * @return The storage builder.
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public Builder withGroupCommitBytes(int groupCommitBytes) {
+      checkArgument(groupCommitBytes > 0, "groupCommitBytes must be positive");
+      this.groupCommitBytes = groupCommitBytes;
+      return this;
+    }
+
     /**
      * Enables retaining stale snapshots on disk, returning the builder for method chaining.
      * <p>
@@ -579,6 +679,9 @@ public class RaftStorage {
           dynamicCompaction,
           freeDiskBuffer,
           flushOnCommit,
+          groupCommit,
+          groupCommitWindow,
+          groupCommitBytes,
           retainStaleSnapshots);
     }
   }
@@ -22,6 +22,7 @@ import io.atomix.storage.journal.SegmentedJournal;
 import io.atomix.utils.serializer.Serializer;
 
 import java.io.File;
+import java.time.Duration;
 
 /**
  * Raft log.
@@ -67,7 +68,21 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
    * @return The Raft log reader.
    */
   public RaftLogReader openReader(long index, RaftLogReader.Mode mode) {
-    return new RaftLogReader(journal.openReader(index), this, mode);
+    return openReader(index, mode, false);
+  }
+
+  /**
+   * Opens a new Raft log reader with the given reader mode.
+   * <p>
+   * Entries read by a serialized reader retain their serialized bytes and are only decoded on demand.
+   *
+   * @param index      The index from which to begin reading entries.
+   * @param mode       The mode in which to read entries.
+   * @param serialized Whether the reader should return entries that retain their serialized bytes.
+   * @return The Raft log reader.
+   */
+  public RaftLogReader openReader(long index, RaftLogReader.Mode mode, boolean serialized) {
+    return new RaftLogReader(journal.openReader(index, serialized), this, mode);
   }
 
   /**
@@ -79,6 +94,15 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
     return flushOnCommit;
   }
 
+  /**
+   * Returns whether group commit is enabled for the log.
+   *
+   * @return Indicates whether group commit is enabled for the log.
+   */
+  public boolean isGroupCommit() {
+    return journal.isGroupCommit();
+  }
+
   /**
    * Commits entries up to the given index.
    *
@@ -295,6 +319,51 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Enables group commit for the log, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled, flushes of entries appended within the group commit window are batched
+     * and performed as a single flush to disk.
+     *
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit() {
+      return withGroupCommit(true);
+    }
+
+    /**
+     * Sets whether to enable group commit for the log, returning the builder for method chaining.
+     *
+     * @param groupCommit Whether to enable group commit for the log.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit(boolean groupCommit) {
+      journalBuilder.withGroupCommit(groupCommit);
+      return this;
+    }
+
+    /**
+     * Sets the maximum amount of time for which to batch flushes when group commit is enabled.
+     *
+     * @param groupCommitWindow The group commit window.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitWindow(Duration groupCommitWindow) {
+      journalBuilder.withGroupCommitWindow(groupCommitWindow);
+      return this;
+    }
+
+    /**
+     * Sets the number of bytes after which a pending group commit is flushed immediately.
+     *
+     * @param groupCommitBytes The group commit byte budget.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommitBytes(int groupCommitBytes) {
+      journalBuilder.withGroupCommitBytes(groupCommitBytes);
+      return this;
+    }
+
     @Override
     public RaftLog build() {
       return new RaftLog(journalBuilder.build(), flushOnCommit);
@@ -19,6 +19,8 @@ import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.storage.journal.DelegatingJournalWriter;
 import io.atomix.storage.journal.SegmentedJournalWriter;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Raft log writer.
  */
@@ -43,6 +45,9 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
 
   /**
    * Commits entries up to the given index.
+   * <p>
+   * If {@code flushOnCommit} is enabled, the log will be flushed to disk. When group commit is enabled, the
+   * flush is batched with flushes of other recently appended entries rather than performed synchronously.
    *
    * @param index The index up to which to commit entries.
    */
@@ -50,11 +55,46 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
     if (index > log.getCommitIndex()) {
       log.setCommitIndex(index);
       if (log.isFlushOnCommit()) {
-        flush();
+        if (log.isGroupCommit()) {
+          writer.flush(index);
+        } else {
+          flush();
+        }
       }
     }
   }
 
+  /**
+   * Returns whether group commit is enabled for the log.
+   *
+   * @return Indicates whether group commit is enabled for the log.
+   */
+  public boolean isGroupCommit() {
+    return log.isGroupCommit();
+  }
+
+  /**
+   * Flushes entries up to the given index to disk.
+   * <p>
+   * If group commit is enabled, the flush will be shared with all other entries flushed within the same
+   * group commit window.
+   *
+   * @param index The index up to which to flush entries.
+   * @return A future to be completed once entries up to the given index have been flushed to disk.
+   */
+  public CompletableFuture<Long> flush(long index) {
+    return writer.flush(index);
+  }
+
+  /**
+   * Returns the highest index known to have been flushed to disk.
+   *
+   * @return The highest index known to have been flushed to disk.
+   */
+  public long getFlushedIndex() {
+    return writer.getFlushedIndex();
+  }
+
   @Override
   public void truncate(long index) {
     if (index < log.getCommitIndex()) {
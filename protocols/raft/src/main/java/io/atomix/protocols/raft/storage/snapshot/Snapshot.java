@@ -58,6 +58,8 @@ public abstract class Snapshot implements AutoCloseable {
   protected final SnapshotDescriptor descriptor;
   protected final SnapshotStore store;
   private SnapshotWriter writer;
+  private int readers;
+  private boolean released;
 
   protected Snapshot(SnapshotDescriptor descriptor, SnapshotStore store) {
     this.descriptor = checkNotNull(descriptor, "descriptor cannot be null");
@@ -137,16 +139,40 @@ public abstract class Snapshot implements AutoCloseable {
   /**
    * Opens the given snapshot reader.
    */
-  protected SnapshotReader openReader(SnapshotReader reader, SnapshotDescriptor descriptor) {
+  protected synchronized SnapshotReader openReader(SnapshotReader reader, SnapshotDescriptor descriptor) {
     checkState(descriptor.isLocked(), "cannot read from unlocked snapshot descriptor");
+    readers++;
     return reader;
   }
 
   /**
    * Closes the current snapshot reader.
+   * <p>
+   * If the snapshot was released while the reader was open, the snapshot is closed and deleted once the last
+   * open reader is closed.
    */
   protected void closeReader(SnapshotReader reader) {
+    synchronized (this) {
+      if (--readers > 0 || !released) {
+        return;
+      }
+    }
+    close();
+    delete();
+  }
 
+  /**
+   * Closes and deletes the snapshot once all open readers have been closed.
+   */
+  void release() {
+    synchronized (this) {
+      if (readers > 0) {
+        released = true;
+        return;
+      }
+    }
+    close();
+    delete();
   }
 
   /**
@@ -39,10 +39,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class SnapshotReader implements BufferInput<SnapshotReader> {
   private final Buffer buffer;
   private final Snapshot snapshot;
+  private final int start;
+  private final int length;
 
   public SnapshotReader(Buffer buffer, Snapshot snapshot) {
     this.buffer = checkNotNull(buffer, "buffer cannot be null");
     this.snapshot = checkNotNull(snapshot, "snapshot cannot be null");
+    this.start = buffer.position();
+    this.length = buffer.remaining();
   }
 
   /**
@@ -68,6 +72,15 @@ public class SnapshotReader implements BufferInput<SnapshotReader> {
     return buffer.position();
   }
 
+  /**
+   * Returns the total number of bytes in the snapshot.
+   *
+   * @return The total number of bytes in the snapshot.
+   */
+  public int length() {
+    return length;
+  }
+
   @Override
   public int remaining() {
     return buffer.remaining();
@@ -84,6 +97,20 @@ public class SnapshotReader implements BufferInput<SnapshotReader> {
     return this;
   }
 
+  /**
+   * Reads bytes from the given offset in the snapshot without changing the reader's position.
+   *
+   * @param srcOffset The offset in the snapshot from which to read bytes.
+   * @param bytes     The array into which to read bytes.
+   * @param dstOffset The offset in the array at which to start writing bytes.
+   * @param length    The number of bytes to read.
+   * @return The snapshot reader.
+   */
+  public SnapshotReader read(int srcOffset, byte[] bytes, int dstOffset, int length) {
+    buffer.read(start + srcOffset, bytes, dstOffset, length);
+    return this;
+  }
+
   @Override
   public SnapshotReader read(Bytes bytes) {
     buffer.read(bytes);
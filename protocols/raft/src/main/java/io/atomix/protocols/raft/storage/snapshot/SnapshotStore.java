@@ -222,9 +222,7 @@ public class SnapshotStore implements AutoCloseable {
       snapshots.put(snapshot.index(), snapshot);
     } else if (lastEntry.getValue().index() < snapshot.index()) {
       snapshots.put(snapshot.index(), snapshot);
-      Snapshot lastSnapshot = lastEntry.getValue();
-      lastSnapshot.close();
-      lastSnapshot.delete();
+      lastEntry.getValue().release();
     } else if (storage.isRetainStaleSnapshots()) {
       snapshots.put(snapshot.index(), snapshot);
     } else {
@@ -18,6 +18,7 @@ package io.atomix.protocols.raft;
 import com.google.common.collect.Sets;
 import io.atomix.cluster.ClusterMembershipService;
 import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.primitive.AbstractAsyncPrimitive;
 import io.atomix.primitive.AsyncPrimitive;
 import io.atomix.primitive.PrimitiveBuilder;
@@ -50,7 +51,12 @@ import io.atomix.primitive.session.SessionMetadata;
 import io.atomix.protocols.raft.cluster.RaftClusterEvent;
 import io.atomix.protocols.raft.cluster.RaftMember;
 import io.atomix.protocols.raft.cluster.impl.DefaultRaftMember;
+import io.atomix.protocols.raft.protocol.InstallRequest;
+import io.atomix.protocols.raft.protocol.InstallResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.protocol.TestRaftProtocolFactory;
+import io.atomix.protocols.raft.session.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
@@ -60,10 +66,15 @@ import io.atomix.protocols.raft.storage.log.entry.KeepAliveEntry;
 import io.atomix.protocols.raft.storage.log.entry.MetadataEntry;
 import io.atomix.protocols.raft.storage.log.entry.OpenSessionEntry;
 import io.atomix.protocols.raft.storage.log.entry.QueryEntry;
+import io.atomix.protocols.raft.storage.snapshot.Snapshot;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotStore;
 import io.atomix.protocols.raft.storage.system.Configuration;
 import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.SharedThreadPoolContextFactory;
 import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.concurrent.ThreadContextFactory;
 import io.atomix.utils.serializer.Namespace;
 import io.atomix.utils.serializer.Serializer;
 import net.jodah.concurrentunit.ConcurrentTestCase;
@@ -71,9 +82,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -83,11 +96,13 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -95,7 +110,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -139,6 +156,10 @@ public class RaftTest extends ConcurrentTestCase {
   protected volatile List<RaftServer> servers = new ArrayList<>();
   protected volatile TestRaftProtocolFactory protocolFactory;
   protected volatile ThreadContext context;
+  protected volatile int maxCommandBatchSize;
+  protected volatile int snapshotChunkSize;
+  protected volatile ThreadContextFactory threadContextFactory;
+  protected volatile ThreadContextFactory compactionContextFactory;
 
   /**
    * Tests getting session metadata.
@@ -218,6 +239,316 @@ public class RaftTest extends ConcurrentTestCase {
     Thread.sleep(5000);
   }
 
+  /**
+   * Tests restoring services from a snapshot that copies the state of an unchanged service from a prior snapshot.
+   */
+  @Test
+  public void testRestoreCopiedServiceState() throws Throwable {
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive unchanged = createPrimitive(client, "unchanged");
+    TestPrimitive changed = createPrimitive(client, "changed");
+    submit(unchanged, 0, 10);
+    await(15000);
+    submit(changed, 0, 10);
+    await(15000);
+
+    for (RaftServer server : servers) {
+      server.compact().thenRun(this::resume);
+    }
+    await(15000, servers.size());
+
+    // Only modify one of the services before the second snapshot.
+    submit(changed, 0, 30);
+    await(15000);
+    for (RaftServer server : servers) {
+      server.compact().thenRun(this::resume);
+    }
+    await(15000, servers.size());
+
+    assertEquals(10, unchanged.count().get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(40, changed.count().get(10, TimeUnit.SECONDS).longValue());
+
+    client.close().get(10, TimeUnit.SECONDS);
+    for (RaftServer server : servers) {
+      server.shutdown().get(10, TimeUnit.SECONDS);
+    }
+
+    // Restart the cluster to restore the services from the second snapshot.
+    for (RaftMember member : members) {
+      createServer(member.memberId())
+          .bootstrap(members.stream().map(RaftMember::memberId).collect(Collectors.toList()))
+          .thenRun(this::resume);
+    }
+    await(30000, members.size());
+
+    client = createClient();
+    assertEquals(10, createPrimitive(client, "unchanged").count().get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(40, createPrimitive(client, "changed").count().get(10, TimeUnit.SECONDS).longValue());
+  }
+
+  /**
+   * Tests installing a snapshot on a late joining server with multiple snapshot chunks in flight.
+   */
+  @Test
+  public void testPipelinedSnapshotInstall() throws Throwable {
+    snapshotChunkSize = 16;
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    submit(primitive, 0, 100);
+    await(15000);
+
+    for (RaftServer server : servers) {
+      server.compact().thenRun(this::resume);
+    }
+    await(15000, servers.size());
+
+    MemberId joinerId = nextNodeId();
+    RaftServer joiner = createServer(joinerId);
+    joiner.addRoleChangeListener(s -> {
+      if (s == RaftServer.Role.FOLLOWER)
+        resume();
+    });
+    joiner.join(members.stream().map(RaftMember::memberId).collect(Collectors.toList())).thenRun(this::resume);
+    await(15000, 2);
+    submit(primitive, 0, 10);
+    await(15000);
+
+    SnapshotStore snapshotStore = createStorage(joinerId).openSnapshotStore();
+    assertNotNull(snapshotStore.getCurrentSnapshot());
+    snapshotStore.close();
+  }
+
+  /**
+   * Tests that a follower verifies and orders snapshot chunks and resumes a snapshot after a leader change.
+   */
+  @Test
+  public void testInstallSnapshotChunks() throws Throwable {
+    members.add(nextMember(RaftMember.Type.ACTIVE));
+    members.add(nextMember(RaftMember.Type.ACTIVE));
+    MemberId followerId = members.get(0).memberId();
+    MemberId leaderId = members.get(1).memberId();
+
+    // Start a single server of a two node cluster and install a snapshot on it from the other member.
+    RaftServer follower = createServer(followerId);
+    follower.bootstrap(members.stream().map(RaftMember::memberId).collect(Collectors.toList()));
+    RaftServerProtocol leader = protocolFactory.newServerProtocol(leaderId);
+    long time = System.currentTimeMillis();
+    while (follower.getRole() == RaftServer.Role.INACTIVE && System.currentTimeMillis() - time < 15000) {
+      Thread.sleep(10);
+    }
+
+    byte[] data = new byte[300];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+
+    // The first chunk of a new snapshot must be at offset 0.
+    InstallResponse response = install(leader, followerId, 1000, leaderId, data, 100, 100, false);
+    assertEquals(RaftResponse.Status.ERROR, response.status());
+    assertEquals(0, response.nextOffset());
+
+    // Chunks with invalid checksums are rejected.
+    InstallRequest corrupt = InstallRequest.builder()
+        .withTerm(1000)
+        .withLeader(leaderId)
+        .withIndex(10)
+        .withTimestamp(time)
+        .withOffset(0)
+        .withData(Arrays.copyOfRange(data, 0, 100))
+        .withChecksum(checksum(data, 0, 100) + 1)
+        .withComplete(false)
+        .build();
+    response = leader.install(followerId, corrupt).get(10, TimeUnit.SECONDS);
+    assertEquals(RaftResponse.Status.ERROR, response.status());
+    assertEquals(RaftError.Type.PROTOCOL_ERROR, response.error().type());
+    assertEquals(0, response.nextOffset());
+
+    response = install(leader, followerId, 1000, leaderId, data, 0, 100, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(100, response.nextOffset());
+
+    // Chunks received out of order are rejected with the next expected offset.
+    response = install(leader, followerId, 1000, leaderId, data, 200, 100, true);
+    assertEquals(RaftResponse.Status.ERROR, response.status());
+    assertEquals(100, response.nextOffset());
+
+    // A new leader with a different chunk size resumes from the next offset, overlapping the written bytes.
+    response = install(leader, followerId, 2000, leaderId, data, 50, 150, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(200, response.nextOffset());
+
+    // Chunks that have already been written are skipped.
+    response = install(leader, followerId, 2000, leaderId, data, 0, 100, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(200, response.nextOffset());
+
+    response = install(leader, followerId, 2000, leaderId, data, 200, 100, true);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(300, response.nextOffset());
+
+    SnapshotStore snapshotStore = createStorage(followerId).openSnapshotStore();
+    Snapshot snapshot = snapshotStore.getSnapshot(10);
+    assertNotNull(snapshot);
+    try (SnapshotReader reader = snapshot.openReader()) {
+      byte[] bytes = new byte[reader.length()];
+      reader.read(0, bytes, 0, bytes.length);
+      assertArrayEquals(data, bytes);
+    }
+    snapshotStore.close();
+  }
+
+  /**
+   * Sends a snapshot chunk to the given member.
+   */
+  private InstallResponse install(
+      RaftServerProtocol protocol, MemberId memberId, long term, MemberId leader, byte[] data, int offset, int length, boolean complete)
+      throws Exception {
+    return protocol.install(memberId, InstallRequest.builder()
+        .withTerm(term)
+        .withLeader(leader)
+        .withIndex(10)
+        .withTimestamp(System.currentTimeMillis())
+        .withOffset(offset)
+        .withData(Arrays.copyOfRange(data, offset, offset + length))
+        .withChecksum(checksum(data, offset, length))
+        .withComplete(complete)
+        .build())
+        .get(10, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Computes the checksum of a snapshot chunk.
+   */
+  private static long checksum(byte[] data, int offset, int length) {
+    CRC32 crc32 = new CRC32();
+    crc32.update(data, offset, length);
+    return crc32.getValue();
+  }
+
+  /**
+   * Tests that entries rejected due to messaging backpressure are resent to a slow follower.
+   */
+  @Test
+  public void testAppendOverloaded() throws Throwable {
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+
+    int leaderIndex = 0;
+    while (!servers.get(leaderIndex).isLeader()) {
+      leaderIndex++;
+    }
+    int slowIndex = (leaderIndex + 1) % servers.size();
+    int otherIndex = (leaderIndex + 2) % servers.size();
+
+    // Reject the next few appends to one follower as if too many messages were pending to it. The rejected entries
+    // must be resent, so no entries delivered to the follower should skip past the end of its log.
+    AtomicInteger rejected = new AtomicInteger();
+    AtomicLong lastIndex = new AtomicLong(-1);
+    protocolFactory.server(members.get(slowIndex).memberId()).failAppends(request -> {
+      if (request.entryCount() == 0) {
+        return null;
+      }
+      lastIndex.compareAndSet(-1, request.prevLogIndex());
+      if (rejected.getAndIncrement() < 3) {
+        return new MessagingException.Overloaded();
+      }
+      threadAssertTrue(request.prevLogIndex() <= lastIndex.get());
+      lastIndex.accumulateAndGet(request.prevLogIndex() + request.entryCount(), Math::max);
+      return null;
+    });
+
+    submit(primitive, 0, 10);
+    await(30000);
+    assertTrue(rejected.get() > 3);
+
+    // Once the other follower is stopped, commits depend on the slow follower having received every entry.
+    servers.get(otherIndex).shutdown().get(10, TimeUnit.SECONDS);
+    submit(primitive, 0, 10);
+    await(30000);
+    assertTrue(servers.get(leaderIndex).isLeader());
+  }
+
+  /**
+   * Tests that more than one append request is in flight to a follower at once.
+   */
+  @Test
+  public void testPipelinedAppends() throws Throwable {
+    // Release the held appends in order. The follower must end up with all the entries.
+    testPipelinedAppends(held -> held.forEach(future -> future.complete(null)));
+  }
+
+  /**
+   * Tests that replication to a follower recovers when an append fails while later appends are in flight.
+   */
+  @Test
+  public void testPipelinedAppendFailure() throws Throwable {
+    // Fail the first append and deliver the appends pipelined behind it. The follower rejects the later appends
+    // because they don't follow its log, and the leader must resend the missing entries.
+    testPipelinedAppends(held -> {
+      held.get(0).completeExceptionally(new ConnectException());
+      held.subList(1, held.size()).forEach(future -> future.complete(null));
+    });
+  }
+
+  /**
+   * Holds appends carrying entries to a follower while commands are committed through the other follower, then
+   * releases them and verifies the follower has received every entry.
+   *
+   * @param release releases the held appends, given in the order in which they were sent
+   */
+  private void testPipelinedAppends(Consumer<List<CompletableFuture<Void>>> release) throws Throwable {
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+
+    RaftServer leader = servers.stream().filter(RaftServer::isLeader).findFirst().get();
+    MemberId leaderId = leader.cluster().getMember().memberId();
+    MemberId followerId = members.stream()
+        .map(RaftMember::memberId)
+        .filter(memberId -> !memberId.equals(leaderId))
+        .findFirst()
+        .get();
+
+    // Appends time out after a second in the test protocol, so appends held within a second of the first were sent
+    // before the leader knew the outcome of the first.
+    List<CompletableFuture<Void>> held = new CopyOnWriteArrayList<>();
+    List<Long> heldTimes = new CopyOnWriteArrayList<>();
+    protocolFactory.server(followerId).delayAppends(request -> {
+      if (request.entryCount() == 0) {
+        return null;
+      }
+      CompletableFuture<Void> future = new CompletableFuture<>();
+      held.add(future);
+      heldTimes.add(System.currentTimeMillis());
+      return future;
+    });
+
+    // Commit the commands one at a time so each is sent to the follower in a separate append.
+    submit(primitive, 0, 10);
+    await(10000);
+
+    assertTrue(held.size() > 1);
+    assertTrue(heldTimes.get(1) - heldTimes.get(0) < 1000);
+    protocolFactory.server(followerId).delayAppends(null);
+    release.accept(held);
+
+    // Once the other follower is stopped, commits depend on the held follower having received every entry.
+    for (RaftServer server : servers) {
+      MemberId memberId = server.cluster().getMember().memberId();
+      if (!memberId.equals(leaderId) && !memberId.equals(followerId)) {
+        server.shutdown().get(10, TimeUnit.SECONDS);
+      }
+    }
+    submit(primitive, 0, 10);
+    await(30000);
+    assertTrue(leader.isLeader());
+  }
+
   /**
    * Submits a bunch of commands recursively.
    */
@@ -232,6 +563,26 @@ public class RaftTest extends ConcurrentTestCase {
     }
   }
 
+  /**
+   * Tests servers multiplexed onto a shared thread pool across a leader change.
+   */
+  @Test
+  public void testSharedThreadPool() throws Throwable {
+    threadContextFactory = new SharedThreadPoolContextFactory("raft-test-shared-%d", 2, LoggerFactory.getLogger(getClass()));
+    compactionContextFactory = new SharedThreadPoolContextFactory("raft-test-compaction-%d", 1, LoggerFactory.getLogger(getClass()));
+    List<RaftServer> servers = createServers(3);
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    submit(primitive, 0, 100);
+    await(30000);
+
+    RaftServer leader = servers.stream().filter(s -> s.getRole() == RaftServer.Role.LEADER).findFirst().get();
+    leader.shutdown().get(10, TimeUnit.SECONDS);
+
+    submit(primitive, 0, 100);
+    await(30000);
+  }
+
   /**
    * Tests transferring leadership.
    */
@@ -467,6 +818,53 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests submitting many concurrent commands with command batching enabled.
+   */
+  @Test
+  public void testThreeNodeBatchedCommands() throws Throwable {
+    maxCommandBatchSize = 10;
+    createServers(3);
+
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client);
+    primitive.onEvent(message -> {
+      threadAssertNotNull(message);
+      resume();
+    });
+
+    // Record the largest number of entries replicated to the followers in a single append request.
+    AtomicInteger maxEntryCount = new AtomicInteger();
+    for (RaftMember member : members) {
+      protocolFactory.server(member.memberId()).delayAppends(request -> {
+        maxEntryCount.accumulateAndGet(request.entryCount(), Math::max);
+        return null;
+      });
+    }
+
+    // Each command in a batch is written to its own entry, so every command is applied at a distinct index.
+    Set<Long> indexes = Sets.newConcurrentHashSet();
+    AtomicLong lastIndex = new AtomicLong();
+    for (int i = 0; i < 100; i++) {
+      primitive.write(String.valueOf(i)).thenAccept(index -> {
+        threadAssertTrue(index >= lastIndex.getAndSet(index));
+        indexes.add(index);
+        resume();
+      });
+    }
+    await(30000, 100);
+
+    assertEquals(100, indexes.size());
+
+    // The entries of a batch are replicated together.
+    assertTrue(maxEntryCount.get() > 1);
+
+    for (int i = 0; i < 10; i++) {
+      primitive.sendEvent(true).thenRun(this::resume);
+    }
+    await(30000, 20);
+  }
+
   /**
    * Tests submitting a command.
    */
@@ -637,6 +1035,37 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests linearizable queries submitted to followers.
+   */
+  @Test
+  public void testThreeNodeFollowerLinearizableQuery() throws Throwable {
+    testFollowerLinearizableQuery(3, CommunicationStrategy.FOLLOWERS);
+  }
+
+  /**
+   * Tests linearizable queries submitted to any server.
+   */
+  @Test
+  public void testFiveNodeAnyLinearizableQuery() throws Throwable {
+    testFollowerLinearizableQuery(5, CommunicationStrategy.ANY);
+  }
+
+  /**
+   * Tests that linearizable queries served via the leader's read index observe all prior writes.
+   */
+  private void testFollowerLinearizableQuery(int nodes, CommunicationStrategy strategy) throws Throwable {
+    createServers(nodes);
+
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client, ReadConsistency.LINEARIZABLE, strategy);
+    for (int i = 0; i < 10; i++) {
+      long writeIndex = primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+      long readIndex = primitive.read().get(10, TimeUnit.SECONDS);
+      assertTrue(readIndex >= writeIndex);
+    }
+  }
+
   /**
    * Tests submitting a sequential event.
    */
@@ -1221,19 +1650,37 @@ public class RaftTest extends ConcurrentTestCase {
     RaftServer.Builder builder = RaftServer.builder(memberId)
         .withMembershipService(mock(ClusterMembershipService.class))
         .withProtocol(protocolFactory.newServerProtocol(memberId))
-        .withStorage(RaftStorage.builder()
-            .withStorageLevel(StorageLevel.DISK)
-            .withDirectory(new File(String.format("target/test-logs/%s", memberId)))
-            .withSerializer(storageSerializer)
-            .withMaxSegmentSize(1024 * 10)
-            .withMaxEntriesPerSegment(10)
-            .build());
+        .withStorage(createStorage(memberId))
+        .withMaxCommandBatchSize(maxCommandBatchSize)
+        .withCommandBatchLinger(Duration.ofMillis(5));
+    if (snapshotChunkSize > 0) {
+      builder.withSnapshotChunkSize(snapshotChunkSize);
+    }
+    if (threadContextFactory != null) {
+      builder.withThreadContextFactory(threadContextFactory);
+    }
+    if (compactionContextFactory != null) {
+      builder.withCompactionContextFactory(compactionContextFactory);
+    }
 
     RaftServer server = builder.build();
     servers.add(server);
     return server;
   }
 
+  /**
+   * Creates the storage for a Raft server.
+   */
+  private RaftStorage createStorage(MemberId memberId) {
+    return RaftStorage.builder()
+        .withStorageLevel(StorageLevel.DISK)
+        .withDirectory(new File(String.format("target/test-logs/%s", memberId)))
+        .withSerializer(storageSerializer)
+        .withMaxSegmentSize(1024 * 10)
+        .withMaxEntriesPerSegment(10)
+        .build();
+  }
+
   /**
    * Creates a Raft client.
    */
@@ -1261,8 +1708,23 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a test session.
    */
   private SessionClient createSession(RaftClient client, ReadConsistency consistency) throws Exception {
-    return client.sessionBuilder("raft-test", TestPrimitiveType.INSTANCE, new ServiceConfig())
+    return createSession(client, consistency, CommunicationStrategy.LEADER);
+  }
+
+  /**
+   * Creates a test session.
+   */
+  private SessionClient createSession(RaftClient client, ReadConsistency consistency, CommunicationStrategy strategy) throws Exception {
+    return createSession(client, "raft-test", consistency, strategy);
+  }
+
+  /**
+   * Creates a test session.
+   */
+  private SessionClient createSession(RaftClient client, String name, ReadConsistency consistency, CommunicationStrategy strategy) throws Exception {
+    return client.sessionBuilder(name, TestPrimitiveType.INSTANCE, new ServiceConfig())
         .withReadConsistency(consistency)
+        .withCommunicationStrategy(strategy)
         .withMinTimeout(Duration.ofMillis(250))
         .withMaxTimeout(Duration.ofSeconds(5))
         .build()
@@ -1281,7 +1743,28 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a new primitive instance.
    */
   private TestPrimitive createPrimitive(RaftClient client, ReadConsistency consistency) throws Exception {
-    SessionClient partition = createSession(client, consistency);
+    return createPrimitive(client, consistency, CommunicationStrategy.LEADER);
+  }
+
+  /**
+   * Creates a new primitive instance.
+   */
+  private TestPrimitive createPrimitive(RaftClient client, ReadConsistency consistency, CommunicationStrategy strategy) throws Exception {
+    return createPrimitive(client, "raft-test", consistency, strategy);
+  }
+
+  /**
+   * Creates a new primitive instance.
+   */
+  private TestPrimitive createPrimitive(RaftClient client, String name) throws Exception {
+    return createPrimitive(client, name, ReadConsistency.LINEARIZABLE, CommunicationStrategy.LEADER);
+  }
+
+  /**
+   * Creates a new primitive instance.
+   */
+  private TestPrimitive createPrimitive(RaftClient client, String name, ReadConsistency consistency, CommunicationStrategy strategy) throws Exception {
+    SessionClient partition = createSession(client, name, consistency, strategy);
     ProxyClient<TestPrimitiveService> proxy = new DefaultProxyClient<>(
         "test",
         TestPrimitiveType.INSTANCE,
@@ -1290,7 +1773,7 @@ public class RaftTest extends ConcurrentTestCase {
         Collections.singletonList(partition),
         (key, partitions) -> partitions.get(0));
     PrimitiveRegistry registry = mock(PrimitiveRegistry.class);
-    when(registry.createPrimitive(any(String.class), any(PrimitiveType.class))).thenReturn(CompletableFuture.completedFuture(new PrimitiveInfo("raft-test", TestPrimitiveType.INSTANCE)));
+    when(registry.createPrimitive(any(String.class), any(PrimitiveType.class))).thenReturn(CompletableFuture.completedFuture(new PrimitiveInfo(name, TestPrimitiveType.INSTANCE)));
     return new TestPrimitiveImpl(proxy, registry);
   }
 
@@ -1333,9 +1816,19 @@ public class RaftTest extends ConcurrentTestCase {
     if (context != null) {
       context.close();
     }
+    if (threadContextFactory != null) {
+      threadContextFactory.close();
+      threadContextFactory = null;
+    }
+    if (compactionContextFactory != null) {
+      compactionContextFactory.close();
+      compactionContextFactory = null;
+    }
 
     members = new ArrayList<>();
     nextId = 0;
+    maxCommandBatchSize = 1;
+    snapshotChunkSize = 0;
     clients = new ArrayList<>();
     servers = new ArrayList<>();
     context = new SingleThreadContext("raft-test-messaging-%d");
@@ -1374,6 +1867,8 @@ public class RaftTest extends ConcurrentTestCase {
 
     CompletableFuture<Long> read();
 
+    CompletableFuture<Long> count();
+
     CompletableFuture<Long> sendEvent(boolean sender);
 
     CompletableFuture<Void> onEvent(Consumer<Long> callback);
@@ -1407,6 +1902,9 @@ public class RaftTest extends ConcurrentTestCase {
     @Query
     long read();
 
+    @Query
+    long count();
+
     @Command
     long sendEvent(boolean sender);
 
@@ -1443,6 +1941,11 @@ public class RaftTest extends ConcurrentTestCase {
       return getProxyClient().applyBy(name(), service -> service.read());
     }
 
+    @Override
+    public CompletableFuture<Long> count() {
+      return getProxyClient().applyBy(name(), service -> service.count());
+    }
+
     @Override
     public CompletableFuture<Long> sendEvent(boolean sender) {
       return getProxyClient().applyBy(name(), service -> service.sendEvent(sender));
@@ -1498,6 +2001,7 @@ public class RaftTest extends ConcurrentTestCase {
   public static class TestPrimitiveServiceImpl extends AbstractPrimitiveService<TestPrimitiveClient> implements TestPrimitiveService {
     private SessionId expire;
     private SessionId close;
+    private long count;
 
     public TestPrimitiveServiceImpl(ServiceConfig config) {
       super(TestPrimitiveType.INSTANCE, TestPrimitiveClient.class);
@@ -1524,16 +2028,17 @@ public class RaftTest extends ConcurrentTestCase {
 
     @Override
     public void backup(BackupOutput writer) {
-      writer.writeLong(10);
+      writer.writeLong(count);
     }
 
     @Override
     public void restore(BackupInput reader) {
-      assertEquals(10, reader.readLong());
+      count = reader.readLong();
     }
 
     @Override
     public long write(String value) {
+      count++;
       return getCurrentIndex();
     }
 
@@ -1542,6 +2047,11 @@ public class RaftTest extends ConcurrentTestCase {
       return getCurrentIndex();
     }
 
+    @Override
+    public long count() {
+      return count;
+    }
+
     @Override
     public long sendEvent(boolean sender) {
       if (sender) {
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.impl;
+
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.PrimitiveBuilder;
+import io.atomix.primitive.PrimitiveManagementService;
+import io.atomix.primitive.PrimitiveType;
+import io.atomix.primitive.PrimitiveTypeRegistry;
+import io.atomix.primitive.config.PrimitiveConfig;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.primitive.service.AbstractPrimitiveService;
+import io.atomix.primitive.service.BackupInput;
+import io.atomix.primitive.service.BackupOutput;
+import io.atomix.primitive.service.PrimitiveService;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceExecutor;
+import io.atomix.protocols.raft.RaftException;
+import io.atomix.protocols.raft.ReadConsistency;
+import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
+import io.atomix.protocols.raft.storage.log.entry.OpenSessionEntry;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadModel;
+import io.atomix.utils.serializer.Namespace;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Raft service manager test.
+ */
+public class RaftServiceManagerTest {
+  private static final Path PATH = Paths.get("target/test-logs/service-manager");
+  private static final OperationId RUN = OperationId.command("run");
+
+  private static final Serializer SERIALIZER = Serializer.using(Namespace.builder()
+      .register(CommandEntry.class)
+      .register(InitializeEntry.class)
+      .register(OpenSessionEntry.class)
+      .register(PrimitiveOperation.class)
+      .register(DefaultOperationId.class)
+      .register(OperationType.class)
+      .register(ReadConsistency.class)
+      .register(byte[].class)
+      .build());
+
+  private RaftContext raft;
+  private TestService service;
+
+  @Test
+  public void testApplyBacklogInOrder() throws Exception {
+    int commands = RaftServiceManager.MAX_APPLY_BATCH_SIZE * 2 + 10;
+    long sessionId = openSession();
+    long lastIndex = 0;
+    for (int i = 1; i <= commands; i++) {
+      lastIndex = appendCommand(sessionId, i);
+    }
+    long commitIndex = lastIndex;
+    raft.getLogWriter().commit(commitIndex);
+
+    // The drain yields to other tasks in the Raft thread after each batch, so a task submitted right after the
+    // entries are enqueued runs once the first batch has been read.
+    CompletableFuture<Long> lastAppliedAfterFirstBatch = new CompletableFuture<>();
+    CompletableFuture<OperationResult> future = onRaftThread(() -> {
+      CompletableFuture<OperationResult> result = raft.getServiceManager().apply(commitIndex);
+      raft.getThreadContext().execute(() -> lastAppliedAfterFirstBatch.complete(raft.getLastApplied()));
+      return result;
+    });
+
+    assertEquals(sessionId + RaftServiceManager.MAX_APPLY_BATCH_SIZE, lastAppliedAfterFirstBatch.get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(commitIndex, future.get(10, TimeUnit.SECONDS).index());
+    assertEquals(commitIndex, raft.getLastApplied());
+
+    List<Long> applied = service.applied();
+    assertEquals(commands, applied.size());
+    for (int i = 0; i < applied.size(); i++) {
+      assertEquals(sessionId + i + 1, applied.get(i).longValue());
+    }
+  }
+
+  @Test
+  public void testApplyFuturesWithinBatch() throws Exception {
+    long sessionId = openSession();
+    List<Long> indexes = new ArrayList<>();
+    for (int i = 1; i <= 10; i++) {
+      indexes.add(appendCommand(sessionId, i));
+    }
+    raft.getLogWriter().commit(indexes.get(indexes.size() - 1));
+
+    // Apply every index in a single Raft task so all of the entries are read and applied in one batch.
+    List<CompletableFuture<OperationResult>> futures = onRaftThread(() -> {
+      List<CompletableFuture<OperationResult>> results = new ArrayList<>();
+      for (long index : indexes) {
+        results.add(raft.getServiceManager().apply(index));
+      }
+      return results;
+    });
+
+    for (int i = 0; i < indexes.size(); i++) {
+      assertEquals(indexes.get(i).longValue(), futures.get(i).get(10, TimeUnit.SECONDS).index());
+    }
+    assertEquals(indexes, service.applied());
+  }
+
+  @Test
+  public void testApplyFailureWithinBatch() throws Exception {
+    long sessionId = openSession();
+    long firstIndex = appendCommand(sessionId, 1);
+    // A command for an unknown session fails when it's applied.
+    appendCommand(sessionId + 100, 1);
+    long secondIndex = appendCommand(sessionId, 2);
+    long thirdIndex = appendCommand(sessionId, 3);
+    raft.getLogWriter().commit(thirdIndex);
+
+    List<CompletableFuture<OperationResult>> futures = onRaftThread(() -> {
+      List<CompletableFuture<OperationResult>> results = new ArrayList<>();
+      for (long index = firstIndex; index <= thirdIndex; index++) {
+        results.add(raft.getServiceManager().apply(index));
+      }
+      return results;
+    });
+
+    assertEquals(firstIndex, futures.get(0).get(10, TimeUnit.SECONDS).index());
+    try {
+      futures.get(1).get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof RaftException.UnknownSession);
+    }
+    assertEquals(secondIndex, futures.get(2).get(10, TimeUnit.SECONDS).index());
+    assertEquals(thirdIndex, futures.get(3).get(10, TimeUnit.SECONDS).index());
+    assertEquals(thirdIndex, raft.getLastApplied());
+
+    List<Long> applied = service.applied();
+    assertEquals(3, applied.size());
+    assertEquals(firstIndex, applied.get(0).longValue());
+    assertEquals(secondIndex, applied.get(1).longValue());
+    assertEquals(thirdIndex, applied.get(2).longValue());
+  }
+
+  /**
+   * Initializes the log, opens a session and applies both entries.
+   *
+   * @return the session identifier
+   */
+  private long openSession() throws Exception {
+    RaftLogWriter writer = raft.getLogWriter();
+    writer.append(new InitializeEntry(1, System.currentTimeMillis()));
+    long sessionId = writer.append(new OpenSessionEntry(
+        1,
+        System.currentTimeMillis(),
+        "test",
+        "test",
+        TestType.INSTANCE.name(),
+        Serializer.using(TestType.INSTANCE.namespace()).encode(new ServiceConfig()),
+        ReadConsistency.LINEARIZABLE,
+        100,
+        5000)).index();
+    writer.commit(sessionId);
+    onRaftThread(() -> raft.getServiceManager().apply(sessionId)).get(10, TimeUnit.SECONDS);
+    service = (TestService) TestType.INSTANCE.service;
+    return sessionId;
+  }
+
+  /**
+   * Appends a command for the given session.
+   *
+   * @return the index of the command
+   */
+  private long appendCommand(long sessionId, long sequence) {
+    return raft.getLogWriter().append(new CommandEntry(
+        1,
+        System.currentTimeMillis(),
+        sessionId,
+        sequence,
+        PrimitiveOperation.operation(RUN))).index();
+  }
+
+  /**
+   * Runs the given supplier on the Raft thread and returns its result.
+   */
+  private <T> T onRaftThread(Supplier<T> supplier) throws Exception {
+    return CompletableFuture.supplyAsync(supplier, raft.getThreadContext()).get(10, TimeUnit.SECONDS);
+  }
+
+  @Before
+  public void setupContext() throws Exception {
+    deleteStorage();
+    RaftStorage storage = RaftStorage.builder()
+        .withStorageLevel(StorageLevel.MEMORY)
+        .withDirectory(PATH.toFile())
+        .withSerializer(SERIALIZER)
+        .build();
+    PrimitiveTypeRegistry registry = mock(PrimitiveTypeRegistry.class);
+    when(registry.getPrimitiveType(TestType.INSTANCE.name())).thenReturn(TestType.INSTANCE);
+    raft = new RaftContext(
+        "test",
+        MemberId.from("test"),
+        mock(ClusterMembershipService.class),
+        mock(RaftServerProtocol.class),
+        storage,
+        registry,
+        ThreadModel.SHARED_THREAD_POOL,
+        1);
+  }
+
+  @After
+  public void teardownContext() throws Exception {
+    if (raft != null) {
+      raft.close();
+      raft = null;
+    }
+    deleteStorage();
+  }
+
+  private void deleteStorage() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+
+  /**
+   * Test primitive type.
+   */
+  private static class TestType implements PrimitiveType {
+    private static final TestType INSTANCE = new TestType();
+    private volatile PrimitiveService service;
+
+    @Override
+    public String name() {
+      return "service-manager-test";
+    }
+
+    @Override
+    public PrimitiveConfig newConfig() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveBuilder newBuilder(String primitiveName, PrimitiveConfig config, PrimitiveManagementService managementService) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public PrimitiveService newService(ServiceConfig config) {
+      service = new TestService();
+      return service;
+    }
+  }
+
+  /**
+   * Test service that records the index of each applied command.
+   */
+  private static class TestService extends AbstractPrimitiveService {
+    private final List<Long> applied = new ArrayList<>();
+
+    TestService() {
+      super(TestType.INSTANCE);
+    }
+
+    @Override
+    protected void configure(ServiceExecutor executor) {
+      executor.handle(RUN, commit -> {
+        applied.add(commit.index());
+        return null;
+      });
+    }
+
+    List<Long> applied() {
+      return new ArrayList<>(applied);
+    }
+
+    @Override
+    public void backup(BackupOutput output) {
+    }
+
+    @Override
+    public void restore(BackupInput input) {
+    }
+  }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.partition.impl;
+
+import com.google.common.collect.Maps;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.ClusterCommunicationService;
+import io.atomix.cluster.messaging.MessagingException;
+import io.atomix.protocols.raft.RaftError;
+import io.atomix.protocols.raft.protocol.AppendRequest;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Raft heartbeat aggregator test.
+ */
+public class RaftHeartbeatAggregatorTest {
+  private static final MemberId MEMBER_1 = MemberId.from("1");
+  private static final MemberId MEMBER_2 = MemberId.from("2");
+  private static final String APPEND_SUBJECT = "test-append";
+
+  @Test
+  public void testBatchHeartbeatsWhileInFlight() throws Exception {
+    Map<MemberId, TestCommunicationService> members = Maps.newConcurrentMap();
+    TestCommunicationService sender = new TestCommunicationService(MEMBER_1, members);
+    TestCommunicationService receiver = new TestCommunicationService(MEMBER_2, members);
+
+    RaftHeartbeatAggregator senderAggregator = new RaftHeartbeatAggregator("test", sender, Duration.ofMillis(100));
+    RaftHeartbeatAggregator receiverAggregator = new RaftHeartbeatAggregator("test", receiver, Duration.ofMillis(100));
+    senderAggregator.start().join();
+    receiverAggregator.start().join();
+
+    List<AppendRequest> received = new CopyOnWriteArrayList<>();
+    receiverAggregator.registerAppendHandler(APPEND_SUBJECT, request -> {
+      received.add(request);
+      return CompletableFuture.completedFuture(response());
+    });
+
+    sender.hold();
+    CompletableFuture<AppendResponse> first = senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat());
+    CompletableFuture<AppendResponse> second = senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat());
+    CompletableFuture<AppendResponse> third = senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat());
+
+    // Only the first heartbeat is sent; the others are queued until the first batch completes.
+    assertEquals(1, sender.sent.size());
+    assertFalse(first.isDone());
+
+    sender.release();
+    assertTrue(first.join().succeeded());
+    assertTrue(second.join().succeeded());
+    assertTrue(third.join().succeeded());
+    assertEquals(2, sender.sent.size());
+    assertEquals(3, received.size());
+  }
+
+  @Test
+  public void testMissingAppendHandler() throws Exception {
+    Map<MemberId, TestCommunicationService> members = Maps.newConcurrentMap();
+    TestCommunicationService sender = new TestCommunicationService(MEMBER_1, members);
+    TestCommunicationService receiver = new TestCommunicationService(MEMBER_2, members);
+
+    RaftHeartbeatAggregator senderAggregator = new RaftHeartbeatAggregator("test", sender, Duration.ofMillis(100));
+    RaftHeartbeatAggregator receiverAggregator = new RaftHeartbeatAggregator("test", receiver, Duration.ofMillis(100));
+    senderAggregator.start().join();
+    receiverAggregator.start().join();
+
+    try {
+      senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat()).join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.NoRemoteHandler);
+    }
+  }
+
+  @Test
+  public void testBatchTimeout() throws Exception {
+    Map<MemberId, TestCommunicationService> members = Maps.newConcurrentMap();
+    TestCommunicationService sender = new TestCommunicationService(MEMBER_1, members);
+    TestCommunicationService receiver = new TestCommunicationService(MEMBER_2, members);
+
+    RaftHeartbeatAggregator senderAggregator = new RaftHeartbeatAggregator("test", sender, Duration.ofMillis(250));
+    RaftHeartbeatAggregator receiverAggregator = new RaftHeartbeatAggregator("test", receiver, Duration.ofMillis(100));
+    senderAggregator.start().join();
+    receiverAggregator.start().join();
+    receiverAggregator.registerAppendHandler(APPEND_SUBJECT, request -> CompletableFuture.completedFuture(response()));
+
+    senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat()).join();
+    assertEquals(Collections.singletonList(Duration.ofMillis(250)), sender.timeouts);
+  }
+
+  @Test
+  public void testSlowPartitionDoesNotDelayBatch() throws Exception {
+    Map<MemberId, TestCommunicationService> members = Maps.newConcurrentMap();
+    TestCommunicationService sender = new TestCommunicationService(MEMBER_1, members);
+    TestCommunicationService receiver = new TestCommunicationService(MEMBER_2, members);
+
+    RaftHeartbeatAggregator senderAggregator = new RaftHeartbeatAggregator("test", sender, Duration.ofSeconds(1));
+    RaftHeartbeatAggregator receiverAggregator = new RaftHeartbeatAggregator("test", receiver, Duration.ofSeconds(1));
+    senderAggregator.start().join();
+    receiverAggregator.start().join();
+
+    CompletableFuture<AppendResponse> slowResponse = new CompletableFuture<>();
+    receiverAggregator.registerAppendHandler(APPEND_SUBJECT, request -> CompletableFuture.completedFuture(response()));
+    receiverAggregator.registerAppendHandler("slow-append", request -> slowResponse);
+
+    // Queue heartbeats for both partitions behind an in-flight batch so they're sent in the same batch.
+    sender.hold();
+    CompletableFuture<AppendResponse> first = senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat());
+    CompletableFuture<AppendResponse> slow = senderAggregator.append("slow-append", MEMBER_2, heartbeat());
+    CompletableFuture<AppendResponse> fast = senderAggregator.append(APPEND_SUBJECT, MEMBER_2, heartbeat());
+    sender.release();
+    assertTrue(first.join().succeeded());
+    assertEquals(2, sender.sent.size());
+
+    // The finished partition's response is returned once half the batch timeout has elapsed, and the slow
+    // partition's heartbeat is failed rather than holding up the batch.
+    assertTrue(fast.get(5, TimeUnit.SECONDS).succeeded());
+    AppendResponse slowResult = slow.get(5, TimeUnit.SECONDS);
+    assertEquals(RaftResponse.Status.ERROR, slowResult.status());
+    assertEquals(RaftError.Type.UNAVAILABLE, slowResult.error().type());
+
+    receiverAggregator.stop();
+    senderAggregator.stop();
+  }
+
+  @Test
+  public void testAppendWaitsForCoalescedHeartbeat() throws Exception {
+    Map<MemberId, TestCommunicationService> members = Maps.newConcurrentMap();
+    TestCommunicationService sender = new TestCommunicationService(MEMBER_1, members);
+    TestCommunicationService receiver = new TestCommunicationService(MEMBER_2, members);
+    Serializer serializer = Serializer.using(RaftNamespaces.RAFT_PROTOCOL);
+
+    RaftHeartbeatAggregator senderAggregator = new RaftHeartbeatAggregator("test", sender, Duration.ofMillis(100));
+    RaftHeartbeatAggregator receiverAggregator = new RaftHeartbeatAggregator("test", receiver, Duration.ofMillis(100));
+    senderAggregator.start().join();
+    receiverAggregator.start().join();
+
+    RaftServerCommunicator senderProtocol = new RaftServerCommunicator("test", serializer, sender, senderAggregator);
+    RaftServerCommunicator receiverProtocol = new RaftServerCommunicator("test", serializer, receiver, receiverAggregator);
+
+    List<Integer> received = new CopyOnWriteArrayList<>();
+    receiverProtocol.registerAppendHandler(request -> {
+      received.add(request.entryCount());
+      return CompletableFuture.completedFuture(response());
+    });
+
+    sender.hold();
+    CompletableFuture<AppendResponse> heartbeat = senderProtocol.append(MEMBER_2, heartbeat());
+    CompletableFuture<AppendResponse> append = senderProtocol.append(MEMBER_2, append());
+
+    // The append must not be sent until the coalesced heartbeat completes.
+    assertEquals(1, sender.sent.size());
+
+    sender.release();
+    heartbeat.join();
+    append.join();
+    assertEquals(2, sender.sent.size());
+    assertEquals(0, (int) received.get(0));
+    assertEquals(1, (int) received.get(1));
+
+    // Heartbeats sent while an append is in flight are sent directly to preserve ordering.
+    sender.hold();
+    CompletableFuture<AppendResponse> nextAppend = senderProtocol.append(MEMBER_2, append());
+    CompletableFuture<AppendResponse> nextHeartbeat = senderProtocol.append(MEMBER_2, heartbeat());
+    assertEquals(4, sender.sent.size());
+    assertFalse(sender.sent.get(3).endsWith("-append-batch"));
+
+    sender.release();
+    nextAppend.join();
+    nextHeartbeat.join();
+    assertEquals(1, (int) received.get(2));
+    assertEquals(0, (int) received.get(3));
+  }
+
+  private static AppendRequest heartbeat() {
+    return AppendRequest.builder()
+        .withTerm(1)
+        .withLeader(MEMBER_1)
+        .withPrevLogIndex(0)
+        .withPrevLogTerm(0)
+        .withEntries(Collections.emptyList())
+        .withCommitIndex(0)
+        .build();
+  }
+
+  private static AppendRequest append() {
+    return AppendRequest.builder()
+        .withTerm(1)
+        .withLeader(MEMBER_1)
+        .withPrevLogIndex(0)
+        .withPrevLogTerm(0)
+        .withSerializedEntries(Collections.singletonList(new byte[]{1}))
+        .withCommitIndex(0)
+        .build();
+  }
+
+  private static AppendResponse response() {
+    return AppendResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withTerm(1)
+        .withSucceeded(true)
+        .withLastLogIndex(0)
+        .build();
+  }
+
+  /**
+   * Test cluster communication service that delivers messages directly to other members.
+   */
+  private static class TestCommunicationService implements ClusterCommunicationService {
+    private final MemberId memberId;
+    private final Map<MemberId, TestCommunicationService> members;
+    private final Map<String, Function<byte[], CompletableFuture<byte[]>>> handlers = Maps.newConcurrentMap();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final List<Duration> timeouts = new CopyOnWriteArrayList<>();
+    private List<Runnable> held;
+
+    TestCommunicationService(MemberId memberId, Map<MemberId, TestCommunicationService> members) {
+      this.memberId = memberId;
+      this.members = members;
+      members.put(memberId, this);
+    }
+
+    /**
+     * Holds outgoing messages until {@link #release()} is called.
+     */
+    synchronized void hold() {
+      held = new ArrayList<>();
+    }
+
+    /**
+     * Delivers held messages and stops holding messages.
+     */
+    void release() {
+      List<Runnable> deliveries;
+      synchronized (this) {
+        deliveries = held;
+        held = null;
+      }
+      deliveries.forEach(Runnable::run);
+    }
+
+    @Override
+    public <M> void broadcast(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void broadcastIncludeSelf(String subject, M message, Function<M, byte[]> encoder) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> unicast(String subject, M message, Function<M, byte[]> encoder, MemberId toMemberId) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> void multicast(String subject, M message, Function<M, byte[]> encoder, Set<MemberId> memberIds) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M, R> CompletableFuture<R> send(
+        String subject,
+        M message,
+        Function<M, byte[]> encoder,
+        Function<byte[], R> decoder,
+        MemberId toMemberId,
+        Duration timeout) {
+      sent.add(subject);
+      if (timeout != null) {
+        timeouts.add(timeout);
+      }
+      byte[] payload = encoder.apply(message);
+      CompletableFuture<R> future = new CompletableFuture<>();
+      Runnable delivery = () -> {
+        TestCommunicationService member = members.get(toMemberId);
+        Function<byte[], CompletableFuture<byte[]>> handler = member != null ? member.handlers.get(subject) : null;
+        if (handler == null) {
+          future.completeExceptionally(new MessagingException.NoRemoteHandler());
+        } else {
+          handler.apply(payload).whenComplete((response, error) -> {
+            if (error == null) {
+              future.complete(decoder.apply(response));
+            } else {
+              future.completeExceptionally(error);
+            }
+          });
+        }
+      };
+      synchronized (this) {
+        if (held != null) {
+          held.add(delivery);
+          return future;
+        }
+      }
+      delivery.run();
+      return future;
+    }
+
+    @Override
+    public <M, R> CompletableFuture<R> send(
+        String subject,
+        M message,
+        Function<M, byte[]> encoder,
+        Function<byte[], R> decoder,
+        MemberId toMemberId) {
+      return send(subject, message, encoder, decoder, toMemberId, null);
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject,
+        Function<byte[], M> decoder,
+        Function<M, R> handler,
+        Function<R, byte[]> encoder,
+        Executor executor) {
+      handlers.put(subject, payload -> CompletableFuture.completedFuture(
+          encoder.apply(handler.apply(decoder.apply(payload)))));
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public <M, R> CompletableFuture<Void> subscribe(
+        String subject,
+        Function<byte[], M> decoder,
+        Function<M, CompletableFuture<R>> handler,
+        Function<R, byte[]> encoder) {
+      handlers.put(subject, payload -> handler.apply(decoder.apply(payload)).thenApply(encoder));
+      return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(
+        String subject,
+        Function<byte[], M> decoder,
+        Consumer<M> handler,
+        Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <M> CompletableFuture<Void> subscribe(
+        String subject,
+        Function<byte[], M> decoder,
+        BiConsumer<Address, M> handler,
+        Executor executor) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void unsubscribe(String subject) {
+      handlers.remove(subject);
+    }
+  }
+}
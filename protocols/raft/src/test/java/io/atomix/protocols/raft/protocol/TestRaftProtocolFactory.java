@@ -52,4 +52,14 @@ public class TestRaftProtocolFactory {
   public RaftServerProtocol newServerProtocol(MemberId memberId) {
     return new TestRaftServerProtocol(memberId, servers, clients, context);
   }
+
+  /**
+   * Returns the test server protocol for the given member.
+   *
+   * @param memberId the server member identifier
+   * @return the test server protocol or {@code null} if no protocol has been created for the member
+   */
+  public TestRaftServerProtocol server(MemberId memberId) {
+    return servers.get(memberId);
+  }
 }
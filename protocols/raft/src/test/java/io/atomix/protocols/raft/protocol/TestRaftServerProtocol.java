@@ -44,9 +44,12 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
   private Function<ReconfigureRequest, CompletableFuture<ReconfigureResponse>> reconfigureHandler;
   private Function<InstallRequest, CompletableFuture<InstallResponse>> installHandler;
   private Function<TransferRequest, CompletableFuture<TransferResponse>> transferHandler;
+  private Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> readIndexHandler;
   private Function<PollRequest, CompletableFuture<PollResponse>> pollHandler;
   private Function<VoteRequest, CompletableFuture<VoteResponse>> voteHandler;
   private Function<AppendRequest, CompletableFuture<AppendResponse>> appendHandler;
+  private volatile Function<AppendRequest, Throwable> appendFailures;
+  private volatile Function<AppendRequest, CompletableFuture<Void>> appendDelays;
   private final Map<Long, Consumer<ResetRequest>> resetListeners = Maps.newConcurrentMap();
 
   public TestRaftServerProtocol(
@@ -136,6 +139,11 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.transfer(request)));
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.readIndex(request)));
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.poll(request)));
@@ -377,6 +385,24 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     this.transferHandler = null;
   }
 
+  CompletableFuture<ReadIndexResponse> readIndex(ReadIndexRequest request) {
+    if (readIndexHandler != null) {
+      return readIndexHandler.apply(request);
+    } else {
+      return Futures.exceptionalFuture(new ConnectException());
+    }
+  }
+
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    this.readIndexHandler = handler;
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    this.readIndexHandler = null;
+  }
+
   CompletableFuture<PollResponse> poll(PollRequest request) {
     if (pollHandler != null) {
       return pollHandler.apply(request);
@@ -413,7 +439,40 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     this.voteHandler = null;
   }
 
+  /**
+   * Sets a function with which to fail append requests sent to this server.
+   *
+   * @param appendFailures a function returning the error with which to fail a request, or {@code null} to handle it
+   */
+  public void failAppends(Function<AppendRequest, Throwable> appendFailures) {
+    this.appendFailures = appendFailures;
+  }
+
+  /**
+   * Sets a function with which to delay append requests sent to this server.
+   *
+   * @param appendDelays a function returning a future to be completed once the request may be handled, or
+   *     {@code null} to handle it immediately. If the future is failed, the request is failed with the same error.
+   */
+  public void delayAppends(Function<AppendRequest, CompletableFuture<Void>> appendDelays) {
+    this.appendDelays = appendDelays;
+  }
+
   CompletableFuture<AppendResponse> append(AppendRequest request) {
+    Function<AppendRequest, Throwable> appendFailures = this.appendFailures;
+    Throwable error = appendFailures != null ? appendFailures.apply(request) : null;
+    if (error != null) {
+      return Futures.exceptionalFuture(error);
+    }
+    Function<AppendRequest, CompletableFuture<Void>> appendDelays = this.appendDelays;
+    CompletableFuture<Void> delay = appendDelays != null ? appendDelays.apply(request) : null;
+    if (delay != null) {
+      return delay.thenCompose(v -> handleAppend(request));
+    }
+    return handleAppend(request);
+  }
+
+  private CompletableFuture<AppendResponse> handleAppend(AppendRequest request) {
     if (appendHandler != null) {
       return appendHandler.apply(request);
     } else {
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.session.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.MessagingException;
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.protocols.raft.protocol.CommandRequest;
+import io.atomix.protocols.raft.protocol.CommandResponse;
+import io.atomix.protocols.raft.protocol.RaftClientProtocol;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.session.CommunicationStrategy;
+import io.atomix.storage.buffer.HeapBytes;
+import io.atomix.utils.concurrent.Futures;
+import io.atomix.utils.concurrent.Scheduled;
+import io.atomix.utils.concurrent.ThreadContext;
+import io.atomix.utils.logging.LoggerContext;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Raft session connection test.
+ */
+public class RaftSessionConnectionTest {
+  private static final MemberId LEADER = MemberId.from("a");
+  private static final List<MemberId> MEMBERS = Arrays.asList(MemberId.from("a"), MemberId.from("b"), MemberId.from("c"));
+
+  /**
+   * Tests that a request rejected due to backpressure is resent to the same member after a backoff.
+   */
+  @Test
+  public void testBackoffOverloadedRequest() throws Throwable {
+    RaftClientProtocol protocol = mock(RaftClientProtocol.class);
+    when(protocol.command(any(MemberId.class), any(CommandRequest.class)))
+        .thenReturn(Futures.exceptionalFuture(new MessagingException.Overloaded()))
+        .thenReturn(CompletableFuture.completedFuture(CommandResponse.builder()
+            .withStatus(RaftResponse.Status.OK)
+            .withIndex(10)
+            .withResult("Hello world!".getBytes())
+            .build()));
+
+    TestContext context = new TestContext();
+    RaftSessionConnection connection = createConnection(protocol, context);
+
+    CompletableFuture<CommandResponse> future = connection.command(createRequest());
+    assertFalse(future.isDone());
+    assertEquals(1, context.delays.size());
+    assertEquals(Duration.ofMillis(50), context.delays.get(0));
+
+    context.runScheduled();
+    assertTrue(future.isDone());
+    assertEquals(RaftResponse.Status.OK, future.get().status());
+    verify(protocol, times(2)).command(eq(LEADER), any(CommandRequest.class));
+  }
+
+  /**
+   * Tests that a request is failed once it has been rejected due to backpressure too many times.
+   */
+  @Test
+  public void testFailOverloadedRequest() throws Throwable {
+    RaftClientProtocol protocol = mock(RaftClientProtocol.class);
+    when(protocol.command(any(MemberId.class), any(CommandRequest.class)))
+        .thenAnswer(invocation -> Futures.exceptionalFuture(new MessagingException.Overloaded()));
+
+    TestContext context = new TestContext();
+    RaftSessionConnection connection = createConnection(protocol, context);
+
+    CompletableFuture<CommandResponse> future = connection.command(createRequest());
+    while (!future.isDone()) {
+      context.runScheduled();
+    }
+
+    // Backoffs grow exponentially, and the connection is not reset to another member.
+    assertEquals(Arrays.asList(Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(200), Duration.ofMillis(400)), context.delays);
+    verify(protocol, times(MEMBERS.size() + 2)).command(eq(LEADER), any(CommandRequest.class));
+    verify(protocol, never()).command(eq(MemberId.from("b")), any(CommandRequest.class));
+    verify(protocol, never()).command(eq(MemberId.from("c")), any(CommandRequest.class));
+
+    try {
+      future.join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.Overloaded);
+    }
+  }
+
+  private RaftSessionConnection createConnection(RaftClientProtocol protocol, ThreadContext context) {
+    MemberSelectorManager selectorManager = new MemberSelectorManager();
+    MemberSelector selector = selectorManager.createSelector(CommunicationStrategy.LEADER);
+    selectorManager.resetAll(LEADER, MEMBERS);
+    return new RaftSessionConnection(protocol, selector, context, LoggerContext.builder(getClass()).build());
+  }
+
+  private CommandRequest createRequest() {
+    return CommandRequest.builder()
+        .withSession(1)
+        .withSequence(1)
+        .withOperation(PrimitiveOperation.operation(OperationId.command("command"), HeapBytes.EMPTY))
+        .build();
+  }
+
+  /**
+   * Thread context that runs tasks immediately and records scheduled tasks.
+   */
+  private static class TestContext implements ThreadContext {
+    private final List<Duration> delays = new ArrayList<>();
+    private final List<Runnable> scheduled = new ArrayList<>();
+
+    /**
+     * Runs the tasks that have been scheduled so far.
+     */
+    void runScheduled() {
+      List<Runnable> tasks = new ArrayList<>(scheduled);
+      scheduled.clear();
+      tasks.forEach(Runnable::run);
+    }
+
+    @Override
+    public Scheduled schedule(Duration delay, Runnable callback) {
+      delays.add(delay);
+      scheduled.add(callback);
+      return mock(Scheduled.class);
+    }
+
+    @Override
+    public Scheduled schedule(Duration initialDelay, Duration interval, Runnable callback) {
+      return mock(Scheduled.class);
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    @Override
+    public void execute(Runnable command) {
+      command.run();
+    }
+
+    @Override
+    public boolean isBlocked() {
+      return false;
+    }
+
+    @Override
+    public void block() {
+
+    }
+
+    @Override
+    public void unblock() {
+
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.atomix.protocols.raft.storage;
 import org.junit.Test;
 
 import java.io.File;
+import java.time.Duration;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -38,6 +39,7 @@ public class RaftStorageTest {
     assertTrue(storage.dynamicCompaction());
     assertEquals(.2, storage.freeDiskBuffer(), .01);
     assertTrue(storage.isFlushOnCommit());
+    assertFalse(storage.isGroupCommit());
     assertFalse(storage.isRetainStaleSnapshots());
   }
 
@@ -51,6 +53,9 @@ public class RaftStorageTest {
         .withDynamicCompaction(false)
         .withFreeDiskBuffer(.5)
         .withFlushOnCommit(false)
+        .withGroupCommit()
+        .withGroupCommitWindow(Duration.ofMillis(5))
+        .withGroupCommitBytes(1024)
         .withRetainStaleSnapshots()
         .build();
     assertEquals("foo", storage.prefix());
@@ -60,6 +65,9 @@ public class RaftStorageTest {
     assertFalse(storage.dynamicCompaction());
     assertEquals(.5, storage.freeDiskBuffer(), .01);
     assertFalse(storage.isFlushOnCommit());
+    assertTrue(storage.isGroupCommit());
+    assertEquals(Duration.ofMillis(5), storage.groupCommitWindow());
+    assertEquals(1024, storage.groupCommitBytes());
     assertTrue(storage.isRetainStaleSnapshots());
   }
 
@@ -43,9 +43,11 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -293,6 +295,49 @@ public abstract class AbstractLogTest {
     }
   }
 
+  @Test
+  public void testGroupCommitTruncate() throws Exception {
+    RaftLog log = RaftLog.builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(storageLevel())
+        .withMaxEntriesPerSegment(MAX_ENTRIES_PER_SEGMENT)
+        .withMaxSegmentSize(MAX_SEGMENT_SIZE)
+        .withFlushOnCommit()
+        .withGroupCommit()
+        .withGroupCommitWindow(Duration.ofMillis(10))
+        .build();
+    RaftLogWriter writer = log.writer();
+
+    for (int i = 1; i <= 5; i++) {
+      writer.append(new TestEntry(1, 32));
+    }
+    assertEquals(5, writer.flush(5).get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(5, writer.getFlushedIndex());
+
+    // Entries re-appended after a truncation must not be reported as flushed until they're flushed.
+    writer.commit(2);
+    writer.truncate(3);
+    assertEquals(3, writer.getFlushedIndex());
+    writer.append(new TestEntry(2, 32));
+    writer.append(new TestEntry(2, 32));
+    assertEquals(5, writer.getLastIndex());
+    assertEquals(3, writer.getFlushedIndex());
+
+    writer.commit(5);
+    assertEquals(5, log.getCommitIndex());
+    assertEquals(5, writer.flush(5).get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(5, writer.getFlushedIndex());
+
+    // Resetting the head of the log treats all prior entries as flushed.
+    writer.reset(MAX_ENTRIES_PER_SEGMENT * 2);
+    assertEquals(MAX_ENTRIES_PER_SEGMENT * 2 - 1, writer.getFlushedIndex());
+    writer.append(new TestEntry(3, 32));
+    assertEquals(MAX_ENTRIES_PER_SEGMENT * 2 - 1, writer.getFlushedIndex());
+    log.close();
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void testWriteReadEntries() throws Exception {
@@ -15,6 +15,7 @@
  */
 package io.atomix.protocols.raft.storage.snapshot;
 
+import com.google.common.primitives.Longs;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.junit.Test;
 
@@ -74,4 +75,58 @@ public abstract class AbstractSnapshotStoreTest {
     }
   }
 
+  /**
+   * Tests reading snapshot chunks by offset.
+   */
+  @Test
+  public void testReadSnapshotChunks() {
+    SnapshotStore store = createSnapshotStore();
+    Snapshot snapshot = store.newSnapshot(2, new WallClockTimestamp());
+    try (SnapshotWriter writer = snapshot.openWriter()) {
+      writer.writeLong(10);
+      writer.writeLong(11);
+      writer.writeLong(12);
+    }
+    snapshot.complete();
+
+    try (SnapshotReader reader = store.getSnapshot(2).openReader()) {
+      assertEquals(Long.BYTES * 3, reader.length());
+
+      byte[] bytes = new byte[Long.BYTES];
+      reader.read(Long.BYTES * 2, bytes, 0, bytes.length);
+      assertEquals(12, Longs.fromByteArray(bytes));
+      reader.read(Long.BYTES, bytes, 0, bytes.length);
+      assertEquals(11, Longs.fromByteArray(bytes));
+      assertEquals(10, reader.readLong());
+    }
+  }
+
+  /**
+   * Tests that a replaced snapshot remains readable until its open readers are closed.
+   */
+  @Test
+  public void testReadReplacedSnapshot() {
+    SnapshotStore store = createSnapshotStore();
+    Snapshot first = store.newSnapshot(2, new WallClockTimestamp());
+    try (SnapshotWriter writer = first.openWriter()) {
+      writer.writeLong(10);
+    }
+    first.complete();
+
+    try (SnapshotReader reader = store.getSnapshot(2).openReader()) {
+      Snapshot second = store.newSnapshot(3, new WallClockTimestamp());
+      try (SnapshotWriter writer = second.openWriter()) {
+        writer.writeLong(11);
+      }
+      second.complete();
+
+      assertEquals(3, store.getCurrentSnapshot().index());
+      assertEquals(10, reader.readLong());
+    }
+
+    try (SnapshotReader reader = store.getSnapshot(3).openReader()) {
+      assertEquals(11, reader.readLong());
+    }
+  }
+
 }
@@ -15,20 +15,37 @@
  */
 package io.atomix.storage.journal;
 
+import io.atomix.utils.serializer.Serializer;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Indexed journal entry.
+ * <p>
+ * Entries read by a {@link SegmentedJournal#openReader(long, boolean) serialized reader} retain their serialized
+ * bytes. Entries constructed from serialized bytes are lazily decoded the first time {@link #entry()} is called,
+ * allowing the serialized form of an entry to be passed between journals without ever being decoded.
  */
 public class Indexed<E> {
   private final long index;
-  private final E entry;
   private final int size;
+  private final byte[] bytes;
+  private final Serializer serializer;
+  private volatile E entry;
 
   public Indexed(long index, E entry, int size) {
     this.index = index;
     this.entry = entry;
     this.size = size;
+    this.bytes = null;
+    this.serializer = null;
+  }
+
+  public Indexed(long index, byte[] bytes, Serializer serializer) {
+    this.index = index;
+    this.size = bytes.length;
+    this.bytes = bytes;
+    this.serializer = serializer;
   }
 
   /**
@@ -46,9 +63,23 @@ public class Indexed<E> {
    * @return The indexed entry.
    */
   public E entry() {
+    E entry = this.entry;
+    if (entry == null && serializer != null) {
+      entry = serializer.decode(bytes);
+      this.entry = entry;
+    }
     return entry;
   }
 
+  /**
+   * Returns the serialized entry bytes.
+   *
+   * @return The serialized entry bytes or {@code null} if the serialized form of the entry is not available.
+   */
+  public byte[] bytes() {
+    return bytes;
+  }
+
   /**
    * Returns the serialized entry size.
    *
@@ -64,7 +95,7 @@ public class Indexed<E> {
    * @return The entry class.
    */
   public Class<?> type() {
-    return entry.getClass();
+    return entry().getClass();
   }
 
   /**
@@ -81,7 +112,7 @@ public class Indexed<E> {
   public String toString() {
     return toStringHelper(this)
         .add("index", index)
-        .add("entry", entry)
+        .add("entry", entry())
         .toString();
   }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.storage.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Group commit journal flusher.
+ * <p>
+ * The flusher collects flush requests for entries appended to a {@link SegmentedJournal} within the configured
+ * group commit window and flushes all of them to disk with a single flush of the current segment. If the number
+ * of bytes appended since the last flush exceeds the configured byte budget, the flush is performed immediately.
+ * Flushes are performed on a dedicated thread, so appends can continue while a batch is being flushed.
+ */
+final class JournalFlusher<E> implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JournalFlusher.class);
+
+  private final SegmentedJournal<E> journal;
+  private final long windowMillis;
+  private final int maxBytes;
+  private final ScheduledExecutorService executor;
+  private volatile long flushedIndex;
+  private long requestedIndex;
+  private long pendingBytes;
+  private boolean triggered;
+  private CompletableFuture<Long> nextFlush;
+
+  JournalFlusher(SegmentedJournal<E> journal, Duration window, int maxBytes) {
+    this.journal = journal;
+    this.windowMillis = window.toMillis();
+    this.maxBytes = maxBytes;
+    this.executor = Executors.newSingleThreadScheduledExecutor(
+        namedThreads("atomix-journal-flusher-" + journal.name() + "-%d", LOGGER));
+  }
+
+  /**
+   * Returns the highest index known to have been flushed to disk.
+   *
+   * @return the highest index known to have been flushed to disk
+   */
+  long flushedIndex() {
+    return flushedIndex;
+  }
+
+  /**
+   * Records an entry appended to the journal.
+   *
+   * @param size the size of the appended entry in bytes
+   */
+  synchronized void append(int size) {
+    pendingBytes += size;
+    if (nextFlush != null && pendingBytes >= maxBytes && !triggered) {
+      triggered = true;
+      executor.execute(this::flushPending);
+    }
+  }
+
+  /**
+   * Requests a flush of all entries up to the given index.
+   * <p>
+   * All requests made within the same group commit window share a single future which will be completed
+   * once the shared flush has completed.
+   *
+   * @param index the index up to which to flush entries
+   * @return a future to be completed with the flushed index once entries up to the given index are on disk
+   */
+  synchronized CompletableFuture<Long> flush(long index) {
+    if (index <= flushedIndex) {
+      return CompletableFuture.completedFuture(flushedIndex);
+    }
+
+    if (index > requestedIndex) {
+      requestedIndex = index;
+    }
+
+    if (nextFlush == null) {
+      nextFlush = new CompletableFuture<>();
+      if (pendingBytes >= maxBytes) {
+        triggered = true;
+        executor.execute(this::flushPending);
+      } else {
+        executor.schedule(this::flushPending, windowMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+    return nextFlush;
+  }
+
+  /**
+   * Records that entries up to the given index were flushed by a synchronous flush.
+   *
+   * @param index the index up to which entries were flushed
+   */
+  synchronized void flushed(long index) {
+    if (index > flushedIndex) {
+      flushedIndex = index;
+    }
+  }
+
+  /**
+   * Resets the flushed index after the head of the journal has been reset.
+   *
+   * @param index the last index preceding the new head of the journal
+   */
+  synchronized void reset(long index) {
+    flushedIndex = index;
+    if (requestedIndex > index) {
+      requestedIndex = index;
+    }
+  }
+
+  /**
+   * Clamps the flushed index after entries following the given index have been truncated.
+   *
+   * @param index the index after which entries were truncated
+   */
+  synchronized void truncate(long index) {
+    if (flushedIndex > index) {
+      flushedIndex = index;
+    }
+    if (requestedIndex > index) {
+      requestedIndex = index;
+    }
+  }
+
+  /**
+   * Flushes the current segment and completes the pending flush future.
+   */
+  private void flushPending() {
+    final CompletableFuture<Long> future;
+    long index;
+    synchronized (this) {
+      future = nextFlush;
+      index = requestedIndex;
+      nextFlush = null;
+      pendingBytes = 0;
+      triggered = false;
+    }
+
+    if (future == null) {
+      return;
+    }
+
+    try {
+      index = journal.writer().flushSegment(index);
+    } catch (Exception e) {
+      LOGGER.warn("Failed to flush journal {}", journal.name(), e);
+      future.completeExceptionally(new StorageException(e));
+      return;
+    }
+
+    future.complete(index);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    CompletableFuture<Long> future;
+    synchronized (this) {
+      future = nextFlush;
+      nextFlush = null;
+    }
+    if (future != null) {
+      future.completeExceptionally(new StorageException("Journal closed"));
+    }
+  }
+}
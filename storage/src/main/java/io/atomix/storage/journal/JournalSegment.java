@@ -15,15 +15,24 @@
  */
 package io.atomix.storage.journal;
 
+import io.atomix.storage.StorageException;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.storage.journal.index.JournalIndex;
 import io.atomix.storage.journal.index.SparseJournalIndex;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.function.Supplier;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Log segment.
+ * <p>
+ * A segment loaded with a valid persisted index is opened lazily: its last index is read from the index, and the
+ * segment file is only opened once the segment is read from or written to. The index is trusted until then, and if
+ * the segment does not match its index once opened, the segment is scanned instead.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -31,20 +40,71 @@ public class JournalSegment<E> implements AutoCloseable {
   private static final int ENTRY_CACHE_SIZE = 1024;
 
   protected final JournalSegmentFile file;
-  protected final JournalSegmentDescriptor descriptor;
+  protected volatile JournalSegmentDescriptor descriptor;
   protected final JournalIndex index;
   protected final Serializer serializer;
-  private final JournalSegmentWriter<E> writer;
   private final JournalSegmentCache cache;
+  private volatile JournalSegmentWriter<E> writer;
+  private volatile JournalSegmentIndexFile indexFile;
+  private Supplier<JournalSegmentDescriptor> loader;
   private boolean open = true;
 
   public JournalSegment(JournalSegmentFile file, JournalSegmentDescriptor descriptor, double indexDensity, int cacheSize, Serializer serializer) {
+    this(file, descriptor, null, indexDensity, cacheSize, serializer);
+  }
+
+  /**
+   * Creates a segment that is opened lazily if it has a valid persisted index.
+   *
+   * @param file the segment file
+   * @param descriptor the segment descriptor, which is only used to identify the segment until it's opened
+   * @param loader loads the descriptor with the segment buffer once the segment is opened, or {@code null} if the
+   *     given descriptor already holds the segment buffer
+   * @param indexDensity the segment index density
+   * @param cacheSize the segment entry cache size
+   * @param serializer the entry serializer
+   */
+  JournalSegment(
+      JournalSegmentFile file,
+      JournalSegmentDescriptor descriptor,
+      Supplier<JournalSegmentDescriptor> loader,
+      double indexDensity,
+      int cacheSize,
+      Serializer serializer) {
     this.file = file;
     this.descriptor = descriptor;
+    this.loader = loader;
     this.index = new SparseJournalIndex(indexDensity);
     this.serializer = serializer;
     this.cache = new JournalSegmentCache(descriptor.index(), cacheSize);
-    this.writer = new JournalSegmentWriter<>(descriptor, cache, index, serializer);
+    this.indexFile = JournalSegmentIndexFile.read(file.indexFile(), descriptor);
+    if (loader == null || indexFile == null) {
+      load();
+    }
+  }
+
+  /**
+   * Opens the segment file if it has not yet been opened, returning the segment writer.
+   */
+  private synchronized JournalSegmentWriter<E> load() {
+    if (writer == null) {
+      if (loader != null) {
+        descriptor = loader.get();
+        loader = null;
+      }
+      writer = new JournalSegmentWriter<>(descriptor, cache, index, serializer, indexFile);
+      indexFile = null;
+    }
+    return writer;
+  }
+
+  /**
+   * Returns a boolean indicating whether the segment file has been opened.
+   *
+   * @return indicates whether the segment file has been opened
+   */
+  boolean isLoaded() {
+    return writer != null;
   }
 
   /**
@@ -80,7 +140,8 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return The last index in the segment.
    */
   public long lastIndex() {
-    return writer.getLastIndex();
+    JournalSegmentIndexFile indexFile = this.indexFile;
+    return indexFile != null ? indexFile.lastIndex() : load().getLastIndex();
   }
 
   /**
@@ -107,7 +168,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return The segment size.
    */
   public long size() {
-    return writer.size();
+    return load().size();
   }
 
   /**
@@ -125,7 +186,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return Indicates whether the segment is full.
    */
   public boolean isFull() {
-    return writer.isFull();
+    return load().isFull();
   }
 
   /**
@@ -134,7 +195,7 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return The segment length.
    */
   public long length() {
-    return writer.getNextIndex() - index();
+    return lastIndex() + 1 - index();
   }
 
   /**
@@ -144,7 +205,7 @@ public class JournalSegment<E> implements AutoCloseable {
    */
   public JournalSegmentWriter<E> writer() {
     checkOpen();
-    return writer;
+    return load();
   }
 
   /**
@@ -153,8 +214,44 @@ public class JournalSegment<E> implements AutoCloseable {
    * @return A new segment reader.
    */
   JournalSegmentReader<E> createReader() {
+    return createReader(false);
+  }
+
+  /**
+   * Creates a new segment reader.
+   *
+   * @param serialized whether the reader should return entries that retain their serialized bytes
+   * @return A new segment reader.
+   */
+  JournalSegmentReader<E> createReader(boolean serialized) {
+    checkOpen();
+    load();
+    return new JournalSegmentReader<>(descriptor, cache, index, serializer, serialized);
+  }
+
+  /**
+   * Seals the segment.
+   * <p>
+   * Sealing the segment persists the segment index alongside the segment file so the segment can be opened without
+   * scanning its entries. The segment must be flushed before it's sealed, and it must be {@link #unseal() unsealed}
+   * before any of its entries are modified.
+   */
+  void seal() {
     checkOpen();
-    return new JournalSegmentReader<>(descriptor, cache, index, serializer);
+    JournalSegmentIndexFile indexFile = load().createIndex();
+    if (indexFile != null) {
+      indexFile.write(file.indexFile(), descriptor);
+    }
+  }
+
+  /**
+   * Unseals the segment, deleting the persisted segment index.
+   * <p>
+   * The segment is opened first, since an unopened segment relies on its index.
+   */
+  void unseal() {
+    load();
+    JournalSegmentIndexFile.delete(file.indexFile());
   }
 
   /**
@@ -177,17 +274,28 @@ public class JournalSegment<E> implements AutoCloseable {
    * Closes the segment.
    */
   @Override
-  public void close() {
-    writer.close();
-    descriptor.close();
+  public synchronized void close() {
+    if (writer != null) {
+      writer.close();
+      descriptor.close();
+    }
     open = false;
   }
 
   /**
    * Deletes the segment.
    */
-  public void delete() {
-    writer.delete();
+  public synchronized void delete() {
+    JournalSegmentIndexFile.delete(file.indexFile());
+    if (writer != null) {
+      writer.delete();
+    } else {
+      try {
+        Files.deleteIfExists(file.file().toPath());
+      } catch (IOException e) {
+        throw new StorageException(e);
+      }
+    }
   }
 
   @Override
@@ -196,7 +304,7 @@ public class JournalSegment<E> implements AutoCloseable {
         .add("id", id())
         .add("version", version())
         .add("index", index())
-        .add("size", size())
+        .add("size", writer != null ? writer.size() : null)
         .toString();
   }
 }
\ No newline at end of file
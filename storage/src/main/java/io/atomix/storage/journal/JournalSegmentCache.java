@@ -76,6 +76,16 @@ class JournalSegmentCache {
     }
   }
 
+  /**
+   * Clears the cache and resets it to begin caching entries at the given index.
+   *
+   * @param index the index of the next entry to cache
+   */
+  public void reset(long index) {
+    firstIndex = index;
+    entries.clear();
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this)
@@ -28,6 +28,7 @@ public final class JournalSegmentFile {
   private static final char PART_SEPARATOR = '-';
   private static final char EXTENSION_SEPARATOR = '.';
   private static final String EXTENSION = "log";
+  private static final String INDEX_EXTENSION = "index";
   private final File file;
 
   /**
@@ -76,6 +77,15 @@ public final class JournalSegmentFile {
     return new File(directory, String.format("%s-%d.log", checkNotNull(name, "name cannot be null"), id));
   }
 
+  /**
+   * Creates an index file for the given segment file.
+   */
+  static File createIndexFile(File segmentFile) {
+    String name = segmentFile.getName();
+    int extensionSeparator = name.lastIndexOf(EXTENSION_SEPARATOR);
+    return new File(segmentFile.getParentFile(), name.substring(0, extensionSeparator + 1) + INDEX_EXTENSION);
+  }
+
   /**
    * @throws IllegalArgumentException if {@code file} is not a valid segment file
    */
@@ -91,4 +101,15 @@ public final class JournalSegmentFile {
   public File file() {
     return file;
   }
+
+  /**
+   * Returns the segment index file.
+   * <p>
+   * The index file is written when a segment is sealed and is used to open the segment without scanning its entries.
+   *
+   * @return The segment index file.
+   */
+  public File indexFile() {
+    return createIndexFile(file);
+  }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.storage.StorageException;
+import io.atomix.storage.journal.index.Position;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Persistent segment index.
+ * <p>
+ * The segment index is written alongside a segment file when the segment is sealed, i.e. when the journal rolls
+ * over to the next segment. It records the position of the last entry in the segment, the end of the segment's
+ * data, and the positions of the segment's {@link io.atomix.storage.journal.index.JournalIndex index}, allowing
+ * the segment to be opened without reading each of its entries.
+ * <p>
+ * The format of the index file is as follows:
+ * <ul>
+ * <li>32-bit signed version</li>
+ * <li>64-bit signed segment ID</li>
+ * <li>64-bit signed first index of the segment</li>
+ * <li>64-bit signed last index of the segment</li>
+ * <li>32-bit signed position of the last entry in the segment</li>
+ * <li>32-bit signed position of the end of the segment</li>
+ * <li>32-bit signed number of index positions</li>
+ * <li>n 64-bit signed index and 32-bit signed position pairs</li>
+ * <li>64-bit CRC32 checksum of all preceding bytes</li>
+ * </ul>
+ */
+final class JournalSegmentIndexFile {
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES * 3 + Integer.BYTES * 3;
+  private static final int POSITION_BYTES = Long.BYTES + Integer.BYTES;
+
+  /**
+   * Reads the index file for the given segment.
+   *
+   * @param file the index file to read
+   * @param descriptor the descriptor of the segment to which the index belongs
+   * @return the segment index or {@code null} if the index file does not exist or is not valid for the segment
+   */
+  static JournalSegmentIndexFile read(File file, JournalSegmentDescriptor descriptor) {
+    if (!file.exists()) {
+      return null;
+    }
+
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+      if (buffer.remaining() < HEADER_BYTES + Long.BYTES) {
+        return null;
+      }
+
+      CRC32 crc32 = new CRC32();
+      crc32.update(buffer.array(), 0, buffer.limit() - Long.BYTES);
+      if (buffer.getLong(buffer.limit() - Long.BYTES) != crc32.getValue()) {
+        return null;
+      }
+
+      if (buffer.getInt() != VERSION
+          || buffer.getLong() != descriptor.id()
+          || buffer.getLong() != descriptor.index()) {
+        return null;
+      }
+
+      long lastIndex = buffer.getLong();
+      int lastPosition = buffer.getInt();
+      int endPosition = buffer.getInt();
+      int count = buffer.getInt();
+      if (count < 0 || buffer.remaining() != count * POSITION_BYTES + Long.BYTES) {
+        return null;
+      }
+
+      List<Position> positions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        positions.add(new Position(buffer.getLong(), buffer.getInt()));
+      }
+      return new JournalSegmentIndexFile(lastIndex, lastPosition, endPosition, positions);
+    } catch (IOException | BufferUnderflowException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Deletes the given index file if it exists.
+   *
+   * @param file the index file to delete
+   */
+  static void delete(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  private final long lastIndex;
+  private final int lastPosition;
+  private final int endPosition;
+  private final List<Position> positions;
+
+  JournalSegmentIndexFile(long lastIndex, int lastPosition, int endPosition, List<Position> positions) {
+    this.lastIndex = lastIndex;
+    this.lastPosition = lastPosition;
+    this.endPosition = endPosition;
+    this.positions = positions;
+  }
+
+  /**
+   * Returns the index of the last entry in the segment.
+   *
+   * @return the index of the last entry in the segment
+   */
+  long lastIndex() {
+    return lastIndex;
+  }
+
+  /**
+   * Returns the position of the last entry in the segment.
+   *
+   * @return the position of the last entry in the segment
+   */
+  int lastPosition() {
+    return lastPosition;
+  }
+
+  /**
+   * Returns the position following the last entry in the segment.
+   *
+   * @return the position following the last entry in the segment
+   */
+  int endPosition() {
+    return endPosition;
+  }
+
+  /**
+   * Returns the indexed positions in the segment.
+   *
+   * @return the indexed positions in the segment
+   */
+  List<Position> positions() {
+    return positions;
+  }
+
+  /**
+   * Writes the index to the given file.
+   * <p>
+   * The index is written to a temporary file which is then atomically moved to the given file, so a partially
+   * written index is never read.
+   *
+   * @param file the file to which to write the index
+   * @param descriptor the descriptor of the segment to which the index belongs
+   */
+  void write(File file, JournalSegmentDescriptor descriptor) {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + positions.size() * POSITION_BYTES + Long.BYTES);
+    buffer.putInt(VERSION)
+        .putLong(descriptor.id())
+        .putLong(descriptor.index())
+        .putLong(lastIndex)
+        .putInt(lastPosition)
+        .putInt(endPosition)
+        .putInt(positions.size());
+    for (Position position : positions) {
+      buffer.putLong(position.index()).putInt(position.position());
+    }
+
+    CRC32 crc32 = new CRC32();
+    crc32.update(buffer.array(), 0, buffer.position());
+    buffer.putLong(crc32.getValue());
+    buffer.flip();
+
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(tempFile.toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+        channel.force(true);
+      }
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("lastIndex", lastIndex)
+        .add("lastPosition", lastPosition)
+        .add("endPosition", endPosition)
+        .add("positions", positions.size())
+        .toString();
+  }
+}
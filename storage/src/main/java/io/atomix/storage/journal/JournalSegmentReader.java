@@ -20,7 +20,6 @@ import io.atomix.storage.buffer.Buffer;
 import io.atomix.storage.buffer.Bytes;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.storage.journal.index.Position;
 
 import java.nio.BufferUnderflowException;
 import java.util.NoSuchElementException;
@@ -29,6 +28,11 @@ import java.util.zip.Checksum;
 
 /**
  * Log segment reader.
+ * <p>
+ * By default, entries are decoded as they're read from the segment. A serialized reader instead returns entries
+ * that retain their serialized bytes and are only decoded if {@link Indexed#entry()} is called, allowing entries
+ * to be replicated without decoding them. Serialized readers always read entries from the segment rather than from
+ * the entry cache, since cached entries don't retain their serialized bytes.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -39,15 +43,26 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
   private final Serializer serializer;
   private final HeapBuffer memory = HeapBuffer.allocate();
   private final long firstIndex;
+  private final boolean serialized;
   private Indexed<E> currentEntry;
   private Indexed<E> nextEntry;
 
   public JournalSegmentReader(JournalSegmentDescriptor descriptor, JournalSegmentCache cache, JournalIndex index, Serializer serializer) {
+    this(descriptor, cache, index, serializer, false);
+  }
+
+  JournalSegmentReader(
+      JournalSegmentDescriptor descriptor,
+      JournalSegmentCache cache,
+      JournalIndex index,
+      Serializer serializer,
+      boolean serialized) {
     this.buffer = descriptor.buffer().slice().duplicate();
     this.cache = cache;
     this.index = index;
     this.serializer = serializer;
     this.firstIndex = descriptor.index();
+    this.serialized = serialized;
     readNext();
   }
 
@@ -69,10 +84,10 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
   @Override
   public void reset(long index) {
     reset();
-    Position position = this.index.lookup(index - 1);
-    if (position != null) {
-      currentEntry = new Indexed<>(position.index() - 1, null, 0);
-      buffer.position(position.position());
+    int position = this.index.lookupPosition(index - 1);
+    if (position != -1) {
+      currentEntry = new Indexed<>(this.index.lookupIndex(index - 1) - 1, null, 0);
+      buffer.position(position);
       readNext();
     }
     while (getNextIndex() < index && hasNext()) {
@@ -124,7 +139,7 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
     // Compute the index of the next entry in the segment.
     final long index = getNextIndex();
 
-    Indexed cachedEntry = cache.get(index);
+    Indexed cachedEntry = serialized ? null : cache.get(index);
     if (cachedEntry != null) {
       this.nextEntry = cachedEntry;
       buffer.skip(cachedEntry.size() + Bytes.INTEGER + Bytes.INTEGER);
@@ -148,6 +163,22 @@ public class JournalSegmentReader<E> implements JournalReader<E> {
       // Read the checksum of the entry.
       long checksum = buffer.readUnsignedInt();
 
+      // If this is a serialized reader, read the entry bytes and return an entry that's decoded lazily.
+      if (serialized) {
+        final byte[] bytes = new byte[length];
+        buffer.read(bytes);
+
+        final Checksum crc32 = new CRC32();
+        crc32.update(bytes, 0, length);
+        if (checksum == crc32.getValue()) {
+          nextEntry = new Indexed<>(index, bytes, serializer);
+        } else {
+          buffer.reset();
+          nextEntry = null;
+        }
+        return;
+      }
+
       // Read the entry into memory.
       buffer.read(memory.clear().limit(length));
       memory.flip();
@@ -21,8 +21,11 @@ import io.atomix.storage.buffer.FileBuffer;
 import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
 import io.atomix.storage.buffer.SlicedBuffer;
+import io.atomix.storage.buffer.Bytes;
 import io.atomix.storage.journal.index.JournalIndex;
+import io.atomix.storage.journal.index.Position;
 
+import java.nio.BufferUnderflowException;
 import java.util.zip.CRC32;
 import java.util.zip.Checksum;
 
@@ -50,15 +53,85 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
   private final HeapBuffer memory = HeapBuffer.allocate();
   private final long firstIndex;
   private Indexed<E> lastEntry;
+  private int lastPosition;
 
   public JournalSegmentWriter(JournalSegmentDescriptor descriptor, JournalSegmentCache cache, JournalIndex index, Serializer serializer) {
+    this(descriptor, cache, index, serializer, null);
+  }
+
+  JournalSegmentWriter(
+      JournalSegmentDescriptor descriptor,
+      JournalSegmentCache cache,
+      JournalIndex index,
+      Serializer serializer,
+      JournalSegmentIndexFile indexFile) {
     this.descriptor = descriptor;
     this.cache = cache;
     this.index = index;
     this.buffer = descriptor.buffer().slice();
     this.serializer = serializer;
     this.firstIndex = descriptor.index();
-    reset(0);
+    if (indexFile == null || !restore(indexFile)) {
+      reset(0);
+    }
+  }
+
+  /**
+   * Initializes the writer from the given segment index.
+   * <p>
+   * Rather than scanning all the entries in the segment, only the last entry recorded in the index is read and
+   * verified. If the last entry does not match the index, the index is ignored and the segment is scanned.
+   *
+   * @param indexFile the segment index from which to initialize the writer
+   * @return indicates whether the writer was initialized from the index
+   */
+  private boolean restore(JournalSegmentIndexFile indexFile) {
+    final long lastIndex = indexFile.lastIndex();
+    final int position = indexFile.lastPosition();
+    if (lastIndex < firstIndex || position < 0 || position >= indexFile.endPosition()) {
+      return false;
+    }
+
+    try {
+      buffer.clear().position(position);
+
+      // Read the length of the last entry and ensure it ends at the end of the indexed segment.
+      final int length = buffer.readInt();
+      if (length <= 0 || position + Bytes.INTEGER + Bytes.INTEGER + length != indexFile.endPosition()) {
+        buffer.clear();
+        return false;
+      }
+
+      // Read the last entry into memory and verify its checksum.
+      final long checksum = buffer.readUnsignedInt();
+      buffer.read(memory.clear().limit(length));
+      memory.flip();
+
+      final Checksum crc32 = new CRC32();
+      crc32.update(memory.array(), 0, length);
+      if (checksum != crc32.getValue()) {
+        buffer.clear();
+        return false;
+      }
+
+      // Ensure no entries were written to the segment following the last indexed entry.
+      if (buffer.mark().readInt() != 0) {
+        buffer.clear();
+        return false;
+      }
+      buffer.reset();
+
+      lastEntry = new Indexed<>(lastIndex, serializer.decode(memory.array()), length);
+      lastPosition = position;
+    } catch (BufferUnderflowException e) {
+      buffer.clear();
+      return false;
+    }
+
+    for (Position indexPosition : indexFile.positions()) {
+      this.index.index(indexPosition.index(), indexPosition.position());
+    }
+    return true;
   }
 
   /**
@@ -67,6 +140,7 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
   @SuppressWarnings("unchecked")
   private void reset(long index) {
     long nextIndex = firstIndex;
+    int lastLength = 0;
 
     // Clear the buffer indexes.
     buffer.clear();
@@ -91,10 +165,10 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
       final Checksum crc32 = new CRC32();
       crc32.update(memory.array(), 0, length);
 
-      // If the stored checksum equals the computed checksum, return the entry.
+      // If the stored checksum equals the computed checksum, index the entry. Only the last entry is decoded.
       if (checksum == crc32.getValue()) {
-        final E entry = serializer.decode(memory.array());
-        lastEntry = new Indexed<>(nextIndex, entry, length);
+        lastLength = length;
+        lastPosition = position;
         this.index.index(nextIndex, position);
         nextIndex++;
       } else {
@@ -108,6 +182,16 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
 
     // Reset the buffer to the previous mark.
     buffer.reset();
+
+    // If any entries were read, decode the last entry.
+    if (nextIndex > firstIndex) {
+      final int endPosition = buffer.position();
+      buffer.position(lastPosition + Bytes.INTEGER + Bytes.INTEGER);
+      buffer.read(memory.clear().limit(lastLength));
+      memory.flip();
+      lastEntry = new Indexed<>(nextIndex - 1, serializer.decode(memory.array()), lastLength);
+      buffer.position(endPosition);
+    }
   }
 
   @Override
@@ -178,7 +262,17 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     if (entry.index() < nextIndex) {
       truncate(entry.index() - 1);
     }
-    append(entry.entry());
+
+    // If the serialized entry is available, write the bytes directly rather than re-encoding the entry. The entry
+    // isn't cached since it would retain its serialized bytes along with the decoded entry, so the cache is reset
+    // to begin caching entries following it.
+    if (entry.bytes() != null) {
+      write(entry.index(), entry.bytes());
+      this.lastEntry = entry;
+      this.cache.reset(entry.index() + 1);
+    } else {
+      append(entry.entry());
+    }
   }
 
   @Override
@@ -189,6 +283,24 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
 
     // Serialize the entry.
     final byte[] bytes = serializer.encode(entry);
+
+    // Write the serialized entry to the segment.
+    write(index, bytes);
+
+    // Update the last entry with the correct index/term/length.
+    Indexed<E> indexedEntry = new Indexed<>(index, entry, bytes.length);
+    this.lastEntry = indexedEntry;
+    this.cache.put(indexedEntry);
+    return (Indexed<T>) indexedEntry;
+  }
+
+  /**
+   * Writes the given serialized entry to the segment.
+   *
+   * @param index the index of the entry
+   * @param bytes the serialized entry
+   */
+  private void write(long index, byte[] bytes) {
     final int length = bytes.length;
 
     // Compute the checksum for the entry.
@@ -204,12 +316,20 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
         .writeUnsignedInt(checksum)
         .write(bytes);
 
-    // Update the last entry with the correct index/term/length.
-    Indexed<E> indexedEntry = new Indexed<>(index, entry, length);
-    this.lastEntry = indexedEntry;
-    this.cache.put(indexedEntry);
+    this.lastPosition = position;
     this.index.index(index, position);
-    return (Indexed<T>) indexedEntry;
+  }
+
+  /**
+   * Returns an index for the entries written to the segment.
+   *
+   * @return an index for the entries written to the segment or {@code null} if the segment is empty
+   */
+  JournalSegmentIndexFile createIndex() {
+    if (lastEntry == null) {
+      return null;
+    }
+    return new JournalSegmentIndexFile(lastEntry.index(), lastPosition, buffer.position(), index.positions());
   }
 
   @Override
@@ -28,12 +28,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -68,12 +70,16 @@ public class SegmentedJournal<E> implements Journal<E> {
   private final int maxEntriesPerSegment;
   private final double indexDensity;
   private final int cacheSize;
+  private final boolean groupCommit;
+  private final Duration groupCommitWindow;
+  private final int groupCommitBytes;
 
   private final NavigableMap<Long, JournalSegment<E>> segments = new ConcurrentSkipListMap<>();
   private final Collection<SegmentedJournalReader<E>> readers = Sets.newConcurrentHashSet();
   private JournalSegment<E> currentSegment;
 
   private final SegmentedJournalWriter<E> writer;
+  private final JournalFlusher<E> flusher;
   private volatile boolean open = true;
 
   public SegmentedJournal(
@@ -84,7 +90,10 @@ public class SegmentedJournal<E> implements Journal<E> {
       int maxSegmentSize,
       int maxEntriesPerSegment,
       double indexDensity,
-      int cacheSize) {
+      int cacheSize,
+      boolean groupCommit,
+      Duration groupCommitWindow,
+      int groupCommitBytes) {
     this.name = checkNotNull(name, "name cannot be null");
     this.storageLevel = checkNotNull(storageLevel, "storageLevel cannot be null");
     this.directory = checkNotNull(directory, "directory cannot be null");
@@ -93,8 +102,15 @@ public class SegmentedJournal<E> implements Journal<E> {
     this.maxEntriesPerSegment = maxEntriesPerSegment;
     this.indexDensity = indexDensity;
     this.cacheSize = cacheSize;
+    this.groupCommit = groupCommit;
+    this.groupCommitWindow = checkNotNull(groupCommitWindow, "groupCommitWindow cannot be null");
+    this.groupCommitBytes = groupCommitBytes;
     open();
+    this.flusher = groupCommit ? new JournalFlusher<>(this, groupCommitWindow, groupCommitBytes) : null;
     this.writer = openWriter();
+    if (flusher != null) {
+      flusher.flushed(writer.getLastIndex());
+    }
   }
 
   /**
@@ -154,6 +170,45 @@ public class SegmentedJournal<E> implements Journal<E> {
     return maxEntriesPerSegment;
   }
 
+  /**
+   * Returns whether group commit is enabled for the journal.
+   * <p>
+   * When group commit is enabled, flushes requested via {@link SegmentedJournalWriter#flush(long)} are
+   * batched and performed at most once per group commit window.
+   *
+   * @return whether group commit is enabled for the journal
+   */
+  public boolean isGroupCommit() {
+    return groupCommit;
+  }
+
+  /**
+   * Returns the group commit window.
+   *
+   * @return the maximum amount of time for which to batch flush requests
+   */
+  public Duration groupCommitWindow() {
+    return groupCommitWindow;
+  }
+
+  /**
+   * Returns the group commit byte budget.
+   *
+   * @return the maximum number of bytes to append before a pending group commit is flushed
+   */
+  public int groupCommitBytes() {
+    return groupCommitBytes;
+  }
+
+  /**
+   * Returns the group commit flusher.
+   *
+   * @return the group commit flusher or {@code null} if group commit is disabled
+   */
+  JournalFlusher<E> flusher() {
+    return flusher;
+  }
+
   /**
    * Opens a new journal writer.
    *
@@ -174,7 +229,9 @@ public class SegmentedJournal<E> implements Journal<E> {
 
     // If a segment doesn't already exist, create an initial segment starting at index 1.
     if (!segments.isEmpty()) {
+      // The last segment will be written to, so its index may no longer be valid.
       currentSegment = segments.lastEntry().getValue();
+      currentSegment.unseal();
     } else {
       JournalSegmentDescriptor descriptor = JournalSegmentDescriptor.builder()
           .withId(1)
@@ -293,6 +350,11 @@ public class SegmentedJournal<E> implements Journal<E> {
     assertOpen();
     assertDiskSpace();
 
+    // Seal the current segment so it can be opened without being scanned.
+    if (storageLevel != StorageLevel.MEMORY) {
+      currentSegment.seal();
+    }
+
     JournalSegment lastSegment = getLastSegment();
     JournalSegmentDescriptor descriptor = JournalSegmentDescriptor.builder()
         .withId(lastSegment != null ? lastSegment.descriptor().id() + 1 : 1)
@@ -355,6 +417,9 @@ public class SegmentedJournal<E> implements Journal<E> {
    * Creates a new segment.
    */
   JournalSegment<E> createSegment(JournalSegmentDescriptor descriptor) {
+    // Delete any index left behind by a previous segment with the same ID.
+    JournalSegmentIndexFile.delete(JournalSegmentFile.createIndexFile(
+        JournalSegmentFile.createSegmentFile(name, directory, descriptor.id())));
     switch (storageLevel) {
       case MEMORY:
         return createMemorySegment(descriptor);
@@ -415,55 +480,64 @@ public class SegmentedJournal<E> implements Journal<E> {
   }
 
   /**
-   * Loads a segment.
+   * Creates a new segment instance for a segment loaded from disk.
+   * <p>
+   * If the segment has a valid persisted index, the segment file is not opened until the segment is read or written.
+   *
+   * @param segmentFile The segment file.
+   * @param descriptor The segment descriptor read from the segment file header.
+   * @param loader Loads the segment descriptor along with the segment buffer when the segment is opened.
+   * @return The segment instance.
    */
-  private JournalSegment<E> loadSegment(long segmentId) {
+  protected JournalSegment<E> newSegment(
+      JournalSegmentFile segmentFile, JournalSegmentDescriptor descriptor, Supplier<JournalSegmentDescriptor> loader) {
+    return new JournalSegment<>(segmentFile, descriptor, loader, indexDensity, cacheSize, serializer);
+  }
+
+  /**
+   * Loads a segment descriptor along with the segment buffer.
+   */
+  private JournalSegmentDescriptor loadDescriptor(File file) {
     switch (storageLevel) {
       case MEMORY:
-        return loadMemorySegment(segmentId);
+        return loadMemoryDescriptor(file);
       case MAPPED:
-        return loadMappedSegment(segmentId);
+        return loadMappedDescriptor(file);
       case DISK:
-        return loadDiskSegment(segmentId);
+        return loadDiskDescriptor(file);
       default:
         throw new AssertionError();
     }
   }
 
   /**
-   * Loads a segment.
+   * Loads a segment descriptor.
    */
-  private JournalSegment<E> loadDiskSegment(long segmentId) {
-    File file = JournalSegmentFile.createSegmentFile(name, directory, segmentId);
+  private JournalSegmentDescriptor loadDiskDescriptor(File file) {
     Buffer buffer = FileBuffer.allocate(file, Math.min(DEFAULT_BUFFER_SIZE, maxSegmentSize), Integer.MAX_VALUE);
     JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(buffer);
-    JournalSegment<E> segment = newSegment(new JournalSegmentFile(file), descriptor);
     log.debug("Loaded disk segment: {} ({})", descriptor.id(), file.getName());
-    return segment;
+    return descriptor;
   }
 
   /**
-   * Loads a segment.
+   * Loads a segment descriptor.
    */
-  private JournalSegment<E> loadMappedSegment(long segmentId) {
-    File file = JournalSegmentFile.createSegmentFile(name, directory, segmentId);
+  private JournalSegmentDescriptor loadMappedDescriptor(File file) {
     Buffer buffer = MappedBuffer.allocate(file, Math.min(DEFAULT_BUFFER_SIZE, maxSegmentSize), Integer.MAX_VALUE);
     JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(buffer);
-    JournalSegment<E> segment = newSegment(new JournalSegmentFile(file), descriptor);
     log.debug("Loaded memory mapped segment: {} ({})", descriptor.id(), file.getName());
-    return segment;
+    return descriptor;
   }
 
   /**
-   * Loads a segment.
+   * Loads a segment descriptor.
    */
-  private JournalSegment<E> loadMemorySegment(long segmentId) {
-    File file = JournalSegmentFile.createSegmentFile(name, directory, segmentId);
+  private JournalSegmentDescriptor loadMemoryDescriptor(File file) {
     Buffer buffer = HeapBuffer.allocate(Math.min(DEFAULT_BUFFER_SIZE, maxSegmentSize), Integer.MAX_VALUE);
     JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(buffer);
-    JournalSegment<E> segment = newSegment(new JournalSegmentFile(file), descriptor);
     log.debug("Loaded memory segment: {}", descriptor.id());
-    return segment;
+    return descriptor;
   }
 
   /**
@@ -484,9 +558,10 @@ public class SegmentedJournal<E> implements Journal<E> {
       if (JournalSegmentFile.isSegmentFile(name, file)) {
         JournalSegmentFile segmentFile = new JournalSegmentFile(file);
         JournalSegmentDescriptor descriptor = new JournalSegmentDescriptor(FileBuffer.allocate(file, JournalSegmentDescriptor.BYTES));
+        descriptor.close();
 
-        // Load the segment.
-        JournalSegment<E> segment = loadSegment(descriptor.id());
+        // Load the segment. Sealed segments are only opened once they're read.
+        JournalSegment<E> segment = newSegment(segmentFile, descriptor, () -> loadDescriptor(file));
 
         // If a segment with an equal or lower index has already been loaded, ensure this segment is not superseded
         // by the earlier segment. This can occur due to segments being combined during log compaction.
@@ -534,8 +609,6 @@ public class SegmentedJournal<E> implements Journal<E> {
             break;
           }
         }
-
-        descriptor.close();
       }
     }
 
@@ -588,7 +661,22 @@ public class SegmentedJournal<E> implements Journal<E> {
 
   @Override
   public SegmentedJournalReader<E> openReader(long index) {
-    SegmentedJournalReader<E> reader = new SegmentedJournalReader<>(this, index);
+    return openReader(index, false);
+  }
+
+  /**
+   * Opens a new journal reader.
+   * <p>
+   * Entries returned by a serialized reader retain their serialized bytes and are only decoded if
+   * {@link Indexed#entry()} is called. Serialized readers are intended for readers that pass entries on in their
+   * serialized form, e.g. for replication, and bypass the entry cache.
+   *
+   * @param index      The index from which to begin reading entries.
+   * @param serialized Whether the reader should return entries that retain their serialized bytes.
+   * @return The journal reader.
+   */
+  public SegmentedJournalReader<E> openReader(long index, boolean serialized) {
+    SegmentedJournalReader<E> reader = new SegmentedJournalReader<>(this, index, serialized);
     readers.add(reader);
     return reader;
   }
@@ -650,6 +738,9 @@ public class SegmentedJournal<E> implements Journal<E> {
 
   @Override
   public void close() {
+    if (flusher != null) {
+      flusher.close();
+    }
     segments.values().forEach(segment -> {
       log.debug("Closing segment: {}", segment);
       segment.close();
@@ -668,6 +759,8 @@ public class SegmentedJournal<E> implements Journal<E> {
     private static final int DEFAULT_MAX_ENTRIES_PER_SEGMENT = 1024 * 1024;
     private static final double DEFAULT_INDEX_DENSITY = .005;
     private static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final Duration DEFAULT_GROUP_COMMIT_WINDOW = Duration.ofMillis(2);
+    private static final int DEFAULT_GROUP_COMMIT_BYTES = 1024 * 1024;
 
     protected String name = DEFAULT_NAME;
     protected StorageLevel storageLevel = StorageLevel.DISK;
@@ -677,6 +770,9 @@ public class SegmentedJournal<E> implements Journal<E> {
     protected int maxEntriesPerSegment = DEFAULT_MAX_ENTRIES_PER_SEGMENT;
     protected double indexDensity = DEFAULT_INDEX_DENSITY;
     protected int cacheSize = DEFAULT_CACHE_SIZE;
+    protected boolean groupCommit;
+    protected Duration groupCommitWindow = DEFAULT_GROUP_COMMIT_WINDOW;
+    protected int groupCommitBytes = DEFAULT_GROUP_COMMIT_BYTES;
 
     protected Builder() {
     }
@@ -813,6 +909,63 @@ public class SegmentedJournal<E> implements Journal<E> {
       return this;
     }
 
+    /**
+     * Enables group commit for the journal.
+     * <p>
+     * When group commit is enabled, flushes requested via {@link SegmentedJournalWriter#flush(long)} within the
+     * group commit window are batched and performed as a single flush on a background thread.
+     *
+     * @return the journal builder
+     */
+    public Builder<E> withGroupCommit() {
+      return withGroupCommit(true);
+    }
+
+    /**
+     * Sets whether to enable group commit for the journal.
+     *
+     * @param groupCommit whether to enable group commit for the journal
+     * @return the journal builder
+     */
+    public Builder<E> withGroupCommit(boolean groupCommit) {
+      this.groupCommit = groupCommit;
+      return this;
+    }
+
+    /**
+     * Sets the group commit window.
+     * <p>
+     * The group commit window is the maximum amount of time for which a flush request may be delayed in order
+     * to be batched with flush requests for subsequent entries. By default, the window is {@code 2} milliseconds.
+     *
+     * @param groupCommitWindow the group commit window
+     * @return the journal builder
+     * @throws IllegalArgumentException if the window is negative
+     */
+    public Builder<E> withGroupCommitWindow(Duration groupCommitWindow) {
+      checkNotNull(groupCommitWindow, "groupCommitWindow cannot be null");
+      checkArgument(!groupCommitWindow.isNegative(), "groupCommitWindow must be positive");
+      this.groupCommitWindow = groupCommitWindow;
+      return this;
+    }
+
+    /**
+     * Sets the group commit byte budget.
+     * <p>
+     * Once the number of bytes appended since the last flush reaches the byte budget, a pending group commit
+     * is flushed immediately rather than at the end of the group commit window. By default, the budget is
+     * {@code 1024 * 1024}.
+     *
+     * @param groupCommitBytes the group commit byte budget
+     * @return the journal builder
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public Builder<E> withGroupCommitBytes(int groupCommitBytes) {
+      checkArgument(groupCommitBytes > 0, "groupCommitBytes must be positive");
+      this.groupCommitBytes = groupCommitBytes;
+      return this;
+    }
+
     /**
      * Builds the journal.
      *
@@ -820,7 +973,18 @@ public class SegmentedJournal<E> implements Journal<E> {
      */
     @Override
     public SegmentedJournal<E> build() {
-      return new SegmentedJournal<>(name, storageLevel, directory, serializer, maxSegmentSize, maxEntriesPerSegment, indexDensity, cacheSize);
+      return new SegmentedJournal<>(
+          name,
+          storageLevel,
+          directory,
+          serializer,
+          maxSegmentSize,
+          maxEntriesPerSegment,
+          indexDensity,
+          cacheSize,
+          groupCommit,
+          groupCommitWindow,
+          groupCommitBytes);
     }
   }
 }
\ No newline at end of file
@@ -24,12 +24,18 @@ import java.util.NoSuchElementException;
  */
 public class SegmentedJournalReader<E> implements JournalReader<E> {
   private final SegmentedJournal<E> journal;
+  private final boolean serialized;
   private JournalSegment<E> currentSegment;
   private Indexed<E> previousEntry;
   private JournalSegmentReader<E> currentReader;
 
   public SegmentedJournalReader(SegmentedJournal<E> journal, long index) {
+    this(journal, index, false);
+  }
+
+  SegmentedJournalReader(SegmentedJournal<E> journal, long index, boolean serialized) {
     this.journal = journal;
+    this.serialized = serialized;
     initialize(index);
   }
 
@@ -38,7 +44,7 @@ public class SegmentedJournalReader<E> implements JournalReader<E> {
    */
   private void initialize(long index) {
     currentSegment = journal.getSegment(index);
-    currentReader = currentSegment.createReader();
+    currentReader = currentSegment.createReader(serialized);
     long nextIndex = getNextIndex();
     while (index > nextIndex && hasNext()) {
       next();
@@ -85,7 +91,7 @@ public class SegmentedJournalReader<E> implements JournalReader<E> {
   public void reset() {
     currentReader.close();
     currentSegment = journal.getFirstSegment();
-    currentReader = currentSegment.createReader();
+    currentReader = currentSegment.createReader(serialized);
     previousEntry = null;
   }
 
@@ -114,7 +120,7 @@ public class SegmentedJournalReader<E> implements JournalReader<E> {
       if (segment != null) {
         currentReader.close();
         currentSegment = segment;
-        currentReader = currentSegment.createReader();
+        currentReader = currentSegment.createReader(serialized);
       }
     }
 
@@ -138,7 +144,7 @@ public class SegmentedJournalReader<E> implements JournalReader<E> {
       if (nextSegment != null && nextSegment.index() == getNextIndex()) {
         previousEntry = currentReader.getCurrentEntry();
         currentSegment = nextSegment;
-        currentReader = currentSegment.createReader();
+        currentReader = currentSegment.createReader(serialized);
         return currentReader.hasNext();
       }
       return false;
@@ -153,7 +159,7 @@ public class SegmentedJournalReader<E> implements JournalReader<E> {
       if (nextSegment != null && nextSegment.index() == getNextIndex()) {
         previousEntry = currentReader.getCurrentEntry();
         currentSegment = nextSegment;
-        currentReader = currentSegment.createReader();
+        currentReader = currentSegment.createReader(serialized);
         return currentReader.next();
       } else {
         throw new NoSuchElementException();
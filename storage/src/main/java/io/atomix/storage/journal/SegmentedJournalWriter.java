@@ -16,6 +16,7 @@
 package io.atomix.storage.journal;
 
 import java.nio.BufferOverflowException;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Log writer.
@@ -25,7 +26,7 @@ import java.nio.BufferOverflowException;
 public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   private final SegmentedJournal<E> journal;
   private JournalSegment<E> currentSegment;
-  private JournalSegmentWriter<E> currentWriter;
+  private volatile JournalSegmentWriter<E> currentWriter;
 
   public SegmentedJournalWriter(SegmentedJournal<E> journal) {
     this.journal = journal;
@@ -53,22 +54,28 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
    *
    * @param index the index to which to reset the head of the journal
    */
-  public void reset(long index) {
+  public synchronized void reset(long index) {
     currentWriter.close();
     currentSegment = journal.resetSegments(index);
     currentWriter = currentSegment.writer();
     journal.resetHead(index);
+
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      flusher.reset(index - 1);
+    }
   }
 
   @Override
   public <T extends E> Indexed<T> append(T entry) {
+    Indexed<T> indexed;
     try {
       if (currentWriter.isFull()) {
         currentWriter.flush();
         currentSegment = journal.getNextSegment();
         currentWriter = currentSegment.writer();
       }
-      return currentWriter.append(entry);
+      indexed = currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
@@ -76,8 +83,14 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
       currentWriter.flush();
       currentSegment = journal.getNextSegment();
       currentWriter = currentSegment.writer();
-      return currentWriter.append(entry);
+      indexed = currentWriter.append(entry);
+    }
+
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      flusher.append(indexed.size());
     }
+    return indexed;
   }
 
   @Override
@@ -98,10 +111,15 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
       currentWriter = currentSegment.writer();
       currentWriter.append(entry);
     }
+
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      flusher.append(entry.size());
+    }
   }
 
   @Override
-  public void truncate(long index) {
+  public synchronized void truncate(long index) {
     // Delete all segments with first indexes greater than the given index.
     while (index < currentWriter.firstIndex() - 1) {
       currentWriter.close();
@@ -110,20 +128,82 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
       currentWriter = currentSegment.writer();
     }
 
+    // Unseal the current segment since entries may be removed from or appended to it.
+    currentSegment.unseal();
+
     // Truncate the current index.
     currentWriter.truncate(index);
 
     // Reset segment readers.
     journal.resetTail(index + 1);
+
+    // Ensure entries appended after the truncated index are not reported as flushed.
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      flusher.truncate(index);
+    }
   }
 
   @Override
   public void flush() {
     currentWriter.flush();
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      flusher.flushed(currentWriter.getLastIndex());
+    }
+  }
+
+  /**
+   * Flushes entries up to the given index to disk.
+   * <p>
+   * If group commit is enabled for the journal, the flush is deferred until the end of the group commit window
+   * or until the group commit byte budget is exhausted, and a single flush is shared by all entries appended
+   * in the meantime. Otherwise, the journal is flushed synchronously.
+   *
+   * @param index the index up to which to flush entries
+   * @return a future to be completed once entries up to the given index have been flushed to disk
+   */
+  public CompletableFuture<Long> flush(long index) {
+    JournalFlusher<E> flusher = journal.flusher();
+    if (flusher != null) {
+      return flusher.flush(index);
+    }
+    flush();
+    return CompletableFuture.completedFuture(index);
+  }
+
+  /**
+   * Returns the highest index known to have been flushed to disk.
+   * <p>
+   * If group commit is not enabled for the journal, the last index in the journal is returned.
+   *
+   * @return the highest index known to have been flushed to disk
+   */
+  public long getFlushedIndex() {
+    JournalFlusher<E> flusher = journal.flusher();
+    return flusher != null ? Math.min(flusher.flushedIndex(), getLastIndex()) : getLastIndex();
+  }
+
+  /**
+   * Flushes the current segment to disk.
+   * <p>
+   * This method may be called from the group commit flusher thread. Segments are always flushed before the
+   * writer rolls over to a new segment, so flushing the current segment ensures all prior entries are on disk.
+   * The flush is serialized with truncation and resets of the journal, so the index recorded as flushed never
+   * exceeds the last index in the journal at the time of the flush.
+   *
+   * @param index the index up to which entries were requested to be flushed
+   * @return the index up to which entries were flushed
+   */
+  synchronized long flushSegment(long index) {
+    long flushedIndex = Math.min(index, currentWriter.getLastIndex());
+    currentWriter.flush();
+    journal.flusher().flushed(flushedIndex);
+    return flushedIndex;
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     currentWriter.close();
   }
 }
\ No newline at end of file
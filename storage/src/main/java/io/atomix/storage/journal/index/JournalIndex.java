@@ -15,6 +15,8 @@
  */
 package io.atomix.storage.journal.index;
 
+import java.util.List;
+
 /**
  * Journal index.
  */
@@ -36,6 +38,34 @@ public interface JournalIndex {
    */
   Position lookup(long index);
 
+  /**
+   * Looks up the greatest indexed index less than or equal to the given index.
+   * <p>
+   * Unlike {@link #lookup(long)}, this method does not allocate. Use {@link #lookupPosition(long)} to look up the
+   * position of the returned index.
+   *
+   * @param index the index to lookup
+   * @return the given index or a lesser indexed index, or {@code 0} if no such index exists
+   */
+  long lookupIndex(long index);
+
+  /**
+   * Looks up the position of the greatest indexed index less than or equal to the given index.
+   * <p>
+   * Unlike {@link #lookup(long)}, this method does not allocate.
+   *
+   * @param index the index to lookup
+   * @return the position of the given index or a lesser index, or {@code -1} if no such index exists
+   */
+  int lookupPosition(long index);
+
+  /**
+   * Returns all positions stored in the index in index order.
+   *
+   * @return the positions stored in the index
+   */
+  List<Position> positions();
+
   /**
    * Truncates the index to the given index.
    *
@@ -15,16 +15,23 @@
  */
 package io.atomix.storage.journal.index;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Sparse index.
+ * <p>
+ * Because entries are indexed in increasing order, index points are stored in a pair of growable primitive arrays
+ * which are searched with a binary search, avoiding allocations when indexing and looking up entries.
  */
 public class SparseJournalIndex implements JournalIndex {
   private static final int MIN_DENSITY = 1000;
+  private static final int INITIAL_CAPACITY = 16;
   private final int density;
-  private final TreeMap<Long, Integer> positions = new TreeMap<>();
+  private long[] indexes = new long[INITIAL_CAPACITY];
+  private int[] positions = new int[INITIAL_CAPACITY];
+  private int size;
 
   public SparseJournalIndex(double density) {
     this.density = (int) Math.ceil(MIN_DENSITY / (density * MIN_DENSITY));
@@ -33,18 +40,80 @@ public class SparseJournalIndex implements JournalIndex {
   @Override
   public void index(long index, int position) {
     if (index % density == 0) {
-      positions.put(index, position);
+      // Indexes are typically appended in order. If the index is not greater than the last index, it's being
+      // re-indexed after a truncation, so overwrite or insert it.
+      if (size == 0 || index > indexes[size - 1]) {
+        ensureCapacity(size + 1);
+        indexes[size] = index;
+        positions[size] = position;
+        size++;
+      } else {
+        int slot = Arrays.binarySearch(indexes, 0, size, index);
+        if (slot >= 0) {
+          positions[slot] = position;
+        } else {
+          slot = -(slot + 1);
+          ensureCapacity(size + 1);
+          System.arraycopy(indexes, slot, indexes, slot + 1, size - slot);
+          System.arraycopy(positions, slot, positions, slot + 1, size - slot);
+          indexes[slot] = index;
+          positions[slot] = position;
+          size++;
+        }
+      }
     }
   }
 
+  /**
+   * Ensures the index arrays can hold the given number of positions.
+   */
+  private void ensureCapacity(int capacity) {
+    if (capacity > indexes.length) {
+      int newCapacity = Math.max(capacity, indexes.length * 2);
+      indexes = Arrays.copyOf(indexes, newCapacity);
+      positions = Arrays.copyOf(positions, newCapacity);
+    }
+  }
+
+  /**
+   * Returns the slot of the greatest indexed index less than or equal to the given index.
+   *
+   * @return the slot of the greatest indexed index less than or equal to the given index or {@code -1}
+   */
+  private int floorSlot(long index) {
+    int slot = Arrays.binarySearch(indexes, 0, size, index);
+    return slot >= 0 ? slot : -(slot + 1) - 1;
+  }
+
   @Override
   public Position lookup(long index) {
-    Map.Entry<Long, Integer> entry = positions.floorEntry(index);
-    return entry != null ? new Position(entry.getKey(), entry.getValue()) : null;
+    int slot = floorSlot(index);
+    return slot >= 0 ? new Position(indexes[slot], positions[slot]) : null;
+  }
+
+  @Override
+  public long lookupIndex(long index) {
+    int slot = floorSlot(index);
+    return slot >= 0 ? indexes[slot] : 0;
+  }
+
+  @Override
+  public int lookupPosition(long index) {
+    int slot = floorSlot(index);
+    return slot >= 0 ? positions[slot] : -1;
+  }
+
+  @Override
+  public List<Position> positions() {
+    List<Position> positions = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      positions.add(new Position(indexes[i], this.positions[i]));
+    }
+    return positions;
   }
 
   @Override
   public void truncate(long index) {
-    positions.tailMap(index, false).clear();
+    size = floorSlot(index) + 1;
   }
 }
@@ -29,9 +29,16 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -178,6 +185,153 @@ public class JournalTest {
     assertFalse(reader.hasNext());
   }
 
+  @Test
+  public void testSealedSegments() throws Exception {
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withMaxEntriesPerSegment(10)
+        .withIndexDensity(.2)
+        .build();
+    for (int i = 0; i < 25; i++) {
+      journal.writer().append(new TestEntry(32));
+    }
+
+    // Segments are sealed when the journal rolls over to the next segment.
+    JournalSegment<TestEntry> segment1 = journal.getSegment(1);
+    JournalSegment<TestEntry> segment3 = journal.getLastSegment();
+    assertTrue(segment1.file().indexFile().exists());
+    assertFalse(segment3.file().indexFile().exists());
+    journal.close();
+
+    // Sealed segments are opened from their index, and only once they're read.
+    journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withMaxEntriesPerSegment(10)
+        .withIndexDensity(.2)
+        .build();
+    assertEquals(25, journal.writer().getLastIndex());
+    assertEquals(10, journal.getSegment(1).lastIndex());
+    assertFalse(journal.getSegment(1).isLoaded());
+    assertFalse(journal.getSegment(11).isLoaded());
+    assertTrue(journal.getSegment(21).isLoaded());
+    assertNotNull(journal.getSegment(1).writer().getLastEntry().entry());
+    assertTrue(journal.getSegment(1).isLoaded());
+    assertFalse(journal.getSegment(11).isLoaded());
+
+    JournalReader<TestEntry> reader = journal.openReader(1);
+    reader.reset(15);
+    assertEquals(15, reader.next().index());
+    reader.reset(1);
+    for (int i = 1; i <= 25; i++) {
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    // Truncating a sealed segment unseals it.
+    journal.writer().truncate(5);
+    assertFalse(journal.getSegment(1).file().indexFile().exists());
+    journal.writer().append(new TestEntry(32));
+    assertEquals(6, journal.writer().getLastIndex());
+    journal.close();
+
+    journal = createJournal(StorageLevel.DISK);
+    assertEquals(6, journal.writer().getLastIndex());
+    journal.close();
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withGroupCommit()
+        .withGroupCommitWindow(Duration.ofMillis(10))
+        .build();
+    SegmentedJournalWriter<TestEntry> writer = journal.writer();
+    assertEquals(0, writer.getFlushedIndex());
+
+    writer.append(new TestEntry(32));
+    writer.append(new TestEntry(32));
+    writer.append(new TestEntry(32));
+
+    // Flushes requested within the same window should share a single flush.
+    CompletableFuture<Long> future1 = writer.flush(1);
+    CompletableFuture<Long> future2 = writer.flush(3);
+    assertSame(future1, future2);
+    assertEquals(3, future2.get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(3, writer.getFlushedIndex());
+    assertTrue(writer.flush(2).isDone());
+    journal.close();
+
+    // Entries loaded from disk should be considered flushed.
+    journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withGroupCommit()
+        .build();
+    assertEquals(3, journal.writer().getFlushedIndex());
+    journal.close();
+  }
+
+  @Test
+  public void testAppendSerializedEntries() throws Exception {
+    SegmentedJournal<TestEntry> source = createJournal(StorageLevel.MEMORY);
+    SegmentedJournal<TestEntry> target = SegmentedJournal.<TestEntry>builder()
+        .withName("target")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.MEMORY)
+        .build();
+
+    source.writer().append(new TestEntry(32));
+    source.writer().append(new TestEntry(64));
+
+    // Entries read by the default reader are decoded and don't retain their serialized bytes.
+    Indexed<TestEntry> entry = source.openReader(1).next();
+    assertNotNull(entry.entry());
+    assertNull(entry.bytes());
+
+    // Entries read from the source journal are appended to the target journal using their serialized bytes.
+    JournalReader<TestEntry> sourceReader = source.openReader(1, true);
+    while (sourceReader.hasNext()) {
+      entry = sourceReader.next();
+      assertNotNull(entry.bytes());
+      target.writer().append(new Indexed<>(entry.index(), entry.bytes(), serializer));
+    }
+    assertEquals(2, target.writer().getLastIndex());
+
+    JournalReader<TestEntry> targetReader = target.openReader(1);
+    assertTrue(targetReader.hasNext());
+    entry = targetReader.next();
+    assertEquals(1, entry.index());
+    assertNotNull(entry.entry());
+    assertNull(entry.bytes());
+    entry = targetReader.next();
+    assertEquals(2, entry.index());
+    assertNotNull(entry.entry());
+    assertFalse(targetReader.hasNext());
+    assertArrayEquals(source.openReader(1, true).next().bytes(), target.openReader(1, true).next().bytes());
+
+    // Entries appended after serialized entries are cached again.
+    Indexed<TestEntry> appended = target.writer().append(new TestEntry(32));
+    assertEquals(3, appended.index());
+    assertTrue(targetReader.hasNext());
+    assertSame(appended, targetReader.next());
+
+    source.close();
+    target.close();
+  }
+
   @Before
   @After
   public void cleanupStorage() throws IOException {
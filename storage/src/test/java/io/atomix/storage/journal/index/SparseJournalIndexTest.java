@@ -82,4 +82,30 @@ public class SparseJournalIndexTest {
     assertNull(index.lookup(104));
     assertNull(index.lookup(108));
   }
+
+  @Test
+  public void testLookupWithoutAllocation() throws Exception {
+    JournalIndex index = new SparseJournalIndex(.5);
+    assertEquals(0, index.lookupIndex(1));
+    assertEquals(-1, index.lookupPosition(1));
+
+    // Index enough entries to grow the index arrays.
+    for (int i = 1; i <= 100; i++) {
+      index.index(i, i * 10);
+    }
+    assertEquals(50, index.positions().size());
+    assertEquals(2, index.lookupIndex(3));
+    assertEquals(20, index.lookupPosition(3));
+    assertEquals(100, index.lookupIndex(1000));
+    assertEquals(1000, index.lookupPosition(1000));
+
+    // Re-indexing entries following a truncation overwrites existing positions.
+    index.truncate(51);
+    assertEquals(50, index.lookupIndex(100));
+    index.index(50, 499);
+    index.index(52, 520);
+    assertEquals(499, index.lookupPosition(51));
+    assertEquals(52, index.lookupIndex(100));
+    assertEquals(520, index.lookupPosition(100));
+  }
 }
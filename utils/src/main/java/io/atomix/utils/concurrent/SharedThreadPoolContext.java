@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import com.google.common.collect.Sets;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Thread context that multiplexes tasks onto a thread pool shared with other contexts.
+ * <p>
+ * Tasks are executed in order as with {@link ThreadPoolContext}, but the context can be closed independently of the
+ * shared thread pool: once closed, pending and scheduled tasks are discarded, periodic tasks are cancelled and new
+ * tasks are rejected with a {@link RejectedExecutionException}, as with a {@link SingleThreadContext} that has been
+ * closed.
+ */
+public class SharedThreadPoolContext extends ThreadPoolContext {
+  private final Set<Scheduled> periodicTasks = Sets.newConcurrentHashSet();
+  private volatile boolean closed;
+
+  public SharedThreadPoolContext(ScheduledExecutorService parent) {
+    super(parent);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    checkOpen();
+    super.execute(() -> {
+      if (!closed) {
+        command.run();
+      }
+    });
+  }
+
+  @Override
+  public Scheduled schedule(Duration delay, Runnable runnable) {
+    checkOpen();
+    return super.schedule(delay, () -> {
+      if (!closed) {
+        runnable.run();
+      }
+    });
+  }
+
+  @Override
+  public Scheduled schedule(Duration delay, Duration interval, Runnable runnable) {
+    checkOpen();
+    Scheduled scheduled = super.schedule(delay, interval, () -> {
+      if (!closed) {
+        runnable.run();
+      }
+    });
+    periodicTasks.add(scheduled);
+    if (closed) {
+      scheduled.cancel();
+    }
+    return () -> {
+      scheduled.cancel();
+      periodicTasks.remove(scheduled);
+    };
+  }
+
+  /**
+   * Rejects tasks submitted after the context has been closed.
+   */
+  private void checkOpen() {
+    if (closed) {
+      throw new RejectedExecutionException("Thread context closed");
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    periodicTasks.forEach(Scheduled::cancel);
+    periodicTasks.clear();
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Factory for {@link SharedThreadPoolContext}s backed by a fixed-size thread pool.
+ * <p>
+ * This factory allows many components that would otherwise each create their own threads to share a bounded
+ * number of threads. Contexts created by the factory may be closed individually, while closing the factory shuts
+ * down the shared thread pool.
+ */
+public class SharedThreadPoolContextFactory implements ThreadContextFactory {
+  private final ScheduledExecutorService executor;
+
+  public SharedThreadPoolContextFactory(String name, int threadPoolSize, Logger logger) {
+    this(threadPoolSize, namedThreads(name, logger));
+  }
+
+  public SharedThreadPoolContextFactory(int threadPoolSize, ThreadFactory threadFactory) {
+    this(Executors.newScheduledThreadPool(threadPoolSize, threadFactory));
+  }
+
+  public SharedThreadPoolContextFactory(ScheduledExecutorService executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public ThreadContext createContext() {
+    return new SharedThreadPoolContext(executor);
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
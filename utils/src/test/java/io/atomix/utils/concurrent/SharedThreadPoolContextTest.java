@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Shared thread pool context test.
+ */
+public class SharedThreadPoolContextTest {
+
+  /**
+   * Tests that tasks are executed in order on a context sharing threads with other contexts.
+   */
+  @Test
+  public void testOrderedExecution() throws Throwable {
+    ThreadContextFactory factory = new SharedThreadPoolContextFactory(
+        "test-%d", 4, LoggerFactory.getLogger(getClass()));
+    try {
+      ThreadContext context1 = factory.createContext();
+      ThreadContext context2 = factory.createContext();
+      List<Integer> order1 = new CopyOnWriteArrayList<>();
+      List<Integer> order2 = new CopyOnWriteArrayList<>();
+      CountDownLatch latch = new CountDownLatch(2);
+      for (int i = 0; i < 1000; i++) {
+        int value = i;
+        context1.execute(() -> {
+          context1.checkThread();
+          order1.add(value);
+        });
+        context2.execute(() -> {
+          context2.checkThread();
+          order2.add(value);
+        });
+      }
+      context1.execute(latch::countDown);
+      context2.execute(latch::countDown);
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i, order1.get(i).intValue());
+        assertEquals(i, order2.get(i).intValue());
+      }
+    } finally {
+      factory.close();
+    }
+  }
+
+  /**
+   * Tests that closing a context cancels its tasks without affecting other contexts.
+   */
+  @Test
+  public void testCloseContext() throws Throwable {
+    ThreadContextFactory factory = new SharedThreadPoolContextFactory(
+        "test-%d", 2, LoggerFactory.getLogger(getClass()));
+    try {
+      ThreadContext closedContext = factory.createContext();
+      ThreadContext openContext = factory.createContext();
+      AtomicInteger closedCount = new AtomicInteger();
+      CountDownLatch openLatch = new CountDownLatch(5);
+      CountDownLatch closedLatch = new CountDownLatch(1);
+      closedContext.schedule(Duration.ZERO, Duration.ofMillis(10), () -> {
+        closedCount.incrementAndGet();
+        closedLatch.countDown();
+      });
+      openContext.schedule(Duration.ZERO, Duration.ofMillis(10), openLatch::countDown);
+      assertTrue(closedLatch.await(10, TimeUnit.SECONDS));
+
+      closedContext.close();
+      Thread.sleep(50);
+      int count = closedCount.get();
+      try {
+        closedContext.execute(closedCount::incrementAndGet);
+        fail();
+      } catch (RejectedExecutionException e) {
+      }
+      try {
+        closedContext.schedule(Duration.ZERO, closedCount::incrementAndGet);
+        fail();
+      } catch (RejectedExecutionException e) {
+      }
+
+      // Futures completed through a closed context should fail rather than never completing.
+      CompletableFuture<Void> future = CompletableFuture.completedFuture(null)
+          .thenRunAsync(closedCount::incrementAndGet, closedContext);
+      assertTrue(future.isCompletedExceptionally());
+
+      assertTrue(openLatch.await(10, TimeUnit.SECONDS));
+      Thread.sleep(50);
+      assertEquals(count, closedCount.get());
+    } finally {
+      factory.close();
+    }
+  }
+}